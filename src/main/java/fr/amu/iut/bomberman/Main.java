@@ -2,6 +2,7 @@ package fr.amu.iut.bomberman;
 
 import fr.amu.iut.bomberman.controller.MenuController;
 import fr.amu.iut.bomberman.controller.PlayController;
+import fr.amu.iut.bomberman.model.profile.ProfileStore;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -68,6 +69,14 @@ public class Main extends Application {
         System.out.println("====================");
     }
 
+    /**
+     * Arrêt de l'application : compacte le journal des profils avant de quitter.
+     */
+    @Override
+    public void stop() {
+        ProfileStore.getInstance().close();
+    }
+
     /**
      * Point d'entrée principal du programme.
      * Lance l'application JavaFX.
@@ -1,9 +1,20 @@
 package fr.amu.iut.bomberman.controller;
 
+import fr.amu.iut.bomberman.model.bot.BotDifficulty;
+import fr.amu.iut.bomberman.model.entities.Player;
 import fr.amu.iut.bomberman.model.game.GameSettings;
 import fr.amu.iut.bomberman.view.ViewManager;
 import fr.amu.iut.bomberman.model.game.GameEngine;
+import fr.amu.iut.bomberman.model.game.GameEventBus;
+import fr.amu.iut.bomberman.model.map.ChunkedMap;
 import fr.amu.iut.bomberman.model.map.GameMap;
+import fr.amu.iut.bomberman.model.map.MapFile;
+import fr.amu.iut.bomberman.model.map.MapGenerator;
+import fr.amu.iut.bomberman.model.map.MapPool;
+import fr.amu.iut.bomberman.model.map.MapValidator;
+import fr.amu.iut.bomberman.model.profile.ProfileStore;
+import fr.amu.iut.bomberman.model.telemetry.TelemetrySink;
+import fr.amu.iut.bomberman.view.ChunkedMapView;
 import fr.amu.iut.bomberman.view.MapView;
 import javafx.animation.AnimationTimer;
 import javafx.application.Platform;
@@ -13,14 +24,18 @@ import javafx.scene.input.KeyCode;
 import javafx.scene.layout.AnchorPane;
 import javafx.stage.Stage;
 
+import java.io.IOException;
 import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.ResourceBundle;
 import java.util.Set;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * Contrôleur principal de la vue de jeu Bomberman.
@@ -41,6 +56,11 @@ public class PlayController implements Initializable {
      */
     private GameMap gameMap;
 
+    /**
+     * Réserve de cartes pré-générées pour les redémarrages
+     */
+    private MapPool mapPool;
+
     /**
      * Moteur de jeu
      */
@@ -51,6 +71,21 @@ public class PlayController implements Initializable {
      */
     private MapView mapView;
 
+    /**
+     * Bus d'événements du moteur, null sans télémétrie
+     */
+    private GameEventBus eventBus;
+
+    /**
+     * Télémétrie de la partie en cours, null sans télémétrie ou une fois la partie terminée
+     */
+    private TelemetrySink telemetry;
+
+    /**
+     * Vue des tuiles de l'arène géante, sous mapView (null pour une carte classique)
+     */
+    private ChunkedMapView arenaView;
+
     /**
      * Référence à la fenêtre principale
      */
@@ -87,9 +122,10 @@ public class PlayController implements Initializable {
     private final Set<KeyCode> pressedKeys = ConcurrentHashMap.newKeySet();
 
     /**
-     * Timestamp du dernier mouvement pour limiter la fréquence
+     * Timestamp du dernier mouvement de chaque joueur pour limiter la fréquence
+     * (délai propre à chaque joueur, raccourci par les bonus de vitesse)
      */
-    private final AtomicLong lastMoveTime = new AtomicLong(0);
+    private final AtomicLongArray lastMoveTimes = new AtomicLongArray(GameEngine.MAX_PLAYERS);
 
     /**
      * Indicateur d'état du jeu
@@ -101,6 +137,11 @@ public class PlayController implements Initializable {
      */
     private Map<Integer, GameSettings.PlayerControlSettings> playerControls;
 
+    /**
+     * Nombre de joueurs humains : les suivants sont des bots
+     */
+    private volatile int humanCount;
+
     /**
      * Délai minimum entre les mouvements (100ms)
      */
@@ -119,7 +160,38 @@ public class PlayController implements Initializable {
     /**
      * Fréquence de mise à jour de la logique de jeu
      */
-    private static final int GAME_UPDATE_HZ = 120;
+    private static final int GAME_UPDATE_HZ = GameEngine.TICK_RATE;
+
+    /**
+     * Nombre de cartes pré-générées gardées prêtes pour les redémarrages
+     */
+    private static final int MAP_POOL_CAPACITY = 2;
+
+    /**
+     * Places d'une partie locale sur une carte générée (une par coin de la carte)
+     */
+    private static final int PLAYER_SLOTS = 4;
+
+    /**
+     * Places de la partie : PLAYER_SLOTS, ou les points de départ d'une arène dessinée
+     */
+    private int playerSlots = PLAYER_SLOTS;
+
+    /**
+     * Dossier des fichiers de télémétrie
+     */
+    private static final Path TELEMETRY_DIR = Path.of(System.getProperty("user.home"), ".bomberman", "telemetry");
+
+    /**
+     * Attente maximale de la remise des derniers événements avant de clore une télémétrie
+     */
+    private static final long TELEMETRY_DRAIN_NS = 200_000_000L;
+
+    /**
+     * Fenêtre affichée d'une arène géante, en cases (800x576 pixels)
+     */
+    private static final int ARENA_VIEW_COLUMNS = 25;
+    private static final int ARENA_VIEW_ROWS = 18;
 
     /**
      * Initialise le contrôleur après le chargement du FXML.
@@ -198,16 +270,128 @@ public class PlayController implements Initializable {
     /**
      * Initialise les composants de base du jeu.
      * Crée la carte, le moteur et la vue.
+     * Si une arène géante est demandée, la partie se joue sur une ChunkedMap.
      */
     private void initializeGameComponents() {
-        gameMap = new GameMap(15, 13);
+        MapGenerator generator = gameSettings.createMapGenerator();
+        int arenaSize = gameSettings.getEventArenaSize();
+        if (arenaSize > 0) {
+            initializeArenaComponents(arenaSize, generator);
+            return;
+        }
+        if (generator instanceof MapFile) {
+            // Arène dessinée : terrain fixe partagé, ni réserve ni validation
+            playerSlots = ((MapFile) generator).getSpawnCount();
+            gameMap = new GameMap((MapFile) generator);
+        } else {
+            int mapWidth = gameSettings.getMapWidth();
+            int mapHeight = gameSettings.getMapHeight();
+            mapPool = new MapPool(mapWidth, mapHeight, generator,
+                    new MapValidator(mapWidth, mapHeight), MAP_POOL_CAPACITY);
+            gameMap = new GameMap(mapPool);
+        }
         gameEngine = new GameEngine(gameMap);
-        gameEngine.initializeGame(Math.min(gameSettings.getPlayerCount(), playerControls.size()));
+        gameEngine.setPowerUpsEnabled(gameSettings.isPowerupsEnabled());
+        initializeTelemetry();
+        gameEngine.startGame(configureBots());
         mapView = new MapView(gameEngine);
 
         System.out.println("Composants de jeu initialisés");
     }
 
+    /**
+     * Initialise une partie en arène géante : carte creuse par blocs (une arène dessinée,
+     * de taille fixe, est remplacée par une arène ouverte), tuiles redessinées bloc par bloc
+     * et caméra sur le joueur 1.
+     *
+     * @param arenaSize Côté de l'arène, borné aux dimensions acceptées par ChunkedMap
+     * @param generator Générateur du terrain
+     */
+    private void initializeArenaComponents(int arenaSize, MapGenerator generator) {
+        int size = Math.max(5, Math.min(arenaSize, ChunkedMap.MAX_SIZE));
+        ChunkedMap arena = new ChunkedMap(size, size, ThreadLocalRandom.current().nextLong(),
+                generator instanceof MapFile ? null : generator);
+        gameEngine = new GameEngine(arena);
+        gameEngine.setPowerUpsEnabled(gameSettings.isPowerupsEnabled());
+        initializeTelemetry();
+        gameEngine.startGame(configureBots());
+        arenaView = new ChunkedMapView(arena, ARENA_VIEW_COLUMNS, ARENA_VIEW_ROWS);
+        mapView = new MapView(gameEngine, arenaView);
+
+        System.out.println("Arène géante " + size + "x" + size + " initialisée");
+    }
+
+    /**
+     * Branche la télémétrie si elle est activée dans les paramètres : le moteur publie ses
+     * événements sur un GameEventBus, auquel une TelemetrySink s'abonne pour chaque partie.
+     */
+    private void initializeTelemetry() {
+        if (!gameSettings.isTelemetryEnabled()) return;
+        eventBus = new GameEventBus(gameEngine::getPlayer);
+        gameEngine.setEventListener(eventBus);
+        startTelemetry();
+    }
+
+    /**
+     * Ouvre le fichier de télémétrie d'une nouvelle partie.
+     */
+    private synchronized void startTelemetry() {
+        try {
+            Files.createDirectories(TELEMETRY_DIR);
+            Path file = TELEMETRY_DIR.resolve("partie-" + System.currentTimeMillis() + ".bmt");
+            telemetry = new TelemetrySink(file, eventBus);
+            System.out.println("📈 Télémétrie de la partie: " + file);
+        } catch (IOException e) {
+            System.err.println("Télémétrie impossible: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Termine la télémétrie de la partie : laisse le bus remettre ses derniers lots
+     * (fin de partie comprise), puis fait écrire le fichier en arrière-plan.
+     */
+    private synchronized void finishTelemetry() {
+        TelemetrySink sink = telemetry;
+        if (sink == null) return;
+        telemetry = null;
+
+        long deadline = System.nanoTime() + TELEMETRY_DRAIN_NS;
+        while (eventBus.getPendingBatches() > 0 && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(1_000_000L);
+        }
+        sink.finish().whenComplete((ignored, error) -> {
+            if (error != null) {
+                System.err.println("Erreur de télémétrie: " + error.getMessage());
+            } else {
+                System.out.println("📈 Télémétrie écrite (" + sink.getRecordedEvents() + " événements)");
+            }
+        });
+    }
+
+    /**
+     * Répartit les places de la partie : les joueurs humains (réglage et contrôles disponibles)
+     * puis, sur une GameMap, le nombre de bots demandé dans les paramètres (aucun par défaut),
+     * sans dépasser les points de départ de la carte. Les bots précédents sont retirés.
+     *
+     * @return Nombre de joueurs de la partie
+     */
+    private int configureBots() {
+        humanCount = Math.min(Math.min(gameSettings.getPlayerCount(), playerControls.size()), playerSlots);
+        gameEngine.clearBots();
+        if (gameEngine.getGameMap() == null) {
+            return humanCount; // Arène géante : les bots ne jouent que sur une GameMap
+        }
+        int playerCount = Math.min(humanCount + gameSettings.getBotCount(), playerSlots);
+        BotDifficulty difficulty = BotDifficulty.current();
+        for (int playerId = humanCount; playerId < playerCount; playerId++) {
+            gameEngine.addBot(difficulty.createBot(playerId, ThreadLocalRandom.current().nextLong()));
+        }
+        if (playerCount > humanCount) {
+            System.out.println("🤖 " + (playerCount - humanCount) + " bot(s) " + difficulty.getLabel());
+        }
+        return playerCount;
+    }
+
     /**
      * Configure la zone de jeu et centre l'affichage.
      * Met en place la gestion des entrées utilisateur.
@@ -225,6 +409,11 @@ public class PlayController implements Initializable {
             mapView.setLayoutX(Math.max(0, centerX));
             mapView.setLayoutY(Math.max(0, centerY));
 
+            if (arenaView != null) {
+                arenaView.setLayoutX(mapView.getLayoutX());
+                arenaView.setLayoutY(mapView.getLayoutY());
+                gameArea.getChildren().add(arenaView);
+            }
             gameArea.getChildren().add(mapView);
 
             setupInputHandling();
@@ -345,14 +534,10 @@ public class PlayController implements Initializable {
         gameScheduler.scheduleAtFixedRate(() -> {
             if (!gameRunning.get()) return;
 
-            long now = System.nanoTime();
-            if (now - lastMoveTime.get() >= MOVE_DELAY_NS) {
-                try {
-                    processPlayerMovements();
-                    lastMoveTime.set(now);
-                } catch (Exception e) {
-                    System.err.println("Erreur de mouvement: " + e.getMessage());
-                }
+            try {
+                processPlayerMovements(System.nanoTime());
+            } catch (Exception e) {
+                System.err.println("Erreur de mouvement: " + e.getMessage());
             }
         }, 0, 5, TimeUnit.MILLISECONDS);
     }
@@ -360,13 +545,29 @@ public class PlayController implements Initializable {
     /**
      * Traite les mouvements de tous les joueurs avec leurs contrôles personnalisés.
      * Utilise les paramètres sauvegardés pour déterminer les touches de chaque joueur.
-     */
-    private void processPlayerMovements() {
-        Set<KeyCode> currentKeys = new HashSet<>(pressedKeys);
+     * Seuls les joueurs dont le délai de déplacement est écoulé sont traités.
+     *
+     * @param now Horodatage courant (System.nanoTime)
+     */
+    private void processPlayerMovements(long now) {
+        int playerCount = Math.min(humanCount, GameEngine.MAX_PLAYERS);
+        int due = 0;
+        for (int playerId = 0; playerId < playerCount; playerId++) {
+            Player player = gameEngine.getPlayer(playerId);
+            if (player == null) continue;
+            if (now - lastMoveTimes.get(playerId) >= player.scaleMoveDelay(MOVE_DELAY_NS)) {
+                lastMoveTimes.set(playerId, now);
+                due |= 1 << playerId;
+            }
+        }
+        if (due == 0) return;
 
+        Set<KeyCode> currentKeys = new HashSet<>(pressedKeys);
+        int duePlayers = due;
         CompletableFuture.runAsync(() -> {
             // Traiter chaque joueur avec ses contrôles personnalisés
-            for (int playerId = 0; playerId < Math.min(playerControls.size(), gameEngine.getPlayers().size()); playerId++) {
+            for (int playerId = 0; playerId < playerCount; playerId++) {
+                if ((duePlayers & (1 << playerId)) == 0) continue;
                 GameSettings.PlayerControlSettings controls = playerControls.get(playerId);
                 if (controls == null) continue;
 
@@ -400,7 +601,7 @@ public class PlayController implements Initializable {
      */
     private void handleInstantAction(KeyCode keyCode) {
         // Vérifier quelle touche de bombe correspond à quel joueur
-        for (int playerId = 0; playerId < Math.min(playerControls.size(), gameEngine.getPlayers().size()); playerId++) {
+        for (int playerId = 0; playerId < humanCount; playerId++) {
             GameSettings.PlayerControlSettings controls = playerControls.get(playerId);
             if (controls != null && controls.bomb == keyCode) {
                 boolean bombPlaced = gameEngine.placeBomb(playerId);
@@ -424,9 +625,17 @@ public class PlayController implements Initializable {
 
     /**
      * Gère la fin de partie de manière asynchrone.
-     * Affiche les résultats et retourne au menu après un délai.
+     * Clôt la télémétrie éventuelle de la partie.
+     * Enregistre le résultat du joueur 1 dans son profil (en file, sans attendre le disque),
+     * affiche les résultats et retourne au menu après un délai.
      */
     private void handleGameOver() {
+        finishTelemetry();
+        Player winner = gameEngine.getGameState().getWinner();
+        long durationMillis = gameEngine.getCurrentTick() * 1000 / GameEngine.TICK_RATE;
+        ProfileStore.getInstance().recordMatch(gameSettings.getProfileName(),
+                winner != null && winner.getId() == 0, durationMillis);
+
         Platform.runLater(() -> {
             System.out.println("🏁 Fin de partie détectée!");
 
@@ -447,8 +656,15 @@ public class PlayController implements Initializable {
             // Recharger les contrôles personnalisés
             loadPlayerControls();
 
+            // Une télémétrie par partie
+            if (eventBus != null) {
+                finishTelemetry();
+                startTelemetry();
+            }
+
             // Redémarrer le jeu
-            gameEngine.initializeGame(Math.min(gameSettings.getPlayerCount(), playerControls.size()));
+            gameEngine.setPowerUpsEnabled(gameSettings.isPowerupsEnabled());
+            gameEngine.initializeGame(configureBots());
         }, gameThreadPool);
     }
 
@@ -497,6 +713,15 @@ public class PlayController implements Initializable {
 
         shutdownThreadPools();
 
+        if (eventBus != null) {
+            finishTelemetry();
+            eventBus.close();
+        }
+
+        if (mapPool != null) {
+            mapPool.close();
+        }
+
         System.out.println("Ressources nettoyées");
     }
 
@@ -1,6 +1,10 @@
 package fr.amu.iut.bomberman.controller;
 
+import fr.amu.iut.bomberman.model.game.GameSettings;
+import fr.amu.iut.bomberman.model.profile.PlayerProfile;
+import fr.amu.iut.bomberman.model.profile.ProfileStore;
 import fr.amu.iut.bomberman.view.ViewManager;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.scene.control.Label;
@@ -40,6 +44,12 @@ public class ProfileController implements Initializable {
     /** Référence à la fenêtre principale pour la navigation */
     private Stage primaryStage;
 
+    /** Nom du profil affiché, tel qu'enregistré */
+    private String profileName;
+
+    /** Avatar choisi et pas encore enregistré, null si inchangé */
+    private String pendingAvatarPath;
+
     /**
      * Initialise le contrôleur et charge les données du profil.
      * Configure l'interface utilisateur avec les informations existantes.
@@ -49,11 +59,11 @@ public class ProfileController implements Initializable {
      */
     @Override
     public void initialize(URL location, ResourceBundle resources) {
+        // Charger l'avatar par défaut, remplacé par celui du profil une fois chargé
+        avatarImage.setImage(new Image(Objects.requireNonNull(getClass().getResourceAsStream("/assets/default_avatar.jpg"))));
+
         // Charger les données du profil
         loadProfileData();
-
-        // Charger l'avatar par défaut
-        avatarImage.setImage(new Image(Objects.requireNonNull(getClass().getResourceAsStream("/assets/default_avatar.jpg"))));
     }
 
     /**
@@ -66,20 +76,44 @@ public class ProfileController implements Initializable {
     }
 
     /**
-     * Charge les données du profil depuis le modèle de données.
-     * Met à jour l'interface avec les statistiques actuelles.
+     * Charge les données du profil depuis le ProfileStore, hors du thread JavaFX.
+     * Les statistiques s'affichent dès que le profil est chargé.
      */
     private void loadProfileData() {
-        // Exemple de chargement de données - à adapter avec votre modèle
-        usernameField.setText("Joueur1");
-        gamesPlayedLabel.setText("42");
-        winsLabel.setText("23");
-        playTimeLabel.setText("12h 34m");
+        profileName = GameSettings.getInstance().getProfileName();
+        usernameField.setText(profileName);
+        gamesPlayedLabel.setText("…");
+        winsLabel.setText("…");
+        playTimeLabel.setText("…");
+
+        ProfileStore.getInstance().getProfile(profileName)
+                .thenAccept(profile -> Platform.runLater(() -> showProfile(profile)));
 
         // Charger les récompenses
         loadAchievements();
     }
 
+    /**
+     * Affiche les statistiques d'un profil chargé (thread JavaFX).
+     *
+     * @param profile Profil chargé
+     */
+    private void showProfile(PlayerProfile profile) {
+        gamesPlayedLabel.setText(String.valueOf(profile.getGamesPlayed()));
+        winsLabel.setText(String.valueOf(profile.getWins()));
+        playTimeLabel.setText(profile.getFormattedPlayTime());
+
+        if (profile.getAvatarPath() != null && pendingAvatarPath == null) {
+            // Chargement en arrière-plan, affiché seulement s'il réussit
+            Image avatar = new Image(profile.getAvatarPath(), true);
+            avatar.progressProperty().addListener((obs, old, progress) -> {
+                if (progress.doubleValue() >= 1 && !avatar.isError() && pendingAvatarPath == null) {
+                    avatarImage.setImage(avatar);
+                }
+            });
+        }
+    }
+
     /**
      * Charge et affiche les récompenses obtenues par le joueur.
      * Parcourt la liste des achievements et les affiche.
@@ -105,19 +139,31 @@ public class ProfileController implements Initializable {
 
         File selectedFile = fileChooser.showOpenDialog(primaryStage);
         if (selectedFile != null) {
-            avatarImage.setImage(new Image(selectedFile.toURI().toString()));
+            pendingAvatarPath = selectedFile.toURI().toString();
+            avatarImage.setImage(new Image(pendingAvatarPath));
         }
     }
 
     /**
      * Gestionnaire d'événement pour le bouton "Enregistrer".
-     * Sauvegarde les modifications du profil et retourne au menu.
+     * Sauvegarde les modifications du profil en arrière-plan et retourne au menu.
      */
     @FXML
     private void handleSave() {
-        // Sauvegarder les modifications
-        String username = usernameField.getText();
-        System.out.println("Profil sauvegardé pour: " + username);
+        // Sauvegarder les modifications (écritures en file sur le thread du store)
+        String username = usernameField.getText().trim();
+        ProfileStore store = ProfileStore.getInstance();
+        if (!username.isEmpty() && !username.equals(profileName)) {
+            store.rename(profileName, username);
+            GameSettings settings = GameSettings.getInstance();
+            settings.setProfileName(username);
+            settings.saveSettings();
+            profileName = username;
+        }
+        if (pendingAvatarPath != null) {
+            store.setAvatar(profileName, pendingAvatarPath);
+        }
+        System.out.println("Profil sauvegardé pour: " + profileName);
 
         // Retour au menu
         ViewManager.getInstance(primaryStage).showMenuView();
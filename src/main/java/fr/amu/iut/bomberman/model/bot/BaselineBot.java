@@ -0,0 +1,313 @@
+package fr.amu.iut.bomberman.model.bot;
+
+import fr.amu.iut.bomberman.model.entities.Bomb;
+import fr.amu.iut.bomberman.model.entities.Player;
+import fr.amu.iut.bomberman.model.game.GameEngine;
+import fr.amu.iut.bomberman.model.map.GameMap;
+import fr.amu.iut.bomberman.model.map.Tile;
+
+import java.util.SplittableRandom;
+
+/**
+ * Bot de référence : fuit les souffles annoncés par la carte des dangers, pose une bombe
+ * près d'un mur destructible ou d'un adversaire aligné quand une retraite existe, et se
+ * dirige sinon vers la cible la plus proche.
+ * Chaque décision est un parcours en largeur borné sur des buffers primitifs réutilisés
+ * (marquage par numéro de parcours, aucune allocation) ; entre deux décisions le bot
+ * attend la fin de son déplacement, ce qui garde le coût par tick à quelques µs.
+ */
+public class BaselineBot implements BotController {
+
+    /** Ticks par case parcourue par défaut (6 cases par seconde) */
+    public static final int DEFAULT_MOVE_INTERVAL = GameEngine.TICK_RATE / 6;
+
+    /** Ticks entre deux réflexions quand le bot n'a rien fait */
+    private static final int THINK_INTERVAL = 4;
+
+    /** Profondeur maximale des parcours, en cases */
+    private static final int MAX_DEPTH = 24;
+
+    /** Marge de sécurité sur les délais de souffle, en ticks */
+    private static final int SAFETY_MARGIN = 6;
+
+    /** Déplacements vers les quatre voisins */
+    private static final int[] DX = {1, -1, 0, 0};
+    private static final int[] DY = {0, 0, 1, -1};
+
+    /** Identifiant du joueur piloté */
+    private final int playerId;
+
+    /** Ticks nécessaires pour parcourir une case */
+    private final int moveInterval;
+
+    /** Tirages pour départager les directions, déterminés par la graine */
+    private long seed;
+    private SplittableRandom random;
+
+    /** Ticks avant la prochaine décision */
+    private int cooldown;
+
+    /** Buffers du parcours : file, numéro de parcours, distance et premier pas par case */
+    private int[] queue = new int[0];
+    private int[] visited = new int[0];
+    private int[] distance = new int[0];
+    private int[] firstStep = new int[0];
+
+    /** Numéro du parcours courant (les cases marquées d'un autre numéro sont non visitées) */
+    private int stamp;
+
+    /** Nombre de cases atteintes par le dernier parcours, dans l'ordre de la file */
+    private int reached;
+
+    /**
+     * Constructeur d'un bot à vitesse par défaut.
+     *
+     * @param playerId Identifiant du joueur piloté
+     * @param seed Graine des tirages
+     */
+    public BaselineBot(int playerId, long seed) {
+        this(playerId, seed, DEFAULT_MOVE_INTERVAL);
+    }
+
+    /**
+     * Constructeur d'un bot.
+     *
+     * @param playerId Identifiant du joueur piloté
+     * @param seed Graine des tirages
+     * @param moveInterval Ticks entre deux déplacements
+     */
+    public BaselineBot(int playerId, long seed, int moveInterval) {
+        this.playerId = playerId;
+        this.seed = seed;
+        this.moveInterval = Math.max(1, moveInterval);
+        reset();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getPlayerId() {
+        return playerId;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Les bots d'une même partie réfléchissent à des ticks décalés.
+     */
+    @Override
+    public void reset() {
+        random = new SplittableRandom(seed ^ playerId);
+        cooldown = 1 + playerId % THINK_INTERVAL;
+    }
+
+    /**
+     * Change la graine des tirages et remet le bot dans son état initial
+     * (adversaires simulés d'une recherche, un tirage différent par simulation).
+     *
+     * @param seed Nouvelle graine
+     */
+    public void reseed(long seed) {
+        this.seed = seed;
+        reset();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void act(GameEngine engine, DangerMap danger) {
+        if (--cooldown > 0) return;
+        cooldown = THINK_INTERVAL;
+
+        Player self = engine.getPlayer(playerId);
+        if (self == null || !self.isAlive()) return;
+
+        GameMap map = engine.getGameMap();
+        int width = map.getWidth();
+        int start = self.getGridY() * width + self.getGridX();
+        explore(map, danger, start);
+
+        int target;
+        if (!danger.isSafe(start)) {
+            // Menacé : rejoindre la case sûre la plus proche
+            target = nearest(map, danger, start, -1, self.getExplosionRange(), false);
+        } else if (self.getBombCount() < self.getMaxBombs() && isBombTarget(map, danger, start, self.getExplosionRange())
+                && nearest(map, danger, start, start, self.getExplosionRange(), false) >= 0) {
+            if (engine.placeBomb(playerId)) {
+                cooldown = 1;
+                return;
+            }
+            target = -1;
+        } else {
+            target = nearest(map, danger, start, -1, self.getExplosionRange(), true);
+        }
+
+        int step = target >= 0 ? firstStep[target] : -1;
+        if (step < 0 && danger.isSafe(start)) step = stepTowardOpponent(engine.getPathfinder(), danger, start, width);
+        if (step < 0) step = randomSafeStep(map, danger, start);
+        if (step >= 0 && engine.movePlayer(playerId, DX[step], DY[step])) {
+            cooldown = moveInterval;
+        }
+    }
+
+    /**
+     * Parcours en largeur borné depuis la case du bot sur les cases traversables,
+     * en écartant celles qu'un souffle atteindrait pendant le passage du bot.
+     *
+     * @param map Carte de la partie
+     * @param danger Carte des dangers
+     * @param start Case du bot
+     */
+    private void explore(GameMap map, DangerMap danger, int start) {
+        int width = map.getWidth();
+        int size = width * map.getHeight();
+        if (visited.length != size) {
+            queue = new int[size];
+            visited = new int[size];
+            distance = new int[size];
+            firstStep = new int[size];
+            stamp = 0;
+        }
+        stamp++;
+
+        visited[start] = stamp;
+        distance[start] = 0;
+        firstStep[start] = -1;
+        queue[0] = start;
+        int head = 0, tail = 1;
+        int rotation = random.nextInt(4);
+
+        while (head < tail) {
+            int cell = queue[head++];
+            int depth = distance[cell] + 1;
+            if (depth > MAX_DEPTH) continue;
+            int x = cell % width, y = cell / width;
+
+            for (int k = 0; k < 4; k++) {
+                int dir = (k + rotation) & 3;
+                int nx = x + DX[dir], ny = y + DY[dir];
+                if (!map.isWalkable(nx, ny)) continue;
+                int next = ny * width + nx;
+                if (visited[next] == stamp || danger.hasBomb(next) || !canPass(danger, next, depth)) continue;
+
+                visited[next] = stamp;
+                distance[next] = depth;
+                firstStep[next] = cell == start ? dir : firstStep[cell];
+                queue[tail++] = next;
+            }
+        }
+        reached = tail;
+    }
+
+    /**
+     * Indique si le bot peut occuper une case du pas d'arrivée au pas suivant sans être touché.
+     */
+    private boolean canPass(DangerMap danger, int cell, int depth) {
+        int blast = danger.getTicksUntilBlast(cell);
+        if (blast == DangerMap.SAFE) return true;
+        int arrival = depth * moveInterval;
+        return blast > arrival + moveInterval + SAFETY_MARGIN || blast + DangerMap.BLAST_TICKS + SAFETY_MARGIN < arrival;
+    }
+
+    /**
+     * Cherche, dans l'ordre du dernier parcours, la case sûre la plus proche.
+     *
+     * @param map Carte de la partie
+     * @param danger Carte des dangers
+     * @param start Case du bot
+     * @param bombCell Case d'une bombe envisagée dont il faut sortir du souffle à temps, -1 sinon
+     * @param range Portée des bombes du bot
+     * @param goal true pour ne retenir que les cases où poser une bombe (voir isBombTarget)
+     * @return Index de la case, -1 si aucune
+     */
+    private int nearest(GameMap map, DangerMap danger, int start, int bombCell, int range, boolean goal) {
+        int width = danger.getWidth();
+        int fuse = (int) (Bomb.DEFAULT_EXPLOSION_DELAY * GameEngine.TICK_RATE / 1000);
+        for (int i = 0; i < reached; i++) {
+            int cell = queue[i];
+            if (cell == start || !danger.isSafe(cell)) continue;
+            if (bombCell >= 0) {
+                if (inCross(cell, bombCell, range, width)) continue;
+                if ((distance[cell] + 1) * moveInterval + SAFETY_MARGIN >= fuse) return -1;
+                return cell;
+            }
+            if (!goal || isBombTarget(map, danger, cell, range)) return cell;
+        }
+        return -1;
+    }
+
+    /**
+     * Indique si une case est sur la croix d'une bombe (murs ignorés, donc prudent).
+     */
+    private static boolean inCross(int cell, int bombCell, int range, int width) {
+        int dx = cell % width - bombCell % width;
+        int dy = cell / width - bombCell / width;
+        return (dy == 0 && Math.abs(dx) <= range) || (dx == 0 && Math.abs(dy) <= range);
+    }
+
+    /**
+     * Indique si poser une bombe sur une case toucherait un mur destructible
+     * voisin ou un adversaire aligné à portée.
+     */
+    private boolean isBombTarget(GameMap map, DangerMap danger, int cell, int range) {
+        int width = map.getWidth();
+        int x = cell % width, y = cell / width;
+        for (int dir = 0; dir < 4; dir++) {
+            if (map.getTileType(x + DX[dir], y + DY[dir]) == Tile.TileType.DESTRUCTIBLE_WALL) return true;
+        }
+        for (int id = 0; id < danger.getPlayerSlots(); id++) {
+            int other = danger.getPlayerCell(id);
+            if (id != playerId && other >= 0 && inCross(other, cell, range, width)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Rapproche le bot de l'adversaire le plus proche (à vol d'oiseau) quand aucune cible
+     * n'est à portée du parcours borné, en suivant le champ de distance de la recherche
+     * de chemins partagée.
+     *
+     * @return Direction vers une case voisine sûre, -1 si aucune
+     */
+    private int stepTowardOpponent(Pathfinder pathfinder, DangerMap danger, int start, int width) {
+        int target = -1, best = Integer.MAX_VALUE;
+        for (int id = 0; id < danger.getPlayerSlots(); id++) {
+            int other = danger.getPlayerCell(id);
+            if (id == playerId || other < 0) continue;
+            int manhattan = Math.abs(other % width - start % width) + Math.abs(other / width - start / width);
+            if (manhattan < best) {
+                best = manhattan;
+                target = other;
+            }
+        }
+        if (target < 0) return -1;
+
+        int next = pathfinder.nextStep(start, target);
+        if (next < 0 || !danger.isSafe(next)) return -1;
+        int dx = next % width - start % width;
+        int dy = next / width - start / width;
+        for (int dir = 0; dir < 4; dir++) {
+            if (DX[dir] == dx && DY[dir] == dy) return dir;
+        }
+        return -1;
+    }
+
+    /**
+     * Choisit un pas au hasard vers une case voisine sûre et libre.
+     *
+     * @return Direction, -1 si aucune
+     */
+    private int randomSafeStep(GameMap map, DangerMap danger, int start) {
+        int width = map.getWidth();
+        int x = start % width, y = start / width;
+        int rotation = random.nextInt(4);
+        for (int k = 0; k < 4; k++) {
+            int dir = (k + rotation) & 3;
+            int nx = x + DX[dir], ny = y + DY[dir];
+            int next = ny * width + nx;
+            if (map.isWalkable(nx, ny) && !danger.hasBomb(next) && danger.isSafe(next)) return dir;
+        }
+        return -1;
+    }
+}
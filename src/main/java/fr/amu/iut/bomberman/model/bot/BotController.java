@@ -0,0 +1,34 @@
+package fr.amu.iut.bomberman.model.bot;
+
+import fr.amu.iut.bomberman.model.game.GameEngine;
+
+/**
+ * Contrôleur d'un joueur piloté par l'ordinateur.
+ * Le moteur appelle act à la fin de chaque tick, après avoir mis à jour la carte des
+ * dangers partagée par tous les bots. Un bot agit uniquement via movePlayer et placeBomb,
+ * comme un joueur humain : ses entrées sont enregistrées dans les replays.
+ */
+public interface BotController {
+
+    /**
+     * Retourne l'identifiant du joueur piloté.
+     *
+     * @return Identifiant du joueur
+     */
+    int getPlayerId();
+
+    /**
+     * Décide et applique l'action du bot pour ce tick.
+     * Appelée depuis GameEngine.update, le moteur est donc déjà verrouillé.
+     *
+     * @param engine Moteur de la partie
+     * @param danger Carte des dangers du tick, partagée par tous les bots
+     */
+    void act(GameEngine engine, DangerMap danger);
+
+    /**
+     * Remet le bot dans son état initial au début d'une partie.
+     */
+    default void reset() {
+    }
+}
@@ -0,0 +1,70 @@
+package fr.amu.iut.bomberman.model.bot;
+
+import fr.amu.iut.bomberman.model.game.GameSettings;
+
+/**
+ * Niveaux de difficulté des bots, associés au réglage GameSettings.getDifficulty().
+ */
+public enum BotDifficulty {
+
+    /** BaselineBot deux fois plus lent */
+    EASY("Facile"),
+
+    /** BaselineBot à vitesse normale */
+    NORMAL("Normal"),
+
+    /** MctsBot, recherche Monte-Carlo sur la réserve de threads partagée */
+    HARD("Difficile");
+
+    /** Libellé du réglage */
+    private final String label;
+
+    BotDifficulty(String label) {
+        this.label = label;
+    }
+
+    /**
+     * Retrouve le niveau d'un libellé de réglage (libellé ou nom, sans tenir compte de la casse).
+     *
+     * @param setting Valeur du réglage
+     * @return Niveau correspondant, NORMAL si le libellé est inconnu
+     */
+    public static BotDifficulty fromSetting(String setting) {
+        for (BotDifficulty difficulty : values()) {
+            if (difficulty.label.equalsIgnoreCase(setting) || difficulty.name().equalsIgnoreCase(setting)) {
+                return difficulty;
+            }
+        }
+        return NORMAL;
+    }
+
+    /**
+     * Retourne le niveau choisi dans les paramètres du jeu.
+     *
+     * @return Niveau courant
+     */
+    public static BotDifficulty current() {
+        return fromSetting(GameSettings.getInstance().getDifficulty());
+    }
+
+    /**
+     * Crée un bot de ce niveau.
+     *
+     * @param playerId Identifiant du joueur piloté
+     * @param seed Graine des tirages
+     * @return Bot prêt à être ajouté au moteur
+     */
+    public BotController createBot(int playerId, long seed) {
+        switch (this) {
+            case EASY:
+                return new BaselineBot(playerId, seed, 2 * BaselineBot.DEFAULT_MOVE_INTERVAL);
+            case HARD:
+                return new MctsBot(playerId, seed);
+            default:
+                return new BaselineBot(playerId, seed);
+        }
+    }
+
+    /** @return Libellé du réglage */
+    public String getLabel() { return label; }
+}
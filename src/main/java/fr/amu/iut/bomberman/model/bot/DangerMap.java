@@ -0,0 +1,234 @@
+package fr.amu.iut.bomberman.model.bot;
+
+import fr.amu.iut.bomberman.model.entities.Explosion;
+import fr.amu.iut.bomberman.model.entities.Player;
+import fr.amu.iut.bomberman.model.game.EntityStore;
+import fr.amu.iut.bomberman.model.game.GameEngine;
+import fr.amu.iut.bomberman.model.map.GameMap;
+import fr.amu.iut.bomberman.model.map.Tile;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Carte des dangers d'un tick : pour chaque case, le nombre de ticks avant qu'un souffle
+ * ne l'atteigne, déduit du délai et de la portée des bombes posées (0 pour une case
+ * en train de brûler). Elle recense aussi les bombes et la case de chaque joueur.
+ * Calculée une seule fois par tick par le moteur et lue par tous les bots : le coût
+ * dépend du nombre de bombes, pas du nombre de bots. Seules les cases marquées au tick
+ * précédent sont effacées, la mise à jour ne parcourt jamais toute la carte.
+ */
+public class DangerMap {
+
+    /** Valeur d'une case qu'aucun souffle n'atteindra */
+    public static final int SAFE = Integer.MAX_VALUE;
+
+    /** Durée pendant laquelle un souffle blesse, en ticks */
+    public static final int BLAST_TICKS = (int) (Explosion.DAMAGE_DURATION * GameEngine.TICK_RATE / 1000);
+
+    /** Dimensions de la carte */
+    private int width, height;
+
+    /** Ticks avant le prochain souffle de chaque case */
+    private int[] ticks = new int[0];
+
+    /** Présence d'une bombe sur chaque case */
+    private boolean[] bombs = new boolean[0];
+
+    /** Cases marquées (danger ou bombe), à effacer au tick suivant */
+    private int[] marked = new int[0];
+    private int markedCount;
+
+    /** Cases des bombes posées */
+    private int[] bombCells = new int[0];
+    private int bombCount;
+
+    /** Case de chaque joueur par identifiant, -1 s'il est éliminé */
+    private int[] playerCells = new int[0];
+
+    /** Tick de la dernière mise à jour */
+    private long tick = -1;
+
+    /**
+     * Met à jour la carte des dangers pour le tick courant.
+     * Appelée par le moteur avec son stockage d'entités, lu colonne par colonne sans copie.
+     *
+     * @param map Carte de la partie
+     * @param entities Bombes posées et explosions en cours
+     * @param players Joueurs de la partie
+     * @param currentTick Tick courant
+     */
+    public void update(GameMap map, EntityStore entities, List<Player> players, long currentTick) {
+        if (map.getWidth() != width || map.getHeight() != height) {
+            resize(map.getWidth(), map.getHeight());
+        } else {
+            for (int i = 0; i < markedCount; i++) {
+                int cell = marked[i];
+                ticks[cell] = SAFE;
+                bombs[cell] = false;
+            }
+        }
+        markedCount = 0;
+        bombCount = 0;
+        tick = currentTick;
+
+        int explosionCount = entities.getExplosionCount();
+        for (int i = 0; i < explosionCount; i++) {
+            int x = entities.explosionX(i), y = entities.explosionY(i);
+            if (entities.isExplosionActive(i) && entities.isExplosionDamaging(i) && map.isValidPosition(x, y)) {
+                mark(y * width + x, 0);
+            }
+        }
+
+        int bombTotal = entities.getBombCount();
+        for (int i = 0; i < bombTotal; i++) {
+            int x = entities.bombX(i), y = entities.bombY(i);
+            if (!map.isValidPosition(x, y)) continue;
+
+            int remaining = (int) Math.max(0, entities.bombExpiryTick(i) - currentTick);
+
+            int cell = y * width + x;
+            if (!bombs[cell]) {
+                bombs[cell] = true;
+                marked[markedCount++] = cell;
+                bombCells[bombCount++] = cell;
+            }
+            mark(cell, remaining);
+            int range = entities.bombRange(i);
+            markDirection(map, x, y, 1, 0, range, remaining);
+            markDirection(map, x, y, -1, 0, range, remaining);
+            markDirection(map, x, y, 0, 1, range, remaining);
+            markDirection(map, x, y, 0, -1, range, remaining);
+        }
+
+        for (int i = 0; i < players.size(); i++) {
+            Player player = players.get(i);
+            int id = player.getId();
+            if (id >= playerCells.length) playerCells = Arrays.copyOf(playerCells, id + 1);
+            playerCells[id] = player.isAlive() ? player.getGridY() * width + player.getGridX() : -1;
+        }
+        for (int id = players.size(); id < playerCells.length; id++) {
+            playerCells[id] = -1;
+        }
+    }
+
+    /**
+     * Réalloue les tableaux pour une carte de nouvelles dimensions.
+     */
+    private void resize(int width, int height) {
+        this.width = width;
+        this.height = height;
+        int size = width * height;
+        ticks = new int[size];
+        Arrays.fill(ticks, SAFE);
+        bombs = new boolean[size];
+        bombCells = new int[size];
+        // Une case est marquée au plus deux fois par tick (danger puis bombe)
+        marked = new int[2 * size];
+    }
+
+    /**
+     * Suit le souffle d'une bombe dans une direction, selon les règles de
+     * GameEngine.createExplosionInDirection et GameMap.explodeDirection
+     * (arrêt sur les murs ; mur destructible et power-up inclus).
+     */
+    private void markDirection(GameMap map, int x, int y, int dx, int dy, int range, int remaining) {
+        for (int i = 1; i <= range; i++) {
+            int cx = x + dx * i;
+            int cy = y + dy * i;
+            Tile.TileType type = map.getTileType(cx, cy);
+            if (type == null || type == Tile.TileType.WALL) break;
+            mark(cy * width + cx, remaining);
+            if (type == Tile.TileType.DESTRUCTIBLE_WALL || type == Tile.TileType.POWERUP) break;
+        }
+    }
+
+    /**
+     * Retient le souffle le plus proche d'une case.
+     */
+    private void mark(int cell, int remaining) {
+        if (ticks[cell] == SAFE && !bombs[cell]) {
+            marked[markedCount++] = cell;
+        }
+        if (remaining < ticks[cell]) ticks[cell] = remaining;
+    }
+
+    /**
+     * Retourne le nombre de ticks avant qu'un souffle n'atteigne une case.
+     *
+     * @param cell Index de la case (y * largeur + x)
+     * @return Ticks restants, 0 si la case brûle, SAFE si aucun souffle ne l'atteindra
+     */
+    public int getTicksUntilBlast(int cell) {
+        return ticks[cell];
+    }
+
+    /**
+     * Retourne le nombre de ticks avant qu'un souffle n'atteigne une case.
+     *
+     * @param x Coordonnée X
+     * @param y Coordonnée Y
+     * @return Ticks restants, 0 si la case brûle, SAFE si aucun souffle ne l'atteindra
+     */
+    public int getTicksUntilBlast(int x, int y) {
+        return ticks[y * width + x];
+    }
+
+    /**
+     * Indique si une case est hors de portée de tout souffle.
+     *
+     * @param cell Index de la case
+     * @return true si aucun souffle ne l'atteindra
+     */
+    public boolean isSafe(int cell) {
+        return ticks[cell] == SAFE;
+    }
+
+    /**
+     * Indique si une bombe occupe une case.
+     *
+     * @param cell Index de la case
+     * @return true si une bombe y est posée
+     */
+    public boolean hasBomb(int cell) {
+        return bombs[cell];
+    }
+
+    /**
+     * Retourne la case d'une bombe posée.
+     *
+     * @param i Rang de la bombe, entre 0 et getBombCount() - 1
+     * @return Index de la case
+     */
+    public int getBombCell(int i) {
+        return bombCells[i];
+    }
+
+    /** @return Nombre de cases occupées par une bombe */
+    public int getBombCount() { return bombCount; }
+
+    /**
+     * Retourne la case d'un joueur au tick courant.
+     *
+     * @param playerId Identifiant du joueur
+     * @return Index de la case, -1 si le joueur est éliminé ou inconnu
+     */
+    public int getPlayerCell(int playerId) {
+        return playerId < playerCells.length ? playerCells[playerId] : -1;
+    }
+
+    /** @return Nombre d'identifiants de joueurs suivis */
+    public int getPlayerSlots() { return playerCells.length; }
+
+    /** @return Nombre de cases menacées ou occupées par une bombe */
+    public int getMarkedCount() { return markedCount; }
+
+    /** @return Largeur de la carte */
+    public int getWidth() { return width; }
+
+    /** @return Hauteur de la carte */
+    public int getHeight() { return height; }
+
+    /** @return Tick de la dernière mise à jour */
+    public long getTick() { return tick; }
+}
@@ -0,0 +1,515 @@
+package fr.amu.iut.bomberman.model.bot;
+
+import fr.amu.iut.bomberman.model.common.GameLog;
+import fr.amu.iut.bomberman.model.entities.Bomb;
+import fr.amu.iut.bomberman.model.entities.Explosion;
+import fr.amu.iut.bomberman.model.entities.Player;
+import fr.amu.iut.bomberman.model.game.GameEngine;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Bot à recherche arborescente Monte-Carlo (MCTS), parallélisée à la racine.
+ * À chaque décision, l'état du moteur est copié (GameEngine.copyStateFrom), puis chaque
+ * tâche d'un ForkJoinPool construit son propre arbre jusqu'à épuisement du budget de temps.
+ * Une itération restaure la copie dans le moteur de simulation de la tâche, descend l'arbre
+ * par UCB1 et termine la simulation avec la politique de BaselineBot ; les adversaires
+ * simulés jouent BaselineBot avec une graine tirée à chaque itération. Les visites des
+ * actions racine de tous les arbres sont additionnées, l'action la plus visitée est jouée.
+ * <p>
+ * L'arbre est en boucle ouverte (un nœud est une suite d'actions, l'état est rejoué) et
+ * stocké dans des tableaux primitifs réutilisés d'une décision à l'autre. Par défaut la
+ * recherche tourne en arrière-plan : le tick n'est jamais bloqué et la décision est
+ * appliquée au premier tick où elle est prête ; le mode bloquant sert aux parties sans
+ * affichage, où les ticks s'enchaînent sans attendre l'horloge.
+ */
+public class MctsBot implements BotController {
+
+    /** Budget de temps par décision par défaut, en millisecondes */
+    public static final long DEFAULT_TIME_BUDGET_MS = 25;
+
+    /** Actions : quatre déplacements, bombe, attente */
+    private static final int ACTIONS = 6;
+    private static final int BOMB = 4;
+    private static final int WAIT = 5;
+    private static final int[] DX = {1, -1, 0, 0};
+    private static final int[] DY = {0, 0, 1, -1};
+
+    /** Horizon d'une simulation, en ticks : mèche d'une bombe posée à la racine puis son souffle */
+    private static final int HORIZON_TICKS = (int) ((Bomb.DEFAULT_EXPLOSION_DELAY + Explosion.DAMAGE_DURATION)
+            * GameEngine.TICK_RATE / 1000);
+
+    /** Nombre maximal de nœuds d'un arbre */
+    private static final int TREE_CAPACITY = 1 << 15;
+
+    /** Constante d'exploration d'UCB1 */
+    private static final double EXPLORATION = 1.4;
+
+    /** Durée d'un tick de simulation, en secondes */
+    private static final double TICK_SECONDS = 1.0 / GameEngine.TICK_RATE;
+
+    /** Réserve de threads partagée par défaut, créée à la première recherche */
+    private static volatile ForkJoinPool sharedPool;
+
+    /** Identifiant du joueur piloté */
+    private final int playerId;
+
+    /** Ticks entre deux déplacements (même cadence que BaselineBot) */
+    private final int moveInterval;
+
+    /** Budget de temps d'une décision, en nanosecondes */
+    private final long timeBudgetNanos;
+
+    /** Ticks écoulés entre le lancement d'une recherche et l'application de son résultat */
+    private final int latencyTicks;
+
+    /** true pour attendre la fin de la recherche dans act (parties sans affichage) */
+    private final boolean blocking;
+
+    /** Réserve de threads des recherches */
+    private final ForkJoinPool pool;
+
+    /** Graine des tirages */
+    private final long seed;
+    private SplittableRandom random;
+
+    /** Copie de la partie au lancement de la recherche, lue par toutes les tâches */
+    private GameEngine rootCopy;
+
+    /** Une recherche par thread de la réserve */
+    private final Searcher[] searchers;
+
+    /** Tâches de la recherche en cours, null si aucune */
+    private ForkJoinTask<?>[] pending;
+
+    /** Indique que la recherche en cours date d'une partie précédente */
+    private boolean stale;
+
+    /** Ticks avant la prochaine décision */
+    private int cooldown;
+
+    /** Statistiques : décisions prises et itérations simulées */
+    private long decisions, iterations;
+
+    /**
+     * Constructeur d'un bot au budget par défaut, recherche en arrière-plan
+     * sur la réserve de threads partagée.
+     *
+     * @param playerId Identifiant du joueur piloté
+     * @param seed Graine des tirages
+     */
+    public MctsBot(int playerId, long seed) {
+        this(playerId, seed, DEFAULT_TIME_BUDGET_MS, false, sharedPool());
+    }
+
+    /**
+     * Constructeur d'un bot.
+     *
+     * @param playerId Identifiant du joueur piloté
+     * @param seed Graine des tirages
+     * @param timeBudgetMs Budget de temps d'une décision, en millisecondes
+     * @param blocking true pour attendre le résultat dans act (parties sans affichage)
+     * @param pool Réserve de threads des recherches (un arbre par thread)
+     */
+    public MctsBot(int playerId, long seed, long timeBudgetMs, boolean blocking, ForkJoinPool pool) {
+        this.playerId = playerId;
+        this.seed = seed;
+        this.moveInterval = BaselineBot.DEFAULT_MOVE_INTERVAL;
+        this.timeBudgetNanos = Math.max(1, timeBudgetMs) * 1_000_000L;
+        this.blocking = blocking;
+        this.latencyTicks = blocking ? 0 : (int) (Math.max(1, timeBudgetMs) * GameEngine.TICK_RATE / 1000) + 1;
+        this.pool = pool;
+        this.searchers = new Searcher[Math.max(1, pool.getParallelism())];
+        reset();
+    }
+
+    /**
+     * Retourne la réserve de threads partagée par les bots MCTS : un thread par processeur.
+     *
+     * @return Réserve partagée
+     */
+    public static ForkJoinPool sharedPool() {
+        ForkJoinPool pool = sharedPool;
+        if (pool == null) {
+            synchronized (MctsBot.class) {
+                pool = sharedPool;
+                if (pool == null) {
+                    pool = sharedPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+                }
+            }
+        }
+        return pool;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getPlayerId() {
+        return playerId;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Une recherche encore en cours termine son budget, son résultat est ignoré.
+     */
+    @Override
+    public void reset() {
+        random = new SplittableRandom(seed ^ playerId);
+        cooldown = 1 + playerId % 4;
+        stale = pending != null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void act(GameEngine engine, DangerMap danger) {
+        if (pending != null) {
+            for (ForkJoinTask<?> task : pending) {
+                if (!task.isDone()) return;
+            }
+            finishSearch(engine);
+            return;
+        }
+        if (--cooldown > 0) return;
+
+        Player self = engine.getPlayer(playerId);
+        if (self == null || !self.isAlive()) return;
+
+        startSearch(engine);
+        if (blocking) {
+            for (ForkJoinTask<?> task : pending) {
+                task.quietlyJoin();
+            }
+            finishSearch(engine);
+        }
+    }
+
+    /**
+     * Copie la partie et lance une recherche par thread de la réserve.
+     * Appelée sur le thread du moteur, qui ne peut pas évoluer pendant la copie.
+     */
+    private void startSearch(GameEngine engine) {
+        if (rootCopy == null || rootCopy.getGameMap().getWidth() != engine.getGameMap().getWidth()
+                || rootCopy.getGameMap().getHeight() != engine.getGameMap().getHeight()) {
+            rootCopy = new GameEngine(engine);
+        } else {
+            rootCopy.copyStateFrom(engine);
+        }
+
+        int[] opponents = rootCopy.getPlayers().stream()
+                .filter(p -> p.isAlive() && p.getId() != playerId)
+                .mapToInt(Player::getId)
+                .toArray();
+        long deadline = System.nanoTime() + timeBudgetNanos;
+
+        pending = new ForkJoinTask<?>[searchers.length];
+        for (int i = 0; i < searchers.length; i++) {
+            if (searchers[i] == null) searchers[i] = new Searcher();
+            searchers[i].prepare(opponents, deadline, random.nextLong());
+            pending[i] = pool.submit((Callable<Searcher>) searchers[i]);
+        }
+        stale = false;
+    }
+
+    /**
+     * Additionne les visites des actions racine des arbres et joue la plus visitée.
+     */
+    private void finishSearch(GameEngine engine) {
+        ForkJoinTask<?>[] tasks = pending;
+        pending = null;
+
+        long[] visits = new long[ACTIONS];
+        double[] values = new double[ACTIONS];
+        for (int i = 0; i < tasks.length; i++) {
+            try {
+                tasks[i].get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                GameLog.log("⚠️ Recherche MCTS interrompue: " + e.getCause());
+                continue;
+            }
+            searchers[i].addRootStatistics(visits, values);
+            iterations += searchers[i].iterations;
+        }
+        if (stale) return;
+
+        int best = WAIT;
+        for (int a = 0; a < ACTIONS; a++) {
+            if (visits[a] > visits[best] || (visits[a] == visits[best] && visits[a] > 0
+                    && values[a] / visits[a] > values[best] / visits[best])) {
+                best = a;
+            }
+        }
+        decisions++;
+
+        if (best == BOMB) {
+            engine.placeBomb(playerId);
+            cooldown = 1;
+        } else if (best != WAIT && engine.movePlayer(playerId, DX[best], DY[best])) {
+            // La prochaine recherche compte sa propre latence dans la cadence des déplacements
+            cooldown = Math.max(1, moveInterval - latencyTicks);
+        } else {
+            cooldown = 1;
+        }
+    }
+
+    /**
+     * Retourne le nombre moyen d'itérations simulées par décision.
+     *
+     * @return Itérations par décision, 0 avant la première
+     */
+    public long getIterationsPerDecision() {
+        return decisions == 0 ? 0 : iterations / decisions;
+    }
+
+    /**
+     * Recherche d'un thread : un moteur de simulation, des adversaires simulés et un arbre.
+     * Chaque champ n'est lu et écrit que par la tâche en cours, ou par le bot entre deux tâches.
+     */
+    private final class Searcher implements Callable<Searcher> {
+
+        /** Moteur de simulation, restauré à chaque itération */
+        private GameEngine simulation;
+
+        /** Politiques simulées, par identifiant de joueur */
+        private BaselineBot[] policies = new BaselineBot[0];
+
+        /** Indique si la politique du bot joue pour lui (fin de simulation, hors arbre) */
+        private boolean rollout;
+
+        /** Adversaires en vie à la racine */
+        private int[] opponents;
+
+        /** Échéance de la recherche (System.nanoTime) */
+        private long deadline;
+
+        /** Tirages de la recherche */
+        private SplittableRandom random;
+
+        /** Arbre : premier enfant (-1 si non développé), visites et somme des valeurs par nœud */
+        private final int[] firstChild = new int[TREE_CAPACITY];
+        private final int[] visits = new int[TREE_CAPACITY];
+        private final double[] values = new double[TREE_CAPACITY];
+        private int nodeCount;
+
+        /** Nœuds traversés par l'itération courante */
+        private final int[] path = new int[HORIZON_TICKS + 2];
+
+        /** Itérations de la dernière recherche */
+        private long iterations;
+
+        /**
+         * Prépare la recherche suivante (appelée par le bot, aucune tâche en cours).
+         */
+        void prepare(int[] opponents, long deadline, long seed) {
+            this.opponents = opponents;
+            this.deadline = deadline;
+            this.random = new SplittableRandom(seed);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Searcher call() {
+            boolean quiet = GameLog.isQuietThread();
+            GameLog.setQuietThread(true);
+            try {
+                search();
+            } finally {
+                GameLog.setQuietThread(quiet);
+            }
+            return this;
+        }
+
+        /**
+         * Construit l'arbre jusqu'à l'échéance, traces de debug coupées.
+         */
+        private void search() {
+            if (simulation == null || simulation.getGameMap().getWidth() != rootCopy.getGameMap().getWidth()
+                    || simulation.getGameMap().getHeight() != rootCopy.getGameMap().getHeight()) {
+                simulation = new GameEngine(rootCopy);
+            }
+            simulation.clearBots();
+            for (int id : opponents) {
+                simulation.addBot(policy(id));
+            }
+            BaselineBot self = policy(playerId);
+            simulation.addBot(new BotController() {
+                @Override
+                public int getPlayerId() {
+                    return playerId;
+                }
+
+                @Override
+                public void act(GameEngine engine, DangerMap danger) {
+                    if (rollout) self.act(engine, danger);
+                }
+            });
+
+            nodeCount = 1;
+            firstChild[0] = -1;
+            visits[0] = 0;
+            values[0] = 0;
+            iterations = 0;
+            do {
+                iterate();
+                iterations++;
+            } while (System.nanoTime() < deadline);
+        }
+
+        /**
+         * Retourne la politique simulée d'un joueur, créée à la première utilisation.
+         */
+        private BaselineBot policy(int id) {
+            if (id >= policies.length) policies = Arrays.copyOf(policies, id + 1);
+            if (policies[id] == null) policies[id] = new BaselineBot(id, 0, moveInterval);
+            return policies[id];
+        }
+
+        /**
+         * Une itération : restauration, descente dans l'arbre, simulation, rétropropagation.
+         */
+        private void iterate() {
+            simulation.copyStateFrom(rootCopy);
+            for (BaselineBot policy : policies) {
+                if (policy != null) policy.reseed(random.nextLong());
+            }
+            rollout = false;
+            int ticks = advance(latencyTicks);
+
+            int node = 0, depth = 0;
+            path[0] = 0;
+            while (ticks < HORIZON_TICKS && isPlaying()) {
+                if (firstChild[node] < 0) {
+                    if (nodeCount + ACTIONS > TREE_CAPACITY) break;
+                    firstChild[node] = nodeCount;
+                    for (int c = nodeCount; c < nodeCount + ACTIONS; c++) {
+                        firstChild[c] = -1;
+                        visits[c] = 0;
+                        values[c] = 0;
+                    }
+                    nodeCount += ACTIONS;
+                }
+                int action = select(node);
+                node = firstChild[node] + action;
+                path[++depth] = node;
+                ticks += apply(action);
+                if (visits[node] == 0) break;
+            }
+
+            rollout = true;
+            advance(HORIZON_TICKS - ticks);
+
+            double value = evaluate();
+            for (int i = 0; i <= depth; i++) {
+                visits[path[i]]++;
+                values[path[i]] += value;
+            }
+        }
+
+        /**
+         * Choisit l'action d'un nœud développé : une action jamais essayée au hasard,
+         * sinon celle qui maximise UCB1.
+         */
+        private int select(int node) {
+            int base = firstChild[node];
+            int unvisited = 0;
+            for (int a = 0; a < ACTIONS; a++) {
+                if (visits[base + a] == 0) unvisited++;
+            }
+            if (unvisited > 0) {
+                int pick = random.nextInt(unvisited);
+                for (int a = 0; a < ACTIONS; a++) {
+                    if (visits[base + a] == 0 && pick-- == 0) return a;
+                }
+            }
+
+            double logVisits = Math.log(visits[node]);
+            int best = 0;
+            double bestScore = Double.NEGATIVE_INFINITY;
+            for (int a = 0; a < ACTIONS; a++) {
+                int n = visits[base + a];
+                double score = values[base + a] / n + EXPLORATION * Math.sqrt(logVisits / n);
+                if (score > bestScore) {
+                    bestScore = score;
+                    best = a;
+                }
+            }
+            return best;
+        }
+
+        /**
+         * Joue une action du bot dans la simulation et avance jusqu'à sa prochaine décision.
+         *
+         * @return Ticks simulés
+         */
+        private int apply(int action) {
+            if (action == BOMB) {
+                simulation.placeBomb(playerId);
+                return advance(1);
+            }
+            if (action != WAIT) {
+                simulation.movePlayer(playerId, DX[action], DY[action]);
+            }
+            return advance(moveInterval);
+        }
+
+        /**
+         * Avance la simulation d'un nombre de ticks, moins si la partie se termine.
+         *
+         * @return Ticks demandés
+         */
+        private int advance(int ticks) {
+            for (int i = 0; i < ticks && isPlaying(); i++) {
+                simulation.update(TICK_SECONDS);
+            }
+            return ticks;
+        }
+
+        /**
+         * Indique si la simulation doit continuer : partie en cours et bot en vie.
+         */
+        private boolean isPlaying() {
+            Player self = simulation.getPlayer(playerId);
+            return simulation.isGameRunning() && self != null && self.isAlive();
+        }
+
+        /**
+         * Valeur d'une fin de simulation : 0 si le bot est éliminé, 1 s'il reste seul,
+         * entre 0,5 et 1 selon la part d'adversaires éliminés sinon.
+         */
+        private double evaluate() {
+            Player self = simulation.getPlayer(playerId);
+            if (self == null || !self.isAlive()) return 0;
+            if (opponents.length == 0) return 1;
+            int eliminated = 0;
+            for (int id : opponents) {
+                Player opponent = simulation.getPlayer(id);
+                if (opponent == null || !opponent.isAlive()) eliminated++;
+            }
+            return 0.5 + 0.5 * eliminated / opponents.length;
+        }
+
+        /**
+         * Ajoute les visites et valeurs des actions racine de l'arbre.
+         */
+        void addRootStatistics(long[] rootVisits, double[] rootValues) {
+            int base = firstChild[0];
+            if (base < 0) return;
+            for (int a = 0; a < ACTIONS; a++) {
+                rootVisits[a] += visits[base + a];
+                rootValues[a] += values[base + a];
+            }
+        }
+    }
+}
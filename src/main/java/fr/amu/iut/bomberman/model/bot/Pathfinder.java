@@ -0,0 +1,631 @@
+package fr.amu.iut.bomberman.model.bot;
+
+import fr.amu.iut.bomberman.model.map.GameMap;
+
+import java.util.Arrays;
+
+/**
+ * Service de plus courts chemins sur la grille d'une GameMap, contournant murs,
+ * murs destructibles et bombes (déplacements orthogonaux, coût 1 par case).
+ * <ul>
+ *   <li>La praticabilité est recopiée dans un bitset par rangée (bombes comprises), tenu
+ *       à jour à partir du journal de la GameMap : jump point search y avance par blocs
+ *       de 64 cases.</li>
+ *   <li>A* et jump point search (adapté aux grandes zones ouvertes) partagent des buffers
+ *       int[] préalloués ; les cases visitées sont marquées par numéro de recherche,
+ *       rien n'est effacé entre deux requêtes.</li>
+ *   <li>Les champs de distance vers une cible (parcours en largeur depuis la cible) sont
+ *       gardés en cache et invalidés seulement quand une case qu'ils ont atteinte, ou qui
+ *       borde leur zone, change de praticabilité (journal de la GameMap, bombes).</li>
+ * </ul>
+ * Les cases sont désignées par leur index y * largeur + x. Une instance n'est pas
+ * thread-safe : le moteur en partage une entre ses bots, appelés sur son thread.
+ */
+public class Pathfinder {
+
+    /** Distance d'une case inaccessible */
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    /** Nombre de champs de distance gardés en cache par défaut */
+    public static final int DEFAULT_FIELD_CAPACITY = 16;
+
+    /** Carte parcourue */
+    private final GameMap map;
+
+    /** Dimensions de la carte au moment de l'allocation des buffers */
+    private int width, height, size;
+
+    /** Praticabilité par rangée, 64 cases par mot (bit x % 64 du mot x / 64) */
+    private long[] passableBits;
+    private int wordsPerRow;
+
+    /** Bombes : une case porte une bombe si sa marque vaut la génération courante */
+    private int[] bombMarks;
+    private int[] bombCells;
+    private int bombCount;
+    private int bombGeneration = 1;
+
+    /** Buffers de recherche : marque de visite, coût depuis le départ, parent, file */
+    private int[] visited;
+    private int[] cost;
+    private int[] parent;
+    private int[] queue;
+    private int stamp;
+
+    /** Tas binaire des recherches : case, coût estimé total, coût depuis le départ */
+    private int[] heap;
+    private int[] heapEstimates;
+    private int[] heapCosts;
+
+    /** Champs de distance en cache : cible (-1 si libre), distances, dernier usage */
+    private final int[] fieldTargets;
+    private int[][] fields;
+    private final long[] fieldUses;
+    private long useClock;
+
+    /** Changements de la carte déjà pris en compte */
+    private int seenTerrainVersion = -1;
+    private long seenWalkabilityChanges;
+
+    /** Statistiques du cache de champs */
+    private long fieldHits, fieldMisses, fieldInvalidations;
+
+    /**
+     * Constructeur avec la capacité de cache par défaut.
+     *
+     * @param map Carte parcourue
+     */
+    public Pathfinder(GameMap map) {
+        this(map, DEFAULT_FIELD_CAPACITY);
+    }
+
+    /**
+     * Constructeur.
+     *
+     * @param map Carte parcourue
+     * @param fieldCapacity Nombre de champs de distance gardés en cache
+     */
+    public Pathfinder(GameMap map, int fieldCapacity) {
+        this.map = map;
+        this.fieldTargets = new int[Math.max(1, fieldCapacity)];
+        this.fieldUses = new long[fieldTargets.length];
+        allocate();
+    }
+
+    /**
+     * (Ré)alloue les buffers aux dimensions de la carte et vide le cache.
+     */
+    private void allocate() {
+        width = map.getWidth();
+        height = map.getHeight();
+        size = width * height;
+        wordsPerRow = (width + 63) >>> 6;
+        passableBits = new long[wordsPerRow * height];
+        seenTerrainVersion = map.getTerrainVersion() - 1;
+        bombMarks = new int[size];
+        bombCells = new int[size];
+        bombCount = 0;
+        visited = new int[size];
+        cost = new int[size];
+        parent = new int[size];
+        queue = new int[size];
+        // Insertion paresseuse dans le tas : au plus une entrée par relâchement d'arête
+        heap = new int[4 * size + 1];
+        heapEstimates = new int[4 * size + 1];
+        heapCosts = new int[4 * size + 1];
+        stamp = 0;
+        fields = new int[fieldTargets.length][];
+        Arrays.fill(fieldTargets, -1);
+    }
+
+    /**
+     * Remplace l'ensemble des bombes prises en compte par celles d'une carte des dangers.
+     *
+     * @param danger Carte des dangers du tick
+     */
+    public void syncBombs(DangerMap danger) {
+        refresh();
+        int previous = bombGeneration++;
+        int count = danger.getWidth() == width ? danger.getBombCount() : 0;
+        for (int i = 0; i < count; i++) {
+            int cell = danger.getBombCell(i);
+            boolean added = bombMarks[cell] != previous;
+            bombMarks[cell] = bombGeneration;
+            if (added) update(cell);
+        }
+        for (int i = 0; i < bombCount; i++) {
+            int cell = bombCells[i];
+            if (bombMarks[cell] == previous) update(cell);
+        }
+        for (int i = 0; i < count; i++) {
+            bombCells[i] = danger.getBombCell(i);
+        }
+        bombCount = count;
+    }
+
+    /**
+     * Prend en compte les changements de la carte depuis la dernière requête :
+     * cases du journal de praticabilité, ou tout le cache si le terrain a été remplacé.
+     */
+    private void refresh() {
+        if (map.getWidth() != width || map.getHeight() != height) {
+            allocate();
+        }
+        long changes = map.getWalkabilityChangeCount();
+        if (map.getTerrainVersion() != seenTerrainVersion
+                || changes - seenWalkabilityChanges > GameMap.WALKABILITY_JOURNAL_SIZE) {
+            seenTerrainVersion = map.getTerrainVersion();
+            Arrays.fill(fieldTargets, -1);
+            for (int cell = 0; cell < size; cell++) {
+                setPassableBit(cell);
+            }
+        } else {
+            for (long sequence = seenWalkabilityChanges; sequence < changes; sequence++) {
+                update(map.getWalkabilityChange(sequence));
+            }
+        }
+        seenWalkabilityChanges = changes;
+    }
+
+    /**
+     * Recalcule la praticabilité d'une case et invalide les champs qui en dépendent.
+     *
+     * @param cell Case modifiée
+     */
+    private void update(int cell) {
+        setPassableBit(cell);
+        invalidate(cell);
+    }
+
+    /**
+     * Recopie la praticabilité d'une case (tuile traversable et sans bombe) dans le bitset.
+     */
+    private void setPassableBit(int cell) {
+        int x = cell % width, y = cell / width;
+        int word = y * wordsPerRow + (x >>> 6);
+        if (map.isWalkable(x, y) && bombMarks[cell] != bombGeneration) {
+            passableBits[word] |= 1L << x;
+        } else {
+            passableBits[word] &= ~(1L << x);
+        }
+    }
+
+    /**
+     * Retire du cache les champs qui dépendent d'une case : ceux qui l'ont atteinte
+     * ou qui ont atteint l'une de ses voisines (la case borde leur zone).
+     *
+     * @param cell Case dont la praticabilité a changé
+     */
+    private void invalidate(int cell) {
+        int x = cell % width, y = cell / width;
+        for (int f = 0; f < fieldTargets.length; f++) {
+            if (fieldTargets[f] < 0) continue;
+            int[] dist = fields[f];
+            if (dist[cell] != UNREACHABLE
+                    || (x > 0 && dist[cell - 1] != UNREACHABLE)
+                    || (x < width - 1 && dist[cell + 1] != UNREACHABLE)
+                    || (y > 0 && dist[cell - width] != UNREACHABLE)
+                    || (y < height - 1 && dist[cell + width] != UNREACHABLE)) {
+                fieldTargets[f] = -1;
+                fieldInvalidations++;
+            }
+        }
+    }
+
+    /**
+     * Indique si une case peut être traversée (sol, power-up ou explosion, sans bombe).
+     */
+    private boolean passable(int x, int y) {
+        return x >= 0 && x < width && y >= 0 && y < height
+                && (passableBits[y * wordsPerRow + (x >>> 6)] & (1L << x)) != 0;
+    }
+
+    /**
+     * Retourne un mot du bitset de praticabilité (0 hors de la carte).
+     */
+    private long word(int y, int w) {
+        return y < 0 || y >= height || w < 0 || w >= wordsPerRow ? 0 : passableBits[y * wordsPerRow + w];
+    }
+
+    /**
+     * Indique si une case peut être traversée.
+     *
+     * @param cell Index de la case
+     * @return true si un joueur peut y passer
+     */
+    public boolean isPassable(int cell) {
+        refresh();
+        return passable(cell % width, cell / width);
+    }
+
+    // ----- Champs de distance -----
+
+    /**
+     * Retourne le champ de distance vers une cible, calculé ou pris dans le cache.
+     *
+     * @param target Case cible
+     * @return Distance de chaque case à la cible, UNREACHABLE si inaccessible (ne pas modifier)
+     */
+    public int[] getDistanceField(int target) {
+        refresh();
+        int free = -1, oldest = 0;
+        for (int f = 0; f < fieldTargets.length; f++) {
+            if (fieldTargets[f] == target) {
+                fieldHits++;
+                fieldUses[f] = ++useClock;
+                return fields[f];
+            }
+            if (fieldTargets[f] < 0) free = f;
+            else if (fieldUses[f] < fieldUses[oldest]) oldest = f;
+        }
+
+        fieldMisses++;
+        int f = free >= 0 ? free : oldest;
+        if (fields[f] == null) fields[f] = new int[size];
+        computeField(target, fields[f]);
+        fieldTargets[f] = target;
+        fieldUses[f] = ++useClock;
+        return fields[f];
+    }
+
+    /**
+     * Parcours en largeur depuis la cible (la cible elle-même peut être bloquante).
+     */
+    private void computeField(int target, int[] dist) {
+        Arrays.fill(dist, UNREACHABLE);
+        dist[target] = 0;
+        queue[0] = target;
+        int head = 0, tail = 1;
+        while (head < tail) {
+            int cell = queue[head++];
+            int next = dist[cell] + 1;
+            int x = cell % width, y = cell / width;
+            if (x > 0 && dist[cell - 1] == UNREACHABLE && passable(x - 1, y)) {
+                dist[cell - 1] = next;
+                queue[tail++] = cell - 1;
+            }
+            if (x < width - 1 && dist[cell + 1] == UNREACHABLE && passable(x + 1, y)) {
+                dist[cell + 1] = next;
+                queue[tail++] = cell + 1;
+            }
+            if (y > 0 && dist[cell - width] == UNREACHABLE && passable(x, y - 1)) {
+                dist[cell - width] = next;
+                queue[tail++] = cell - width;
+            }
+            if (y < height - 1 && dist[cell + width] == UNREACHABLE && passable(x, y + 1)) {
+                dist[cell + width] = next;
+                queue[tail++] = cell + width;
+            }
+        }
+    }
+
+    /**
+     * Retourne la distance d'une case à une cible. Une case de départ bloquante
+     * (joueur sur sa bombe) est quittée par sa meilleure voisine.
+     *
+     * @param from Case de départ
+     * @param target Case cible
+     * @return Nombre de pas, UNREACHABLE si la cible est inaccessible
+     */
+    public int distance(int from, int target) {
+        if (from == target) return 0;
+        int[] dist = getDistanceField(target);
+        if (dist[from] != UNREACHABLE) return dist[from];
+        int step = bestNeighbor(dist, from);
+        return step < 0 ? UNREACHABLE : dist[step] + 1;
+    }
+
+    /**
+     * Retourne la case suivante sur un plus court chemin vers une cible.
+     *
+     * @param from Case de départ
+     * @param target Case cible
+     * @return Case voisine à rejoindre, -1 si la cible est inaccessible ou atteinte
+     */
+    public int nextStep(int from, int target) {
+        if (from == target) return -1;
+        return bestNeighbor(getDistanceField(target), from);
+    }
+
+    /**
+     * Retourne la voisine la plus proche de la cible d'un champ.
+     */
+    private int bestNeighbor(int[] dist, int cell) {
+        int x = cell % width, y = cell / width;
+        int best = -1, bestDist = UNREACHABLE;
+        if (x > 0 && dist[cell - 1] < bestDist) { best = cell - 1; bestDist = dist[best]; }
+        if (x < width - 1 && dist[cell + 1] < bestDist) { best = cell + 1; bestDist = dist[best]; }
+        if (y > 0 && dist[cell - width] < bestDist) { best = cell - width; bestDist = dist[best]; }
+        if (y < height - 1 && dist[cell + width] < bestDist) { best = cell + width; }
+        return best;
+    }
+
+    // ----- A* -----
+
+    /**
+     * Cherche un plus court chemin par A* (heuristique de Manhattan).
+     *
+     * @param from Case de départ
+     * @param target Case d'arrivée (doit être traversable)
+     * @param path Reçoit les cases du chemin, départ exclu, arrivée incluse ; taille au moins la longueur du chemin
+     * @return Longueur du chemin, -1 s'il n'existe pas
+     */
+    public int findPath(int from, int target, int[] path) {
+        refresh();
+        if (from == target) return 0;
+        int tx = target % width, ty = target / width;
+        if (!passable(tx, ty)) return -1;
+
+        int mark = nextStamp();
+        visited[from] = mark;
+        cost[from] = 0;
+        parent[from] = -1;
+        int heapSize = push(0, from, heuristic(from, tx, ty), 0);
+
+        while (heapSize > 0) {
+            int cell = heap[1];
+            int g = heapCosts[1];
+            heapSize = pop(heapSize);
+            if (g > cost[cell]) continue; // entrée périmée
+            if (cell == target) return buildPath(from, target, path);
+
+            int x = cell % width, y = cell / width;
+            int next = cost[cell] + 1;
+            if (x > 0) heapSize = relax(heapSize, cell, cell - 1, x - 1, y, next, mark, tx, ty);
+            if (x < width - 1) heapSize = relax(heapSize, cell, cell + 1, x + 1, y, next, mark, tx, ty);
+            if (y > 0) heapSize = relax(heapSize, cell, cell - width, x, y - 1, next, mark, tx, ty);
+            if (y < height - 1) heapSize = relax(heapSize, cell, cell + width, x, y + 1, next, mark, tx, ty);
+        }
+        return -1;
+    }
+
+    /**
+     * Améliore le coût d'une voisine et l'ajoute au tas.
+     *
+     * @return Nouvelle taille du tas
+     */
+    private int relax(int heapSize, int from, int cell, int x, int y, int newCost, int mark, int tx, int ty) {
+        if (visited[cell] == mark && cost[cell] <= newCost) return heapSize;
+        if (!passable(x, y)) return heapSize;
+        visited[cell] = mark;
+        cost[cell] = newCost;
+        parent[cell] = from;
+        return push(heapSize, cell, newCost + heuristic(cell, tx, ty), newCost);
+    }
+
+    // ----- Jump point search -----
+
+    /**
+     * Cherche un plus court chemin par jump point search sur grille à 4 voisins : les lignes
+     * droites sont parcourues sans passer par le tas, qui ne reçoit que les points de saut
+     * (cases où un détour devient nécessaire). Nettement plus rapide qu'A* sur les grandes
+     * zones ouvertes, équivalent sur les cartes denses.
+     *
+     * @param from Case de départ
+     * @param target Case d'arrivée (doit être traversable)
+     * @param path Reçoit les cases du chemin, départ exclu, arrivée incluse
+     * @return Longueur du chemin, -1 s'il n'existe pas
+     */
+    public int findPathJps(int from, int target, int[] path) {
+        refresh();
+        if (from == target) return 0;
+        int tx = target % width, ty = target / width;
+        if (!passable(tx, ty)) return -1;
+
+        int mark = nextStamp();
+        visited[from] = mark;
+        cost[from] = 0;
+        parent[from] = -1;
+        int heapSize = push(0, from, heuristic(from, tx, ty), 0);
+
+        while (heapSize > 0) {
+            int cell = heap[1];
+            int g = heapCosts[1];
+            heapSize = pop(heapSize);
+            if (g > cost[cell]) continue;
+            if (cell == target) return buildPath(from, target, path);
+
+            int x = cell % width, y = cell / width;
+            int p = parent[cell];
+            // Toutes les directions sauf le retour vers le point de saut précédent
+            int px = p < 0 ? x : Integer.signum(p % width - x);
+            int py = p < 0 ? y : Integer.signum(p / width - y);
+            for (int dir = 0; dir < 4; dir++) {
+                int dx = dir == 0 ? 1 : dir == 1 ? -1 : 0;
+                int dy = dir == 2 ? 1 : dir == 3 ? -1 : 0;
+                if (p >= 0 && dx == px && dy == py) continue;
+
+                int jump = dy == 0 ? jumpHorizontal(x, y, dx, target) : jumpVertical(x, y, dy, target);
+                if (jump < 0) continue;
+                int newCost = cost[cell] + Math.abs(jump % width - x) + Math.abs(jump / width - y);
+                if (visited[jump] == mark && cost[jump] <= newCost) continue;
+                visited[jump] = mark;
+                cost[jump] = newCost;
+                parent[jump] = cell;
+                heapSize = push(heapSize, jump, newCost + heuristic(jump, tx, ty), newCost);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Avance horizontalement jusqu'à un point de saut : la cible, ou une case dont une
+     * voisine verticale s'ouvre alors que sa voisine de la case précédente était bloquée.
+     * Le parcours traite 64 cases à la fois sur les bitsets des trois rangées concernées.
+     *
+     * @return Point de saut, -1 si un obstacle est atteint avant
+     */
+    private int jumpHorizontal(int x, int y, int dx, int target) {
+        int targetX = target / width == y ? target % width : -1;
+        if (dx > 0) {
+            int start = x + 1;
+            for (int w = start >>> 6; w < wordsPerRow; w++) {
+                long up = word(y - 1, w), down = word(y + 1, w);
+                // Bit x : la case voisine de la case précédente (x - 1), retenue du mot précédent
+                long upBefore = (up << 1) | (word(y - 1, w - 1) >>> 63);
+                long downBefore = (down << 1) | (word(y + 1, w - 1) >>> 63);
+                long forced = (up & ~upBefore) | (down & ~downBefore);
+                long blocked = ~word(y, w);
+                long stops = forced | blocked;
+                if (targetX >= 0 && targetX >>> 6 == w) stops |= 1L << targetX;
+                if (w == start >>> 6) stops &= -1L << start;
+                if (stops != 0) {
+                    int hit = (w << 6) + Long.numberOfTrailingZeros(stops);
+                    return (blocked & (1L << hit)) != 0 ? -1 : y * width + hit;
+                }
+            }
+        } else {
+            int start = x - 1;
+            for (int w = start >>> 6; w >= 0 && start >= 0; w--) {
+                long up = word(y - 1, w), down = word(y + 1, w);
+                // Bit x : la case voisine de la case précédente (x + 1), retenue du mot suivant
+                long upBefore = (up >>> 1) | (word(y - 1, w + 1) << 63);
+                long downBefore = (down >>> 1) | (word(y + 1, w + 1) << 63);
+                long forced = (up & ~upBefore) | (down & ~downBefore);
+                long blocked = ~word(y, w);
+                long stops = forced | blocked;
+                if (targetX >= 0 && targetX >>> 6 == w) stops |= 1L << targetX;
+                if (w == start >>> 6) stops &= -1L >>> (63 - (start & 63));
+                if (stops != 0) {
+                    int hit = (w << 6) + 63 - Long.numberOfLeadingZeros(stops);
+                    return (blocked & (1L << hit)) != 0 ? -1 : y * width + hit;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Avance verticalement jusqu'à un point de saut : la cible, une voisine horizontale
+     * forcée, ou une case d'où un saut horizontal trouve un point de saut.
+     *
+     * @return Point de saut, -1 si un obstacle est atteint avant
+     */
+    private int jumpVertical(int x, int y, int dy, int target) {
+        while (true) {
+            y += dy;
+            if (!passable(x, y)) return -1;
+            int cell = y * width + x;
+            if (cell == target) return cell;
+            if ((passable(x - 1, y) && !passable(x - 1, y - dy))
+                    || (passable(x + 1, y) && !passable(x + 1, y - dy))) {
+                return cell;
+            }
+            if (jumpHorizontal(x, y, 1, target) >= 0 || jumpHorizontal(x, y, -1, target) >= 0) {
+                return cell;
+            }
+        }
+    }
+
+    // ----- Outils communs -----
+
+    /**
+     * Reconstitue le chemin depuis les parents, en complétant les lignes droites
+     * entre deux points de saut.
+     *
+     * @return Longueur du chemin
+     */
+    private int buildPath(int from, int target, int[] path) {
+        int length = cost[target];
+        int index = length;
+        int cell = target;
+        while (cell != from) {
+            int previous = parent[cell];
+            int step = Integer.signum(previous % width - cell % width) + width * Integer.signum(previous / width - cell / width);
+            for (int c = cell; c != previous; c += step) {
+                path[--index] = c;
+            }
+            cell = previous;
+        }
+        return length;
+    }
+
+    /**
+     * Retourne un nouveau numéro de recherche, en remettant les marques à zéro
+     * une fois tous les 2^31 numéros.
+     */
+    private int nextStamp() {
+        if (++stamp == Integer.MAX_VALUE) {
+            Arrays.fill(visited, 0);
+            stamp = 1;
+        }
+        return stamp;
+    }
+
+    /**
+     * Distance de Manhattan d'une case à la cible.
+     */
+    private int heuristic(int cell, int tx, int ty) {
+        return Math.abs(cell % width - tx) + Math.abs(cell / width - ty);
+    }
+
+    /**
+     * Ordre du tas : plus petit coût estimé, puis plus grand coût depuis le départ
+     * (à estimation égale, la case la plus avancée vers la cible passe d'abord).
+     */
+    private static boolean before(int estimate, int g, int otherEstimate, int otherG) {
+        return estimate < otherEstimate || (estimate == otherEstimate && g > otherG);
+    }
+
+    /**
+     * Ajoute une case au tas binaire (index à partir de 1).
+     *
+     * @return Nouvelle taille du tas
+     */
+    private int push(int heapSize, int cell, int estimate, int g) {
+        int i = ++heapSize;
+        while (i > 1 && before(estimate, g, heapEstimates[i >> 1], heapCosts[i >> 1])) {
+            move(i >> 1, i);
+            i >>= 1;
+        }
+        heap[i] = cell;
+        heapEstimates[i] = estimate;
+        heapCosts[i] = g;
+        return heapSize;
+    }
+
+    /**
+     * Retire la racine du tas binaire.
+     *
+     * @return Nouvelle taille du tas
+     */
+    private int pop(int heapSize) {
+        int cell = heap[heapSize];
+        int estimate = heapEstimates[heapSize];
+        int g = heapCosts[heapSize--];
+        int i = 1;
+        while (true) {
+            int child = i << 1;
+            if (child > heapSize) break;
+            if (child < heapSize && before(heapEstimates[child + 1], heapCosts[child + 1],
+                    heapEstimates[child], heapCosts[child])) {
+                child++;
+            }
+            if (!before(heapEstimates[child], heapCosts[child], estimate, g)) break;
+            move(child, i);
+            i = child;
+        }
+        heap[i] = cell;
+        heapEstimates[i] = estimate;
+        heapCosts[i] = g;
+        return heapSize;
+    }
+
+    /**
+     * Copie une entrée du tas d'un emplacement à un autre.
+     */
+    private void move(int from, int to) {
+        heap[to] = heap[from];
+        heapEstimates[to] = heapEstimates[from];
+        heapCosts[to] = heapCosts[from];
+    }
+
+    /** @return Nombre de champs de distance servis depuis le cache */
+    public long getFieldHits() { return fieldHits; }
+
+    /** @return Nombre de champs de distance calculés */
+    public long getFieldMisses() { return fieldMisses; }
+
+    /** @return Nombre de champs retirés du cache par un changement de la carte */
+    public long getFieldInvalidations() { return fieldInvalidations; }
+}
@@ -0,0 +1,93 @@
+package fr.amu.iut.bomberman.model.common;
+
+/**
+ * Table d'alias (méthode de Vose) pour tirer un index selon des poids fixes en temps
+ * constant : une colonne tirée uniformément, puis une pièce biaisée entre la colonne
+ * et son alias. La table est calculée une fois à la construction, en O(n).
+ * Le tirage consomme 64 bits aléatoires fournis par l'appelant, ce qui le laisse maître
+ * de son générateur (reproductibilité des parties, copies de moteur).
+ */
+public final class AliasTable {
+
+    /** Probabilité de garder chaque colonne plutôt que son alias */
+    private final double[] probability;
+
+    /** Alias de chaque colonne */
+    private final int[] alias;
+
+    /**
+     * Construit la table.
+     *
+     * @param weights Poids de chaque index (positifs ou nuls, de somme non nulle)
+     * @throws IllegalArgumentException Si un poids est négatif ou si tous sont nuls
+     */
+    public AliasTable(double[] weights) {
+        int n = weights.length;
+        double total = 0;
+        for (double weight : weights) {
+            if (!(weight >= 0)) throw new IllegalArgumentException("Poids négatif: " + weight);
+            total += weight;
+        }
+        if (total <= 0) throw new IllegalArgumentException("Somme des poids nulle");
+
+        probability = new double[n];
+        alias = new int[n];
+        double[] scaled = new double[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int smallCount = 0, largeCount = 0;
+        for (int i = 0; i < n; i++) {
+            scaled[i] = weights[i] * n / total;
+            if (scaled[i] < 1.0) {
+                small[smallCount++] = i;
+            } else {
+                large[largeCount++] = i;
+            }
+        }
+
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount];
+            int more = large[--largeCount];
+            probability[less] = scaled[less];
+            alias[less] = more;
+            scaled[more] = scaled[more] + scaled[less] - 1.0;
+            if (scaled[more] < 1.0) {
+                small[smallCount++] = more;
+            } else {
+                large[largeCount++] = more;
+            }
+        }
+        // Restes dus aux arrondis : colonnes pleines
+        while (largeCount > 0) {
+            int i = large[--largeCount];
+            probability[i] = 1.0;
+            alias[i] = i;
+        }
+        while (smallCount > 0) {
+            int i = small[--smallCount];
+            probability[i] = 1.0;
+            alias[i] = i;
+        }
+    }
+
+    /**
+     * Tire un index : les 32 bits de poids fort choisissent la colonne, les 32 autres la pièce.
+     *
+     * @param bits 64 bits aléatoires
+     * @return Index tiré, avec une probabilité proportionnelle à son poids
+     */
+    public int sample(long bits) {
+        int column = (int) (((bits >>> 32) * probability.length) >>> 32);
+        double coin = (bits & 0xFFFFFFFFL) * 0x1.0p-32;
+        return coin < probability[column] ? column : alias[column];
+    }
+
+    /**
+     * Retourne le nombre d'index de la table.
+     *
+     * @return Taille de la table
+     */
+    public int size() {
+        return probability.length;
+    }
+}
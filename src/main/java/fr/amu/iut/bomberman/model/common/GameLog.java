@@ -0,0 +1,71 @@
+package fr.amu.iut.bomberman.model.common;
+
+/**
+ * Point d'entrée unique des traces de debug du modèle de jeu.
+ * Les traces sont actives par défaut pour le client JavaFX et peuvent être
+ * coupées par les modes sans interface (serveur, simulations) qui font
+ * tourner de nombreuses parties dans la même JVM. Un thread peut aussi les couper
+ * pour lui seul (simulations d'un bot pendant une partie affichée).
+ */
+public final class GameLog {
+
+    /** Indique si les traces de debug sont affichées sur la console */
+    private static volatile boolean enabled = true;
+
+    /** Threads dont les traces sont coupées quel que soit le réglage global */
+    private static final ThreadLocal<Boolean> quietThread = ThreadLocal.withInitial(() -> false);
+
+    /**
+     * Constructeur privé : classe utilitaire non instanciable.
+     */
+    private GameLog() {
+    }
+
+    /**
+     * Affiche un message de debug si les traces sont actives.
+     *
+     * @param message Message à afficher
+     */
+    public static void log(String message) {
+        if (isEnabled()) {
+            System.out.println(message);
+        }
+    }
+
+    /**
+     * Indique si les traces de debug sont actives pour le thread courant.
+     * Les appels fréquents testent cette méthode avant de construire leur message.
+     *
+     * @return true si les messages sont affichés
+     */
+    public static boolean isEnabled() {
+        return enabled && !quietThread.get();
+    }
+
+    /**
+     * Indique si les traces du thread courant sont coupées.
+     *
+     * @return true si setQuietThread(true) a été appelé sur ce thread
+     */
+    public static boolean isQuietThread() {
+        return quietThread.get();
+    }
+
+    /**
+     * Coupe ou rétablit les traces du seul thread courant.
+     *
+     * @param quiet true pour couper les traces de ce thread
+     */
+    public static void setQuietThread(boolean quiet) {
+        quietThread.set(quiet);
+    }
+
+    /**
+     * Active ou désactive les traces de debug du modèle.
+     *
+     * @param enabled true pour afficher les messages
+     */
+    public static void setEnabled(boolean enabled) {
+        GameLog.enabled = enabled;
+    }
+}
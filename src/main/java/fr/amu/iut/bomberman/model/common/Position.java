@@ -1,11 +1,15 @@
 package fr.amu.iut.bomberman.model.common;
 
-import java.util.Objects;
-
 /**
  * Classe immutable représentant une position dans le jeu avec des coordonnées x et y.
  * Fournit des méthodes utilitaires pour les calculs de distance et de déplacement.
  * Utilisée pour représenter les positions sur la grille de jeu.
+ * <p>
+ * Les chemins fréquents du moteur et de la carte travaillent sur des coordonnées
+ * entières et ne créent une Position qu'aux bords de l'API (écouteurs, affichage).
+ * Une case peut aussi tenir dans un seul int (pack) : X sur les 16 bits de poids faible,
+ * Y sur les 16 bits de poids fort, tous deux signés ; l'entier se compare, se range dans
+ * un tableau ou sert de clé sans allocation.
  */
 public class Position {
 
@@ -26,6 +30,56 @@ public class Position {
         this.y = y;
     }
 
+    /**
+     * Code une case dans un seul int.
+     *
+     * @param x Coordonnée X (entre -32768 et 32767)
+     * @param y Coordonnée Y (entre -32768 et 32767)
+     * @return Case codée
+     */
+    public static int pack(int x, int y) {
+        return (y << 16) | (x & 0xFFFF);
+    }
+
+    /**
+     * Retourne la coordonnée X d'une case codée par pack.
+     *
+     * @param cell Case codée
+     * @return Coordonnée X
+     */
+    public static int unpackX(int cell) {
+        return (short) cell;
+    }
+
+    /**
+     * Retourne la coordonnée Y d'une case codée par pack.
+     *
+     * @param cell Case codée
+     * @return Coordonnée Y
+     */
+    public static int unpackY(int cell) {
+        return cell >> 16;
+    }
+
+    /**
+     * Crée la position d'une case codée par pack.
+     *
+     * @param cell Case codée
+     * @return Position correspondante
+     */
+    public static Position unpack(int cell) {
+        return new Position(unpackX(cell), unpackY(cell));
+    }
+
+    /**
+     * Code cette position dans un seul int (voir pack).
+     *
+     * @return Case codée
+     */
+    public int pack() {
+        return pack(x, y);
+    }
+
     /**
      * Retourne la coordonnée X de cette position.
      *
@@ -135,7 +189,8 @@ public class Position {
      */
     @Override
     public int hashCode() {
-        return Objects.hash(x, y);
+        // Même valeur que Objects.hash(x, y), sans tableau d'arguments
+        return 31 * (31 + x) + y;
     }
 
     /**
@@ -0,0 +1,318 @@
+package fr.amu.iut.bomberman.model.common;
+
+import java.util.Arrays;
+
+/**
+ * Roue temporelle hiérarchique indexée par tick : quatre niveaux de 64 cases couvrent
+ * 2^24 ticks (plus de 38 heures à 120 ticks/s), au-delà les échéances attendent dans
+ * une liste de débordement. Une échéance est rangée au niveau le plus fin qui la
+ * contient et redescend d'un niveau quand sa case est atteinte ; avancer d'un tick ne
+ * visite donc qu'une case du premier niveau, plus une case d'un niveau supérieur tous
+ * les 64 ticks. Le coût d'un tick est proportionnel aux échéances qui tombent, pas au
+ * nombre d'échéances en attente.
+ * <p>
+ * Les échéances d'un même tick sont signalées dans leur ordre de planification (les
+ * parties restent reproductibles). Les entrées vivent dans des tableaux recyclés par
+ * une liste libre : planifier et expirer n'allouent rien une fois la capacité atteinte.
+ * Chaque entrée porte un type, un objet et deux entiers, interprétés par l'appelant.
+ */
+public class TimingWheel {
+
+    /** Bits d'index d'une case, cases par niveau */
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+
+    /** Nombre de niveaux */
+    private static final int LEVELS = 4;
+
+    /** Liste des échéances au-delà du dernier niveau */
+    private static final int OVERFLOW = LEVELS * SLOTS;
+
+    /** Capacité initiale des entrées */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * Reçoit les échéances arrivées à terme.
+     */
+    @FunctionalInterface
+    public interface Handler {
+        /**
+         * Appelé quand une échéance tombe. Peut planifier de nouvelles échéances.
+         *
+         * @param kind Type de l'échéance
+         * @param target Objet associé, null si aucun
+         * @param a Premier entier associé
+         * @param b Second entier associé
+         */
+        void onTimer(int kind, Object target, int a, int b);
+    }
+
+    /**
+     * Reçoit les échéances en attente (sauvegarde de l'état).
+     */
+    @FunctionalInterface
+    public interface Visitor {
+        /**
+         * Appelé pour chaque échéance en attente.
+         *
+         * @param deadline Tick de l'échéance
+         * @param kind Type de l'échéance
+         * @param target Objet associé
+         * @param a Premier entier associé
+         * @param b Second entier associé
+         */
+        void visit(long deadline, int kind, Object target, int a, int b);
+    }
+
+    /** Première et dernière entrée de chaque case (niveau * SLOTS + case) et du débordement, -1 si vide */
+    private final int[] heads = new int[OVERFLOW + 1];
+    private final int[] tails = new int[OVERFLOW + 1];
+
+    /** Échéance, numéro de planification, type, objet, entiers et entrée suivante de chaque entrée */
+    private long[] deadlines = new long[INITIAL_CAPACITY];
+    private long[] sequences = new long[INITIAL_CAPACITY];
+    private int[] kinds = new int[INITIAL_CAPACITY];
+    private Object[] targets = new Object[INITIAL_CAPACITY];
+    private int[] firstValues = new int[INITIAL_CAPACITY];
+    private int[] secondValues = new int[INITIAL_CAPACITY];
+    private int[] next = new int[INITIAL_CAPACITY];
+
+    /** Tête de la liste des entrées libres, -1 si vide */
+    private int free = -1;
+
+    /** Nombre d'entrées déjà utilisées au moins une fois */
+    private int used;
+
+    /** Nombre d'échéances en attente */
+    private int size;
+
+    /** Dernier tick traité */
+    private long currentTick;
+
+    /** Prochain numéro de planification */
+    private long nextSequence;
+
+    /**
+     * Constructeur d'une roue vide au tick 0.
+     */
+    public TimingWheel() {
+        Arrays.fill(heads, -1);
+        Arrays.fill(tails, -1);
+    }
+
+    /**
+     * Vide la roue et la replace à un tick donné (nouvelle partie, état restauré).
+     *
+     * @param tick Tick courant
+     */
+    public void clear(long tick) {
+        Arrays.fill(heads, -1);
+        Arrays.fill(tails, -1);
+        Arrays.fill(targets, 0, used, null);
+        free = -1;
+        used = 0;
+        size = 0;
+        currentTick = tick;
+    }
+
+    /**
+     * Planifie une échéance. Un tick déjà passé tombe au tick suivant.
+     *
+     * @param deadline Tick de l'échéance
+     * @param kind Type de l'échéance
+     * @param target Objet associé, null si aucun
+     * @param a Premier entier associé
+     * @param b Second entier associé
+     */
+    public void schedule(long deadline, int kind, Object target, int a, int b) {
+        int entry;
+        if (free >= 0) {
+            entry = free;
+            free = next[entry];
+        } else {
+            if (used == deadlines.length) grow();
+            entry = used++;
+        }
+        deadlines[entry] = Math.max(deadline, currentTick + 1);
+        sequences[entry] = nextSequence++;
+        kinds[entry] = kind;
+        targets[entry] = target;
+        firstValues[entry] = a;
+        secondValues[entry] = b;
+        size++;
+        insert(entry);
+    }
+
+    /**
+     * Range une entrée dans la case du niveau le plus fin qui contient son échéance,
+     * en gardant chaque case triée par numéro de planification.
+     */
+    private void insert(int entry) {
+        long deadline = deadlines[entry];
+        long delta = deadline - currentTick;
+        int list = OVERFLOW;
+        for (int level = 0; level < LEVELS; level++) {
+            if (delta < 1L << (SLOT_BITS * (level + 1))) {
+                list = level * SLOTS + ((int) (deadline >>> (SLOT_BITS * level)) & SLOT_MASK);
+                break;
+            }
+        }
+
+        int tail = tails[list];
+        if (tail < 0) {
+            heads[list] = tails[list] = entry;
+            next[entry] = -1;
+        } else if (sequences[tail] < sequences[entry]) {
+            next[tail] = entry;
+            next[entry] = -1;
+            tails[list] = entry;
+        } else {
+            // Entrée redescendue d'un niveau : placée avant les entrées planifiées après elle
+            int previous = -1, current = heads[list];
+            while (sequences[current] < sequences[entry]) {
+                previous = current;
+                current = next[current];
+            }
+            next[entry] = current;
+            if (previous < 0) {
+                heads[list] = entry;
+            } else {
+                next[previous] = entry;
+            }
+        }
+    }
+
+    /**
+     * Avance jusqu'à un tick en signalant les échéances tombées, tick par tick.
+     *
+     * @param tick Nouveau tick courant
+     * @param handler Destinataire des échéances
+     */
+    public void advance(long tick, Handler handler) {
+        while (currentTick < tick) {
+            if (size == 0) {
+                currentTick = tick;
+                return;
+            }
+            currentTick++;
+
+            // Redescente des niveaux supérieurs dont une case commence à ce tick
+            if ((currentTick & ((1L << (SLOT_BITS * LEVELS)) - 1)) == 0) {
+                cascade(OVERFLOW);
+            }
+            for (int level = LEVELS - 1; level >= 1; level--) {
+                if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                    cascade(level * SLOTS + ((int) (currentTick >>> (SLOT_BITS * level)) & SLOT_MASK));
+                }
+            }
+
+            int list = (int) currentTick & SLOT_MASK;
+            int entry = heads[list];
+            heads[list] = tails[list] = -1;
+            while (entry >= 0) {
+                int following = next[entry];
+                Object target = targets[entry];
+                int kind = kinds[entry], a = firstValues[entry], b = secondValues[entry];
+                targets[entry] = null;
+                next[entry] = free;
+                free = entry;
+                size--;
+                handler.onTimer(kind, target, a, b);
+                entry = following;
+            }
+        }
+    }
+
+    /**
+     * Replace les entrées d'une case d'un niveau supérieur dans les niveaux inférieurs.
+     */
+    private void cascade(int list) {
+        int entry = heads[list];
+        heads[list] = tails[list] = -1;
+        while (entry >= 0) {
+            int following = next[entry];
+            insert(entry);
+            entry = following;
+        }
+    }
+
+    /**
+     * Parcourt les échéances en attente, dans un ordre quelconque.
+     *
+     * @param visitor Destinataire des échéances
+     */
+    public void forEach(Visitor visitor) {
+        for (int list = 0; list <= OVERFLOW; list++) {
+            for (int entry = heads[list]; entry >= 0; entry = next[entry]) {
+                visitor.visit(deadlines[entry], kinds[entry], targets[entry], firstValues[entry], secondValues[entry]);
+            }
+        }
+    }
+
+    /**
+     * Recopie l'état d'une autre roue. Les objets associés sont partagés : à réserver aux
+     * roues dont les échéances ne portent que des entiers.
+     *
+     * @param source Roue copiée
+     */
+    public void copyFrom(TimingWheel source) {
+        if (deadlines.length < source.used) {
+            int capacity = source.deadlines.length;
+            deadlines = new long[capacity];
+            sequences = new long[capacity];
+            kinds = new int[capacity];
+            targets = new Object[capacity];
+            firstValues = new int[capacity];
+            secondValues = new int[capacity];
+            next = new int[capacity];
+        }
+        System.arraycopy(source.heads, 0, heads, 0, heads.length);
+        System.arraycopy(source.tails, 0, tails, 0, tails.length);
+        System.arraycopy(source.deadlines, 0, deadlines, 0, source.used);
+        System.arraycopy(source.sequences, 0, sequences, 0, source.used);
+        System.arraycopy(source.kinds, 0, kinds, 0, source.used);
+        System.arraycopy(source.targets, 0, targets, 0, source.used);
+        System.arraycopy(source.firstValues, 0, firstValues, 0, source.used);
+        System.arraycopy(source.secondValues, 0, secondValues, 0, source.used);
+        System.arraycopy(source.next, 0, next, 0, source.used);
+        if (used > source.used) Arrays.fill(targets, source.used, used, null);
+        free = source.free;
+        used = source.used;
+        size = source.size;
+        currentTick = source.currentTick;
+        nextSequence = source.nextSequence;
+    }
+
+    /**
+     * Double la capacité des entrées.
+     */
+    private void grow() {
+        int capacity = deadlines.length * 2;
+        deadlines = Arrays.copyOf(deadlines, capacity);
+        sequences = Arrays.copyOf(sequences, capacity);
+        kinds = Arrays.copyOf(kinds, capacity);
+        targets = Arrays.copyOf(targets, capacity);
+        firstValues = Arrays.copyOf(firstValues, capacity);
+        secondValues = Arrays.copyOf(secondValues, capacity);
+        next = Arrays.copyOf(next, capacity);
+    }
+
+    /**
+     * Retourne le nombre d'échéances en attente.
+     *
+     * @return Échéances en attente
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Retourne le dernier tick traité.
+     *
+     * @return Tick courant de la roue
+     */
+    public long getCurrentTick() {
+        return currentTick;
+    }
+}
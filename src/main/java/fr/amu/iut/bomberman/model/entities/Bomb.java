@@ -1,5 +1,7 @@
 package fr.amu.iut.bomberman.model.entities;
 
+import fr.amu.iut.bomberman.model.common.GameLog;
+
 /**
  * Représente une bombe dans le jeu Bomberman.
  * Gère le timer d'explosion, les animations et les propriétés de la bombe.
@@ -15,7 +17,7 @@ public class Bomb {
     /** Portée de l'explosion de cette bombe */
     private int explosionRange;
 
-    /** Timestamp de création de la bombe */
+    /** Temps de jeu à la création de la bombe (millisecondes, horloge du GameEngine) */
     private long timeCreated;
 
     /** Délai avant explosion en millisecondes */
@@ -34,44 +36,89 @@ public class Bomb {
      * @param y Position Y sur la grille
      * @param ownerId Identifiant du joueur propriétaire
      * @param explosionRange Portée de l'explosion
+     * @param timeCreated Temps de jeu courant en millisecondes
      */
-    public Bomb(int x, int y, int ownerId, int explosionRange) {
+    public Bomb(int x, int y, int ownerId, int explosionRange, long timeCreated) {
         this.x = x;
         this.y = y;
         this.ownerId = ownerId;
         this.explosionRange = explosionRange;
-        this.timeCreated = System.currentTimeMillis();
+        this.timeCreated = timeCreated;
         this.explosionDelay = DEFAULT_EXPLOSION_DELAY;
         this.exploded = false;
 
         // DEBUG: Afficher la création de la bombe
-        System.out.println("💣 Bombe créée en (" + x + "," + y + ") par joueur " + (ownerId + 1) +
-                " à " + timeCreated + " (explosion dans " + explosionDelay + "ms)");
+        if (GameLog.isEnabled()) {
+            GameLog.log("💣 Bombe créée en (" + x + "," + y + ") par joueur " + (ownerId + 1) +
+                    " à " + timeCreated + " (explosion dans " + explosionDelay + "ms)");
+        }
+    }
+
+    /**
+     * Constructeur de copie, sans trace de debug (copies de l'état d'une partie).
+     *
+     * @param other Bombe copiée
+     */
+    public Bomb(Bomb other) {
+        this.x = other.x;
+        this.y = other.y;
+        this.ownerId = other.ownerId;
+        this.explosionRange = other.explosionRange;
+        this.timeCreated = other.timeCreated;
+        this.explosionDelay = other.explosionDelay;
+        this.exploded = other.exploded;
+    }
+
+    /**
+     * Constructeur d'une vue vide du stockage des entités (voir EntityStore), remplie par set.
+     */
+    public Bomb() {
+    }
+
+    /**
+     * Remplit la bombe avec l'état d'une ligne du stockage des entités, sans trace de debug.
+     *
+     * @param x Position X sur la grille
+     * @param y Position Y sur la grille
+     * @param ownerId Identifiant du joueur propriétaire
+     * @param explosionRange Portée de l'explosion
+     * @param timeCreated Temps de jeu de la pose en millisecondes
+     * @param explosionDelay Délai avant explosion en millisecondes
+     * @param exploded true si la bombe a explosé
+     */
+    public void set(int x, int y, int ownerId, int explosionRange, long timeCreated, long explosionDelay, boolean exploded) {
+        this.x = x;
+        this.y = y;
+        this.ownerId = ownerId;
+        this.explosionRange = explosionRange;
+        this.timeCreated = timeCreated;
+        this.explosionDelay = explosionDelay;
+        this.exploded = exploded;
     }
 
     /**
      * Vérifie si la bombe doit exploser maintenant.
      * Inclut des messages de debug détaillés pour le diagnostic.
      *
+     * @param now Temps de jeu courant en millisecondes
      * @return true si la bombe est prête à exploser
      */
-    public boolean shouldExplode() {
+    public boolean shouldExplode(long now) {
         if (exploded) {
             return false; // Déjà explosée
         }
 
-        long currentTime = System.currentTimeMillis();
-        long elapsed = currentTime - timeCreated;
+        long elapsed = now - timeCreated;
         boolean shouldExplode = elapsed >= explosionDelay;
 
         // DEBUG: Afficher l'état toutes les 1s
-        if (elapsed % 1000 < 50) { // Affiche environ toutes les 1s
-            System.out.println("⏰ Bombe (" + x + "," + y + ") - Elapsed: " + elapsed + "ms / " + explosionDelay + "ms" +
-                    " - ShouldExplode: " + shouldExplode + " - TimeRemaining: " + getTimeRemaining() + "ms");
+        if (GameLog.isEnabled() && elapsed % 1000 < 50) { // Affiche environ toutes les 1s
+            GameLog.log("⏰ Bombe (" + x + "," + y + ") - Elapsed: " + elapsed + "ms / " + explosionDelay + "ms" +
+                    " - ShouldExplode: " + shouldExplode + " - TimeRemaining: " + getTimeRemaining(now) + "ms");
         }
 
-        if (shouldExplode && !exploded) {
-            System.out.println("💥 BOMBE PRÊTE À EXPLOSER! (" + x + "," + y + ") après " + elapsed + "ms");
+        if (shouldExplode && GameLog.isEnabled()) {
+            GameLog.log("💥 BOMBE PRÊTE À EXPLOSER! (" + x + "," + y + ") après " + elapsed + "ms");
         }
 
         return shouldExplode;
@@ -84,19 +131,21 @@ public class Bomb {
     public void explode() {
         if (!exploded) {
             this.exploded = true;
-            long elapsed = System.currentTimeMillis() - timeCreated;
-            System.out.println("🔥 EXPLOSION DÉCLENCHÉE! Bombe (" + x + "," + y + ") après " + elapsed + "ms");
+            if (GameLog.isEnabled()) {
+                GameLog.log("🔥 EXPLOSION DÉCLENCHÉE! Bombe (" + x + "," + y + ")");
+            }
         }
     }
 
     /**
      * Calcule le temps restant avant explosion.
      *
+     * @param now Temps de jeu courant en millisecondes
      * @return Temps restant en millisecondes (0 si explosée)
      */
-    public long getTimeRemaining() {
+    public long getTimeRemaining(long now) {
         if (exploded) return 0;
-        long remaining = explosionDelay - (System.currentTimeMillis() - timeCreated);
+        long remaining = explosionDelay - (now - timeCreated);
         return Math.max(0, remaining);
     }
 
@@ -104,11 +153,12 @@ public class Bomb {
      * Calcule le pourcentage de temps écoulé depuis la création.
      * Utilisé pour les animations de clignotement.
      *
+     * @param now Temps de jeu courant en millisecondes
      * @return Pourcentage entre 0.0 et 1.0
      */
-    public double getTimeProgress() {
+    public double getTimeProgress(long now) {
         if (exploded) return 1.0;
-        long elapsed = System.currentTimeMillis() - timeCreated;
+        long elapsed = now - timeCreated;
         return Math.min(1.0, (double) elapsed / explosionDelay);
     }
 
@@ -116,17 +166,18 @@ public class Bomb {
      * Force l'explosion immédiate de la bombe (pour les tests).
      */
     public void forceExplode() {
-        System.out.println("🚨 EXPLOSION FORCÉE! Bombe (" + x + "," + y + ")");
+        GameLog.log("🚨 EXPLOSION FORCÉE! Bombe (" + x + "," + y + ")");
         this.exploded = true;
     }
 
     /**
      * Vérifie si la bombe est prête à exploser sans déclencher l'explosion.
      *
+     * @param now Temps de jeu courant en millisecondes
      * @return true si le délai est écoulé
      */
-    public boolean isReadyToExplode() {
-        return !exploded && (System.currentTimeMillis() - timeCreated >= explosionDelay);
+    public boolean isReadyToExplode(long now) {
+        return !exploded && (now - timeCreated >= explosionDelay);
     }
 
     /**
@@ -165,9 +216,9 @@ public class Bomb {
     public boolean isExploded() { return exploded; }
 
     /**
-     * Retourne le timestamp de création de la bombe.
+     * Retourne le temps de jeu à la création de la bombe.
      *
-     * @return Timestamp en millisecondes
+     * @return Temps de jeu en millisecondes
      */
     public long getTimeCreated() { return timeCreated; }
 
@@ -185,7 +236,7 @@ public class Bomb {
      */
     public void setExplosionDelay(long explosionDelay) {
         this.explosionDelay = explosionDelay;
-        System.out.println("⚡ Délai d'explosion modifié pour bombe (" + x + "," + y + "): " + explosionDelay + "ms");
+        if (GameLog.isEnabled()) GameLog.log("⚡ Délai d'explosion modifié pour bombe (" + x + "," + y + "): " + explosionDelay + "ms");
     }
 
     /**
@@ -195,7 +246,7 @@ public class Bomb {
      */
     @Override
     public String toString() {
-        return String.format("Bomb{pos=(%d,%d), owner=%d, exploded=%s, timeRemaining=%dms, progress=%.2f}",
-                x, y, ownerId, exploded, getTimeRemaining(), getTimeProgress());
+        return String.format("Bomb{pos=(%d,%d), owner=%d, exploded=%s, created=%dms, delay=%dms}",
+                x, y, ownerId, exploded, timeCreated, explosionDelay);
     }
 }
\ No newline at end of file
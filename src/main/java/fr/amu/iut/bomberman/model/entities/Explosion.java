@@ -1,5 +1,7 @@
 package fr.amu.iut.bomberman.model.entities;
 
+import fr.amu.iut.bomberman.model.common.GameLog;
+
 /**
  * Représente une entité d'explosion temporaire dans le jeu.
  * Gère la durée de vie et les animations des explosions.
@@ -10,7 +12,7 @@ public class Explosion {
     /** Position X de l'explosion sur la grille */
     private int x, y;
 
-    /** Timestamp de création de l'explosion */
+    /** Temps de jeu à la création de l'explosion (millisecondes, horloge du GameEngine) */
     private long timeCreated;
 
     /** Durée de vie de l'explosion en millisecondes */
@@ -33,17 +35,20 @@ public class Explosion {
      *
      * @param x Position X sur la grille
      * @param y Position Y sur la grille
+     * @param timeCreated Temps de jeu courant en millisecondes
      */
-    public Explosion(int x, int y) {
+    public Explosion(int x, int y, long timeCreated) {
         this.x = x;
         this.y = y;
-        this.timeCreated = System.currentTimeMillis();
+        this.timeCreated = timeCreated;
         this.duration = DEFAULT_DURATION;
         this.active = true;
         this.damaging = true;
 
         // DEBUG: Afficher la création de l'explosion
-        System.out.println("💥 Explosion créée en (" + x + "," + y + ") à " + timeCreated);
+        if (GameLog.isEnabled()) {
+            GameLog.log("💥 Explosion créée en (" + x + "," + y + ") à " + timeCreated);
+        }
     }
 
     /**
@@ -51,42 +56,89 @@ public class Explosion {
      *
      * @param x Position X sur la grille
      * @param y Position Y sur la grille
+     * @param timeCreated Temps de jeu courant en millisecondes
      * @param duration Durée de vie en millisecondes
      */
-    public Explosion(int x, int y, long duration) {
+    public Explosion(int x, int y, long timeCreated, long duration) {
         this.x = x;
         this.y = y;
-        this.timeCreated = System.currentTimeMillis();
+        this.timeCreated = timeCreated;
         this.duration = duration;
         this.active = true;
         this.damaging = true;
 
         // DEBUG: Afficher la création de l'explosion
-        System.out.println("💥 Explosion créée en (" + x + "," + y + ") à " + timeCreated + " (durée: " + duration + "ms)");
+        if (GameLog.isEnabled()) {
+            GameLog.log("💥 Explosion créée en (" + x + "," + y + ") à " + timeCreated + " (durée: " + duration + "ms)");
+        }
+    }
+
+    /**
+     * Constructeur de copie, sans trace de debug (copies de l'état d'une partie).
+     *
+     * @param other Explosion copiée
+     */
+    public Explosion(Explosion other) {
+        this.x = other.x;
+        this.y = other.y;
+        this.timeCreated = other.timeCreated;
+        this.duration = other.duration;
+        this.active = other.active;
+        this.damaging = other.damaging;
+    }
+
+    /**
+     * Constructeur d'une vue vide du stockage des entités (voir EntityStore), remplie par set.
+     */
+    public Explosion() {
+    }
+
+    /**
+     * Remplit l'explosion avec l'état d'une ligne du stockage des entités, sans trace de debug.
+     *
+     * @param x Position X sur la grille
+     * @param y Position Y sur la grille
+     * @param timeCreated Temps de jeu de création en millisecondes
+     * @param duration Durée de vie en millisecondes
+     * @param active true si l'explosion est active
+     * @param damaging true si l'explosion inflige des dégâts
+     */
+    public void set(int x, int y, long timeCreated, long duration, boolean active, boolean damaging) {
+        this.x = x;
+        this.y = y;
+        this.timeCreated = timeCreated;
+        this.duration = duration;
+        this.active = active;
+        this.damaging = damaging;
     }
 
     /**
      * Met à jour l'état de l'explosion.
      * Vérifie si elle doit être désactivée selon sa durée de vie.
      *
+     * @param now Temps de jeu courant en millisecondes
      * @return true si l'explosion est encore active
      */
-    public boolean update() {
+    public boolean update(long now) {
         if (!active) return false;
 
-        long elapsed = System.currentTimeMillis() - timeCreated;
+        long elapsed = now - timeCreated;
 
         // Arrêter les dégâts après DAMAGE_DURATION
         if (damaging && elapsed >= DAMAGE_DURATION) {
             damaging = false;
-            System.out.println("🔥 Explosion (" + x + "," + y + ") n'inflige plus de dégâts après " + elapsed + "ms");
+            if (GameLog.isEnabled()) {
+                GameLog.log("🔥 Explosion (" + x + "," + y + ") n'inflige plus de dégâts après " + elapsed + "ms");
+            }
         }
 
         // Désactiver complètement après la durée totale
         if (elapsed >= duration) {
             active = false;
             damaging = false;
-            System.out.println("💨 Explosion (" + x + "," + y + ") désactivée après " + elapsed + "ms");
+            if (GameLog.isEnabled()) {
+                GameLog.log("💨 Explosion (" + x + "," + y + ") désactivée après " + elapsed + "ms");
+            }
         }
 
         return active;
@@ -96,11 +148,12 @@ public class Explosion {
      * Calcule le pourcentage de temps écoulé depuis la création.
      * Utilisé pour les effets d'animation et de fade-out.
      *
+     * @param now Temps de jeu courant en millisecondes
      * @return Pourcentage entre 0.0 et 1.0
      */
-    public double getTimeProgress() {
+    public double getTimeProgress(long now) {
         if (!active) return 1.0;
-        long elapsed = System.currentTimeMillis() - timeCreated;
+        long elapsed = now - timeCreated;
         return Math.min(1.0, (double) elapsed / duration);
     }
 
@@ -118,11 +171,12 @@ public class Explosion {
      * Vérifie si l'explosion est dans sa phase de disparition.
      * Utilisé pour les effets visuels de fade-out.
      *
+     * @param now Temps de jeu courant en millisecondes
      * @return true si l'explosion est en train de disparaître
      */
-    public boolean isFading() {
+    public boolean isFading(long now) {
         if (!active) return false;
-        long elapsed = System.currentTimeMillis() - timeCreated;
+        long elapsed = now - timeCreated;
         return elapsed > DAMAGE_DURATION;
     }
 
@@ -130,8 +184,8 @@ public class Explosion {
      * Désactive manuellement l'explosion avant la fin de sa durée.
      */
     public void deactivate() {
-        if (active) {
-            System.out.println("🚫 Explosion (" + x + "," + y + ") désactivée manuellement");
+        if (active && GameLog.isEnabled()) {
+            GameLog.log("🚫 Explosion (" + x + "," + y + ") désactivée manuellement");
         }
         this.active = false;
         this.damaging = false;
@@ -142,8 +196,8 @@ public class Explosion {
      * Utilisé quand l'explosion doit rester visible mais ne plus être dangereuse.
      */
     public void stopDamage() {
-        if (damaging) {
-            System.out.println("⚡ Explosion (" + x + "," + y + ") arrête d'infliger des dégâts");
+        if (damaging && GameLog.isEnabled()) {
+            GameLog.log("⚡ Explosion (" + x + "," + y + ") arrête d'infliger des dégâts");
         }
         this.damaging = false;
     }
@@ -151,11 +205,12 @@ public class Explosion {
     /**
      * Calcule le temps restant avant désactivation complète.
      *
+     * @param now Temps de jeu courant en millisecondes
      * @return Temps restant en millisecondes
      */
-    public long getTimeRemaining() {
+    public long getTimeRemaining(long now) {
         if (!active) return 0;
-        long elapsed = System.currentTimeMillis() - timeCreated;
+        long elapsed = now - timeCreated;
         return Math.max(0, duration - elapsed);
     }
 
@@ -188,9 +243,9 @@ public class Explosion {
     public boolean isDamaging() { return damaging; }
 
     /**
-     * Retourne le timestamp de création.
+     * Retourne le temps de jeu à la création.
      *
-     * @return Timestamp en millisecondes
+     * @return Temps de jeu en millisecondes
      */
     public long getTimeCreated() { return timeCreated; }
 
@@ -208,7 +263,7 @@ public class Explosion {
      */
     @Override
     public String toString() {
-        return String.format("Explosion{pos=(%d,%d), active=%s, damaging=%s, progress=%.2f, timeRemaining=%dms}",
-                x, y, active, damaging, getTimeProgress(), getTimeRemaining());
+        return String.format("Explosion{pos=(%d,%d), active=%s, damaging=%s, created=%dms, duration=%dms}",
+                x, y, active, damaging, timeCreated, duration);
     }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package fr.amu.iut.bomberman.model.entities;
 
+import fr.amu.iut.bomberman.model.common.GameLog;
 import javafx.scene.paint.Color;
 
 /**
@@ -36,6 +37,12 @@ public class Player {
     /** Indique si le joueur est encore vivant */
     private boolean alive;
 
+    /** Bonus de vitesse actifs (power-ups temporaires cumulables) */
+    private int speedBoosts;
+
+    /** Boucliers actifs (power-ups temporaires cumulables) */
+    private int shields;
+
     /** Couleur d'affichage du joueur */
     private Color color;
 
@@ -72,6 +79,27 @@ public class Player {
         this.alive = true;
     }
 
+    /**
+     * Recopie l'état de jeu d'un autre joueur (position, vies, score, bombes, portée).
+     * L'identifiant, la couleur et le nom sont conservés.
+     *
+     * @param other Joueur copié
+     */
+    public void copyStateFrom(Player other) {
+        this.x = other.x;
+        this.y = other.y;
+        this.gridX = other.gridX;
+        this.gridY = other.gridY;
+        this.lives = other.lives;
+        this.score = other.score;
+        this.bombCount = other.bombCount;
+        this.maxBombs = other.maxBombs;
+        this.explosionRange = other.explosionRange;
+        this.alive = other.alive;
+        this.speedBoosts = other.speedBoosts;
+        this.shields = other.shields;
+    }
+
     /**
      * Met à jour l'état du joueur (méthode pour compatibilité future).
      *
@@ -131,7 +159,9 @@ public class Player {
         lives = 0; // Mort instantanée
         alive = false;
 
-        System.out.println("💀 " + name + " est mort instantanément!");
+        if (GameLog.isEnabled()) {
+            GameLog.log("💀 " + name + " est mort instantanément!");
+        }
     }
 
     /**
@@ -149,7 +179,9 @@ public class Player {
      */
     public void increaseBombCapacity() {
         maxBombs++;
-        System.out.println("💣 " + name + " peut maintenant placer " + maxBombs + " bombe(s)");
+        if (GameLog.isEnabled()) {
+            GameLog.log("💣 " + name + " peut maintenant placer " + maxBombs + " bombe(s)");
+        }
     }
 
     /**
@@ -158,7 +190,9 @@ public class Player {
      */
     public void increaseExplosionRange() {
         explosionRange++;
-        System.out.println("💥 Portée d'explosion de " + name + " augmentée à " + explosionRange);
+        if (GameLog.isEnabled()) {
+            GameLog.log("💥 Portée d'explosion de " + name + " augmentée à " + explosionRange);
+        }
     }
 
     /**
@@ -166,8 +200,50 @@ public class Player {
      * Power-up pour une meilleure mobilité.
      */
     public void increaseSpeed() {
-        // Implémentation future pour la vitesse
-        System.out.println("⚡ " + name + " est plus rapide!");
+        speedBoosts++;
+        if (GameLog.isEnabled()) {
+            GameLog.log("⚡ " + name + " est plus rapide!");
+        }
+    }
+
+    /**
+     * Retire un bonus de vitesse arrivé à expiration.
+     */
+    public void decreaseSpeed() {
+        if (speedBoosts > 0) {
+            speedBoosts--;
+        }
+    }
+
+    /**
+     * Adapte un délai entre deux déplacements à la vitesse du joueur :
+     * avec n bonus actifs (au plus 4), le délai vaut base * 4 / (4 + n), soit 0,8x, 0,67x,
+     * 0,57x puis 0,5x du délai de base.
+     *
+     * @param baseDelay Délai entre deux déplacements sans bonus
+     * @return Délai à appliquer au joueur
+     */
+    public long scaleMoveDelay(long baseDelay) {
+        return baseDelay * 4 / (4 + Math.min(speedBoosts, 4));
+    }
+
+    /**
+     * Ajoute un bouclier : le joueur ignore les explosions tant qu'il en a un.
+     */
+    public void addShield() {
+        shields++;
+        if (GameLog.isEnabled()) {
+            GameLog.log("🛡️ " + name + " est protégé!");
+        }
+    }
+
+    /**
+     * Retire un bouclier arrivé à expiration.
+     */
+    public void removeShield() {
+        if (shields > 0) {
+            shields--;
+        }
     }
 
     /**
@@ -184,7 +260,7 @@ public class Player {
         this.y = startY * CELL_SIZE + CELL_SIZE / 2.0;
         this.alive = true;
         this.lives = 1; // Une seule vie
-        System.out.println("🔄 " + name + " respawn en (" + startX + "," + startY + ")");
+        GameLog.log("🔄 " + name + " respawn en (" + startX + "," + startY + ")");
     }
 
     /**
@@ -264,6 +340,20 @@ public class Player {
      */
     public boolean isAlive() { return alive; }
 
+    /**
+     * Indique si le joueur est protégé des explosions par un bouclier.
+     *
+     * @return true si au moins un bouclier est actif
+     */
+    public boolean isShielded() { return shields > 0; }
+
+    /**
+     * Retourne le nombre de bonus de vitesse actifs.
+     *
+     * @return Bonus de vitesse
+     */
+    public int getSpeedBoosts() { return speedBoosts; }
+
     /**
      * Retourne la couleur d'affichage du joueur.
      *
@@ -278,6 +368,13 @@ public class Player {
      */
     public String getName() { return name; }
 
+    /**
+     * Modifie le nombre de bombes actuellement posées par le joueur.
+     *
+     * @param bombCount Nombre de bombes actives
+     */
+    public void setBombCount(int bombCount) { this.bombCount = bombCount; }
+
     /**
      * Modifie le nombre de vies du joueur.
      *
@@ -0,0 +1,95 @@
+package fr.amu.iut.bomberman.model.entities;
+
+import fr.amu.iut.bomberman.model.common.AliasTable;
+
+/**
+ * Types de power-ups laissés par les murs destructibles, avec leur poids de tirage et,
+ * pour les effets temporaires, leur durée.
+ */
+public enum PowerUpType {
+    /** Une bombe de plus, définitivement */
+    BOMB_CAPACITY("Bombe +1", 'B', 40, 0),
+
+    /** Une case de portée de plus, définitivement */
+    EXPLOSION_RANGE("Portée +1", 'F', 40, 0),
+
+    /** Déplacements plus rapides pendant 10 secondes */
+    SPEED("Vitesse", 'V', 15, 10_000),
+
+    /** Insensible aux explosions pendant 5 secondes */
+    SHIELD("Bouclier", 'S', 5, 5_000);
+
+    /** Types indexés par ordinal */
+    private static final PowerUpType[] VALUES = values();
+
+    /** Table de tirage pondéré des types, construite une fois */
+    private static final AliasTable DROP_TABLE;
+
+    static {
+        double[] weights = new double[VALUES.length];
+        for (PowerUpType type : VALUES) {
+            weights[type.ordinal()] = type.weight;
+        }
+        DROP_TABLE = new AliasTable(weights);
+    }
+
+    /** Nom affiché */
+    private final String label;
+
+    /** Lettre dessinée sur la case */
+    private final char symbol;
+
+    /** Poids relatif de tirage */
+    private final int weight;
+
+    /** Durée de l'effet en millisecondes de jeu, 0 pour un effet permanent */
+    private final long durationMs;
+
+    PowerUpType(String label, char symbol, int weight, long durationMs) {
+        this.label = label;
+        this.symbol = symbol;
+        this.weight = weight;
+        this.durationMs = durationMs;
+    }
+
+    /**
+     * Tire un type selon les poids, en temps constant.
+     *
+     * @param bits 64 bits aléatoires
+     * @return Type tiré
+     */
+    public static PowerUpType roll(long bits) {
+        return VALUES[DROP_TABLE.sample(bits)];
+    }
+
+    /**
+     * Retourne le type correspondant à un ordinal.
+     *
+     * @param ordinal Ordinal du type
+     * @return Le type
+     */
+    public static PowerUpType fromOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+
+    /**
+     * Indique si l'effet est temporaire.
+     *
+     * @return true si l'effet expire
+     */
+    public boolean isTimed() {
+        return durationMs > 0;
+    }
+
+    /** @return Nom affiché */
+    public String getLabel() { return label; }
+
+    /** @return Lettre dessinée sur la case */
+    public char getSymbol() { return symbol; }
+
+    /** @return Poids relatif de tirage */
+    public int getWeight() { return weight; }
+
+    /** @return Durée de l'effet en millisecondes de jeu, 0 si permanent */
+    public long getDurationMs() { return durationMs; }
+}
@@ -0,0 +1,482 @@
+package fr.amu.iut.bomberman.model.game;
+
+import fr.amu.iut.bomberman.model.entities.Bomb;
+import fr.amu.iut.bomberman.model.entities.Explosion;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Bombes et explosions d'une partie rangées en colonnes (struct of arrays) : une entité
+ * est une ligne de tableaux primitifs parallèles (position, propriétaire, tick
+ * d'échéance...), les lignes étant denses et dans l'ordre de création. Les passes du
+ * moteur (collisions, bombe sur une case, dangers des bots) sont des parcours linéaires
+ * de ces tableaux, sans objet ni indirection.
+ * <p>
+ * Chaque entité garde un identifiant stable pendant sa vie (échéances de la roue
+ * temporelle) ; ses données se lisent à son rang dans les tableaux, que donne
+ * bombSlot/explosionSlot. Un identifiant libéré n'est réutilisé qu'après un délai
+ * compté en ticks (IdPool, voir tick()). Les Bomb et Explosion de l'API publique sont des vues,
+ * une par identifiant, remplies à chaque instantané : grâce au délai, un instantané en
+ * cours d'affichage ne voit pas ses objets changer d'entité.
+ * <p>
+ * Les changements de structure (ajout, retrait, copie) et les instantanés sont
+ * synchronisés, les autres accès sont réservés au thread du moteur.
+ */
+public class EntityStore {
+
+    /** Drapeaux d'une explosion (mêmes valeurs que dans GameEngine.saveState) */
+    private static final byte ACTIVE = 1;
+    private static final byte DAMAGING = 2;
+
+    /** Capacité initiale des tableaux */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** Nombre de bombes */
+    private int bombCount;
+
+    /** Colonnes des bombes, indexées par rang */
+    private int[] bombIds = new int[INITIAL_CAPACITY];
+    private int[] bombX = new int[INITIAL_CAPACITY];
+    private int[] bombY = new int[INITIAL_CAPACITY];
+    private byte[] bombOwner = new byte[INITIAL_CAPACITY];
+    private int[] bombRange = new int[INITIAL_CAPACITY];
+    private long[] bombCreated = new long[INITIAL_CAPACITY];
+    private long[] bombDelay = new long[INITIAL_CAPACITY];
+    private long[] bombExpiry = new long[INITIAL_CAPACITY];
+    private boolean[] bombExploded = new boolean[INITIAL_CAPACITY];
+
+    /** Identifiants des bombes */
+    private final IdPool bombIdPool;
+
+    /** Rang de chaque bombe, indexé par identifiant, -1 si l'identifiant est libre */
+    private int[] bombSlotOf = new int[INITIAL_CAPACITY];
+
+    /** Vues des bombes, indexées par identifiant */
+    private Bomb[] bombViews = new Bomb[0];
+
+    /** Nombre d'explosions */
+    private int explosionCount;
+
+    /** Colonnes des explosions, indexées par rang */
+    private int[] explosionIds = new int[INITIAL_CAPACITY];
+    private int[] explosionX = new int[INITIAL_CAPACITY];
+    private int[] explosionY = new int[INITIAL_CAPACITY];
+    private long[] explosionCreated = new long[INITIAL_CAPACITY];
+    private long[] explosionDuration = new long[INITIAL_CAPACITY];
+    private long[] explosionExpiry = new long[INITIAL_CAPACITY];
+    private byte[] explosionFlags = new byte[INITIAL_CAPACITY];
+
+    /** Identifiants des explosions */
+    private final IdPool explosionIdPool;
+
+    /** Rang de chaque explosion, indexé par identifiant, -1 si l'identifiant est libre */
+    private int[] explosionSlotOf = new int[INITIAL_CAPACITY];
+
+    /** Vues des explosions, indexées par identifiant */
+    private Explosion[] explosionViews = new Explosion[0];
+
+    /** Horloge des délais de réutilisation, avancée par tick() */
+    private long clock;
+
+    /**
+     * Constructeur d'un stockage vide.
+     *
+     * @param recycleDelay Ticks d'attente avant la réutilisation d'un identifiant
+     *                     (0 pour un moteur de simulation, dont personne ne lit d'instantané)
+     */
+    public EntityStore(int recycleDelay) {
+        this.bombIdPool = new IdPool(recycleDelay);
+        this.explosionIdPool = new IdPool(recycleDelay);
+    }
+
+    /**
+     * Avance l'horloge des délais de réutilisation d'un tick.
+     */
+    public void tick() {
+        clock++;
+    }
+
+    // ---- Bombes ----
+
+    /**
+     * Ajoute une bombe.
+     *
+     * @param x Position X
+     * @param y Position Y
+     * @param ownerId Joueur propriétaire
+     * @param range Portée de l'explosion
+     * @param timeCreated Temps de jeu de la pose, en millisecondes
+     * @param delay Délai avant explosion, en millisecondes
+     * @param expiryTick Tick de l'explosion
+     * @return Identifiant de la bombe
+     */
+    public synchronized int addBomb(int x, int y, int ownerId, int range, long timeCreated, long delay, long expiryTick) {
+        if (bombCount == bombIds.length) growBombs();
+        int id = bombIdPool.acquire(clock);
+        if (id == bombSlotOf.length) bombSlotOf = Arrays.copyOf(bombSlotOf, id * 2);
+        int slot = bombCount++;
+        bombIds[slot] = id;
+        bombX[slot] = x;
+        bombY[slot] = y;
+        bombOwner[slot] = (byte) ownerId;
+        bombRange[slot] = range;
+        bombCreated[slot] = timeCreated;
+        bombDelay[slot] = delay;
+        bombExpiry[slot] = expiryTick;
+        bombExploded[slot] = false;
+        bombSlotOf[id] = slot;
+        return id;
+    }
+
+    /**
+     * Retire les bombes marquées explosées, en gardant l'ordre des autres.
+     *
+     * @return Nombre de bombes retirées
+     */
+    public synchronized int removeExplodedBombs() {
+        int kept = 0;
+        for (int i = 0; i < bombCount; i++) {
+            int id = bombIds[i];
+            if (bombExploded[i]) {
+                bombIdPool.release(id, clock);
+                bombSlotOf[id] = -1;
+                continue;
+            }
+            if (kept != i) {
+                bombIds[kept] = id;
+                bombX[kept] = bombX[i];
+                bombY[kept] = bombY[i];
+                bombOwner[kept] = bombOwner[i];
+                bombRange[kept] = bombRange[i];
+                bombCreated[kept] = bombCreated[i];
+                bombDelay[kept] = bombDelay[i];
+                bombExpiry[kept] = bombExpiry[i];
+                bombExploded[kept] = false;
+            }
+            bombSlotOf[id] = kept++;
+        }
+        int removed = bombCount - kept;
+        bombCount = kept;
+        return removed;
+    }
+
+    /**
+     * Cherche la bombe posée sur une case.
+     *
+     * @param x Position X
+     * @param y Position Y
+     * @return Rang de la bombe, -1 si la case n'en porte pas
+     */
+    public int findBomb(int x, int y) {
+        for (int i = 0; i < bombCount; i++) {
+            if (bombX[i] == x && bombY[i] == y) return i;
+        }
+        return -1;
+    }
+
+    /** @return Nombre de bombes */
+    public int getBombCount() { return bombCount; }
+
+    /** @param id Identifiant d'une bombe en jeu @return Son rang */
+    public int bombSlot(int id) { return bombSlotOf[id]; }
+
+    /** @param slot Rang @return Identifiant de la bombe */
+    public int bombId(int slot) { return bombIds[slot]; }
+
+    /** @param slot Rang @return Position X de la bombe */
+    public int bombX(int slot) { return bombX[slot]; }
+
+    /** @param slot Rang @return Position Y de la bombe */
+    public int bombY(int slot) { return bombY[slot]; }
+
+    /** @param slot Rang @return Joueur propriétaire */
+    public int bombOwner(int slot) { return bombOwner[slot]; }
+
+    /** @param slot Rang @return Portée de l'explosion */
+    public int bombRange(int slot) { return bombRange[slot]; }
+
+    /** @param slot Rang @return Temps de jeu de la pose, en millisecondes */
+    public long bombTimeCreated(int slot) { return bombCreated[slot]; }
+
+    /** @param slot Rang @return Délai avant explosion, en millisecondes */
+    public long bombDelay(int slot) { return bombDelay[slot]; }
+
+    /** @param slot Rang @return Tick de l'explosion */
+    public long bombExpiryTick(int slot) { return bombExpiry[slot]; }
+
+    /**
+     * Marque une bombe explosée ; elle est retirée par removeExplodedBombs.
+     *
+     * @param slot Rang de la bombe
+     */
+    public void markBombExploded(int slot) {
+        bombExploded[slot] = true;
+    }
+
+    // ---- Explosions ----
+
+    /**
+     * Ajoute une explosion active et dangereuse.
+     *
+     * @param x Position X
+     * @param y Position Y
+     * @param timeCreated Temps de jeu de création, en millisecondes
+     * @param duration Durée de vie, en millisecondes
+     * @param expiryTick Tick de disparition
+     * @return Identifiant de l'explosion
+     */
+    public synchronized int addExplosion(int x, int y, long timeCreated, long duration, long expiryTick) {
+        if (explosionCount == explosionIds.length) growExplosions();
+        int id = explosionIdPool.acquire(clock);
+        if (id == explosionSlotOf.length) explosionSlotOf = Arrays.copyOf(explosionSlotOf, id * 2);
+        int slot = explosionCount++;
+        explosionIds[slot] = id;
+        explosionX[slot] = x;
+        explosionY[slot] = y;
+        explosionCreated[slot] = timeCreated;
+        explosionDuration[slot] = duration;
+        explosionExpiry[slot] = expiryTick;
+        explosionFlags[slot] = ACTIVE | DAMAGING;
+        explosionSlotOf[id] = slot;
+        return id;
+    }
+
+    /**
+     * Retire les explosions désactivées, en gardant l'ordre des autres.
+     *
+     * @return Nombre d'explosions retirées
+     */
+    public synchronized int removeInactiveExplosions() {
+        int kept = 0;
+        for (int i = 0; i < explosionCount; i++) {
+            int id = explosionIds[i];
+            if ((explosionFlags[i] & ACTIVE) == 0) {
+                explosionIdPool.release(id, clock);
+                explosionSlotOf[id] = -1;
+                continue;
+            }
+            if (kept != i) {
+                explosionIds[kept] = id;
+                explosionX[kept] = explosionX[i];
+                explosionY[kept] = explosionY[i];
+                explosionCreated[kept] = explosionCreated[i];
+                explosionDuration[kept] = explosionDuration[i];
+                explosionExpiry[kept] = explosionExpiry[i];
+                explosionFlags[kept] = explosionFlags[i];
+            }
+            explosionSlotOf[id] = kept++;
+        }
+        int removed = explosionCount - kept;
+        explosionCount = kept;
+        return removed;
+    }
+
+    /**
+     * Indique si une explosion active et dangereuse couvre une case (passe de collision).
+     *
+     * @param x Position X
+     * @param y Position Y
+     * @return true si la case blesse
+     */
+    public boolean isDamaging(int x, int y) {
+        for (int i = 0; i < explosionCount; i++) {
+            if (explosionX[i] == x && explosionY[i] == y && explosionFlags[i] == (ACTIVE | DAMAGING)) return true;
+        }
+        return false;
+    }
+
+    /** @return Nombre d'explosions */
+    public int getExplosionCount() { return explosionCount; }
+
+    /** @param id Identifiant d'une explosion en jeu @return Son rang */
+    public int explosionSlot(int id) { return explosionSlotOf[id]; }
+
+    /** @param slot Rang @return Identifiant de l'explosion */
+    public int explosionId(int slot) { return explosionIds[slot]; }
+
+    /** @param slot Rang @return Position X de l'explosion */
+    public int explosionX(int slot) { return explosionX[slot]; }
+
+    /** @param slot Rang @return Position Y de l'explosion */
+    public int explosionY(int slot) { return explosionY[slot]; }
+
+    /** @param slot Rang @return Temps de jeu de création, en millisecondes */
+    public long explosionTimeCreated(int slot) { return explosionCreated[slot]; }
+
+    /** @param slot Rang @return Durée de vie, en millisecondes */
+    public long explosionDuration(int slot) { return explosionDuration[slot]; }
+
+    /** @param slot Rang @return Tick de disparition */
+    public long explosionExpiryTick(int slot) { return explosionExpiry[slot]; }
+
+    /** @param slot Rang @return true si l'explosion est active */
+    public boolean isExplosionActive(int slot) { return (explosionFlags[slot] & ACTIVE) != 0; }
+
+    /** @param slot Rang @return true si l'explosion inflige encore des dégâts */
+    public boolean isExplosionDamaging(int slot) { return (explosionFlags[slot] & DAMAGING) != 0; }
+
+    /**
+     * Arrête les dégâts d'une explosion, qui reste visible.
+     *
+     * @param slot Rang de l'explosion
+     */
+    public void stopDamage(int slot) {
+        explosionFlags[slot] &= ~DAMAGING;
+    }
+
+    /**
+     * Désactive une explosion ; elle est retirée par removeInactiveExplosions.
+     *
+     * @param slot Rang de l'explosion
+     */
+    public void deactivate(int slot) {
+        explosionFlags[slot] = 0;
+    }
+
+    // ---- Ensemble ----
+
+    /**
+     * Retire toutes les bombes et explosions (nouvelle partie, état restauré).
+     */
+    public synchronized void clear() {
+        for (int i = 0; i < bombCount; i++) {
+            bombIdPool.release(bombIds[i], clock);
+            bombSlotOf[bombIds[i]] = -1;
+        }
+        for (int i = 0; i < explosionCount; i++) {
+            explosionIdPool.release(explosionIds[i], clock);
+            explosionSlotOf[explosionIds[i]] = -1;
+        }
+        bombCount = 0;
+        explosionCount = 0;
+    }
+
+    /**
+     * Recopie le contenu d'un autre stockage, identifiants compris : les échéances qui
+     * désignent ses entités restent valables pour la copie.
+     *
+     * @param source Stockage copié, qui ne doit pas être modifié pendant la copie
+     */
+    public synchronized void copyFrom(EntityStore source) {
+        if (bombIds.length < source.bombCount) {
+            bombIds = new int[source.bombIds.length];
+            bombX = new int[source.bombIds.length];
+            bombY = new int[source.bombIds.length];
+            bombOwner = new byte[source.bombIds.length];
+            bombRange = new int[source.bombIds.length];
+            bombCreated = new long[source.bombIds.length];
+            bombDelay = new long[source.bombIds.length];
+            bombExpiry = new long[source.bombIds.length];
+            bombExploded = new boolean[source.bombIds.length];
+        }
+        int n = source.bombCount;
+        System.arraycopy(source.bombIds, 0, bombIds, 0, n);
+        System.arraycopy(source.bombX, 0, bombX, 0, n);
+        System.arraycopy(source.bombY, 0, bombY, 0, n);
+        System.arraycopy(source.bombOwner, 0, bombOwner, 0, n);
+        System.arraycopy(source.bombRange, 0, bombRange, 0, n);
+        System.arraycopy(source.bombCreated, 0, bombCreated, 0, n);
+        System.arraycopy(source.bombDelay, 0, bombDelay, 0, n);
+        System.arraycopy(source.bombExpiry, 0, bombExpiry, 0, n);
+        System.arraycopy(source.bombExploded, 0, bombExploded, 0, n);
+        bombCount = n;
+        bombIdPool.copyFrom(source.bombIdPool);
+        if (bombSlotOf.length < source.bombSlotOf.length) bombSlotOf = new int[source.bombSlotOf.length];
+        System.arraycopy(source.bombSlotOf, 0, bombSlotOf, 0, source.bombSlotOf.length);
+
+        if (explosionIds.length < source.explosionCount) {
+            explosionIds = new int[source.explosionIds.length];
+            explosionX = new int[source.explosionIds.length];
+            explosionY = new int[source.explosionIds.length];
+            explosionCreated = new long[source.explosionIds.length];
+            explosionDuration = new long[source.explosionIds.length];
+            explosionExpiry = new long[source.explosionIds.length];
+            explosionFlags = new byte[source.explosionIds.length];
+        }
+        n = source.explosionCount;
+        System.arraycopy(source.explosionIds, 0, explosionIds, 0, n);
+        System.arraycopy(source.explosionX, 0, explosionX, 0, n);
+        System.arraycopy(source.explosionY, 0, explosionY, 0, n);
+        System.arraycopy(source.explosionCreated, 0, explosionCreated, 0, n);
+        System.arraycopy(source.explosionDuration, 0, explosionDuration, 0, n);
+        System.arraycopy(source.explosionExpiry, 0, explosionExpiry, 0, n);
+        System.arraycopy(source.explosionFlags, 0, explosionFlags, 0, n);
+        explosionCount = n;
+        explosionIdPool.copyFrom(source.explosionIdPool);
+        if (explosionSlotOf.length < source.explosionSlotOf.length) explosionSlotOf = new int[source.explosionSlotOf.length];
+        System.arraycopy(source.explosionSlotOf, 0, explosionSlotOf, 0, source.explosionSlotOf.length);
+
+        clock = source.clock;
+    }
+
+    /**
+     * Retourne les bombes sous forme de vues, remplies avec leur état courant.
+     *
+     * @return Nouvelle liste de vues, dans l'ordre de pose
+     */
+    public synchronized List<Bomb> bombSnapshot() {
+        List<Bomb> snapshot = new ArrayList<>(bombCount);
+        for (int i = 0; i < bombCount; i++) {
+            int id = bombIds[i];
+            if (id >= bombViews.length) bombViews = Arrays.copyOf(bombViews, Math.max(id + 1, bombViews.length * 2));
+            Bomb view = bombViews[id];
+            if (view == null) view = bombViews[id] = new Bomb();
+            view.set(bombX[i], bombY[i], bombOwner[i], bombRange[i], bombCreated[i], bombDelay[i], bombExploded[i]);
+            snapshot.add(view);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Retourne les explosions sous forme de vues, remplies avec leur état courant.
+     *
+     * @return Nouvelle liste de vues, dans l'ordre de création
+     */
+    public synchronized List<Explosion> explosionSnapshot() {
+        List<Explosion> snapshot = new ArrayList<>(explosionCount);
+        for (int i = 0; i < explosionCount; i++) {
+            int id = explosionIds[i];
+            if (id >= explosionViews.length) {
+                explosionViews = Arrays.copyOf(explosionViews, Math.max(id + 1, explosionViews.length * 2));
+            }
+            Explosion view = explosionViews[id];
+            if (view == null) view = explosionViews[id] = new Explosion();
+            view.set(explosionX[i], explosionY[i], explosionCreated[i], explosionDuration[i],
+                    (explosionFlags[i] & ACTIVE) != 0, (explosionFlags[i] & DAMAGING) != 0);
+            snapshot.add(view);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Double la capacité des colonnes des bombes.
+     */
+    private void growBombs() {
+        int capacity = bombIds.length * 2;
+        bombIds = Arrays.copyOf(bombIds, capacity);
+        bombX = Arrays.copyOf(bombX, capacity);
+        bombY = Arrays.copyOf(bombY, capacity);
+        bombOwner = Arrays.copyOf(bombOwner, capacity);
+        bombRange = Arrays.copyOf(bombRange, capacity);
+        bombCreated = Arrays.copyOf(bombCreated, capacity);
+        bombDelay = Arrays.copyOf(bombDelay, capacity);
+        bombExpiry = Arrays.copyOf(bombExpiry, capacity);
+        bombExploded = Arrays.copyOf(bombExploded, capacity);
+    }
+
+    /**
+     * Double la capacité des colonnes des explosions.
+     */
+    private void growExplosions() {
+        int capacity = explosionIds.length * 2;
+        explosionIds = Arrays.copyOf(explosionIds, capacity);
+        explosionX = Arrays.copyOf(explosionX, capacity);
+        explosionY = Arrays.copyOf(explosionY, capacity);
+        explosionCreated = Arrays.copyOf(explosionCreated, capacity);
+        explosionDuration = Arrays.copyOf(explosionDuration, capacity);
+        explosionExpiry = Arrays.copyOf(explosionExpiry, capacity);
+        explosionFlags = Arrays.copyOf(explosionFlags, capacity);
+    }
+}
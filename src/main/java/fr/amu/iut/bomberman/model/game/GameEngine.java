@@ -1,47 +1,71 @@
 package fr.amu.iut.bomberman.model.game;
 
+import fr.amu.iut.bomberman.model.bot.BotController;
+import fr.amu.iut.bomberman.model.bot.DangerMap;
+import fr.amu.iut.bomberman.model.bot.Pathfinder;
 import fr.amu.iut.bomberman.model.entities.Player;
 import fr.amu.iut.bomberman.model.entities.Bomb;
 import fr.amu.iut.bomberman.model.entities.Explosion;
+import fr.amu.iut.bomberman.model.entities.PowerUpType;
 import fr.amu.iut.bomberman.model.map.GameMap;
+import fr.amu.iut.bomberman.model.map.IMap;
+import fr.amu.iut.bomberman.model.map.Tile;
+import fr.amu.iut.bomberman.model.common.GameLog;
 import fr.amu.iut.bomberman.model.common.Position;
+import fr.amu.iut.bomberman.model.common.TimingWheel;
 import javafx.scene.paint.Color;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Moteur de jeu principal du Bomberman gérant toute la logique de gameplay.
  * Coordonne les interactions entre les joueurs, bombes, explosions et la carte.
  * Utilise des structures thread-safe pour supporter le multithreading.
+ * Le temps de jeu avance d'un tick fixe à chaque mise à jour : à graine de carte et
+ * suite d'entrées identiques, une partie se déroule toujours de la même façon.
  */
 public class GameEngine {
-    /** Carte de jeu sur laquelle se déroule la partie */
-    private GameMap gameMap;
+    /** Nombre de ticks de logique par seconde de jeu */
+    public static final int TICK_RATE = 120;
+
+    /** Nombre maximal de joueurs d'une partie (identifiant codé sur 4 bits dans les replays) */
+    public static final int MAX_PLAYERS = 16;
+
+    /** Carte de jeu sur laquelle se déroule la partie (GameMap, ou ChunkedMap en arène géante) */
+    private IMap gameMap;
 
     /** Liste thread-safe des joueurs participants */
     private List<Player> players;
 
-    /** Liste thread-safe des bombes actives sur la carte */
-    private List<Bomb> bombs;
+    /**
+     * Bombes et explosions en jeu, rangées en colonnes. Ses changements de structure et
+     * les instantanés de getBombs/getExplosions (thread d'affichage) sont synchronisés sur
+     * le stockage, sans attendre la fin d'un tick entier comme le ferait le verrou du moteur
+     */
+    private final EntityStore entities;
 
-    /** Liste thread-safe des explosions en cours */
-    private List<Explosion> explosions;
+    /** Délai de réutilisation des identifiants d'entités d'un moteur partagé, en mises à jour (1/4 s) */
+    private static final int RECYCLE_DELAY = TICK_RATE / 4;
 
     /** État global du jeu (pause, victoire, etc.) */
     private GameState gameState;
 
+    /** Nombre de ticks de logique exécutés depuis le début de la partie */
+    private volatile long currentTick;
+
     /** Taille d'une cellule en pixels pour la conversion coordonnées */
     private static final int CELL_SIZE = 32;
 
-    /** Positions de départ prédéfinies pour les joueurs */
-    private static final Position[] START_POSITIONS = {
-            new Position(1, 1),     // Joueur 1 - Rouge
-            new Position(13, 1),    // Joueur 2 - Bleu
-            new Position(1, 11),    // Joueur 3 - Vert
-            new Position(13, 11)    // Joueur 4 - Orange
-    };
+    /** Probabilité qu'un mur détruit laisse un power-up */
+    private static final double POWERUP_DROP_CHANCE = 0.3;
+
+    /** Drapeau de saveState : types des power-ups en liste (index, ordinal) plutôt qu'un octet par case */
+    private static final int SPARSE_POWERUPS = 2;
 
     /** Couleurs assignées à chaque joueur */
     private static final Color[] PLAYER_COLORS = {
@@ -58,214 +82,602 @@ public class GameEngine {
         void onPlayerDied(int playerId);
         void onGameEnded(Player winner);
         void onBlockDestroyed(Position position);
+
+        /**
+         * Appelé quand un joueur ramasse un power-up.
+         *
+         * @param playerId Identifiant du joueur
+         * @param type Type du power-up
+         */
+        default void onPowerUpCollected(int playerId, PowerUpType type) {}
+
+        /**
+         * Appelé quand un joueur se déplace, sans objet Position (appel du moteur).
+         * Par défaut, délègue à onPlayerMoved(int, Position).
+         *
+         * @param playerId Identifiant du joueur
+         * @param x Nouvelle position X
+         * @param y Nouvelle position Y
+         */
+        default void onPlayerMoved(int playerId, int x, int y) {
+            onPlayerMoved(playerId, new Position(x, y));
+        }
+
+        /**
+         * Appelé quand une bombe est posée, sans objet Position (appel du moteur).
+         *
+         * @param x Position X de la bombe
+         * @param y Position Y de la bombe
+         * @param playerId Identifiant du poseur
+         */
+        default void onBombPlaced(int x, int y, int playerId) {
+            onBombPlaced(new Position(x, y), playerId);
+        }
+
+        /**
+         * Appelé quand une bombe explose, sans objet Position (appel du moteur).
+         *
+         * @param x Position X de la bombe
+         * @param y Position Y de la bombe
+         */
+        default void onBombExploded(int x, int y) {
+            onBombExploded(new Position(x, y));
+        }
+
+        /**
+         * Appelé quand un mur est détruit, sans objet Position (appel du moteur).
+         *
+         * @param x Position X du mur
+         * @param y Position Y du mur
+         */
+        default void onBlockDestroyed(int x, int y) {
+            onBlockDestroyed(new Position(x, y));
+        }
+
+        /**
+         * Appelé à la fin de chaque update, bots compris : les événements reçus depuis
+         * l'appel précédent appartiennent à ce tick.
+         *
+         * @param tick Numéro du tick terminé
+         * @param nanos Durée de l'update, en nanosecondes
+         */
+        default void onTickCompleted(long tick, long nanos) {}
     }
 
     private GameEventListener eventListener;
 
+    /**
+     * Interface d'observation des entrées effectivement appliquées au jeu.
+     * Chaque entrée est datée du nombre de ticks exécutés avant son application,
+     * ce qui suffit à rejouer la partie (voir ReplayRecorder). onTickCompleted est
+     * appelé à la fin de chaque tick, avant toute entrée datée de ce tick.
+     */
+    public interface InputListener {
+        void onPlayerMoved(long tick, int playerId, int dx, int dy);
+        void onBombPlaced(long tick, int playerId);
+        void onPlayerEliminated(long tick, int playerId);
+        void onTickCompleted(long tick);
+    }
+
+    private InputListener inputListener;
+
+    /** Bots de la partie, appelés à la fin de chaque tick */
+    private final List<BotController> bots = new ArrayList<>();
+
+    /** Carte des dangers du tick, partagée par tous les bots */
+    private final DangerMap dangerMap = new DangerMap();
+
+    /** Recherche de chemins partagée par les bots, créée au premier besoin */
+    private Pathfinder pathfinder;
+
+    /** Indique si les murs détruits laissent des power-ups */
+    private boolean powerUpsEnabled;
+
+    /** État du générateur des power-ups (splitmix64), dérivé de la graine de la carte */
+    private long dropState;
+
+    /**
+     * Type des power-ups laissés par les murs détruits, par index de case, lu quand la carte
+     * indique POWERUP. Les power-ups posés par le fichier de carte n'y figurent pas : leur
+     * type est tiré de la graine et de la case (voir powerUpAt).
+     */
+    private final Map<Integer, PowerUpType> powerUps = new ConcurrentHashMap<>();
+
+    /** Types d'échéances de la roue temporelle */
+    private static final int TIMER_BOMB = 0;
+    private static final int TIMER_EXPLOSION_FADE = 1;
+    private static final int TIMER_EXPLOSION_END = 2;
+    private static final int TIMER_EFFECT = 3;
+
+    /**
+     * Échéances de la partie, en ticks : explosion des bombes, fin des dégâts et
+     * disparition des explosions, expiration des effets des power-ups
+     */
+    private final TimingWheel timers = new TimingWheel();
+
+    /** Traitement des échéances, créé une fois pour ne pas allouer à chaque tick */
+    private final TimingWheel.Handler timerHandler = this::onTimer;
+
+    /** Nombre d'effets temporaires en attente dans la roue */
+    private int pendingEffects;
+
+    /** Bombes explosées et explosions terminées pendant le tick, retirées en fin de traitement */
+    private int explodedBombs;
+    private int endedExplosions;
+
     /**
      * Constructeur du moteur de jeu.
      *
      * @param gameMap La carte sur laquelle se déroule le jeu
      */
-    public GameEngine(GameMap gameMap) {
+    public GameEngine(IMap gameMap) {
         this.gameMap = gameMap;
         this.players = new CopyOnWriteArrayList<>();
-        this.bombs = new CopyOnWriteArrayList<>();
-        this.explosions = new CopyOnWriteArrayList<>();
+        this.entities = new EntityStore(RECYCLE_DELAY);
         this.gameState = new GameState();
+        this.gameMap.setDropPolicy(this::rollPowerUp);
 
-        System.out.println("🎮 GameEngine initialisé");
+        GameLog.log("🎮 GameEngine initialisé");
+    }
+
+    /**
+     * Constructeur d'un moteur de simulation : copie de l'état courant d'un autre moteur
+     * sur une carte qui lui est propre, sans écouteurs ni bots. Ses joueurs sont dans une
+     * simple ArrayList et ses identifiants d'entités réutilisés sans délai, un moteur de simulation n'étant
+     * utilisé que par un seul thread.
+     *
+     * @param source Moteur copié (voir copyStateFrom)
+     */
+    public GameEngine(GameEngine source) {
+        this.gameMap = source.gameMap.copy();
+        this.players = new ArrayList<>();
+        this.entities = new EntityStore(0);
+        this.gameState = new GameState();
+        this.gameMap.setDropPolicy(this::rollPowerUp);
+        copyStateFrom(source);
     }
 
     /**
      * Initialise une nouvelle partie avec le nombre de joueurs spécifié.
-     * Remet à zéro tous les éléments du jeu et place les joueurs.
+     * Remet à zéro tous les éléments du jeu, change de carte et place les joueurs.
      *
-     * @param playerCount Nombre de joueurs (entre 2 et 4)
+     * @param playerCount Nombre de joueurs (entre 2 et MAX_PLAYERS)
      */
-    public void initializeGame(int playerCount) {
+    public synchronized void initializeGame(int playerCount) {
         gameMap.reset();
+        startGame(playerCount);
+    }
+
+    /**
+     * Initialise une nouvelle partie sur une carte générée à partir d'une graine donnée.
+     *
+     * @param playerCount Nombre de joueurs (entre 2 et MAX_PLAYERS)
+     * @param mapSeed Graine de génération de la carte
+     */
+    public synchronized void initializeGame(int playerCount, long mapSeed) {
+        gameMap.reset(mapSeed);
+        startGame(playerCount);
+    }
+
+    /**
+     * Démarre une partie sur la carte courante, sans la régénérer
+     * (carte tout juste prise dans une MapPool par exemple). Au-delà de quatre joueurs,
+     * les points de départ sont partagés.
+     *
+     * @param playerCount Nombre de joueurs (entre 2 et MAX_PLAYERS)
+     */
+    public synchronized void startGame(int playerCount) {
         players.clear();
-        bombs.clear();
-        explosions.clear();
+        entities.clear();
         gameState.reset();
+        currentTick = 0;
+        timers.clear(0);
+        pendingEffects = 0;
+        dropState = gameMap.getSeed() * 0x9E3779B97F4A7C15L;
+        powerUps.clear();
 
-        playerCount = Math.max(2, Math.min(4, playerCount));
+        playerCount = Math.max(2, Math.min(MAX_PLAYERS, playerCount));
 
         for (int i = 0; i < playerCount; i++) {
-            Position startPos = START_POSITIONS[i];
+            Position startPos = gameMap.getSpawn(i);
             Player player = new Player(
                     i,
                     startPos.getX(),
                     startPos.getY(),
-                    PLAYER_COLORS[i],
+                    PLAYER_COLORS[i % PLAYER_COLORS.length],
                     "Joueur " + (i + 1)
             );
             players.add(player);
         }
+        for (BotController bot : bots) {
+            bot.reset();
+        }
 
         gameState.setRunning(true);
-        System.out.println("🚀 Partie initialisée avec " + playerCount + " joueurs");
+        GameLog.log("🚀 Partie initialisée avec " + playerCount + " joueurs");
     }
 
+
     /**
      * Met à jour la logique de jeu pour une frame.
-     * Appelée à chaque cycle de jeu pour faire avancer l'état.
+     * Appelée à chaque cycle de jeu pour faire avancer l'état d'un tick (1/TICK_RATE seconde).
      *
      * @param deltaTime Temps écoulé depuis la dernière mise à jour en secondes
      */
-    public void update(double deltaTime) {
+    public synchronized void update(double deltaTime) {
         if (!gameState.isRunning() || gameState.isPaused()) return;
 
-        updateBombs();
-        updateExplosions();
+        long start = System.nanoTime();
+        currentTick++;
+        entities.tick();
+        updateTimers();
         gameMap.updateExplosions();
+        collectPowerUps();
         checkPlayerCollisions();
         checkEndGameConditions();
+
+        if (inputListener != null) {
+            inputListener.onTickCompleted(currentTick);
+        }
+        updateBots();
+
+        if (eventListener != null) {
+            eventListener.onTickCompleted(currentTick, System.nanoTime() - start);
+        }
     }
 
     /**
-     * Met à jour l'état de toutes les bombes et gère les explosions.
-     * Méthode thread-safe pour éviter les problèmes de concurrence.
+     * Calcule la carte des dangers du tick puis fait agir chaque bot.
+     * Les entrées des bots sont datées de ce tick, comme celles d'un joueur humain.
      */
-    private void updateBombs() {
-        if (bombs.isEmpty()) return;
+    private void updateBots() {
+        if (bots.isEmpty() || !gameState.isRunning()) return;
 
-        // SOLUTION: Créer une liste des bombes à supprimer
-        List<Bomb> bombsToRemove = new ArrayList<>();
+        dangerMap.update(getGameMap(), entities, players, currentTick);
+        getPathfinder().syncBombs(dangerMap);
+        for (int i = 0; i < bots.size(); i++) {
+            bots.get(i).act(this, dangerMap);
+        }
+    }
 
-        for (Bomb bomb : bombs) {
-            if (bomb.shouldExplode()) {
-                System.out.println("💥 EXPLOSION DÉTECTÉE pour bombe " + bomb);
+    /**
+     * Fait tomber les échéances du tick (bombes, explosions, effets) puis retire en une
+     * fois les bombes explosées et les explosions terminées. Seules les échéances du tick
+     * sont visitées, quel que soit le nombre de bombes et d'explosions en jeu.
+     */
+    private void updateTimers() {
+        explodedBombs = 0;
+        endedExplosions = 0;
+        timers.advance(currentTick, timerHandler);
+
+        if (explodedBombs > 0) {
+            entities.removeExplodedBombs();
+            if (GameLog.isEnabled()) {
+                GameLog.log("🗑️ " + explodedBombs + " bombe(s) supprimée(s). Bombes restantes: " + entities.getBombCount());
+            }
+        }
+        if (endedExplosions > 0) {
+            entities.removeInactiveExplosions();
+            if (GameLog.isEnabled()) {
+                GameLog.log("🧹 " + endedExplosions + " explosion(s) nettoyée(s). Restantes: " + entities.getExplosionCount());
+            }
+        }
+    }
 
-                Position bombPos = new Position(bomb.getX(), bomb.getY());
+    /**
+     * Traite une échéance de la roue temporelle.
+     *
+     * @param kind Type de l'échéance (TIMER_*)
+     * @param target Inutilisé (null)
+     * @param a Identifiant de la bombe ou de l'explosion, ou joueur concerné (effet)
+     * @param b Ordinal du PowerUpType (effet)
+     */
+    private void onTimer(int kind, Object target, int a, int b) {
+        switch (kind) {
+            case TIMER_BOMB:
+                explode(entities.bombSlot(a));
+                break;
+            case TIMER_EXPLOSION_FADE:
+                entities.stopDamage(entities.explosionSlot(a));
+                break;
+            case TIMER_EXPLOSION_END:
+                entities.deactivate(entities.explosionSlot(a));
+                endedExplosions++;
+                break;
+            case TIMER_EFFECT:
+                pendingEffects--;
+                expireEffect(a, b);
+                break;
+            default:
+                break;
+        }
+    }
 
-                // 1. Créer les entités explosions
-                createExplosionEntities(bombPos, bomb.getExplosionRange());
+    /**
+     * Fait exploser une bombe arrivée à échéance : explosions, carte, propriétaire et
+     * écouteurs. La bombe est retirée de la liste en fin de tick.
+     *
+     * @param slot Rang de la bombe qui explose
+     */
+    private void explode(int slot) {
+        int x = entities.bombX(slot), y = entities.bombY(slot), range = entities.bombRange(slot);
+        if (GameLog.isEnabled()) {
+            GameLog.log("💥 EXPLOSION DÉTECTÉE pour bombe en (" + x + "," + y + ")");
+        }
+        entities.markBombExploded(slot);
+        explodedBombs++;
+
+        // 1. Créer les entités explosions
+        createExplosionEntities(x, y, range);
+
+        // 2. Modifier la carte
+        gameMap.explodeBomb(x, y, range);
+
+        // 3. Gérer le joueur
+        Player owner = getPlayer(entities.bombOwner(slot));
+        if (owner != null) {
+            owner.bombExploded();
+            owner.addScore(10);
+            if (GameLog.isEnabled()) {
+                GameLog.log("✅ " + owner.getName() + " - bombe libérée, score: " + owner.getScore());
+            }
+        }
 
-                // 2. Modifier la carte
-                gameMap.explodeBomb(bombPos);
+        // 4. Notifier les listeners
+        if (eventListener != null) {
+            eventListener.onBombExploded(x, y);
+        }
+    }
 
-                // 3. Gérer le joueur
-                Player owner = getPlayer(bomb.getOwnerId());
-                if (owner != null) {
-                    owner.bombExploded();
-                    owner.addScore(10);
-                    System.out.println("✅ " + owner.getName() + " - bombe libérée, score: " + owner.getScore());
-                }
+    /**
+     * Convertit un temps de jeu en premier tick où il est atteint (getGameTime() >= temps).
+     *
+     * @param gameTime Temps de jeu en millisecondes
+     * @return Tick correspondant
+     */
+    private static long tickAt(long gameTime) {
+        return -Math.floorDiv(-gameTime * TICK_RATE, 1000);
+    }
 
-                // 4. Notifier les listeners
-                if (eventListener != null) {
-                    eventListener.onBombExploded(bombPos);
-                }
+    /**
+     * Ajoute une bombe au stockage et inscrit son explosion dans la roue temporelle.
+     */
+    private void addBomb(int x, int y, int ownerId, int range, long timeCreated, long delay) {
+        long expiryTick = tickAt(timeCreated + delay);
+        int id = entities.addBomb(x, y, ownerId, range, timeCreated, delay, expiryTick);
+        timers.schedule(expiryTick, TIMER_BOMB, null, id, 0);
+    }
 
-                // 5. Marquer pour suppression
-                bombsToRemove.add(bomb);
-            }
+    /**
+     * Ajoute une explosion au stockage et inscrit la fin de ses dégâts et sa disparition
+     * dans la roue temporelle.
+     *
+     * @return Rang de l'explosion
+     */
+    private int addExplosion(int x, int y, long timeCreated, long duration, boolean damaging) {
+        long expiryTick = tickAt(timeCreated + duration);
+        int id = entities.addExplosion(x, y, timeCreated, duration, expiryTick);
+        // Sans fin des dégâts avant la disparition, aucune échéance ne survit à l'identifiant libéré
+        if (damaging && Explosion.DAMAGE_DURATION < duration) {
+            timers.schedule(tickAt(timeCreated + Explosion.DAMAGE_DURATION), TIMER_EXPLOSION_FADE, null, id, 0);
         }
+        timers.schedule(expiryTick, TIMER_EXPLOSION_END, null, id, 0);
+        return entities.explosionSlot(id);
+    }
 
-        // SOLUTION: Supprimer toutes les bombes explosées en une fois
-        if (!bombsToRemove.isEmpty()) {
-            bombs.removeAll(bombsToRemove);
-            System.out.println("🗑️ " + bombsToRemove.size() + " bombe(s) supprimée(s). Bombes restantes: " + bombs.size());
-        }
+    /**
+     * Inscrit l'expiration d'un effet temporaire dans la roue temporelle.
+     */
+    private void scheduleEffect(long deadline, int playerId, int effect) {
+        timers.schedule(deadline, TIMER_EFFECT, null, playerId, effect);
+        pendingEffects++;
     }
 
     /**
      * Crée les entités d'explosion autour d'une position donnée.
      *
-     * @param center Position centrale de l'explosion
+     * @param centerX Position X centrale de l'explosion
+     * @param centerY Position Y centrale de l'explosion
      * @param range Portée de l'explosion
      */
-    private void createExplosionEntities(Position center, int range) {
-        System.out.println("🌟 Création des explosions autour de " + center + " avec range " + range);
+    private void createExplosionEntities(int centerX, int centerY, int range) {
+        if (GameLog.isEnabled()) {
+            GameLog.log("🌟 Création des explosions autour de (" + centerX + "," + centerY + ") avec range " + range);
+        }
 
         // Explosion au centre
-        explosions.add(new Explosion(center.getX(), center.getY()));
+        addExplosion(centerX, centerY);
 
         // Explosions dans les 4 directions
-        createExplosionInDirection(center, 1, 0, range);   // Droite
-        createExplosionInDirection(center, -1, 0, range);  // Gauche
-        createExplosionInDirection(center, 0, 1, range);   // Bas
-        createExplosionInDirection(center, 0, -1, range);  // Haut
+        createExplosionInDirection(centerX, centerY, 1, 0, range);   // Droite
+        createExplosionInDirection(centerX, centerY, -1, 0, range);  // Gauche
+        createExplosionInDirection(centerX, centerY, 0, 1, range);   // Bas
+        createExplosionInDirection(centerX, centerY, 0, -1, range);  // Haut
 
-        System.out.println("🎆 Total explosions créées: " + explosions.size());
+        if (GameLog.isEnabled()) {
+            GameLog.log("🎆 Total explosions créées: " + entities.getExplosionCount());
+        }
     }
 
     /**
      * Crée des explosions dans une direction spécifique.
      *
-     * @param start Position de départ
+     * @param startX Position X de départ
+     * @param startY Position Y de départ
      * @param dx Direction X (-1, 0, ou 1)
      * @param dy Direction Y (-1, 0, ou 1)
      * @param range Portée maximale
      */
-    private void createExplosionInDirection(Position start, int dx, int dy, int range) {
+    private void createExplosionInDirection(int startX, int startY, int dx, int dy, int range) {
         for (int i = 1; i <= range; i++) {
-            int x = start.getX() + dx * i;
-            int y = start.getY() + dy * i;
+            int x = startX + dx * i;
+            int y = startY + dy * i;
 
             if (!gameMap.isValidPosition(x, y)) break;
 
-            var tile = gameMap.getTile(x, y);
-            if (tile == null) break;
+            var type = gameMap.getTileType(x, y);
+            if (type == null) break;
 
-            if (tile.getType() == fr.amu.iut.bomberman.model.map.Tile.TileType.WALL) {
+            if (type == Tile.TileType.WALL) {
                 break;
             }
 
-            explosions.add(new Explosion(x, y));
+            addExplosion(x, y);
 
-            if (tile.getType() == fr.amu.iut.bomberman.model.map.Tile.TileType.DESTRUCTIBLE_WALL) {
+            if (type == Tile.TileType.DESTRUCTIBLE_WALL) {
                 // Notifier la destruction du bloc
                 if (eventListener != null) {
-                    eventListener.onBlockDestroyed(new Position(x, y));
+                    eventListener.onBlockDestroyed(x, y);
                 }
                 break;
             }
+            if (type == Tile.TileType.POWERUP) {
+                break; // Le power-up détruit arrête l'explosion, comme sur la carte
+            }
         }
     }
 
     /**
-     * Met à jour l'état de toutes les explosions actives.
-     * Supprime celles qui ont expiré de manière thread-safe.
+     * Ajoute une explosion créée maintenant et inscrit ses échéances.
+     *
+     * @param x Position X
+     * @param y Position Y
      */
-    private void updateExplosions() {
-        if (explosions.isEmpty()) return;
+    private void addExplosion(int x, int y) {
+        addExplosion(x, y, getGameTime(), Explosion.DEFAULT_DURATION, true);
+    }
 
-        // SOLUTION: Créer une liste des explosions à supprimer
-        List<Explosion> explosionsToRemove = new ArrayList<>();
+    /**
+     * Tire le power-up éventuel d'un mur détruit (DropPolicy de la carte) : une chance
+     * sur POWERUP_DROP_CHANCE, puis un type pondéré tiré en temps constant.
+     *
+     * @param index Index de la case du mur
+     * @return true si la case devient un power-up
+     */
+    private boolean rollPowerUp(int index) {
+        if (!powerUpsEnabled) return false;
+        if ((nextRandom() >>> 11) * 0x1.0p-53 >= POWERUP_DROP_CHANCE) return false;
+
+        powerUps.put(index, PowerUpType.roll(nextRandom()));
+        return true;
+    }
+
+    /**
+     * Retourne le type du power-up d'une case POWERUP : celui tiré à la destruction du mur,
+     * ou pour un power-up posé par le fichier de carte, un type tiré de la graine et de la
+     * case, identique d'une partie à l'autre sans consommer le générateur.
+     *
+     * @param index Index de la case
+     * @return Type du power-up
+     */
+    private PowerUpType powerUpAt(int index) {
+        PowerUpType type = powerUps.get(index);
+        return type != null ? type : PowerUpType.roll(mix(gameMap.getSeed() * 0x9E3779B97F4A7C15L + index));
+    }
+
+    /**
+     * Tire 64 bits du générateur des power-ups (splitmix64, état copiable et sauvegardable).
+     */
+    private long nextRandom() {
+        return mix(dropState += 0x9E3779B97F4A7C15L);
+    }
+
+    /**
+     * Fonction de mélange de splitmix64.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
 
-        for (Explosion explosion : explosions) {
-            if (!explosion.update()) {
-                explosionsToRemove.add(explosion);
+    /**
+     * Fait ramasser à chaque joueur le power-up de sa case : une lecture de la grille
+     * par joueur, sans parcourir de liste d'objets. Les power-ups posés par le fichier de
+     * carte se ramassent même quand les murs n'en laissent pas (setPowerUpsEnabled).
+     */
+    private void collectPowerUps() {
+        for (int i = 0; i < players.size(); i++) {
+            Player player = players.get(i);
+            if (!player.isAlive()) continue;
+            int x = player.getGridX(), y = player.getGridY();
+            if (!gameMap.collectPowerUp(x, y)) continue;
+
+            int index = y * gameMap.getWidth() + x;
+            PowerUpType type = powerUpAt(index);
+            powerUps.remove(index);
+            applyPowerUp(player, type);
+            if (type.isTimed()) {
+                scheduleEffect(currentTick + type.getDurationMs() * TICK_RATE / 1000, player.getId(), type.ordinal());
+            }
+            if (GameLog.isEnabled()) {
+                GameLog.log("🎁 " + player.getName() + " ramasse " + type.getLabel());
+            }
+            if (eventListener != null) {
+                eventListener.onPowerUpCollected(player.getId(), type);
             }
         }
+    }
 
-        // SOLUTION: Supprimer toutes les explosions inactives en une fois
-        if (!explosionsToRemove.isEmpty()) {
-            explosions.removeAll(explosionsToRemove);
-            System.out.println("🧹 " + explosionsToRemove.size() + " explosion(s) nettoyée(s). Restantes: " + explosions.size());
+    /**
+     * Applique l'effet d'un power-up à un joueur.
+     */
+    private static void applyPowerUp(Player player, PowerUpType type) {
+        switch (type) {
+            case BOMB_CAPACITY:
+                player.increaseBombCapacity();
+                break;
+            case EXPLOSION_RANGE:
+                player.increaseExplosionRange();
+                break;
+            case SPEED:
+                player.increaseSpeed();
+                break;
+            case SHIELD:
+                player.addShield();
+                break;
         }
     }
 
     /**
-     * Vérifie les collisions entre joueurs et éléments dangereux.
+     * Retire un effet temporaire arrivé à expiration.
+     *
+     * @param playerId Joueur concerné
+     * @param effect Ordinal du PowerUpType
      */
-    private void checkPlayerCollisions() {
-        for (Player player : players) {
-            if (!player.isAlive()) continue;
-
-            Position playerPos = new Position(player.getGridX(), player.getGridY());
+    private void expireEffect(int playerId, int effect) {
+        Player player = getPlayer(playerId);
+        if (player == null) return;
+        switch (PowerUpType.fromOrdinal(effect)) {
+            case SPEED:
+                player.decreaseSpeed();
+                break;
+            case SHIELD:
+                player.removeShield();
+                break;
+            default:
+                break;
+        }
+        if (GameLog.isEnabled()) {
+            GameLog.log("⌛ Fin de l'effet " + PowerUpType.fromOrdinal(effect).getLabel() + " pour " + player.getName());
+        }
+    }
 
-            boolean hitByExplosion = explosions.stream()
-                    .anyMatch(explosion -> explosion.canDamage() && // ← CHANGEMENT ICI
-                            explosion.getX() == playerPos.getX() &&
-                            explosion.getY() == playerPos.getY());
+    /**
+     * Vérifie les collisions entre joueurs et éléments dangereux : une passe linéaire sur
+     * les colonnes des explosions par joueur. Un joueur protégé par un bouclier ignore
+     * les explosions.
+     */
+    private void checkPlayerCollisions() {
+        for (int p = 0; p < players.size(); p++) {
+            Player player = players.get(p);
+            if (!player.isAlive() || player.isShielded()) continue;
 
-            if (hitByExplosion) {
+            if (entities.isDamaging(player.getGridX(), player.getGridY())) {
                 player.takeDamage();
-                System.out.println("💀 " + player.getName() + " touché par explosion! Vies: " + player.getLives());
+                if (GameLog.isEnabled()) {
+                    GameLog.log("💀 " + player.getName() + " touché par explosion! Vies: " + player.getLives());
+                }
 
                 // Notifier si le joueur meurt
                 if (!player.isAlive() && eventListener != null) {
@@ -280,14 +692,17 @@ public class GameEngine {
      * Détermine s'il y a un gagnant ou un match nul.
      */
     private void checkEndGameConditions() {
-        long alivePlayers = players.stream().filter(Player::isAlive).count();
+        int alivePlayers = 0;
+        Player winner = null;
+        for (int i = 0; i < players.size(); i++) {
+            Player player = players.get(i);
+            if (player.isAlive()) {
+                if (alivePlayers++ == 0) winner = player;
+            }
+        }
 
         if (alivePlayers <= 1) {
             gameState.setRunning(false);
-            Player winner = players.stream()
-                    .filter(Player::isAlive)
-                    .findFirst()
-                    .orElse(null);
             gameState.setWinner(winner);
 
             // Notifier la fin de partie
@@ -295,8 +710,10 @@ public class GameEngine {
                 eventListener.onGameEnded(winner);
             }
 
-            System.out.println(winner != null ?
-                    "🏆 Gagnant: " + winner.getName() : "⚰️ Match nul!");
+            if (GameLog.isEnabled()) {
+                GameLog.log(winner != null ?
+                        "🏆 Gagnant: " + winner.getName() : "⚰️ Match nul!");
+            }
         }
     }
 
@@ -309,7 +726,7 @@ public class GameEngine {
      * @param dy Déplacement en Y (-1, 0, ou 1)
      * @return true si le déplacement a été effectué
      */
-    public boolean movePlayer(int playerId, int dx, int dy) {
+    public synchronized boolean movePlayer(int playerId, int dx, int dy) {
         Player player = getPlayer(playerId);
         if (player == null || !player.isAlive()) return false;
 
@@ -320,21 +737,25 @@ public class GameEngine {
         // Si aucun mouvement, retourner false
         if (dx == 0 && dy == 0) return false;
 
-        Position currentPos = new Position(player.getGridX(), player.getGridY());
-        int newX = player.getGridX() + dx;
-        int newY = player.getGridY() + dy;
-        Position newPos = new Position(newX, newY);
+        int x = player.getGridX();
+        int y = player.getGridY();
+        int newX = x + dx;
+        int newY = y + dy;
 
         // Vérifier si la position cible est libre
-        if (!canMoveTo(newPos)) {
-            System.out.println("❌ Position cible " + newPos + " non accessible pour " + player.getName());
+        if (!canMoveTo(newX, newY)) {
+            if (GameLog.isEnabled()) {
+                GameLog.log("❌ Position cible (" + newX + "," + newY + ") non accessible pour " + player.getName());
+            }
             return false;
         }
 
         // Vérifier si le mouvement diagonal est autorisé
-        if (!isDiagonalMovementAllowed(currentPos, newPos)) {
-            System.out.println("❌ Mouvement diagonal bloqué pour " + player.getName() +
-                    " de " + currentPos + " vers " + newPos);
+        if (!isDiagonalMovementAllowed(x, y, newX, newY)) {
+            if (GameLog.isEnabled()) {
+                GameLog.log("❌ Mouvement diagonal bloqué pour " + player.getName() +
+                        " de (" + x + "," + y + ") vers (" + newX + "," + newY + ")");
+            }
             return false;
         }
 
@@ -345,11 +766,16 @@ public class GameEngine {
         );
 
         // Notifier le déplacement
+        if (inputListener != null) {
+            inputListener.onPlayerMoved(currentTick, playerId, dx, dy);
+        }
         if (eventListener != null) {
-            eventListener.onPlayerMoved(playerId, newPos);
+            eventListener.onPlayerMoved(playerId, newX, newY);
         }
 
-        System.out.println("✅ " + player.getName() + " déplacé vers " + newPos);
+        if (GameLog.isEnabled()) {
+            GameLog.log("✅ " + player.getName() + " déplacé vers (" + newX + "," + newY + ")");
+        }
         return true;
     }
 
@@ -359,89 +785,321 @@ public class GameEngine {
      * @param playerId Identifiant du joueur qui place la bombe
      * @return true si la bombe a été placée avec succès
      */
-    public boolean placeBomb(int playerId) {
+    public synchronized boolean placeBomb(int playerId) {
         Player player = getPlayer(playerId);
         if (player == null || !player.isAlive()) return false;
 
-        Position bombPos = new Position(player.getGridX(), player.getGridY());
+        int x = player.getGridX();
+        int y = player.getGridY();
 
         // Vérifier s'il y a déjà une bombe
-        for (Bomb bomb : bombs) {
-            if (bomb.getX() == bombPos.getX() && bomb.getY() == bombPos.getY()) {
-                System.out.println("❌ Bombe déjà présente en " + bombPos);
-                return false;
+        if (entities.findBomb(x, y) >= 0) {
+            if (GameLog.isEnabled()) {
+                GameLog.log("❌ Bombe déjà présente en (" + x + "," + y + ")");
             }
+            return false;
         }
 
         if (player.placeBomb()) {
-            if (gameMap.placeBomb(bombPos)) {
-                Bomb newBomb = new Bomb(
-                        bombPos.getX(),
-                        bombPos.getY(),
+            if (gameMap.placeBomb(x, y)) {
+                addBomb(
+                        x,
+                        y,
                         playerId,
-                        player.getExplosionRange()
+                        player.getExplosionRange(),
+                        getGameTime(),
+                        Bomb.DEFAULT_EXPLOSION_DELAY
                 );
-                bombs.add(newBomb);
 
                 // Notifier la pose de bombe
+                if (inputListener != null) {
+                    inputListener.onBombPlaced(currentTick, playerId);
+                }
                 if (eventListener != null) {
-                    eventListener.onBombPlaced(bombPos, playerId);
+                    eventListener.onBombPlaced(x, y, playerId);
                 }
 
-                System.out.println("✅ " + player.getName() + " a placé une bombe en " + bombPos +
-                        ". Total bombes: " + bombs.size());
+                if (GameLog.isEnabled()) {
+                    GameLog.log("✅ " + player.getName() + " a placé une bombe en (" + x + "," + y + ")" +
+                            ". Total bombes: " + entities.getBombCount());
+                }
                 return true;
             } else {
                 player.bombExploded();
-                System.out.println("❌ La carte refuse la bombe en " + bombPos);
+                if (GameLog.isEnabled()) {
+                    GameLog.log("❌ La carte refuse la bombe en (" + x + "," + y + ")");
+                }
             }
-        } else {
-            System.out.println("❌ " + player.getName() + " ne peut pas placer de bombe (limite atteinte)");
+        } else if (GameLog.isEnabled()) {
+            GameLog.log("❌ " + player.getName() + " ne peut pas placer de bombe (limite atteinte)");
         }
         return false;
     }
 
+    /**
+     * Élimine un joueur hors du jeu (abandon, déconnexion).
+     *
+     * @param playerId Identifiant du joueur à éliminer
+     * @return true si le joueur était encore en vie
+     */
+    public synchronized boolean eliminatePlayer(int playerId) {
+        Player player = getPlayer(playerId);
+        if (player == null || !player.isAlive()) return false;
+
+        player.takeDamage();
+        if (inputListener != null) {
+            inputListener.onPlayerEliminated(currentTick, playerId);
+        }
+        if (eventListener != null) {
+            eventListener.onPlayerDied(playerId);
+        }
+        GameLog.log("🚪 " + player.getName() + " a quitté la partie");
+        return true;
+    }
+
+    /**
+     * Sauvegarde l'état complet de la partie (tick, carte, joueurs, bombes, explosions).
+     * Avec la graine de la carte, cet état suffit à reprendre la partie via restoreState.
+     *
+     * @return Buffer prêt à être lu contenant l'état
+     */
+    public synchronized ByteBuffer saveState() {
+        int cellCount = gameMap.getWidth() * gameMap.getHeight();
+        int capacity = 16 + 2 * cellCount
+                + players.size() * 32 + (entities.getBombCount() + entities.getExplosionCount()) * 16
+                + 15 + powerUps.size() * 5 + pendingEffects * 6;
+        ByteBuffer out = ByteBuffer.allocate(capacity);
+
+        Player winner = gameState.getWinner();
+        out.putLong(currentTick);
+        out.put((byte) ((gameState.isRunning() ? 1 : 0) | (gameState.isPaused() ? 2 : 0)
+                | (gameState.isGameOver() ? 4 : 0)));
+        out.put((byte) (winner != null ? winner.getId() : -1));
+
+        gameMap.writeState(out);
+
+        out.put((byte) players.size());
+        for (Player player : players) {
+            out.put((byte) player.getId());
+            out.putFloat((float) player.getX());
+            out.putFloat((float) player.getY());
+            out.put((byte) player.getLives());
+            out.putInt(player.getScore());
+            out.put((byte) player.getBombCount());
+            out.put((byte) player.getMaxBombs());
+            out.put((byte) player.getExplosionRange());
+            out.put((byte) (player.isAlive() ? 1 : 0));
+        }
+
+        int bombCount = entities.getBombCount();
+        out.putShort((short) bombCount);
+        for (int i = 0; i < bombCount; i++) {
+            out.putShort((short) entities.bombX(i));
+            out.putShort((short) entities.bombY(i));
+            out.put((byte) entities.bombOwner(i));
+            out.put((byte) entities.bombRange(i));
+            out.putInt((int) entities.bombTimeCreated(i));
+            out.putInt((int) entities.bombDelay(i));
+        }
+
+        int explosionCount = entities.getExplosionCount();
+        out.putShort((short) explosionCount);
+        for (int i = 0; i < explosionCount; i++) {
+            out.putShort((short) entities.explosionX(i));
+            out.putShort((short) entities.explosionY(i));
+            out.putInt((int) entities.explosionTimeCreated(i));
+            out.putInt((int) entities.explosionDuration(i));
+            out.put((byte) ((entities.isExplosionActive(i) ? 1 : 0) | (entities.isExplosionDamaging(i) ? 2 : 0)));
+        }
+
+        // Power-ups : générateur, types des cases (index, ordinal) et effets temporaires
+        out.put((byte) ((powerUpsEnabled ? 1 : 0) | SPARSE_POWERUPS));
+        out.putLong(dropState);
+        out.putInt(powerUps.size());
+        for (Map.Entry<Integer, PowerUpType> entry : powerUps.entrySet()) {
+            out.putInt(entry.getKey());
+            out.put((byte) entry.getValue().ordinal());
+        }
+        out.putShort((short) pendingEffects);
+        timers.forEach((deadline, kind, target, playerId, effect) -> {
+            if (kind != TIMER_EFFECT) return;
+            out.putInt((int) deadline);
+            out.put((byte) playerId);
+            out.put((byte) effect);
+        });
+
+        out.flip();
+        return out;
+    }
+
+    /**
+     * Restaure un état produit par saveState. La carte doit avoir les mêmes dimensions
+     * que celle de la partie sauvegardée.
+     *
+     * @param in Buffer positionné sur l'état
+     */
+    public synchronized void restoreState(ByteBuffer in) {
+        currentTick = in.getLong();
+        int flags = in.get();
+        int winnerId = in.get();
+
+        gameMap.readState(in);
+
+        players.clear();
+        int playerCount = in.get();
+        for (int i = 0; i < playerCount; i++) {
+            int id = in.get();
+            Player player = new Player(id, 0, 0, PLAYER_COLORS[id % PLAYER_COLORS.length], "Joueur " + (id + 1));
+            player.setPosition(in.getFloat(), in.getFloat());
+            player.setLives(in.get());
+            player.setScore(in.getInt());
+            player.setBombCount(in.get());
+            player.setMaxBombs(in.get());
+            player.setExplosionRange(in.get());
+            player.setAlive(in.get() != 0);
+            players.add(player);
+        }
+
+        entities.clear();
+        timers.clear(currentTick);
+        pendingEffects = 0;
+        int bombCount = in.getShort();
+        for (int i = 0; i < bombCount; i++) {
+            addBomb(in.getShort(), in.getShort(), in.get(), in.get(), in.getInt(), in.getInt());
+        }
+
+        int explosionCount = in.getShort();
+        for (int i = 0; i < explosionCount; i++) {
+            int x = in.getShort(), y = in.getShort();
+            long timeCreated = in.getInt(), duration = in.getInt();
+            int state = in.get();
+            int slot = addExplosion(x, y, timeCreated, duration, (state & 2) != 0);
+            if ((state & 2) == 0) entities.stopDamage(slot);
+            if ((state & 1) == 0) entities.deactivate(slot);
+        }
+
+        // Section des power-ups, absente des états sauvegardés avant leur ajout ;
+        // les états antérieurs au format creux portent un octet par case
+        powerUpsEnabled = false;
+        powerUps.clear();
+        if (in.hasRemaining()) {
+            int powerUpFlags = in.get();
+            powerUpsEnabled = (powerUpFlags & 1) != 0;
+            dropState = in.getLong();
+            if ((powerUpFlags & SPARSE_POWERUPS) != 0) {
+                int powerUpCount = in.getInt();
+                for (int i = 0; i < powerUpCount; i++) {
+                    int index = in.getInt();
+                    powerUps.put(index, PowerUpType.fromOrdinal(in.get()));
+                }
+            } else if (powerUpsEnabled) {
+                int cellCount = gameMap.getWidth() * gameMap.getHeight();
+                for (int i = 0; i < cellCount; i++) {
+                    int code = in.get();
+                    if (code > 0) powerUps.put(i, PowerUpType.fromOrdinal(code - 1));
+                }
+            }
+            int effectCount = in.getShort();
+            for (int i = 0; i < effectCount; i++) {
+                long deadline = in.getInt();
+                int playerId = in.get();
+                int effect = in.get();
+                scheduleEffect(deadline, playerId, effect);
+                Player player = getPlayer(playerId);
+                if (player != null) applyPowerUp(player, PowerUpType.fromOrdinal(effect));
+            }
+        }
+
+        gameState.reset();
+        gameState.setRunning((flags & 1) != 0);
+        gameState.setPaused((flags & 2) != 0);
+        gameState.setGameOver((flags & 4) != 0);
+        if (winnerId >= 0) gameState.setWinner(getPlayer(winnerId));
+    }
+
+    /**
+     * Recopie l'état courant d'un autre moteur (tick, carte, joueurs, bombes, explosions,
+     * état de la partie) sans passer par un buffer : les joueurs déjà présents sont
+     * réutilisés, la carte est recopiée page par page. Bots et écouteurs ne sont pas copiés.
+     * Le moteur source ne doit pas évoluer pendant la copie : l'appeler depuis son thread
+     * (un bot) ou sur un moteur que personne d'autre ne modifie.
+     *
+     * @param source Moteur copié, dont la carte a les mêmes dimensions
+     */
+    public synchronized void copyStateFrom(GameEngine source) {
+        gameMap.copyStateFrom(source.gameMap);
+        currentTick = source.currentTick;
+
+        List<Player> sourcePlayers = source.players;
+        int playerCount = sourcePlayers.size();
+        for (int i = 0; i < playerCount; i++) {
+            Player from = sourcePlayers.get(i);
+            Player player = i < players.size() ? players.get(i) : null;
+            if (player == null || player.getId() != from.getId()) {
+                player = new Player(from.getId(), 0, 0, from.getColor(), from.getName());
+                if (i < players.size()) {
+                    players.set(i, player);
+                } else {
+                    players.add(player);
+                }
+            }
+            player.copyStateFrom(from);
+        }
+        while (players.size() > playerCount) {
+            players.remove(players.size() - 1);
+        }
+
+        // Identifiants compris : les échéances recopiées désignent les mêmes entités
+        entities.copyFrom(source.entities);
+        timers.copyFrom(source.timers);
+        pendingEffects = source.pendingEffects;
+
+        powerUpsEnabled = source.powerUpsEnabled;
+        dropState = source.dropState;
+        powerUps.clear();
+        powerUps.putAll(source.powerUps);
+
+        GameState state = source.gameState;
+        Player winner = state.getWinner();
+        gameState.setRunning(state.isRunning());
+        gameState.setPaused(state.isPaused());
+        gameState.setGameOver(state.isGameOver());
+        gameState.setDuration(state.getDuration());
+        gameState.setWinner(winner != null ? getPlayer(winner.getId()) : null);
+    }
+
     /**
      * Vérifie si une position est accessible pour un déplacement.
      * Interdit les mouvements en diagonale si l'un des côtés est bloqué.
      *
-     * @param position Position à vérifier
+     * @param x Coordonnée X à vérifier
+     * @param y Coordonnée Y à vérifier
      * @return true si la position est libre
      */
-    private boolean canMoveTo(Position position) {
-        if (!gameMap.isValidPosition(position)) return false;
-        if (!gameMap.isWalkable(position)) return false;
+    private boolean canMoveTo(int x, int y) {
+        if (!gameMap.isWalkable(x, y)) return false;
 
-        for (Bomb bomb : bombs) {
-            if (bomb.getX() == position.getX() && bomb.getY() == position.getY()) {
-                return false;
-            }
-        }
-        return true;
+        return entities.findBomb(x, y) < 0;
     }
 
     /**
      * Vérifie si un mouvement diagonal est autorisé.
      * Un mouvement diagonal n'est possible que si les deux côtés adjacents sont libres.
      *
-     * @param currentPos Position actuelle du joueur
-     * @param targetPos Position cible
+     * @param x Position X actuelle du joueur
+     * @param y Position Y actuelle du joueur
+     * @param targetX Position X cible
+     * @param targetY Position Y cible
      * @return true si le mouvement diagonal est autorisé
      */
-    private boolean isDiagonalMovementAllowed(Position currentPos, Position targetPos) {
-        int dx = targetPos.getX() - currentPos.getX();
-        int dy = targetPos.getY() - currentPos.getY();
-
+    private boolean isDiagonalMovementAllowed(int x, int y, int targetX, int targetY) {
         // Si ce n'est pas un mouvement diagonal, autoriser
-        if (dx == 0 || dy == 0) {
+        if (targetX == x || targetY == y) {
             return true;
         }
 
         // Pour un mouvement diagonal, vérifier que les deux côtés sont libres
-        Position sideX = new Position(currentPos.getX() + dx, currentPos.getY());
-        Position sideY = new Position(currentPos.getX(), currentPos.getY() + dy);
-
-        return canMoveTo(sideX) && canMoveTo(sideY);
+        return canMoveTo(targetX, y) && canMoveTo(x, targetY);
     }
 
     /**
@@ -450,11 +1108,12 @@ public class GameEngine {
      * @param playerId Identifiant du joueur recherché
      * @return Le joueur correspondant ou null si non trouvé
      */
-    private Player getPlayer(int playerId) {
-        return players.stream()
-                .filter(p -> p.getId() == playerId)
-                .findFirst()
-                .orElse(null);
+    public Player getPlayer(int playerId) {
+        for (int i = 0; i < players.size(); i++) {
+            Player player = players.get(i);
+            if (player.getId() == playerId) return player;
+        }
+        return null;
     }
 
     /**
@@ -462,15 +1121,22 @@ public class GameEngine {
      */
     public void togglePause() {
         gameState.setPaused(!gameState.isPaused());
-        System.out.println(gameState.isPaused() ? "⏸️ Jeu en pause" : "▶️ Jeu repris");
+        GameLog.log(gameState.isPaused() ? "⏸️ Jeu en pause" : "▶️ Jeu repris");
     }
 
     /**
-     * Retourne la carte de jeu.
+     * Retourne la carte de jeu si c'est une GameMap (bots, vues, serveur et replays en dépendent).
+     *
+     * @return La carte de jeu actuelle, null si la partie se joue sur une autre carte (voir getMap)
+     */
+    public GameMap getGameMap() { return gameMap instanceof GameMap ? (GameMap) gameMap : null; }
+
+    /**
+     * Retourne la carte de jeu, quelle que soit son implémentation.
      *
      * @return La carte de jeu actuelle
      */
-    public GameMap getGameMap() { return gameMap; }
+    public IMap getMap() { return gameMap; }
 
     /**
      * Retourne une copie de la liste des joueurs pour éviter les modifications externes.
@@ -480,18 +1146,28 @@ public class GameEngine {
     public List<Player> getPlayers() { return new ArrayList<>(players); }
 
     /**
-     * Retourne une copie de la liste des bombes pour éviter les modifications externes.
+     * Retourne un instantané des bombes, sous forme de vues du stockage des entités.
+     * Les vues sont remplies à nouveau par les instantanés suivants et réaffectées à
+     * d'autres bombes après RECYCLE_DELAY mises à jour : l'instantané se lit aussitôt,
+     * il ne se conserve pas.
      *
      * @return Liste des bombes actives
      */
-    public List<Bomb> getBombs() { return new ArrayList<>(bombs); }
+    public List<Bomb> getBombs() {
+        return entities.bombSnapshot();
+    }
 
     /**
-     * Retourne une copie de la liste des explosions pour éviter les modifications externes.
+     * Retourne un instantané des explosions, sous forme de vues du stockage des entités.
+     * Les vues sont remplies à nouveau par les instantanés suivants et réaffectées à
+     * d'autres explosions après RECYCLE_DELAY mises à jour : l'instantané se lit aussitôt,
+     * il ne se conserve pas.
      *
      * @return Liste des explosions actives
      */
-    public List<Explosion> getExplosions() { return new ArrayList<>(explosions); }
+    public List<Explosion> getExplosions() {
+        return entities.explosionSnapshot();
+    }
 
     /**
      * Retourne l'état actuel du jeu.
@@ -514,6 +1190,21 @@ public class GameEngine {
      */
     public boolean isGameRunning() { return gameState.isRunning(); }
 
+    /**
+     * Retourne le nombre de ticks de logique exécutés depuis le début de la partie.
+     *
+     * @return Tick courant
+     */
+    public long getCurrentTick() { return currentTick; }
+
+    /**
+     * Retourne le temps de jeu écoulé, dérivé du nombre de ticks.
+     * Sert d'horloge aux bombes et explosions à la place de l'horloge système.
+     *
+     * @return Temps de jeu en millisecondes
+     */
+    public long getGameTime() { return currentTick * 1000 / TICK_RATE; }
+
     /**
      * Calcule le temps restant de la partie.
      *
@@ -523,6 +1214,35 @@ public class GameEngine {
         return gameState.getRemainingTime();
     }
 
+    /**
+     * Active ou désactive les power-ups laissés par les murs détruits
+     * (réglage GameSettings.isPowerupsEnabled pour les parties locales).
+     *
+     * @param enabled true pour activer les power-ups
+     */
+    public synchronized void setPowerUpsEnabled(boolean enabled) {
+        this.powerUpsEnabled = enabled;
+    }
+
+    /**
+     * Indique si les murs détruits laissent des power-ups.
+     *
+     * @return true si les power-ups sont activés
+     */
+    public boolean isPowerUpsEnabled() { return powerUpsEnabled; }
+
+    /**
+     * Retourne le power-up posé sur une case.
+     *
+     * @param x Position X
+     * @param y Position Y
+     * @return Type du power-up, null si la case n'en porte pas
+     */
+    public PowerUpType getPowerUp(int x, int y) {
+        if (gameMap.getTileType(x, y) != Tile.TileType.POWERUP) return null;
+        return powerUpAt(y * gameMap.getWidth() + x);
+    }
+
     /**
      * Définit l'écouteur d'événements du jeu.
      *
@@ -531,4 +1251,59 @@ public class GameEngine {
     public void setEventListener(GameEventListener listener) {
         this.eventListener = listener;
     }
+
+    /**
+     * Confie un joueur à un bot. Le bot agit à la fin de chaque tick de la partie,
+     * y compris après un redémarrage.
+     *
+     * @param bot Bot à ajouter
+     * @throws IllegalStateException Si la partie ne se joue pas sur une GameMap
+     */
+    public synchronized void addBot(BotController bot) {
+        if (!(gameMap instanceof GameMap)) {
+            throw new IllegalStateException("Les bots ne jouent que sur une GameMap");
+        }
+        bots.add(bot);
+    }
+
+    /**
+     * Retire tous les bots : leurs joueurs restent en jeu, sans contrôle.
+     */
+    public synchronized void clearBots() {
+        bots.clear();
+    }
+
+    /**
+     * Retourne le nombre de bots de la partie.
+     *
+     * @return Nombre de bots
+     */
+    public synchronized int getBotCount() { return bots.size(); }
+
+    /**
+     * Retourne la carte des dangers calculée au dernier tick où des bots ont joué.
+     *
+     * @return Carte des dangers partagée
+     */
+    public DangerMap getDangerMap() { return dangerMap; }
+
+    /**
+     * Retourne la recherche de chemins de la partie, tenue à jour des bombes à chaque
+     * tick où des bots jouent. À n'utiliser que sous le verrou du moteur (bots, update).
+     *
+     * @return Recherche de chemins partagée
+     */
+    public synchronized Pathfinder getPathfinder() {
+        if (pathfinder == null) pathfinder = new Pathfinder(getGameMap());
+        return pathfinder;
+    }
+
+    /**
+     * Définit l'observateur des entrées appliquées au jeu.
+     *
+     * @param listener L'observateur des entrées, null pour le retirer
+     */
+    public void setInputListener(InputListener listener) {
+        this.inputListener = listener;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,113 @@
+package fr.amu.iut.bomberman.model.game;
+
+import fr.amu.iut.bomberman.model.entities.PowerUpType;
+
+/**
+ * Événement de jeu diffusé par un GameEventBus. Les objets sont réutilisés d'un tick à
+ * l'autre : un abonné lit l'événement pendant l'appel et ne le conserve pas (copier les
+ * champs utiles s'il le faut).
+ */
+public final class GameEvent {
+
+    /**
+     * Types d'événements, filtrables à l'abonnement.
+     */
+    public enum Type {
+        PLAYER_MOVED,
+        BOMB_PLACED,
+        BOMB_EXPLODED,
+        PLAYER_DIED,
+        GAME_ENDED,
+        BLOCK_DESTROYED,
+        POWERUP_COLLECTED;
+
+        /** Valeurs, sans copie du tableau à chaque appel */
+        private static final Type[] VALUES = values();
+
+        /**
+         * Retourne le bit de ce type dans un masque de types.
+         *
+         * @return Masque ne contenant que ce type
+         */
+        public int mask() {
+            return 1 << ordinal();
+        }
+
+        /**
+         * Construit le masque d'un ensemble de types.
+         *
+         * @param types Types retenus, aucun pour tous les types
+         * @return Masque des types
+         */
+        public static int mask(Type... types) {
+            if (types.length == 0) return (1 << VALUES.length) - 1;
+            int mask = 0;
+            for (Type type : types) {
+                mask |= type.mask();
+            }
+            return mask;
+        }
+    }
+
+    /** Type de l'événement */
+    private Type type;
+
+    /** Tick du moteur auquel appartient l'événement (voir GameEventListener.onTickCompleted) */
+    private long tick;
+
+    /** Joueur concerné (gagnant pour GAME_ENDED), -1 si aucun */
+    private int playerId;
+
+    /** Case concernée, -1 si aucune */
+    private int x, y;
+
+    /** Power-up ramassé (POWERUP_COLLECTED), null sinon */
+    private PowerUpType powerUp;
+
+    /**
+     * Remplit l'événement.
+     */
+    void set(Type type, int playerId, int x, int y, PowerUpType powerUp) {
+        this.type = type;
+        this.playerId = playerId;
+        this.x = x;
+        this.y = y;
+        this.powerUp = powerUp;
+    }
+
+    /**
+     * Date l'événement, à la publication de son lot.
+     */
+    void setTick(long tick) {
+        this.tick = tick;
+    }
+
+    /** @return Type de l'événement */
+    public Type getType() { return type; }
+
+    /** @return Tick du moteur auquel appartient l'événement */
+    public long getTick() { return tick; }
+
+    /** @return Joueur concerné (gagnant pour GAME_ENDED), -1 si aucun */
+    public int getPlayerId() { return playerId; }
+
+    /** @return Position X de la case concernée, -1 si aucune */
+    public int getX() { return x; }
+
+    /** @return Position Y de la case concernée, -1 si aucune */
+    public int getY() { return y; }
+
+    /** @return Power-up ramassé, null si l'événement n'est pas un ramassage */
+    public PowerUpType getPowerUp() { return powerUp; }
+
+    /**
+     * Représentation textuelle de l'événement pour le debug.
+     *
+     * @return Description de l'événement
+     */
+    @Override
+    public String toString() {
+        return String.format("GameEvent{%s, tick=%d, player=%d, pos=(%d,%d)%s}",
+                type, tick, playerId, x, y, powerUp != null ? ", " + powerUp : "");
+    }
+}
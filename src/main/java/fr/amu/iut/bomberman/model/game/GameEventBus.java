@@ -0,0 +1,378 @@
+package fr.amu.iut.bomberman.model.game;
+
+import fr.amu.iut.bomberman.model.common.GameLog;
+import fr.amu.iut.bomberman.model.common.Position;
+import fr.amu.iut.bomberman.model.entities.Player;
+import fr.amu.iut.bomberman.model.entities.PowerUpType;
+
+import java.util.Arrays;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.IntFunction;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bus d'événements d'un moteur : branché comme GameEventListener, il range les
+ * événements d'un tick dans un lot, publié à la fin du tick dans une file circulaire
+ * sans verrou (un producteur, le moteur ; un consommateur, le thread du bus). Le thread
+ * du bus remet ensuite chaque lot aux abonnés, filtrés par type d'événement, puis leur
+ * signale la fin du tick avec sa durée. Il n'est réveillé que s'il est endormi.
+ * <p>
+ * Le tick n'attend jamais les abonnés : si la file est pleine (abonnés trop lents), le
+ * lot est abandonné et compté (getDroppedBatches). Lots et événements sont préalloués et
+ * réutilisés : publier n'alloue rien une fois les lots à leur taille.
+ * Les appels du moteur se font sous son verrou, qui les ordonne.
+ */
+public class GameEventBus implements GameEngine.GameEventListener, AutoCloseable {
+
+    /** Nombre de lots de la file (puissance de 2), soit une demi-seconde de jeu */
+    private static final int CAPACITY = 64;
+
+    /**
+     * Abonné du bus, appelé sur le thread du bus.
+     */
+    @FunctionalInterface
+    public interface Subscriber {
+        /**
+         * Reçoit un événement. L'objet est réutilisé après l'appel.
+         *
+         * @param event Événement
+         */
+        void onEvent(GameEvent event);
+
+        /**
+         * Signale la fin d'un tick, après ses événements, quels que soient les types suivis.
+         *
+         * @param tick Numéro du tick
+         * @param nanos Durée de l'update du moteur, en nanosecondes
+         */
+        default void onTickCompleted(long tick, long nanos) {}
+    }
+
+    /**
+     * Lot des événements d'un tick.
+     */
+    private static final class Batch {
+        GameEvent[] events = new GameEvent[0];
+        int size;
+
+        /** Types présents dans le lot */
+        int types;
+
+        /** Tick du lot et durée de son update */
+        long tick;
+        long nanos;
+
+        GameEvent add() {
+            if (size == events.length) {
+                events = Arrays.copyOf(events, Math.max(16, size * 2));
+                for (int i = size; i < events.length; i++) {
+                    events[i] = new GameEvent();
+                }
+            }
+            return events[size++];
+        }
+    }
+
+    /**
+     * Abonnement : un abonné et les types qu'il reçoit.
+     */
+    private static final class Subscription {
+        final Subscriber subscriber;
+        final int mask;
+
+        Subscription(Subscriber subscriber, int mask) {
+            this.subscriber = subscriber;
+            this.mask = mask;
+        }
+    }
+
+    /** Lots de la file ; le lot d'index tail est celui en cours de remplissage */
+    private final Batch[] batches = new Batch[CAPACITY];
+
+    /** Premier lot publié non encore remis (écrit par le thread du bus) */
+    private volatile long head;
+
+    /** Lot en cours de remplissage, les lots de head à tail exclu sont publiés (écrit par le moteur) */
+    private volatile long tail;
+
+    /** Abonnements */
+    private final CopyOnWriteArrayList<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    /** Lots publiés et lots abandonnés faute de place */
+    private volatile long publishedBatches;
+    private volatile long droppedBatches;
+
+    /** Thread de remise des lots */
+    private final Thread dispatcher;
+
+    /** Indique si le thread du bus est endormi (ou sur le point de l'être) */
+    private volatile boolean parked;
+
+    /** Indique si le bus est fermé */
+    private volatile boolean closed;
+
+    /** Retrouve un joueur par son identifiant (gagnant remis à onGameEnded), null si inconnu */
+    private final IntFunction<Player> players;
+
+    /**
+     * Constructeur d'un bus sans accès aux joueurs : le gagnant est remis à null
+     * aux GameEventListener abonnés.
+     */
+    public GameEventBus() {
+        this(null);
+    }
+
+    /**
+     * Constructeur du bus. Démarre le thread de remise (démon).
+     *
+     * @param players Retrouve un joueur par son identifiant (GameEngine::getPlayer), null si inconnu
+     */
+    public GameEventBus(IntFunction<Player> players) {
+        this.players = players;
+        for (int i = 0; i < CAPACITY; i++) {
+            batches[i] = new Batch();
+        }
+        dispatcher = new Thread(this::dispatchLoop, "GameEventBus");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    /**
+     * Abonne un consommateur à certains types d'événements.
+     *
+     * @param subscriber Abonné, appelé sur le thread du bus
+     * @param types Types reçus, aucun pour tous
+     */
+    public void subscribe(Subscriber subscriber, GameEvent.Type... types) {
+        subscriptions.add(new Subscription(subscriber, GameEvent.Type.mask(types)));
+    }
+
+    /**
+     * Abonne un GameEventListener classique, appelé sur le thread du bus pour tous les
+     * événements. Les positions lui sont remises en objets Position ; le gagnant,
+     * connu du bus par son seul identifiant, est retrouvé parmi les joueurs du moteur
+     * (null si le bus n'y a pas accès ou s'il n'y a pas de gagnant).
+     *
+     * @param listener Écouteur à appeler
+     * @return Abonné créé, pour le désabonner
+     */
+    public Subscriber subscribe(GameEngine.GameEventListener listener) {
+        Subscriber subscriber = new Subscriber() {
+            @Override
+            public void onEvent(GameEvent event) {
+                deliver(listener, event);
+            }
+
+            @Override
+            public void onTickCompleted(long tick, long nanos) {
+                listener.onTickCompleted(tick, nanos);
+            }
+        };
+        subscribe(subscriber);
+        return subscriber;
+    }
+
+    /**
+     * Désabonne un consommateur (il peut encore recevoir le lot en cours de remise).
+     *
+     * @param subscriber Abonné à retirer
+     */
+    public void unsubscribe(Subscriber subscriber) {
+        subscriptions.removeIf(subscription -> subscription.subscriber == subscriber);
+    }
+
+    // ---- Côté moteur ----
+
+    /**
+     * Ajoute un événement au lot du tick en cours.
+     */
+    private void record(GameEvent.Type type, int playerId, int x, int y, PowerUpType powerUp) {
+        Batch batch = batches[(int) tail & (CAPACITY - 1)];
+        batch.add().set(type, playerId, x, y, powerUp);
+        batch.types |= type.mask();
+    }
+
+    @Override
+    public void onPlayerMoved(int playerId, int x, int y) {
+        record(GameEvent.Type.PLAYER_MOVED, playerId, x, y, null);
+    }
+
+    @Override
+    public void onPlayerMoved(int playerId, Position newPosition) {
+        onPlayerMoved(playerId, newPosition.getX(), newPosition.getY());
+    }
+
+    @Override
+    public void onBombPlaced(int x, int y, int playerId) {
+        record(GameEvent.Type.BOMB_PLACED, playerId, x, y, null);
+    }
+
+    @Override
+    public void onBombPlaced(Position position, int playerId) {
+        onBombPlaced(position.getX(), position.getY(), playerId);
+    }
+
+    @Override
+    public void onBombExploded(int x, int y) {
+        record(GameEvent.Type.BOMB_EXPLODED, -1, x, y, null);
+    }
+
+    @Override
+    public void onBombExploded(Position position) {
+        onBombExploded(position.getX(), position.getY());
+    }
+
+    @Override
+    public void onPlayerDied(int playerId) {
+        record(GameEvent.Type.PLAYER_DIED, playerId, -1, -1, null);
+    }
+
+    @Override
+    public void onGameEnded(Player winner) {
+        record(GameEvent.Type.GAME_ENDED, winner != null ? winner.getId() : -1, -1, -1, null);
+    }
+
+    @Override
+    public void onBlockDestroyed(int x, int y) {
+        record(GameEvent.Type.BLOCK_DESTROYED, -1, x, y, null);
+    }
+
+    @Override
+    public void onBlockDestroyed(Position position) {
+        onBlockDestroyed(position.getX(), position.getY());
+    }
+
+    @Override
+    public void onPowerUpCollected(int playerId, PowerUpType type) {
+        record(GameEvent.Type.POWERUP_COLLECTED, playerId, -1, -1, type);
+    }
+
+    /**
+     * Date et publie le lot du tick. Si la file est pleine, le lot est abandonné : le
+     * tick ne s'arrête jamais pour attendre les abonnés.
+     */
+    @Override
+    public void onTickCompleted(long tick, long nanos) {
+        long current = tail;
+        Batch batch = batches[(int) current & (CAPACITY - 1)];
+
+        // Le lot suivant doit avoir été remis avant d'être rempli à nouveau
+        if (current + 1 - head >= CAPACITY) {
+            batch.size = 0;
+            batch.types = 0;
+            droppedBatches++;
+            return;
+        }
+        batch.tick = tick;
+        batch.nanos = nanos;
+        for (int i = 0; i < batch.size; i++) {
+            batch.events[i].setTick(tick);
+        }
+        Batch next = batches[(int) (current + 1) & (CAPACITY - 1)];
+        next.size = 0;
+        next.types = 0;
+        tail = current + 1;
+        publishedBatches++;
+        if (parked) LockSupport.unpark(dispatcher);
+    }
+
+    // ---- Côté thread du bus ----
+
+    /**
+     * Remet les lots publiés, dans l'ordre, puis attend le suivant. Le drapeau parked
+     * est levé avant de revérifier la file : un lot publié entre-temps réveille le thread.
+     */
+    private void dispatchLoop() {
+        while (!closed) {
+            long current = head;
+            if (current == tail) {
+                parked = true;
+                if (head == tail && !closed) LockSupport.park(this);
+                parked = false;
+                continue;
+            }
+            Batch batch = batches[(int) current & (CAPACITY - 1)];
+            for (Subscription subscription : subscriptions) {
+                try {
+                    if ((subscription.mask & batch.types) != 0) {
+                        for (int i = 0; i < batch.size; i++) {
+                            GameEvent event = batch.events[i];
+                            if ((subscription.mask & event.getType().mask()) == 0) continue;
+                            subscription.subscriber.onEvent(event);
+                        }
+                    }
+                    subscription.subscriber.onTickCompleted(batch.tick, batch.nanos);
+                } catch (RuntimeException e) {
+                    GameLog.log("⚠️ Abonné du bus d'événements en erreur: " + e);
+                }
+            }
+            head = current + 1;
+        }
+    }
+
+    /**
+     * Traduit un événement en appel d'un GameEventListener.
+     */
+    private void deliver(GameEngine.GameEventListener listener, GameEvent event) {
+        switch (event.getType()) {
+            case PLAYER_MOVED:
+                listener.onPlayerMoved(event.getPlayerId(), new Position(event.getX(), event.getY()));
+                break;
+            case BOMB_PLACED:
+                listener.onBombPlaced(new Position(event.getX(), event.getY()), event.getPlayerId());
+                break;
+            case BOMB_EXPLODED:
+                listener.onBombExploded(new Position(event.getX(), event.getY()));
+                break;
+            case PLAYER_DIED:
+                listener.onPlayerDied(event.getPlayerId());
+                break;
+            case GAME_ENDED:
+                int winnerId = event.getPlayerId();
+                listener.onGameEnded(winnerId >= 0 && players != null ? players.apply(winnerId) : null);
+                break;
+            case BLOCK_DESTROYED:
+                listener.onBlockDestroyed(new Position(event.getX(), event.getY()));
+                break;
+            case POWERUP_COLLECTED:
+                listener.onPowerUpCollected(event.getPlayerId(), event.getPowerUp());
+                break;
+        }
+    }
+
+    /**
+     * Retourne le nombre de lots publiés.
+     *
+     * @return Lots publiés depuis la création
+     */
+    public long getPublishedBatches() {
+        return publishedBatches;
+    }
+
+    /**
+     * Retourne le nombre de lots abandonnés faute de place dans la file.
+     *
+     * @return Lots abandonnés depuis la création
+     */
+    public long getDroppedBatches() {
+        return droppedBatches;
+    }
+
+    /**
+     * Retourne le nombre de lots publiés pas encore remis aux abonnés.
+     *
+     * @return Lots en attente
+     */
+    public int getPendingBatches() {
+        return (int) (tail - head);
+    }
+
+    /**
+     * Arrête le thread du bus ; les lots non remis sont perdus.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(dispatcher);
+    }
+}
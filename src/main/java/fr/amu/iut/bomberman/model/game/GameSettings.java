@@ -1,6 +1,13 @@
 package fr.amu.iut.bomberman.model.game;
 
+import fr.amu.iut.bomberman.model.map.ClassicMapGenerator;
+import fr.amu.iut.bomberman.model.map.MapFile;
+import fr.amu.iut.bomberman.model.map.MapGenerator;
 import javafx.scene.input.KeyCode;
+
+import java.io.IOException;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.prefs.Preferences;
@@ -24,9 +31,24 @@ public class GameSettings {
     private String difficulty = "Normal";
     private int playerCount = 2;
     private int gameDuration = 180; // secondes
+    private int botCount = 0; // bots ajoutés aux joueurs humains, aucun par défaut
     private boolean powerupsEnabled = true;
     private boolean obstaclesEnabled = true;
 
+    /** Paramètres de génération de la carte */
+    private int mapWidth = 15;
+    private int mapHeight = 13;
+    private double wallDensity = ClassicMapGenerator.DEFAULT_DENSITY;
+    private ClassicMapGenerator.Symmetry mapSymmetry = ClassicMapGenerator.Symmetry.NONE;
+    private String arenaPath = ""; // arène dessinée (.bmap ou .txt), vide pour une carte aléatoire
+    private int eventArenaSize = 0; // côté de l'arène géante (ChunkedMap), 0 pour une carte classique
+
+    /** Nom du profil du joueur 1 (voir ProfileStore) */
+    private String profileName = "Joueur1";
+
+    /** Télémétrie des parties locales (TelemetrySink), désactivée par défaut */
+    private boolean telemetryEnabled = false;
+
     /**
      * Structure pour stocker les contrôles d'un joueur.
      */
@@ -106,8 +128,21 @@ public class GameSettings {
         difficulty = prefs.get("difficulty", difficulty);
         playerCount = prefs.getInt("playerCount", playerCount);
         gameDuration = prefs.getInt("gameDuration", gameDuration);
+        botCount = prefs.getInt("botCount", botCount);
         powerupsEnabled = prefs.getBoolean("powerupsEnabled", powerupsEnabled);
         obstaclesEnabled = prefs.getBoolean("obstaclesEnabled", obstaclesEnabled);
+        mapWidth = prefs.getInt("mapWidth", mapWidth);
+        mapHeight = prefs.getInt("mapHeight", mapHeight);
+        wallDensity = prefs.getDouble("wallDensity", wallDensity);
+        arenaPath = prefs.get("arenaPath", arenaPath);
+        eventArenaSize = prefs.getInt("eventArenaSize", eventArenaSize);
+        profileName = prefs.get("profileName", profileName);
+        telemetryEnabled = prefs.getBoolean("telemetryEnabled", telemetryEnabled);
+        try {
+            mapSymmetry = ClassicMapGenerator.Symmetry.valueOf(prefs.get("mapSymmetry", mapSymmetry.name()));
+        } catch (IllegalArgumentException e) {
+            mapSymmetry = ClassicMapGenerator.Symmetry.NONE;
+        }
 
         // Charger les contrôles personnalisés
         for (int playerId = 0; playerId < 4; playerId++) {
@@ -157,8 +192,17 @@ public class GameSettings {
             prefs.put("difficulty", difficulty);
             prefs.putInt("playerCount", playerCount);
             prefs.putInt("gameDuration", gameDuration);
+            prefs.putInt("botCount", botCount);
             prefs.putBoolean("powerupsEnabled", powerupsEnabled);
             prefs.putBoolean("obstaclesEnabled", obstaclesEnabled);
+            prefs.putInt("mapWidth", mapWidth);
+            prefs.putInt("mapHeight", mapHeight);
+            prefs.putDouble("wallDensity", wallDensity);
+            prefs.put("mapSymmetry", mapSymmetry.name());
+            prefs.put("arenaPath", arenaPath);
+            prefs.putInt("eventArenaSize", eventArenaSize);
+            prefs.put("profileName", profileName);
+            prefs.putBoolean("telemetryEnabled", telemetryEnabled);
 
             // Sauvegarder les contrôles
             for (Map.Entry<Integer, PlayerControlSettings> entry : playerControls.entrySet()) {
@@ -229,8 +273,16 @@ public class GameSettings {
         difficulty = "Normal";
         playerCount = 2;
         gameDuration = 180;
+        botCount = 0;
         powerupsEnabled = true;
         obstaclesEnabled = true;
+        mapWidth = 15;
+        mapHeight = 13;
+        wallDensity = ClassicMapGenerator.DEFAULT_DENSITY;
+        mapSymmetry = ClassicMapGenerator.Symmetry.NONE;
+        arenaPath = "";
+        eventArenaSize = 0;
+        telemetryEnabled = false;
         loadDefaultControls();
         System.out.println("🔄 Tous les paramètres remis par défaut");
     }
@@ -296,9 +348,55 @@ public class GameSettings {
     public synchronized int getGameDuration() { return gameDuration; }
     public synchronized void setGameDuration(int gameDuration) { this.gameDuration = gameDuration; }
 
+    public synchronized int getBotCount() { return botCount; }
+    public synchronized void setBotCount(int botCount) { this.botCount = Math.max(0, botCount); }
+
     public synchronized boolean isPowerupsEnabled() { return powerupsEnabled; }
     public synchronized void setPowerupsEnabled(boolean powerupsEnabled) { this.powerupsEnabled = powerupsEnabled; }
 
     public synchronized boolean isObstaclesEnabled() { return obstaclesEnabled; }
     public synchronized void setObstaclesEnabled(boolean obstaclesEnabled) { this.obstaclesEnabled = obstaclesEnabled; }
-}
\ No newline at end of file
+
+    public synchronized int getMapWidth() { return mapWidth; }
+    public synchronized void setMapWidth(int mapWidth) { this.mapWidth = mapWidth; }
+
+    public synchronized int getMapHeight() { return mapHeight; }
+    public synchronized void setMapHeight(int mapHeight) { this.mapHeight = mapHeight; }
+
+    public synchronized double getWallDensity() { return wallDensity; }
+    public synchronized void setWallDensity(double wallDensity) { this.wallDensity = wallDensity; }
+
+    public synchronized ClassicMapGenerator.Symmetry getMapSymmetry() { return mapSymmetry; }
+    public synchronized void setMapSymmetry(ClassicMapGenerator.Symmetry mapSymmetry) { this.mapSymmetry = mapSymmetry; }
+
+    public synchronized String getArenaPath() { return arenaPath; }
+    public synchronized void setArenaPath(String arenaPath) { this.arenaPath = arenaPath != null ? arenaPath : ""; }
+
+    public synchronized int getEventArenaSize() { return eventArenaSize; }
+    public synchronized void setEventArenaSize(int eventArenaSize) { this.eventArenaSize = eventArenaSize; }
+
+    public synchronized String getProfileName() { return profileName; }
+    public synchronized void setProfileName(String profileName) { this.profileName = profileName; }
+
+    public synchronized boolean isTelemetryEnabled() { return telemetryEnabled; }
+    public synchronized void setTelemetryEnabled(boolean telemetryEnabled) { this.telemetryEnabled = telemetryEnabled; }
+
+    /**
+     * Crée le générateur de carte correspondant aux paramètres courants :
+     * l'arène choisie si elle est lisible, sinon une carte aléatoire.
+     * Sans obstacles, la carte aléatoire ne contient aucun mur destructible.
+     *
+     * @return Générateur de carte
+     */
+    public synchronized MapGenerator createMapGenerator() {
+        if (!arenaPath.isEmpty()) {
+            try {
+                Path path = Path.of(arenaPath);
+                return arenaPath.endsWith(".txt") ? MapFile.readText(path) : MapFile.open(path);
+            } catch (IOException | InvalidPathException e) {
+                System.err.println("Arène illisible (" + arenaPath + "): " + e.getMessage());
+            }
+        }
+        return new ClassicMapGenerator(obstaclesEnabled ? wallDensity : 0, mapSymmetry);
+    }
+}
@@ -0,0 +1,106 @@
+package fr.amu.iut.bomberman.model.game;
+
+/**
+ * Identifiants des bombes ou des explosions d'un moteur : un identifiant libéré attend
+ * un délai, compté sur l'horloge du moteur, dans une file circulaire avant d'être
+ * réutilisé. Le délai laisse aux instantanés déjà pris par l'affichage (getBombs,
+ * getExplosions) le temps d'être lus avant que les objets rattachés à un identifiant ne
+ * changent d'entité ; un moteur de simulation, lu par un seul thread, n'en a pas besoin.
+ * Les identifiants sont denses : ils indexent directement des tableaux.
+ */
+final class IdPool {
+
+    /** Capacité initiale de la file */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** Nombre d'identifiants créés (les identifiants vont de 0 à created exclu) */
+    private int created;
+
+    /** File circulaire des identifiants libérés, du plus ancien (head) au plus récent */
+    private int[] free = new int[INITIAL_CAPACITY];
+
+    /** Horloge de la libération de chaque identifiant de la file */
+    private long[] freedAt = new long[INITIAL_CAPACITY];
+
+    /** Position du plus ancien identifiant libéré et nombre d'identifiants libérés */
+    private int head;
+    private int size;
+
+    /** Attente avant réutilisation */
+    private final long delay;
+
+    /**
+     * Constructeur d'une table vide.
+     *
+     * @param delay Attente avant réutilisation d'un identifiant (0 pour un moteur de simulation)
+     */
+    IdPool(long delay) {
+        this.delay = delay;
+    }
+
+    /**
+     * Donne le plus ancien identifiant libéré dont le délai est écoulé, ou un nouveau
+     * (égal au nombre d'identifiants créés jusque-là).
+     *
+     * @param clock Horloge courante
+     * @return Identifiant
+     */
+    int acquire(long clock) {
+        if (size > 0 && clock - freedAt[head] >= delay) {
+            int id = free[head];
+            head = (head + 1) & (free.length - 1);
+            size--;
+            return id;
+        }
+        return created++;
+    }
+
+    /**
+     * Libère un identifiant.
+     *
+     * @param id Identifiant qui ne désigne plus d'entité
+     * @param clock Horloge courante
+     */
+    void release(int id, long clock) {
+        if (size == free.length) grow();
+        int tail = (head + size) & (free.length - 1);
+        free[tail] = id;
+        freedAt[tail] = clock;
+        size++;
+    }
+
+    /**
+     * Recopie l'état d'une autre table (copie d'un moteur) : les identifiants créés et
+     * libérés sont les mêmes, dans le même ordre.
+     *
+     * @param source Table copiée
+     */
+    void copyFrom(IdPool source) {
+        created = source.created;
+        if (free.length != source.free.length) {
+            free = new int[source.free.length];
+            freedAt = new long[source.free.length];
+        }
+        System.arraycopy(source.free, 0, free, 0, free.length);
+        System.arraycopy(source.freedAt, 0, freedAt, 0, freedAt.length);
+        head = source.head;
+        size = source.size;
+    }
+
+    /**
+     * Double la capacité de la file en remettant les identifiants dans l'ordre à partir de 0.
+     */
+    private void grow() {
+        int capacity = free.length * 2;
+        int[] newFree = new int[capacity];
+        long[] newFreedAt = new long[capacity];
+        for (int i = 0; i < size; i++) {
+            int from = (head + i) & (free.length - 1);
+            newFree[i] = free[from];
+            newFreedAt[i] = freedAt[from];
+        }
+        free = newFree;
+        freedAt = newFreedAt;
+        head = 0;
+    }
+}
@@ -0,0 +1,107 @@
+package fr.amu.iut.bomberman.model.map;
+
+/**
+ * Ensembles de cases codés en bits (un bit par case, index = y * largeur + x, 64 cases
+ * par long) : ajout et retrait en temps constant, comptage d'une plage de cases par
+ * Long.bitCount, mot par mot. Sert d'index des murs destructibles aux cartes.
+ */
+final class CellBits {
+
+    private CellBits() {
+    }
+
+    /**
+     * Alloue un ensemble vide.
+     *
+     * @param size Nombre de cases
+     * @return Mots de l'ensemble
+     */
+    static long[] create(int size) {
+        return new long[(size + 63) >>> 6];
+    }
+
+    /**
+     * Remplit un ensemble avec les cases d'un type donné (les autres bits sont effacés).
+     *
+     * @param bits Ensemble d'au moins size bits
+     * @param cells Type de chaque case
+     * @param size Nombre de cases
+     * @param type Type recherché
+     * @return Nombre de cases du type
+     */
+    static int fill(long[] bits, byte[] cells, int size, byte type) {
+        int count = 0;
+        for (int word = 0, start = 0; start < size; word++, start += 64) {
+            long value = 0;
+            for (int i = start, end = Math.min(start + 64, size); i < end; i++) {
+                if (cells[i] == type) value |= 1L << i;
+            }
+            bits[word] = value;
+            count += Long.bitCount(value);
+        }
+        return count;
+    }
+
+    /**
+     * Ajoute une case à l'ensemble.
+     */
+    static void set(long[] bits, int index) {
+        bits[index >>> 6] |= 1L << index;
+    }
+
+    /**
+     * Retire une case de l'ensemble.
+     */
+    static void clear(long[] bits, int index) {
+        bits[index >>> 6] &= ~(1L << index);
+    }
+
+    /**
+     * Indique si une case est dans l'ensemble.
+     */
+    static boolean get(long[] bits, int index) {
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * Compte les cases de l'ensemble dans une plage d'index.
+     *
+     * @param bits Ensemble
+     * @param from Premier index (inclus)
+     * @param to Dernier index (exclu)
+     * @return Nombre de cases de la plage dans l'ensemble
+     */
+    static int count(long[] bits, int from, int to) {
+        if (from >= to) return 0;
+        int first = from >>> 6, last = (to - 1) >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> (63 - ((to - 1) & 63));
+        if (first == last) return Long.bitCount(bits[first] & firstMask & lastMask);
+        int count = Long.bitCount(bits[first] & firstMask);
+        for (int word = first + 1; word < last; word++) {
+            count += Long.bitCount(bits[word]);
+        }
+        return count + Long.bitCount(bits[last] & lastMask);
+    }
+
+    /**
+     * Cherche la première case de l'ensemble à partir d'un index.
+     *
+     * @param bits Ensemble
+     * @param from Index de départ (inclus)
+     * @param size Nombre de cases
+     * @return Index trouvé, -1 s'il n'y en a plus
+     */
+    static int next(long[] bits, int from, int size) {
+        if (from < 0) from = 0;
+        if (from >= size) return -1;
+        int word = from >>> 6;
+        long value = bits[word] & (-1L << from);
+        while (value == 0) {
+            if (++word == bits.length) return -1;
+            value = bits[word];
+        }
+        int index = (word << 6) + Long.numberOfTrailingZeros(value);
+        return index < size ? index : -1;
+    }
+}
@@ -0,0 +1,742 @@
+package fr.amu.iut.bomberman.model.map;
+
+import fr.amu.iut.bomberman.model.common.Position;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Carte creuse découpée en blocs de 32x32 cases, pour les très grandes arènes ouvertes
+ * (jusqu'à 4096x4096). Un bloc entièrement fait de sol n'est pas alloué : il pointe vers
+ * un bloc sentinelle partagé, et n'est recopié qu'à sa première modification. Un bloc
+ * redevenu uniforme à la fin de ses explosions retourne à la sentinelle.
+ * Les blocs en explosion forment une liste active : updateExplosions ne parcourt qu'eux.
+ * Les blocs modifiés sont marqués pour que le rendu ne redessine que ceux-là ; ces marques
+ * sont atomiques, le rendu les relevant pendant que le moteur écrit.
+ * Carte du mode arène géante de PlayController (voir GameSettings.getEventArenaSize).
+ */
+public class ChunkedMap implements IMap {
+
+    /** Taille d'un bloc (puissance de 2) */
+    public static final int CHUNK_SHIFT = 5;
+    public static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int CHUNK_AREA = CHUNK_SIZE * CHUNK_SIZE;
+
+    /** Dimension maximale de la carte */
+    public static final int MAX_SIZE = 4096;
+
+    private static final byte FLOOR = (byte) Tile.TileType.FLOOR.ordinal();
+    private static final byte WALL = (byte) Tile.TileType.WALL.ordinal();
+    private static final byte DESTRUCTIBLE_WALL = (byte) Tile.TileType.DESTRUCTIBLE_WALL.ordinal();
+    private static final byte EXPLOSION = (byte) Tile.TileType.EXPLOSION.ordinal();
+    private static final byte POWERUP = (byte) Tile.TileType.POWERUP.ordinal();
+
+    /** Bit du timer d'explosion indiquant que la case devient un power-up en s'éteignant */
+    private static final int REVEAL_POWERUP = 0x80;
+    private static final int TIMER_MASK = REVEAL_POWERUP - 1;
+
+    /** Bloc de sol uniforme partagé par toutes les cartes, jamais modifié */
+    private static final byte[] FLOOR_CHUNK = new byte[CHUNK_AREA];
+
+    static {
+        Arrays.fill(FLOOR_CHUNK, FLOOR);
+    }
+
+    /**
+     * Visiteur des blocs d'une carte.
+     */
+    @FunctionalInterface
+    public interface ChunkVisitor {
+        /**
+         * @param chunkX Colonne du bloc
+         * @param chunkY Rangée du bloc
+         */
+        void visit(int chunkX, int chunkY);
+    }
+
+    /** Dimensions de la carte, en cases */
+    private int width, height;
+
+    /** Dimensions de la carte, en blocs */
+    private int chunksX, chunksY;
+
+    /** Type de chaque case par bloc (FLOOR_CHUNK si le bloc est uniforme) */
+    private byte[][] chunks;
+
+    /** Timers d'explosion par bloc, alloués à la première explosion du bloc */
+    private byte[][] timers;
+
+    /** Nombre de cases en explosion de chaque bloc */
+    private int[] explosionCounts;
+
+    /** Blocs en explosion (les activeCount premiers) */
+    private int[] activeChunks;
+    private int activeCount;
+
+    /** Position de chaque bloc dans activeChunks, -1 s'il est inactif */
+    private int[] activeSlots;
+
+    /** Blocs modifiés depuis le dernier passage du rendu (un bit par bloc) */
+    private AtomicLongArray dirtyChunks;
+
+    /** Nombre de blocs alloués (hors sentinelle) */
+    private int allocatedChunks;
+
+    /** Nombre de murs destructibles restants */
+    private int destructibleWallCount;
+
+    /** Générateur du terrain, null pour une arène ouverte (bordure de murs, sol partout) */
+    private MapGenerator generator;
+
+    /** Graine du terrain courant */
+    private long seed;
+
+    /** Politique de tirage des power-ups laissés par les murs détruits */
+    private DropPolicy dropPolicy;
+
+    /**
+     * Constructeur d'une arène ouverte : bordure indestructible et sol partout ailleurs.
+     * Seuls les blocs de la bordure sont alloués.
+     *
+     * @param width Largeur de la carte
+     * @param height Hauteur de la carte
+     */
+    public ChunkedMap(int width, int height) {
+        this(width, height, 0, null);
+    }
+
+    /**
+     * Constructeur d'une carte générée. Le terrain est généré dans un tableau temporaire
+     * puis découpé en blocs, les blocs de sol uniforme n'étant pas alloués.
+     *
+     * @param width Largeur de la carte
+     * @param height Hauteur de la carte
+     * @param seed Graine de génération
+     * @param generator Générateur du terrain, null pour une arène ouverte
+     */
+    public ChunkedMap(int width, int height, long seed, MapGenerator generator) {
+        this.generator = generator;
+        this.seed = seed;
+        initialize(width, height);
+    }
+
+    /**
+     * Constructeur de copie : les blocs alloués et leurs timers sont dupliqués,
+     * les blocs de sol uniforme restent partagés. La politique de tirage n'est pas copiée.
+     *
+     * @param source Carte copiée
+     */
+    public ChunkedMap(ChunkedMap source) {
+        this.generator = source.generator;
+        this.seed = source.seed;
+        this.width = source.width;
+        this.height = source.height;
+        this.chunksX = source.chunksX;
+        this.chunksY = source.chunksY;
+        int count = chunksX * chunksY;
+        this.chunks = new byte[count][];
+        this.timers = new byte[count][];
+        this.explosionCounts = new int[count];
+        this.activeChunks = new int[count];
+        this.activeSlots = new int[count];
+        this.dirtyChunks = new AtomicLongArray((count + 63) >>> 6);
+        copyStateFrom(source);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Dimensions entre 5 et MAX_SIZE.
+     */
+    @Override
+    public void initialize(int width, int height) {
+        if (width < 5 || height < 5 || width > MAX_SIZE || height > MAX_SIZE) {
+            throw new IllegalArgumentException("Dimensions invalides: " + width + "x" + height);
+        }
+        this.width = width;
+        this.height = height;
+        this.chunksX = (width + CHUNK_MASK) >>> CHUNK_SHIFT;
+        this.chunksY = (height + CHUNK_MASK) >>> CHUNK_SHIFT;
+
+        int count = chunksX * chunksY;
+        this.chunks = new byte[count][];
+        this.timers = new byte[count][];
+        this.explosionCounts = new int[count];
+        this.activeChunks = new int[count];
+        this.activeSlots = new int[count];
+        this.dirtyChunks = new AtomicLongArray((count + 63) >>> 6);
+        initializeMap();
+    }
+
+    /**
+     * Remplit la carte avec le générateur courant (ou en arène ouverte)
+     * et marque tous les blocs à redessiner.
+     */
+    private void initializeMap() {
+        Arrays.fill(chunks, FLOOR_CHUNK);
+        Arrays.fill(timers, null);
+        Arrays.fill(explosionCounts, 0);
+        Arrays.fill(activeSlots, -1);
+        markAllDirty();
+        activeCount = 0;
+        allocatedChunks = 0;
+        destructibleWallCount = 0;
+
+        if (generator == null) {
+            for (int x = 0; x < width; x++) {
+                write(x, 0, WALL, 0);
+                write(x, height - 1, WALL, 0);
+            }
+            for (int y = 1; y < height - 1; y++) {
+                write(0, y, WALL, 0);
+                write(width - 1, y, WALL, 0);
+            }
+            return;
+        }
+
+        byte[] cells = generator.generate(width, height, seed);
+        for (int y = 0; y < height; y++) {
+            int row = y * width;
+            for (int x = 0; x < width; x++) {
+                byte type = cells[row + x];
+                if (type != FLOOR) write(x, y, type, 0);
+            }
+        }
+    }
+
+    /**
+     * Retourne l'index du bloc contenant une case.
+     */
+    private int chunkIndex(int x, int y) {
+        return (y >>> CHUNK_SHIFT) * chunksX + (x >>> CHUNK_SHIFT);
+    }
+
+    /**
+     * Retourne l'index d'une case dans son bloc.
+     */
+    private static int cellIndex(int x, int y) {
+        return ((y & CHUNK_MASK) << CHUNK_SHIFT) | (x & CHUNK_MASK);
+    }
+
+    /**
+     * Lit le type d'une case valide.
+     */
+    private byte cell(int x, int y) {
+        return chunks[chunkIndex(x, y)][cellIndex(x, y)];
+    }
+
+    /**
+     * Modifie une case valide en tenant à jour les compteurs, la liste active et les blocs
+     * à redessiner. Un bloc sentinelle est alloué à sa première modification.
+     *
+     * @param x Coordonnée X
+     * @param y Coordonnée Y
+     * @param type Nouveau type
+     * @param timer Timer d'explosion (ignoré hors explosion)
+     */
+    private void write(int x, int y, byte type, int timer) {
+        int chunk = chunkIndex(x, y);
+        int cell = cellIndex(x, y);
+        byte[] cells = chunks[chunk];
+        byte old = cells[cell];
+
+        if (old != type) {
+            if (cells == FLOOR_CHUNK) {
+                cells = chunks[chunk] = FLOOR_CHUNK.clone();
+                allocatedChunks++;
+            }
+            cells[cell] = type;
+            markDirty(chunk);
+
+            if (old == DESTRUCTIBLE_WALL) destructibleWallCount--;
+            if (type == DESTRUCTIBLE_WALL) destructibleWallCount++;
+            if (old == EXPLOSION && --explosionCounts[chunk] == 0) deactivate(chunk);
+            if (type == EXPLOSION && explosionCounts[chunk]++ == 0) activate(chunk);
+        }
+        if (type == EXPLOSION) {
+            byte[] chunkTimers = timers[chunk];
+            if (chunkTimers == null) chunkTimers = timers[chunk] = new byte[CHUNK_AREA];
+            chunkTimers[cell] = (byte) timer;
+        }
+    }
+
+    /**
+     * Marque un bloc à redessiner. Le bit est posé par compareAndSet : le rendu peut
+     * relever le mot au même moment (drainDirtyChunks) sans qu'une marque se perde.
+     *
+     * @param chunk Index du bloc
+     */
+    private void markDirty(int chunk) {
+        int word = chunk >>> 6;
+        long bit = 1L << chunk;
+        long bits;
+        do {
+            bits = dirtyChunks.get(word);
+            if ((bits & bit) != 0) return;
+        } while (!dirtyChunks.compareAndSet(word, bits, bits | bit));
+    }
+
+    /**
+     * Marque tous les blocs à redessiner.
+     */
+    private void markAllDirty() {
+        for (int word = 0; word < dirtyChunks.length(); word++) {
+            dirtyChunks.set(word, -1L);
+        }
+    }
+
+    /**
+     * Ajoute un bloc à la liste active.
+     */
+    private void activate(int chunk) {
+        activeSlots[chunk] = activeCount;
+        activeChunks[activeCount++] = chunk;
+    }
+
+    /**
+     * Retire un bloc de la liste active (échange avec le dernier).
+     */
+    private void deactivate(int chunk) {
+        int slot = activeSlots[chunk];
+        int last = activeChunks[--activeCount];
+        activeChunks[slot] = last;
+        activeSlots[last] = slot;
+        activeSlots[chunk] = -1;
+    }
+
+    /**
+     * Rend un bloc à la sentinelle s'il n'est plus fait que de sol.
+     *
+     * @param chunk Index du bloc
+     */
+    private void collapse(int chunk) {
+        byte[] cells = chunks[chunk];
+        if (cells == FLOOR_CHUNK || explosionCounts[chunk] != 0) return;
+        for (byte cell : cells) {
+            if (cell != FLOOR) return;
+        }
+        chunks[chunk] = FLOOR_CHUNK;
+        timers[chunk] = null;
+        allocatedChunks--;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Tile getTile(Position position) {
+        return getTile(position.getX(), position.getY());
+    }
+
+    /**
+     * {@inheritDoc}
+     * La tuile retournée est une copie de l'état de la case.
+     */
+    @Override
+    public Tile getTile(int x, int y) {
+        if (!isValidPosition(x, y)) return null;
+        byte type = cell(x, y);
+        Tile tile = new Tile(new Position(x, y), Tile.TileType.fromOrdinal(type));
+        if (type == EXPLOSION) {
+            tile.setExplosionTimer(timers[chunkIndex(x, y)][cellIndex(x, y)] & TIMER_MASK);
+        }
+        return tile;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Tile.TileType getTileType(int x, int y) {
+        return isValidPosition(x, y) ? Tile.TileType.fromOrdinal(cell(x, y)) : null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setTile(Position position, Tile tile) {
+        setTile(position.getX(), position.getY(), tile);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setTile(int x, int y, Tile tile) {
+        if (isValidPosition(x, y) && tile != null) {
+            byte type = (byte) tile.getType().ordinal();
+            write(x, y, type, tile.getExplosionTimer());
+            if (type == FLOOR) collapse(chunkIndex(x, y));
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isWalkable(Position position) {
+        return isWalkable(position.getX(), position.getY());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isWalkable(int x, int y) {
+        return isValidPosition(x, y) && Tile.TileType.fromOrdinal(cell(x, y)).isWalkable();
+    }
+
+    /**
+     * {@inheritDoc}
+     * Vérifie que la position est libre pour placer une bombe.
+     */
+    @Override
+    public boolean placeBomb(Position position) {
+        return placeBomb(position.getX(), position.getY());
+    }
+
+    /**
+     * {@inheritDoc}
+     * Vérifie que la case est libre pour placer une bombe.
+     */
+    @Override
+    public boolean placeBomb(int x, int y) {
+        return isWalkable(x, y);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Explosion de portée GameMap.DEFAULT_EXPLOSION_RANGE.
+     */
+    @Override
+    public void explodeBomb(Position position) {
+        explodeBomb(position.getX(), position.getY(), GameMap.DEFAULT_EXPLOSION_RANGE);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Explosion de portée GameMap.DEFAULT_EXPLOSION_RANGE.
+     */
+    @Override
+    public void explodeBomb(int x, int y) {
+        explodeBomb(x, y, GameMap.DEFAULT_EXPLOSION_RANGE);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Mêmes règles que GameMap : les murs arrêtent l'explosion, un power-up est détruit.
+     */
+    @Override
+    public void explodeBomb(int x, int y, int explosionRange) {
+        if (isValidPosition(x, y)) {
+            ignite(x, y, false);
+        }
+
+        explodeDirection(x, y, 1, 0, explosionRange);
+        explodeDirection(x, y, -1, 0, explosionRange);
+        explodeDirection(x, y, 0, 1, explosionRange);
+        explodeDirection(x, y, 0, -1, explosionRange);
+    }
+
+    /**
+     * Propage l'explosion dans une direction donnée jusqu'à rencontrer un obstacle.
+     *
+     * @param startX Position X de départ de l'explosion
+     * @param startY Position Y de départ de l'explosion
+     * @param dx Direction X (-1, 0, ou 1)
+     * @param dy Direction Y (-1, 0, ou 1)
+     * @param range Portée maximale de l'explosion
+     */
+    private void explodeDirection(int startX, int startY, int dx, int dy, int range) {
+        for (int i = 1; i <= range; i++) {
+            int x = startX + (dx * i);
+            int y = startY + (dy * i);
+            if (!isValidPosition(x, y)) break;
+
+            byte cell = cell(x, y);
+            if (cell == WALL) break;
+            if (cell == DESTRUCTIBLE_WALL) {
+                ignite(x, y, dropPolicy != null && dropPolicy.dropsPowerUp(y * width + x));
+                break;
+            }
+            if (cell == POWERUP) {
+                ignite(x, y, false);
+                break;
+            }
+            if (cell == FLOOR) {
+                ignite(x, y, false);
+            }
+        }
+    }
+
+    /**
+     * Passe une case en explosion et arme son timer.
+     *
+     * @param x Coordonnée X
+     * @param y Coordonnée Y
+     * @param reveal true si la case devient un power-up en s'éteignant
+     */
+    private void ignite(int x, int y, boolean reveal) {
+        write(x, y, EXPLOSION, Tile.EXPLOSION_FRAMES | (reveal ? REVEAL_POWERUP : 0));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean collectPowerUp(int x, int y) {
+        if (!isValidPosition(x, y) || cell(x, y) != POWERUP) return false;
+        write(x, y, FLOOR, 0);
+        collapse(chunkIndex(x, y));
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setDropPolicy(DropPolicy dropPolicy) {
+        this.dropPolicy = dropPolicy;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Seuls les blocs de la liste active sont parcourus ; un bloc dont toutes les
+     * explosions sont terminées quitte la liste et retourne à la sentinelle s'il le peut.
+     */
+    @Override
+    public void updateExplosions() {
+        // Parcours à rebours : un bloc qui quitte la liste est remplacé par le dernier, déjà traité
+        for (int slot = activeCount - 1; slot >= 0; slot--) {
+            int chunk = activeChunks[slot];
+            byte[] cells = chunks[chunk];
+            byte[] chunkTimers = timers[chunk];
+            int originX = (chunk % chunksX) << CHUNK_SHIFT;
+            int originY = (chunk / chunksX) << CHUNK_SHIFT;
+
+            for (int cell = 0; cell < CHUNK_AREA; cell++) {
+                if (cells[cell] != EXPLOSION) continue;
+                int value = chunkTimers[cell] & 0xFF;
+                int timer = (value & TIMER_MASK) - 1;
+                if (timer <= 0) {
+                    byte after = (value & REVEAL_POWERUP) != 0 ? POWERUP : FLOOR;
+                    write(originX | (cell & CHUNK_MASK), originY | (cell >>> CHUNK_SHIFT), after, 0);
+                } else {
+                    chunkTimers[cell] = (byte) (timer | (value & REVEAL_POWERUP));
+                }
+            }
+            collapse(chunk);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * Régénère la carte avec une nouvelle graine aléatoire (ou vide l'arène ouverte).
+     */
+    @Override
+    public void reset() {
+        reset(ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void reset(long seed) {
+        this.seed = seed;
+        initializeMap();
+    }
+
+    /**
+     * Parcourt les blocs modifiés depuis le dernier appel, puis les marque à jour.
+     *
+     * @param visitor Appelé pour chaque bloc modifié
+     */
+    public void drainDirtyChunks(ChunkVisitor visitor) {
+        for (int word = 0; word < dirtyChunks.length(); word++) {
+            // Relevé et remise à zéro atomiques : une marque posée entre-temps reste pour le passage suivant
+            long bits = dirtyChunks.getAndSet(word, 0);
+            while (bits != 0) {
+                int chunk = (word << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                visitor.visit(chunk % chunksX, chunk / chunksX);
+            }
+        }
+    }
+
+    /**
+     * Parcourt les blocs en explosion.
+     *
+     * @param visitor Appelé pour chaque bloc actif
+     */
+    public void forEachActiveChunk(ChunkVisitor visitor) {
+        for (int slot = 0; slot < activeCount; slot++) {
+            int chunk = activeChunks[slot];
+            visitor.visit(chunk % chunksX, chunk / chunksX);
+        }
+    }
+
+    /**
+     * Indique si un bloc contient des explosions en cours.
+     *
+     * @param chunkX Colonne du bloc
+     * @param chunkY Rangée du bloc
+     * @return true si le bloc est dans la liste active
+     */
+    public boolean isChunkActive(int chunkX, int chunkY) {
+        return activeSlots[chunkY * chunksX + chunkX] >= 0;
+    }
+
+    /**
+     * Indique si un bloc est alloué (false : sol uniforme partagé).
+     *
+     * @param chunkX Colonne du bloc
+     * @param chunkY Rangée du bloc
+     * @return true si le bloc possède ses propres cases
+     */
+    public boolean isChunkAllocated(int chunkX, int chunkY) {
+        return chunks[chunkY * chunksX + chunkX] != FLOOR_CHUNK;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Coins de la carte pour une arène ouverte.
+     */
+    @Override
+    public Position getSpawn(int playerIndex) {
+        if (generator != null) return generator.getSpawn(playerIndex, width, height);
+        int x = playerIndex % 2 == 0 ? 1 : width - 2;
+        int y = playerIndex % 4 < 2 ? 1 : height - 2;
+        return new Position(x, y);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ChunkedMap copy() {
+        return new ChunkedMap(this);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Les blocs de sol uniforme restent partagés ; tous les blocs sont à redessiner.
+     */
+    @Override
+    public void copyStateFrom(IMap source) {
+        if (!(source instanceof ChunkedMap)) {
+            throw new IllegalArgumentException("Carte d'un autre type: " + source.getClass().getSimpleName());
+        }
+        ChunkedMap from = (ChunkedMap) source;
+        if (from.width != width || from.height != height) {
+            throw new IllegalArgumentException("Dimensions différentes: " + from.width + "x" + from.height
+                    + " au lieu de " + width + "x" + height);
+        }
+        for (int chunk = 0; chunk < chunks.length; chunk++) {
+            byte[] cells = from.chunks[chunk];
+            chunks[chunk] = cells == FLOOR_CHUNK ? FLOOR_CHUNK : cells.clone();
+            byte[] chunkTimers = from.timers[chunk];
+            timers[chunk] = chunkTimers != null ? chunkTimers.clone() : null;
+        }
+        System.arraycopy(from.explosionCounts, 0, explosionCounts, 0, explosionCounts.length);
+        System.arraycopy(from.activeChunks, 0, activeChunks, 0, activeChunks.length);
+        System.arraycopy(from.activeSlots, 0, activeSlots, 0, activeSlots.length);
+        activeCount = from.activeCount;
+        allocatedChunks = from.allocatedChunks;
+        destructibleWallCount = from.destructibleWallCount;
+        seed = from.seed;
+        generator = from.generator;
+        markAllDirty();
+    }
+
+    /**
+     * {@inheritDoc}
+     * Chaque ligne est écrite par tranches de bloc ; les timers ne sont lus que dans les
+     * blocs en explosion.
+     */
+    @Override
+    public void writeState(ByteBuffer out) {
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x += CHUNK_SIZE) {
+                out.put(chunks[chunkIndex(x, y)], cellIndex(x, y), Math.min(CHUNK_SIZE, width - x));
+            }
+        }
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x += CHUNK_SIZE) {
+                int chunk = chunkIndex(x, y);
+                if (explosionCounts[chunk] == 0) continue;
+                byte[] cells = chunks[chunk];
+                for (int cell = cellIndex(x, y), end = cell + Math.min(CHUNK_SIZE, width - x); cell < end; cell++) {
+                    if (cells[cell] == EXPLOSION) out.put(timers[chunk][cell]);
+                }
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * Les blocs redevenus uniformes retournent à la sentinelle.
+     */
+    @Override
+    public void readState(ByteBuffer in) {
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                write(x, y, in.get(), 0);
+            }
+        }
+        for (int chunk = 0; chunk < chunks.length; chunk++) {
+            collapse(chunk);
+        }
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x += CHUNK_SIZE) {
+                int chunk = chunkIndex(x, y);
+                if (explosionCounts[chunk] == 0) continue;
+                byte[] cells = chunks[chunk];
+                for (int cell = cellIndex(x, y), end = cell + Math.min(CHUNK_SIZE, width - x); cell < end; cell++) {
+                    if (cells[cell] == EXPLOSION) timers[chunk][cell] = in.get();
+                }
+            }
+        }
+    }
+
+    /** @return Nombre de blocs par rangée */
+    public int getChunksX() { return chunksX; }
+
+    /** @return Nombre de rangées de blocs */
+    public int getChunksY() { return chunksY; }
+
+    /** @return Nombre de blocs alloués (hors sentinelle partagée) */
+    public int getAllocatedChunkCount() { return allocatedChunks; }
+
+    /** @return Nombre de blocs en explosion */
+    public int getActiveChunkCount() { return activeCount; }
+
+    /** @return Nombre de murs destructibles restants */
+    public int getDestructibleWallCount() { return destructibleWallCount; }
+
+    /** @return Graine du terrain courant */
+    @Override
+    public long getSeed() { return seed; }
+
+    /** @return Générateur du terrain, null pour une arène ouverte */
+    public MapGenerator getGenerator() { return generator; }
+}
@@ -0,0 +1,184 @@
+package fr.amu.iut.bomberman.model.map;
+
+import java.util.Random;
+
+/**
+ * Générateur de carte selon les règles classiques du Bomberman :
+ * bords et piliers (damier) indestructibles, zones de départ libres dans les quatre coins,
+ * murs destructibles aléatoires sur les cases restantes avec une densité configurable.
+ * Une symétrie optionnelle recopie le tirage d'une partie de la carte sur le reste,
+ * pour des cartes équitables entre les coins de départ.
+ */
+public class ClassicMapGenerator implements MapGenerator {
+
+    /** Densité par défaut des murs destructibles */
+    public static final double DEFAULT_DENSITY = 0.7;
+
+    /**
+     * Modes de symétrie du tirage des murs destructibles.
+     */
+    public enum Symmetry {
+        /** Aucun tirage recopié */
+        NONE,
+
+        /** Miroir gauche/droite */
+        HORIZONTAL,
+
+        /** Miroir haut/bas */
+        VERTICAL,
+
+        /** Miroirs gauche/droite et haut/bas : les quatre quarts sont identiques */
+        QUADRANT,
+
+        /** Rotation d'un demi-tour autour du centre */
+        ROTATIONAL
+    }
+
+    private static final byte FLOOR = (byte) Tile.TileType.FLOOR.ordinal();
+    private static final byte WALL = (byte) Tile.TileType.WALL.ordinal();
+    private static final byte DESTRUCTIBLE_WALL = (byte) Tile.TileType.DESTRUCTIBLE_WALL.ordinal();
+
+    /** Marqueur d'une case tirée au hasard */
+    private static final byte RANDOM = -1;
+
+    /** Probabilité qu'une case libre reçoive un mur destructible */
+    private final double density;
+
+    /** Symétrie du tirage */
+    private final Symmetry symmetry;
+
+    /**
+     * Constructeur du générateur par défaut (densité 70%, sans symétrie).
+     */
+    public ClassicMapGenerator() {
+        this(DEFAULT_DENSITY, Symmetry.NONE);
+    }
+
+    /**
+     * Constructeur du générateur.
+     *
+     * @param density Probabilité d'un mur destructible, entre 0 et 1
+     * @param symmetry Symétrie du tirage
+     */
+    public ClassicMapGenerator(double density, Symmetry symmetry) {
+        if (density < 0 || density > 1) {
+            throw new IllegalArgumentException("Densité hors de [0, 1]: " + density);
+        }
+        this.density = density;
+        this.symmetry = symmetry;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Un seul tirage aléatoire par case libre, dans l'ordre de parcours : sans symétrie
+     * et à densité 70%, le terrain est identique à celui des versions précédentes.
+     */
+    @Override
+    public void generate(int width, int height, long seed, byte[] cells) {
+        Random random = new Random(seed);
+
+        for (int y = 0; y < height; y++) {
+            int row = y * width;
+            for (int x = 0; x < width; x++) {
+                byte type = fixedType(x, y, width, height);
+                if (type == RANDOM) {
+                    int source = mirrorSource(x, y, width, height);
+                    // La case source précède toujours la case courante dans le parcours
+                    type = source != row + x
+                            ? cells[source]
+                            : random.nextDouble() < density ? DESTRUCTIBLE_WALL : FLOOR;
+                }
+                cells[row + x] = type;
+            }
+        }
+    }
+
+    /**
+     * Retourne le type imposé d'une case, indépendamment du tirage.
+     *
+     * @param x Coordonnée X
+     * @param y Coordonnée Y
+     * @param width Largeur de la carte
+     * @param height Hauteur de la carte
+     * @return Type imposé, ou RANDOM pour une case tirée au hasard
+     */
+    private static byte fixedType(int x, int y, int width, int height) {
+        // Bords indestructibles
+        if (x == 0 || x == width - 1 || y == 0 || y == height - 1) return WALL;
+        // Zones de départ des joueurs (toujours libres, prioritaires sur les piliers)
+        if (isStartingArea(x, y, width, height)) return FLOOR;
+        // Murs fixes indestructibles (pattern en damier)
+        if (x % 2 == 0 && y % 2 == 0) return WALL;
+        return RANDOM;
+    }
+
+    /**
+     * Vérifie si une case fait partie d'une zone de départ (coin et ses deux voisins).
+     *
+     * @param x Coordonnée X
+     * @param y Coordonnée Y
+     * @param width Largeur de la carte
+     * @param height Hauteur de la carte
+     * @return true si la case doit rester libre
+     */
+    static boolean isStartingArea(int x, int y, int width, int height) {
+        int dx = Math.min(x - 1, width - 2 - x);
+        int dy = Math.min(y - 1, height - 2 - y);
+        return dx >= 0 && dy >= 0 && dx + dy <= 1;
+    }
+
+    /**
+     * Retourne l'index de la case dont le tirage est recopié sur une case donnée :
+     * la case de plus petit index parmi ses images par la symétrie, qui a donc déjà été tirée.
+     *
+     * @param x Coordonnée X
+     * @param y Coordonnée Y
+     * @param width Largeur de la carte
+     * @param height Hauteur de la carte
+     * @return Index de la case source (la case elle-même si elle est tirée au hasard)
+     */
+    private int mirrorSource(int x, int y, int width, int height) {
+        if (symmetry == Symmetry.NONE) return y * width + x;
+
+        int mx = width - 1 - x;
+        int my = height - 1 - y;
+        int sx = x, sy = y;
+        switch (symmetry) {
+            case HORIZONTAL:
+                sx = Math.min(x, mx);
+                break;
+            case VERTICAL:
+                sy = Math.min(y, my);
+                break;
+            case QUADRANT:
+                sx = Math.min(x, mx);
+                sy = Math.min(y, my);
+                break;
+            case ROTATIONAL:
+                if (my * width + mx < y * width + x) {
+                    sx = mx;
+                    sy = my;
+                }
+                break;
+            default:
+                break;
+        }
+        // Une image fixe (pilier décalé sur une dimension paire) ne sert pas de source
+        if (fixedType(sx, sy, width, height) != RANDOM) return y * width + x;
+        return sy * width + sx;
+    }
+
+    /**
+     * Retourne la densité de murs destructibles.
+     *
+     * @return Probabilité entre 0 et 1
+     */
+    public double getDensity() { return density; }
+
+    /**
+     * Retourne la symétrie du tirage.
+     *
+     * @return Mode de symétrie
+     */
+    public Symmetry getSymmetry() { return symmetry; }
+}
@@ -1,20 +1,72 @@
 package fr.amu.iut.bomberman.model.map;
 
 import fr.amu.iut.bomberman.model.common.Position;
+import fr.amu.iut.bomberman.model.common.TimingWheel;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Random;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Représente la carte de jeu du Bomberman avec sa logique de gestion.
- * Implémente l'interface IMap et gère la génération procédurale du terrain.
+ * Implémente l'interface IMap et délègue la génération procédurale du terrain à un MapGenerator.
  * Responsable de la gestion des explosions, des collisions et de l'état de la carte.
+ * Les tuiles sont stockées dans des tableaux d'octets (type par case, index = y * largeur + x) :
+ * les parcours de la carte restent contigus en mémoire. Construite sur une StaticMapLayer
+ * partagée, la carte ne possède que des pages de 256 cases recopiées à la première
+ * modification (copie sur écriture). Chaque case en explosion retient la frame où elle
+ * s'éteint, dans des pages allouées à la première explosion, et l'annonce à une roue
+ * temporelle : une frame ne visite que les cases qui s'éteignent. Les murs destructibles
+ * restants sont indexés par un ensemble de bits (un bit par case), partagé avec la couche
+ * statique jusqu'à la première destruction : retrait en temps constant et comptage par
+ * zone en Long.bitCount.
  */
 public class GameMap implements IMap {
 
-    /** Grille bidimensionnelle représentant la carte */
-    private Tile[][] tiles;
+    private static final byte FLOOR = (byte) Tile.TileType.FLOOR.ordinal();
+    private static final byte WALL = (byte) Tile.TileType.WALL.ordinal();
+    private static final byte DESTRUCTIBLE_WALL = (byte) Tile.TileType.DESTRUCTIBLE_WALL.ordinal();
+    private static final byte EXPLOSION = (byte) Tile.TileType.EXPLOSION.ordinal();
+    private static final byte POWERUP = (byte) Tile.TileType.POWERUP.ordinal();
+
+    /** Bit du timer d'explosion indiquant que la case devient un power-up en s'éteignant */
+    private static final int REVEAL_POWERUP = 0x80;
+    private static final int TIMER_MASK = REVEAL_POWERUP - 1;
+
+    /** Portée des explosions de explodeBomb(Position) */
+    public static final int DEFAULT_EXPLOSION_RANGE = 2;
+
+    /** Taille d'une page de cases (puissance de 2) */
+    private static final int PAGE_SHIFT = 8;
+    private static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    /** Type de chaque tuile (ordinal du Tile.TileType) ; terrain partagé en lecture seule si staticLayer != null */
+    private byte[] cells;
+
+    /** Pages modifiées du terrain partagé (null : page identique au terrain), null hors couche statique */
+    private byte[][] pages;
+
+    /** Couche statique partagée, null si la carte possède son terrain */
+    private StaticMapLayer staticLayer;
+
+    /**
+     * Pages des fins d'explosion, allouées à la première explosion de la page :
+     * frame d'extinction décalée d'un bit, bit de poids faible à 1 si la case devient un power-up
+     */
+    private int[][] expiryPages;
+
+    /** Extinctions des cases en explosion, par frame */
+    private final TimingWheel tileTimers = new TimingWheel();
+
+    /** Traitement des extinctions, créé une fois pour ne pas allouer à chaque frame */
+    private final TimingWheel.Handler tileExpiry = this::expireTile;
+
+    /** Frames écoulées depuis la génération de la carte (appels à updateExplosions) */
+    private int frame;
+
+    /** Nombre de tuiles en explosion de chaque page */
+    private int[] pageExplosions;
 
     /** Largeur de la carte en nombre de tuiles */
     private int width;
@@ -22,111 +74,348 @@ public class GameMap implements IMap {
     /** Hauteur de la carte en nombre de tuiles */
     private int height;
 
-    /** Liste des positions des murs destructibles pour optimisation */
-    private final List<Position> destructibleWalls = new ArrayList<>();
+    /** Nombre de murs destructibles restants */
+    private int destructibleWallCount;
+
+    /** Murs destructibles restants, un bit par case (voir CellBits) */
+    private long[] wallBits;
+
+    /** Indique si wallBits appartient à la carte (sinon il est à la couche statique et recopié avant modification) */
+    private boolean ownsWallBits;
+
+    /** Graine de la génération courante, permet de reproduire la carte (replays) */
+    private long seed;
+
+    /** Générateur du terrain */
+    private MapGenerator generator;
+
+    /** Réserve de cartes pré-générées utilisée par reset(), null si la carte se génère elle-même */
+    private MapPool mapPool;
+
+    /** Carte de la réserve dont les buffers sont en cours d'utilisation */
+    private MapPool.PooledMap pooledMap;
+
+    /** Capacité du journal des changements de praticabilité */
+    public static final int WALKABILITY_JOURNAL_SIZE = 256;
+
+    /** Dernières cases devenues traversables ou bloquantes (anneau indexé par numéro de changement) */
+    private final int[] walkabilityJournal = new int[WALKABILITY_JOURNAL_SIZE];
+
+    /** Nombre de changements de praticabilité depuis la création */
+    private long walkabilityChanges;
+
+    /** Version du terrain, incrémentée quand il est remplacé en bloc (régénération, chargement) */
+    private int terrainVersion;
+
+    /** Choix des power-ups laissés par les murs détruits, null si aucun */
+    private DropPolicy dropPolicy;
 
     /**
      * Constructeur de la carte de jeu.
-     * Initialise une nouvelle carte avec les dimensions spécifiées.
+     * Initialise une nouvelle carte avec les dimensions spécifiées et une graine aléatoire.
      *
      * @param width Largeur de la carte en tuiles
      * @param height Hauteur de la carte en tuiles
      */
     public GameMap(int width, int height) {
-        this.width = width;
-        this.height = height;
+        this(width, height, ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Constructeur de la carte de jeu avec une graine de génération fixée.
+     * Deux cartes de mêmes dimensions et de même graine sont identiques.
+     *
+     * @param width Largeur de la carte en tuiles
+     * @param height Hauteur de la carte en tuiles
+     * @param seed Graine de génération
+     */
+    public GameMap(int width, int height, long seed) {
+        this(width, height, seed, new ClassicMapGenerator());
+    }
+
+    /**
+     * Constructeur de la carte de jeu avec une graine et un générateur donnés.
+     *
+     * @param width Largeur de la carte en tuiles
+     * @param height Hauteur de la carte en tuiles
+     * @param seed Graine de génération
+     * @param generator Générateur du terrain
+     */
+    public GameMap(int width, int height, long seed, MapGenerator generator) {
+        this.seed = seed;
+        this.generator = generator;
         initialize(width, height);
     }
 
+    /**
+     * Constructeur d'une carte sur une arène dessinée à la main.
+     *
+     * @param arena Arène chargée depuis un fichier
+     */
+    public GameMap(MapFile arena) {
+        this(arena.getStaticLayer());
+    }
+
+    /**
+     * Constructeur d'une carte sur un terrain partagé : rien n'est copié à la construction,
+     * seules les pages modifiées pendant la partie sont propres à cette carte.
+     *
+     * @param staticLayer Terrain initial partagé
+     */
+    public GameMap(StaticMapLayer staticLayer) {
+        this.staticLayer = staticLayer;
+        this.generator = staticLayer.getGenerator();
+        this.seed = staticLayer.getSeed();
+        this.width = staticLayer.getWidth();
+        this.height = staticLayer.getHeight();
+        this.cells = staticLayer.cells();
+        this.pages = new byte[pageCount()][];
+        allocateTimerPages();
+        shareStaticWalls();
+    }
+
+    /**
+     * Constructeur de copie : la carte possède son terrain, copie de l'état courant
+     * d'une autre carte (simulations d'un bot).
+     *
+     * @param source Carte copiée
+     */
+    public GameMap(GameMap source) {
+        this.generator = source.generator;
+        this.seed = source.seed;
+        this.width = source.width;
+        this.height = source.height;
+        this.cells = new byte[width * height];
+        allocateTimerPages();
+        copyStateFrom(source);
+    }
+
+    /**
+     * Constructeur d'une carte alimentée par une réserve de cartes pré-générées :
+     * la carte initiale et chaque reset() sont pris dans la réserve.
+     *
+     * @param mapPool Réserve de cartes
+     */
+    public GameMap(MapPool mapPool) {
+        this(mapPool, mapPool.acquire());
+    }
+
+    /**
+     * Constructeur d'une carte alimentée par une réserve, sur une carte déjà prise
+     * (voir MapPool.tryTakeMap).
+     *
+     * @param mapPool Réserve de cartes
+     * @param pooledMap Carte initiale prise dans la réserve
+     */
+    GameMap(MapPool mapPool, MapPool.PooledMap pooledMap) {
+        this.mapPool = mapPool;
+        this.generator = mapPool.getGenerator();
+        this.width = mapPool.getWidth();
+        this.height = mapPool.getHeight();
+        allocateTimerPages();
+        load(pooledMap);
+    }
+
     /**
      * {@inheritDoc}
      * Initialise la structure de la carte avec génération procédurale.
+     * Une carte alimentée par une réserve s'en détache si les dimensions changent,
+     * une carte sur une couche statique s'en détache toujours.
      */
     @Override
     public void initialize(int width, int height) {
+        if (width < 5 || height < 5) {
+            throw new IllegalArgumentException("Carte trop petite: " + width + "x" + height);
+        }
+        if (mapPool != null) {
+            releasePooledMap();
+            if (width != mapPool.getWidth() || height != mapPool.getHeight()) mapPool = null;
+        }
+        this.staticLayer = null;
+        this.pages = null;
         this.width = width;
         this.height = height;
-        this.tiles = new Tile[height][width];
+        this.cells = new byte[width * height];
+        allocateTimerPages();
         initializeMap();
     }
 
     /**
-     * Génère le contenu de la carte selon les règles du Bomberman.
-     * Place les murs fixes, les zones de départ et les murs destructibles aléatoires.
+     * Génère le contenu de la carte avec le générateur courant
+     * et compte les murs destructibles. Sur une couche statique,
+     * il suffit d'oublier les pages modifiées.
      */
     private void initializeMap() {
-        destructibleWalls.clear();
-        Random random = new Random();
-
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                Position pos = new Position(x, y);
+        terrainVersion++;
+        Arrays.fill(pageExplosions, 0);
+        clearTileTimers();
+        if (staticLayer != null) {
+            Arrays.fill(pages, null);
+            shareStaticWalls();
+            return;
+        }
+        generator.generate(width, height, seed, cells);
+        countDestructibleWalls();
+    }
 
-                // Bords indestructibles
-                if (isBorder(x, y)) {
-                    tiles[y][x] = new Tile(pos, Tile.TileType.WALL);
-                }
-                // Murs fixes indestructibles (pattern en damier)
-                else if (x % 2 == 0 && y % 2 == 0) {
-                    tiles[y][x] = new Tile(pos, Tile.TileType.WALL);
-                }
-                // Zones de départ des joueurs (toujours libres)
-                else if (isStartingArea(pos)) {
-                    tiles[y][x] = new Tile(pos, Tile.TileType.FLOOR);
-                }
-                // Murs destructibles aléatoires (70% de chance)
-                else if (random.nextDouble() < 0.7) {
-                    tiles[y][x] = new Tile(pos, Tile.TileType.DESTRUCTIBLE_WALL);
-                    destructibleWalls.add(pos);
-                }
-                // Sol libre
-                else {
-                    tiles[y][x] = new Tile(pos, Tile.TileType.FLOOR);
-                }
-            }
+    /**
+     * Alloue les index des pages de timers (les pages elles-mêmes le sont à la demande).
+     */
+    private void allocateTimerPages() {
+        int count = pageCount();
+        if (expiryPages == null || expiryPages.length != count) {
+            expiryPages = new int[count][];
+            pageExplosions = new int[count];
         }
     }
 
     /**
-     * Vérifie si une position correspond à un bord de la carte.
-     *
-     * @param x Coordonnée X à vérifier
-     * @param y Coordonnée Y à vérifier
-     * @return true si la position est sur un bord
+     * Oublie les extinctions en attente et repart de la frame 0 (nouvelle carte).
      */
-    private boolean isBorder(int x, int y) {
-        return x == 0 || x == width - 1 || y == 0 || y == height - 1;
+    private void clearTileTimers() {
+        frame = 0;
+        tileTimers.clear(0);
     }
 
     /**
-     * Vérifie si une position fait partie d'une zone de départ de joueur.
-     * Les zones de départ sont toujours libres de murs destructibles.
+     * Retourne le nombre de pages couvrant la carte.
      *
-     * @param position Position à vérifier
-     * @return true si la position est une zone de départ
+     * @return Nombre de pages
      */
-    private boolean isStartingArea(Position position) {
-        int x = position.getX();
-        int y = position.getY();
+    private int pageCount() {
+        return (width * height + PAGE_MASK) >>> PAGE_SHIFT;
+    }
 
-        // Zone joueur 1 (coin supérieur gauche)
-        if ((x == 1 && y == 1) || (x == 1 && y == 2) || (x == 2 && y == 1)) {
-            return true;
+    /**
+     * Recompte et réindexe les murs destructibles d'une carte qui possède son terrain.
+     */
+    private void countDestructibleWalls() {
+        int size = width * height;
+        if (!ownsWallBits || wallBits.length != (size + 63) >>> 6) {
+            wallBits = CellBits.create(size);
+            ownsWallBits = true;
         }
-        // Zone joueur 2 (coin supérieur droit)
-        if ((x == width-2 && y == 1) || (x == width-2 && y == 2) || (x == width-3 && y == 1)) {
-            return true;
+        destructibleWallCount = CellBits.fill(wallBits, cells, size, DESTRUCTIBLE_WALL);
+    }
+
+    /**
+     * Reprend l'index des murs de la couche statique, sans le copier.
+     */
+    private void shareStaticWalls() {
+        wallBits = staticLayer.destructibleWalls();
+        ownsWallBits = false;
+        destructibleWallCount = staticLayer.getDestructibleWallCount();
+    }
+
+    /**
+     * Ajoute ou retire un mur destructible de l'index, recopié s'il est partagé.
+     */
+    private void updateWallBit(int index, boolean wall) {
+        if (!ownsWallBits) {
+            wallBits = wallBits.clone();
+            ownsWallBits = true;
         }
-        // Zone joueur 3 (coin inférieur gauche)
-        if ((x == 1 && y == height-2) || (x == 1 && y == height-3) || (x == 2 && y == height-2)) {
-            return true;
+        if (wall) {
+            CellBits.set(wallBits, index);
+        } else {
+            CellBits.clear(wallBits, index);
         }
-        // Zone joueur 4 (coin inférieur droit)
-        if ((x == width-2 && y == height-2) || (x == width-2 && y == height-3) || (x == width-3 && y == height-2)) {
-            return true;
+    }
+
+    /**
+     * Lit le type d'une case, dans sa page modifiée s'il y en a une.
+     *
+     * @param index Index de la case
+     * @return Ordinal du type
+     */
+    private byte cell(int index) {
+        if (pages != null) {
+            byte[] page = pages[index >>> PAGE_SHIFT];
+            if (page != null) return page[index & PAGE_MASK];
         }
+        return cells[index];
+    }
+
+    /**
+     * Retourne le timer d'une case en explosion, au format de Tile et de writeState :
+     * frames restantes, plus REVEAL_POWERUP si la case devient un power-up.
+     *
+     * @param index Index de la case
+     * @return Timer en frames (0 si la page n'a jamais explosé)
+     */
+    private int timer(int index) {
+        int[] page = expiryPages[index >>> PAGE_SHIFT];
+        if (page == null) return 0;
+        int expiry = page[index & PAGE_MASK];
+        return ((expiry >>> 1) - frame) | ((expiry & 1) != 0 ? REVEAL_POWERUP : 0);
+    }
+
+    /**
+     * Arme l'extinction d'une case en explosion.
+     *
+     * @param index Index de la case
+     * @param timer Frames restantes (au moins une), plus REVEAL_POWERUP si la case devient un power-up
+     */
+    private void arm(int index, int timer) {
+        int page = index >>> PAGE_SHIFT;
+        int[] expiries = expiryPages[page];
+        if (expiries == null) expiries = expiryPages[page] = new int[PAGE_SIZE];
+        int expiry = frame + Math.max(1, timer & TIMER_MASK);
+        expiries[index & PAGE_MASK] = (expiry << 1) | ((timer & REVEAL_POWERUP) != 0 ? 1 : 0);
+        tileTimers.schedule(expiry, 0, null, index, 0);
+    }
 
-        return false;
+    /**
+     * Éteint une case dont l'extinction tombe à cette frame. Une échéance périmée
+     * (case rallumée depuis, ou déjà éteinte) est ignorée.
+     */
+    private void expireTile(int kind, Object target, int index, int unused) {
+        if (cell(index) != EXPLOSION) return;
+        int expiry = expiryPages[index >>> PAGE_SHIFT][index & PAGE_MASK];
+        if (expiry >>> 1 != frame) return;
+        store(index, (expiry & 1) != 0 ? POWERUP : FLOOR, 0);
+    }
+
+    /**
+     * Modifie une case en tenant à jour les compteurs de murs et d'explosions.
+     * Sur une couche statique, la page est recopiée à sa première modification.
+     *
+     * @param index Index de la case
+     * @param type Nouveau type
+     * @param timer Timer d'explosion (ignoré hors explosion)
+     */
+    private void store(int index, byte type, int timer) {
+        byte old = cell(index);
+        int page = index >>> PAGE_SHIFT;
+        if (old != type) {
+            if (old == DESTRUCTIBLE_WALL) {
+                destructibleWallCount--;
+                updateWallBit(index, false);
+            }
+            if (type == DESTRUCTIBLE_WALL) {
+                destructibleWallCount++;
+                updateWallBit(index, true);
+            }
+            if (old == EXPLOSION) pageExplosions[page]--;
+            if (type == EXPLOSION) pageExplosions[page]++;
+            if (Tile.TileType.fromOrdinal(old).isWalkable() != Tile.TileType.fromOrdinal(type).isWalkable()) {
+                walkabilityJournal[(int) (walkabilityChanges++ % WALKABILITY_JOURNAL_SIZE)] = index;
+            }
+
+            if (pages == null) {
+                cells[index] = type;
+            } else {
+                byte[] copy = pages[page];
+                if (copy == null) {
+                    int start = page << PAGE_SHIFT;
+                    copy = pages[page] = Arrays.copyOfRange(cells, start, start + PAGE_SIZE);
+                }
+                copy[index & PAGE_MASK] = type;
+            }
+        }
+        if (type == EXPLOSION) {
+            arm(index, timer);
+        }
     }
 
     /**
@@ -139,13 +428,25 @@ public class GameMap implements IMap {
 
     /**
      * {@inheritDoc}
+     * La tuile retournée est une copie de l'état de la case : la modifier n'a pas
+     * d'effet sur la carte, il faut la replacer avec setTile.
      */
     @Override
     public Tile getTile(int x, int y) {
-        if (isValidPosition(x, y)) {
-            return tiles[y][x];
-        }
-        return null;
+        if (!isValidPosition(x, y)) return null;
+        int index = y * width + x;
+        byte type = cell(index);
+        Tile tile = new Tile(new Position(x, y), Tile.TileType.fromOrdinal(type));
+        tile.setExplosionTimer(type == EXPLOSION ? timer(index) & TIMER_MASK : 0);
+        return tile;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Tile.TileType getTileType(int x, int y) {
+        return isValidPosition(x, y) ? Tile.TileType.fromOrdinal(cell(y * width + x)) : null;
     }
 
     /**
@@ -161,8 +462,8 @@ public class GameMap implements IMap {
      */
     @Override
     public void setTile(int x, int y, Tile tile) {
-        if (isValidPosition(x, y)) {
-            tiles[y][x] = tile;
+        if (isValidPosition(x, y) && tile != null) {
+            store(y * width + x, (byte) tile.getType().ordinal(), tile.getExplosionTimer());
         }
     }
 
@@ -182,99 +483,533 @@ public class GameMap implements IMap {
         return height;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isWalkable(Position position) {
+        return isWalkable(position.getX(), position.getY());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isWalkable(int x, int y) {
+        return isValidPosition(x, y) && Tile.TileType.fromOrdinal(cell(y * width + x)).isWalkable();
+    }
+
     /**
      * {@inheritDoc}
      * Vérifie que la position est libre pour placer une bombe.
      */
     @Override
     public boolean placeBomb(Position position) {
-        Tile tile = getTile(position);
-        if (tile != null && tile.isWalkable()) {
-            // On ne change pas le type de tuile ici, juste on autorise
-            return true;
-        }
-        return false;
+        return placeBomb(position.getX(), position.getY());
     }
 
     /**
      * {@inheritDoc}
-     * Déclenche une explosion en croix avec une portée configurable.
+     * Vérifie que la case est libre pour placer une bombe.
+     */
+    @Override
+    public boolean placeBomb(int x, int y) {
+        // On ne change pas le type de tuile ici, juste on autorise
+        return isWalkable(x, y);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Déclenche une explosion en croix de portée DEFAULT_EXPLOSION_RANGE.
      */
     @Override
     public void explodeBomb(Position position) {
+        explodeBomb(position.getX(), position.getY(), DEFAULT_EXPLOSION_RANGE);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Déclenche une explosion en croix de portée DEFAULT_EXPLOSION_RANGE.
+     */
+    @Override
+    public void explodeBomb(int x, int y) {
+        explodeBomb(x, y, DEFAULT_EXPLOSION_RANGE);
+    }
+
+    /**
+     * Déclenche une explosion en croix d'une portée donnée (celle de la bombe).
+     *
+     * @param position Position de la bombe
+     * @param explosionRange Portée de l'explosion, en cases
+     */
+    public void explodeBomb(Position position, int explosionRange) {
+        explodeBomb(position.getX(), position.getY(), explosionRange);
+    }
+
+    /**
+     * Déclenche une explosion en croix d'une portée donnée, sans objet Position
+     * (chemin d'explosion du moteur).
+     *
+     * @param x Position X de la bombe
+     * @param y Position Y de la bombe
+     * @param explosionRange Portée de l'explosion, en cases
+     */
+    @Override
+    public void explodeBomb(int x, int y, int explosionRange) {
         // Explosion au centre
-        Tile centerTile = getTile(position);
-        if (centerTile != null) {
-            centerTile.setType(Tile.TileType.EXPLOSION);
+        if (isValidPosition(x, y)) {
+            ignite(y * width + x, false);
         }
 
-        // Explosion en croix avec portée de 2
-        int explosionRange = 2;
-        explodeDirection(position, 1, 0, explosionRange);  // Droite
-        explodeDirection(position, -1, 0, explosionRange); // Gauche
-        explodeDirection(position, 0, 1, explosionRange);  // Bas
-        explodeDirection(position, 0, -1, explosionRange); // Haut
+        // Explosion en croix
+        explodeDirection(x, y, 1, 0, explosionRange);  // Droite
+        explodeDirection(x, y, -1, 0, explosionRange); // Gauche
+        explodeDirection(x, y, 0, 1, explosionRange);  // Bas
+        explodeDirection(x, y, 0, -1, explosionRange); // Haut
     }
 
     /**
      * Propage l'explosion dans une direction donnée jusqu'à rencontrer un obstacle.
      *
-     * @param start Position de départ de l'explosion
+     * @param startX Position X de départ de l'explosion
+     * @param startY Position Y de départ de l'explosion
      * @param dx Direction X (-1, 0, ou 1)
      * @param dy Direction Y (-1, 0, ou 1)
      * @param range Portée maximale de l'explosion
      */
-    private void explodeDirection(Position start, int dx, int dy, int range) {
+    private void explodeDirection(int startX, int startY, int dx, int dy, int range) {
         for (int i = 1; i <= range; i++) {
-            int x = start.getX() + (dx * i);
-            int y = start.getY() + (dy * i);
+            int x = startX + (dx * i);
+            int y = startY + (dy * i);
+            if (!isValidPosition(x, y)) break;
 
-            Tile tile = getTile(x, y);
-            if (tile == null || tile.getType() == Tile.TileType.WALL) {
+            int index = y * width + x;
+            byte cell = cell(index);
+            if (cell == WALL) {
                 break; // Mur indestructible arrête l'explosion
             }
 
-            if (tile.getType() == Tile.TileType.DESTRUCTIBLE_WALL) {
-                tile.setType(Tile.TileType.EXPLOSION);
-                destructibleWalls.remove(new Position(x, y));
+            if (cell == DESTRUCTIBLE_WALL) {
+                ignite(index, dropPolicy != null && dropPolicy.dropsPowerUp(index));
                 break; // Mur destructible arrête l'explosion
             }
 
-            if (tile.getType() == Tile.TileType.FLOOR) {
-                tile.setType(Tile.TileType.EXPLOSION);
+            if (cell == POWERUP) {
+                ignite(index, false);
+                break; // Le power-up est détruit et arrête l'explosion
+            }
+
+            if (cell == FLOOR) {
+                ignite(index, false);
             }
         }
     }
 
+    /**
+     * Passe une case en explosion et arme son timer.
+     *
+     * @param index Index de la case
+     * @param reveal true si la case devient un power-up en s'éteignant
+     */
+    private void ignite(int index, boolean reveal) {
+        store(index, EXPLOSION, Tile.EXPLOSION_FRAMES | (reveal ? REVEAL_POWERUP : 0));
+    }
+
+    /**
+     * Ramasse le power-up d'une case : la case redevient du sol.
+     *
+     * @param x Position X
+     * @param y Position Y
+     * @return true si la case portait un power-up
+     */
+    @Override
+    public boolean collectPowerUp(int x, int y) {
+        if (!isValidPosition(x, y)) return false;
+        int index = y * width + x;
+        if (cell(index) != POWERUP) return false;
+        store(index, FLOOR, 0);
+        return true;
+    }
+
+    /**
+     * Définit qui décide des power-ups laissés par les murs détruits (le moteur de jeu).
+     *
+     * @param dropPolicy Politique de tirage, null pour ne jamais en laisser
+     */
+    @Override
+    public void setDropPolicy(DropPolicy dropPolicy) {
+        this.dropPolicy = dropPolicy;
+    }
+
     /**
      * {@inheritDoc}
-     * Met à jour les timers d'explosion et nettoie les explosions terminées.
+     * Avance d'une frame et éteint les seules cases dont l'explosion se termine.
      */
     @Override
     public void updateExplosions() {
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                Tile tile = tiles[y][x];
-                if (tile != null && tile.getType() == Tile.TileType.EXPLOSION) {
-                    tile.decrementExplosionTimer();
-                    if (tile.getExplosionTimer() <= 0) {
-                        tile.setType(Tile.TileType.FLOOR);
-                    }
-                }
-            }
-        }
+        frame++;
+        tileTimers.advance(frame, tileExpiry);
     }
 
     /**
      * {@inheritDoc}
-     * Remet la carte dans son état initial pour une nouvelle partie.
+     * Régénère la carte avec une nouvelle graine aléatoire pour une nouvelle partie,
+     * ou prend une carte prête dans la réserve s'il y en a une (temps constant).
+     * Une carte sur une couche statique revient simplement au terrain partagé.
      */
     @Override
     public void reset() {
-        destructibleWalls.clear();
+        if (mapPool != null) {
+            load(mapPool.acquire());
+        } else if (staticLayer != null) {
+            reset(staticLayer.getSeed());
+        } else {
+            reset(ThreadLocalRandom.current().nextLong());
+        }
+    }
+
+    /**
+     * Adopte les buffers d'une carte de la réserve et rend les précédents.
+     *
+     * @param next Carte prête
+     */
+    private void load(MapPool.PooledMap next) {
+        releasePooledMap();
+        pooledMap = next;
+        cells = next.cells;
+        seed = next.seed;
+        wallBits = next.wallBits;
+        ownsWallBits = true;
+        destructibleWallCount = next.destructibleWalls;
+        Arrays.fill(pageExplosions, 0);
+        clearTileTimers();
+        terrainVersion++;
+    }
+
+    /**
+     * Rend à la réserve les buffers d'une carte dont la partie est terminée.
+     * La carte ne doit plus être lue ni modifiée avant le prochain reset().
+     */
+    public void recycle() {
+        releasePooledMap();
+    }
+
+    /**
+     * Rend à la réserve les buffers de la carte courante s'ils en proviennent.
+     */
+    private void releasePooledMap() {
+        if (pooledMap != null) {
+            mapPool.release(pooledMap);
+            pooledMap = null;
+            ownsWallBits = false;
+        }
+    }
+
+    /**
+     * Régénère la carte à partir d'une graine donnée.
+     * Une carte sur une couche statique s'en détache si la graine ou le générateur diffèrent.
+     *
+     * @param seed Graine de génération
+     */
+    @Override
+    public void reset(long seed) {
+        if (staticLayer != null && (seed != staticLayer.getSeed() || generator != staticLayer.getGenerator())) {
+            staticLayer = null;
+            pages = null;
+            cells = new byte[width * height];
+        }
+        this.seed = seed;
         initializeMap();
     }
 
+    /**
+     * Retourne la graine ayant servi à générer la carte courante.
+     *
+     * @return Graine de génération
+     */
+    @Override
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Retourne le générateur du terrain.
+     *
+     * @return Générateur utilisé par reset
+     */
+    public MapGenerator getGenerator() {
+        return generator;
+    }
+
+    /**
+     * Change le générateur du terrain, pris en compte à la prochaine régénération.
+     *
+     * @param generator Nouveau générateur
+     */
+    public void setGenerator(MapGenerator generator) {
+        this.generator = generator;
+    }
+
+    /**
+     * Retourne le point de départ d'un joueur, défini par le générateur de la carte.
+     *
+     * @param playerIndex Index du joueur
+     * @return Position de départ
+     */
+    @Override
+    public Position getSpawn(int playerIndex) {
+        return generator.getSpawn(playerIndex, width, height);
+    }
+
+    /**
+     * Retourne le nombre de changements de praticabilité (case devenue traversable
+     * ou bloquante) depuis la création de la carte.
+     *
+     * @return Numéro du prochain changement
+     */
+    public long getWalkabilityChangeCount() {
+        return walkabilityChanges;
+    }
+
+    /**
+     * Retourne la case d'un changement de praticabilité encore présent dans le journal.
+     *
+     * @param sequence Numéro du changement
+     * @return Index de la case, -1 si le changement est sorti du journal ou n'existe pas encore
+     */
+    public int getWalkabilityChange(long sequence) {
+        if (sequence < 0 || sequence >= walkabilityChanges
+                || walkabilityChanges - sequence > WALKABILITY_JOURNAL_SIZE) return -1;
+        return walkabilityJournal[(int) (sequence % WALKABILITY_JOURNAL_SIZE)];
+    }
+
+    /**
+     * Retourne la version du terrain : elle change quand la carte est remplacée en bloc
+     * (reset, chargement d'un état), les changements case par case passant par le journal.
+     *
+     * @return Version du terrain
+     */
+    public int getTerrainVersion() {
+        return terrainVersion;
+    }
+
+    /**
+     * Retourne la couche statique partagée sur laquelle repose la carte.
+     *
+     * @return La couche statique, null si la carte possède son terrain
+     */
+    public StaticMapLayer getStaticLayer() {
+        return staticLayer;
+    }
+
+    /**
+     * Retourne le nombre de pages du terrain partagé recopiées par cette carte.
+     *
+     * @return Nombre de pages propres à la partie (0 hors couche statique)
+     */
+    public int getCopiedPageCount() {
+        if (pages == null) return 0;
+        int count = 0;
+        for (byte[] page : pages) {
+            if (page != null) count++;
+        }
+        return count;
+    }
+
+    /**
+     * Retourne la réserve de cartes utilisée par reset().
+     *
+     * @return La réserve, null si la carte se génère elle-même
+     */
+    public MapPool getMapPool() {
+        return mapPool;
+    }
+
+    /**
+     * Retourne le nombre de murs destructibles restants.
+     *
+     * @return Nombre de murs destructibles
+     */
+    public int getDestructibleWallCount() {
+        return destructibleWallCount;
+    }
+
+    /**
+     * Compte les murs destructibles restants d'une zone rectangulaire, rognée aux
+     * limites de la carte (un comptage de bits par ligne de la zone).
+     *
+     * @param x Colonne du coin haut gauche
+     * @param y Ligne du coin haut gauche
+     * @param regionWidth Largeur de la zone
+     * @param regionHeight Hauteur de la zone
+     * @return Nombre de murs destructibles de la zone
+     */
+    public int getDestructibleWallCount(int x, int y, int regionWidth, int regionHeight) {
+        int x0 = Math.max(0, x), x1 = Math.min(width, x + regionWidth);
+        int y0 = Math.max(0, y), y1 = Math.min(height, y + regionHeight);
+        if (x0 >= x1) return 0;
+        int count = 0;
+        for (int row = y0; row < y1; row++) {
+            count += CellBits.count(wallBits, row * width + x0, row * width + x1);
+        }
+        return count;
+    }
+
+    /**
+     * Indique si une case porte un mur destructible.
+     *
+     * @param x Coordonnée X
+     * @param y Coordonnée Y
+     * @return true si la case est un mur destructible
+     */
+    public boolean isDestructibleWall(int x, int y) {
+        return isValidPosition(x, y) && CellBits.get(wallBits, y * width + x);
+    }
+
+    /**
+     * Cherche le prochain mur destructible dans l'ordre des index de cases : parcourt les
+     * murs restants en sautant 64 cases vides à la fois.
+     *
+     * @param index Index de départ (inclus)
+     * @return Index du mur (y * largeur + x), -1 s'il n'y en a plus
+     */
+    public int nextDestructibleWall(int index) {
+        return CellBits.next(wallBits, index, width * height);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Copie construite par GameMap(GameMap).
+     */
+    @Override
+    public GameMap copy() {
+        return new GameMap(this);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void copyStateFrom(IMap source) {
+        if (!(source instanceof GameMap)) {
+            throw new IllegalArgumentException("Carte d'un autre type: " + source.getClass().getSimpleName());
+        }
+        copyStateFrom((GameMap) source);
+    }
+
+    /**
+     * Recopie l'état courant d'une carte de mêmes dimensions : tuiles, timers d'explosion
+     * et compteurs, page par page. Une carte sur une couche statique ou une carte de la
+     * réserve en est détachée et possède ensuite son terrain (jusqu'au prochain reset).
+     *
+     * @param source Carte copiée, qui ne doit pas être modifiée pendant la copie
+     * @throws IllegalArgumentException Si les dimensions diffèrent
+     */
+    public void copyStateFrom(GameMap source) {
+        if (source.width != width || source.height != height) {
+            throw new IllegalArgumentException("Dimensions différentes: " + source.width + "x" + source.height
+                    + " au lieu de " + width + "x" + height);
+        }
+        int size = width * height;
+        if (pages != null || pooledMap != null) {
+            releasePooledMap();
+            staticLayer = null;
+            pages = null;
+            cells = new byte[size];
+            ownsWallBits = false;
+        }
+        for (int page = 0, start = 0; start < size; page++, start += PAGE_SIZE) {
+            int length = Math.min(PAGE_SIZE, size - start);
+            byte[] copy = source.pages != null ? source.pages[page] : null;
+            if (copy != null) {
+                System.arraycopy(copy, 0, cells, start, length);
+            } else {
+                System.arraycopy(source.cells, start, cells, start, length);
+            }
+            pageExplosions[page] = source.pageExplosions[page];
+            if (pageExplosions[page] != 0) {
+                if (expiryPages[page] == null) expiryPages[page] = new int[PAGE_SIZE];
+                System.arraycopy(source.expiryPages[page], 0, expiryPages[page], 0, PAGE_SIZE);
+            }
+        }
+        frame = source.frame;
+        tileTimers.copyFrom(source.tileTimers);
+        seed = source.seed;
+        generator = source.generator;
+        destructibleWallCount = source.destructibleWallCount;
+        if (!ownsWallBits || wallBits.length != source.wallBits.length) {
+            wallBits = new long[source.wallBits.length];
+            ownsWallBits = true;
+        }
+        System.arraycopy(source.wallBits, 0, wallBits, 0, wallBits.length);
+        terrainVersion++;
+    }
+
+    /**
+     * Écrit l'état courant des tuiles : le type de chaque tuile, puis le timer
+     * des seules tuiles en explosion.
+     *
+     * @param out Buffer de destination (au moins 2 octets par tuile)
+     */
+    @Override
+    public void writeState(ByteBuffer out) {
+        int size = width * height;
+        if (pages == null) {
+            out.put(cells, 0, size);
+        } else {
+            for (int page = 0, start = 0; start < size; page++, start += PAGE_SIZE) {
+                byte[] copy = pages[page];
+                int length = Math.min(PAGE_SIZE, size - start);
+                if (copy != null) {
+                    out.put(copy, 0, length);
+                } else {
+                    out.put(cells, start, length);
+                }
+            }
+        }
+        for (int page = 0; page < pageExplosions.length; page++) {
+            if (pageExplosions[page] == 0) continue;
+            for (int i = page << PAGE_SHIFT, end = Math.min(i + PAGE_SIZE, size); i < end; i++) {
+                if (cell(i) == EXPLOSION) {
+                    out.put((byte) timer(i));
+                }
+            }
+        }
+    }
+
+    /**
+     * Restaure un état écrit par writeState sur une carte de mêmes dimensions.
+     *
+     * @param in Buffer source
+     */
+    @Override
+    public void readState(ByteBuffer in) {
+        terrainVersion++;
+        int size = width * height;
+        if (pages == null) {
+            in.get(cells, 0, size);
+            countDestructibleWalls();
+            Arrays.fill(pageExplosions, 0);
+            for (int i = 0; i < size; i++) {
+                if (cells[i] == EXPLOSION) pageExplosions[i >>> PAGE_SHIFT]++;
+            }
+        } else {
+            // Seules les cases différentes de l'état courant sont écrites (et leurs pages copiées)
+            for (int i = 0; i < size; i++) {
+                store(i, in.get(), 0);
+            }
+        }
+        tileTimers.clear(frame);
+        for (int page = 0; page < pageExplosions.length; page++) {
+            if (pageExplosions[page] == 0) continue;
+            for (int i = page << PAGE_SHIFT, end = Math.min(i + PAGE_SIZE, size); i < end; i++) {
+                if (cell(i) == EXPLOSION) {
+                    arm(i, in.get() & 0xFF);
+                }
+            }
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -282,4 +1017,4 @@ public class GameMap implements IMap {
     public boolean isValidPosition(int x, int y) {
         return x >= 0 && x < width && y >= 0 && y < height;
     }
-}
\ No newline at end of file
+}
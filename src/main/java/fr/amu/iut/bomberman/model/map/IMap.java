@@ -2,6 +2,8 @@ package fr.amu.iut.bomberman.model.map;
 
 import fr.amu.iut.bomberman.model.common.Position;
 
+import java.nio.ByteBuffer;
+
 /**
  * Interface définissant les opérations de base d'une carte de jeu Bomberman.
  * Fournit les méthodes essentielles pour la manipulation des tuiles,
@@ -9,6 +11,20 @@ import fr.amu.iut.bomberman.model.common.Position;
  */
 public interface IMap {
 
+    /**
+     * Décide si un mur détruit laisse un power-up (voir setDropPolicy).
+     */
+    @FunctionalInterface
+    interface DropPolicy {
+        /**
+         * Appelé pour chaque mur destructible détruit par une explosion.
+         *
+         * @param index Index de la case (y * largeur + x)
+         * @return true si la case devient un power-up à la fin de l'explosion
+         */
+        boolean dropsPowerUp(int index);
+    }
+
     /**
      * Initialise la carte avec les dimensions spécifiées.
      *
@@ -34,6 +50,18 @@ public interface IMap {
      */
     Tile getTile(int x, int y);
 
+    /**
+     * Récupère le type de la tuile à des coordonnées données.
+     *
+     * @param x Coordonnée X de la tuile
+     * @param y Coordonnée Y de la tuile
+     * @return Le type de la tuile, ou null si les coordonnées sont invalides
+     */
+    default Tile.TileType getTileType(int x, int y) {
+        Tile tile = getTile(x, y);
+        return tile != null ? tile.getType() : null;
+    }
+
     /**
      * Place une tuile à une position donnée.
      *
@@ -94,6 +122,17 @@ public interface IMap {
      */
     boolean placeBomb(Position position);
 
+    /**
+     * Tente de placer une bombe à des coordonnées données.
+     *
+     * @param x Coordonnée X de la bombe
+     * @param y Coordonnée Y de la bombe
+     * @return true si la bombe a pu être placée
+     */
+    default boolean placeBomb(int x, int y) {
+        return placeBomb(new Position(x, y));
+    }
+
     /**
      * Déclenche l'explosion d'une bombe à la position spécifiée.
      * Propage l'explosion selon les règles du jeu.
@@ -102,6 +141,42 @@ public interface IMap {
      */
     void explodeBomb(Position position);
 
+    /**
+     * Déclenche l'explosion d'une bombe à des coordonnées données.
+     *
+     * @param x Coordonnée X de l'explosion
+     * @param y Coordonnée Y de l'explosion
+     */
+    default void explodeBomb(int x, int y) {
+        explodeBomb(new Position(x, y));
+    }
+
+    /**
+     * Déclenche une explosion en croix d'une portée donnée (celle de la bombe).
+     * Un mur destructible détruit devient un power-up si la politique de tirage le décide.
+     *
+     * @param x Coordonnée X de la bombe
+     * @param y Coordonnée Y de la bombe
+     * @param explosionRange Portée de l'explosion, en cases
+     */
+    void explodeBomb(int x, int y, int explosionRange);
+
+    /**
+     * Ramasse le power-up d'une case : la case redevient du sol.
+     *
+     * @param x Coordonnée X
+     * @param y Coordonnée Y
+     * @return true si la case portait un power-up
+     */
+    boolean collectPowerUp(int x, int y);
+
+    /**
+     * Définit qui décide des power-ups laissés par les murs détruits (le moteur de jeu).
+     *
+     * @param dropPolicy Politique de tirage, null pour ne jamais en laisser
+     */
+    void setDropPolicy(DropPolicy dropPolicy);
+
     /**
      * Met à jour l'état des explosions sur la carte.
      * Gère les timers et nettoie les explosions terminées.
@@ -114,6 +189,59 @@ public interface IMap {
      */
     void reset();
 
+    /**
+     * Régénère la carte à partir d'une graine donnée.
+     *
+     * @param seed Graine de génération
+     */
+    void reset(long seed);
+
+    /**
+     * Retourne la graine ayant servi à générer la carte courante.
+     *
+     * @return Graine de génération
+     */
+    long getSeed();
+
+    /**
+     * Retourne le point de départ d'un joueur.
+     *
+     * @param playerIndex Index du joueur
+     * @return Position de départ
+     */
+    Position getSpawn(int playerIndex);
+
+    /**
+     * Crée une copie indépendante de la carte (simulations, moteurs copiés).
+     * La politique de tirage n'est pas copiée.
+     *
+     * @return Nouvelle carte dans le même état
+     */
+    IMap copy();
+
+    /**
+     * Recopie l'état d'une carte de même type et de mêmes dimensions.
+     *
+     * @param source Carte copiée
+     * @throws IllegalArgumentException Si la carte est d'un autre type ou d'autres dimensions
+     */
+    void copyStateFrom(IMap source);
+
+    /**
+     * Écrit l'état courant des tuiles : le type de chaque tuile (ligne par ligne),
+     * puis le timer des seules tuiles en explosion, dans le même ordre.
+     *
+     * @param out Buffer de destination (au moins 2 octets par tuile)
+     */
+    void writeState(ByteBuffer out);
+
+    /**
+     * Restaure un état écrit par writeState sur une carte de mêmes dimensions.
+     *
+     * @param in Buffer source
+     */
+    void readState(ByteBuffer in);
+
     /**
      * Vérifie si une position est traversable par un joueur.
      *
@@ -121,8 +249,7 @@ public interface IMap {
      * @return true si un joueur peut se déplacer sur cette position
      */
     default boolean isWalkable(Position position) {
-        Tile tile = getTile(position);
-        return tile != null && tile.isWalkable();
+        return isWalkable(position.getX(), position.getY());
     }
 
     /**
@@ -133,6 +260,7 @@ public interface IMap {
      * @return true si un joueur peut se déplacer sur cette position
      */
     default boolean isWalkable(int x, int y) {
-        return isWalkable(new Position(x, y));
+        Tile tile = getTile(x, y);
+        return tile != null && tile.isWalkable();
     }
 }
\ No newline at end of file
@@ -0,0 +1,345 @@
+package fr.amu.iut.bomberman.model.map;
+
+import fr.amu.iut.bomberman.model.common.Position;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Arène dessinée à la main, chargée depuis un fichier.
+ * Le fichier binaire est projeté en mémoire et ses tuiles sont recopiées une seule fois dans
+ * une StaticMapLayer, lue par toutes les GameMap de l'arène sans aucun objet par tuile. Une arène est immuable : la même
+ * instance (voir open) est partagée par toutes les cartes et tous les moteurs du processus.
+ * En tant que MapGenerator, elle ignore la graine et produit toujours le même terrain.
+ * Format binaire (gros-boutiste) :
+ * <pre>
+ * int   magic "BMAP"
+ * byte  version
+ * short largeur, short hauteur
+ * byte  nombre de points de départ n
+ * n fois : short x, short y
+ * largeur * hauteur octets : ordinal du Tile.TileType, ligne par ligne
+ * </pre>
+ * Format texte : une ligne par rangée, '#' mur, '*' mur destructible, '.' sol,
+ * '+' power-up, '1' à '4' point de départ du joueur correspondant (sur du sol).
+ */
+public final class MapFile implements MapGenerator {
+
+    /** Signature des fichiers d'arène ("BMAP") */
+    public static final int MAGIC = 0x424D4150;
+
+    /** Version du format */
+    public static final byte VERSION = 1;
+
+    /** Nombre maximal de points de départ */
+    public static final int MAX_SPAWNS = 4;
+
+    /** Caractères du format texte, indexés par ordinal du Tile.TileType ('\0' : non représentable) */
+    private static final String SYMBOLS = ".#*\0\0+";
+
+    /** Arènes déjà ouvertes, partagées dans tout le processus */
+    private static final Map<Path, MapFile> OPENED = new ConcurrentHashMap<>();
+
+    /** Dimensions de l'arène */
+    private final int width, height;
+
+    /** Points de départ, dans l'ordre des joueurs */
+    private final Position[] spawns;
+
+    /** Tuiles, en lecture seule (projection du fichier ou tableau) */
+    private final ByteBuffer tiles;
+
+    /** Terrain partagé par les cartes jouant l'arène, créé au premier besoin */
+    private volatile StaticMapLayer staticLayer;
+
+    private MapFile(int width, int height, Position[] spawns, ByteBuffer tiles) {
+        this.width = width;
+        this.height = height;
+        this.spawns = spawns;
+        this.tiles = tiles.asReadOnlyBuffer();
+    }
+
+    /**
+     * Ouvre une arène binaire, en réutilisant l'instance déjà chargée pour ce fichier.
+     *
+     * @param file Chemin du fichier
+     * @return L'arène partagée
+     * @throws IOException Si le fichier est illisible ou mal formé
+     */
+    public static MapFile open(Path file) throws IOException {
+        try {
+            return OPENED.computeIfAbsent(file.toAbsolutePath().normalize(), path -> {
+                try {
+                    return read(path);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Lit une arène binaire en projetant le fichier en mémoire.
+     *
+     * @param file Chemin du fichier
+     * @return L'arène
+     * @throws IOException Si le fichier est illisible ou mal formé
+     */
+    public static MapFile read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return decode(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Décode une arène binaire. Les tuiles restent dans le buffer, sans copie.
+     *
+     * @param buffer Contenu du fichier
+     * @return L'arène
+     * @throws IOException Si les données sont mal formées
+     */
+    public static MapFile decode(ByteBuffer buffer) throws IOException {
+        ByteBuffer data = buffer.duplicate();
+        try {
+            if (data.getInt() != MAGIC) throw new IOException("Fichier d'arène invalide");
+            byte version = data.get();
+            if (version != VERSION) throw new IOException("Version d'arène non supportée: " + version);
+
+            int width = data.getShort() & 0xFFFF;
+            int height = data.getShort() & 0xFFFF;
+            if (width < 5 || height < 5) throw new IOException("Dimensions invalides: " + width + "x" + height);
+
+            Position[] spawns = new Position[data.get()];
+            for (int i = 0; i < spawns.length; i++) {
+                spawns[i] = new Position(data.getShort() & 0xFFFF, data.getShort() & 0xFFFF);
+            }
+
+            int size = width * height;
+            if (data.remaining() != size) {
+                throw new IOException("Arène de " + data.remaining() + " tuiles, attendu " + size);
+            }
+            ByteBuffer tiles = data.slice();
+            for (int i = 0; i < size; i++) {
+                int type = tiles.get(i);
+                if (type < 0 || type >= SYMBOLS.length() || SYMBOLS.charAt(type) == '\0') {
+                    throw new IOException("Tuile invalide en (" + i % width + "," + i / width + "): " + type);
+                }
+            }
+            return create(width, height, spawns, tiles);
+        } catch (BufferUnderflowException | NegativeArraySizeException e) {
+            throw new IOException("Arène tronquée", e);
+        }
+    }
+
+    /**
+     * Construit une arène à partir de son format texte.
+     *
+     * @param lines Rangées de l'arène, de haut en bas
+     * @return L'arène
+     * @throws IOException Si un caractère est inconnu ou si les rangées sont inégales
+     */
+    public static MapFile parseText(List<String> lines) throws IOException {
+        List<String> rows = new ArrayList<>();
+        for (String line : lines) {
+            if (!line.isBlank()) rows.add(line.stripTrailing());
+        }
+        if (rows.isEmpty()) throw new IOException("Arène vide");
+
+        int width = rows.get(0).length();
+        int height = rows.size();
+        byte[] tiles = new byte[width * height];
+        Position[] spawns = new Position[MAX_SPAWNS];
+        int spawnCount = 0;
+
+        for (int y = 0; y < height; y++) {
+            String row = rows.get(y);
+            if (row.length() != width) {
+                throw new IOException("Rangée " + (y + 1) + " de longueur " + row.length() + ", attendu " + width);
+            }
+            for (int x = 0; x < width; x++) {
+                char c = row.charAt(x);
+                int type;
+                if (c >= '1' && c < '1' + MAX_SPAWNS) {
+                    spawns[c - '1'] = new Position(x, y);
+                    spawnCount = Math.max(spawnCount, c - '1' + 1);
+                    type = Tile.TileType.FLOOR.ordinal();
+                } else {
+                    type = SYMBOLS.indexOf(c);
+                    if (c == '\0' || type < 0) {
+                        throw new IOException("Caractère inconnu '" + c + "' en (" + x + "," + y + ")");
+                    }
+                }
+                tiles[y * width + x] = (byte) type;
+            }
+        }
+
+        Position[] used = new Position[spawnCount];
+        for (int i = 0; i < spawnCount; i++) {
+            if (spawns[i] == null) throw new IOException("Point de départ " + (i + 1) + " manquant");
+            used[i] = spawns[i];
+        }
+        return create(width, height, used, ByteBuffer.wrap(tiles));
+    }
+
+    /**
+     * Lit une arène au format texte.
+     *
+     * @param file Chemin du fichier texte
+     * @return L'arène
+     * @throws IOException Si le fichier est illisible ou mal formé
+     */
+    public static MapFile readText(Path file) throws IOException {
+        return parseText(Files.readAllLines(file, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Vérifie les points de départ puis construit l'arène.
+     */
+    private static MapFile create(int width, int height, Position[] spawns, ByteBuffer tiles) throws IOException {
+        if (spawns.length < 2 || spawns.length > MAX_SPAWNS) {
+            throw new IOException("Une arène doit avoir entre 2 et " + MAX_SPAWNS + " points de départ");
+        }
+        for (Position spawn : spawns) {
+            int x = spawn.getX(), y = spawn.getY();
+            if (x < 0 || x >= width || y < 0 || y >= height ||
+                    !Tile.TileType.fromOrdinal(tiles.get(y * width + x)).isWalkable()) {
+                throw new IOException("Point de départ hors du sol: " + spawn);
+            }
+        }
+        return new MapFile(width, height, spawns, tiles);
+    }
+
+    /**
+     * Encode l'arène au format binaire.
+     *
+     * @return Buffer prêt à être écrit
+     */
+    public ByteBuffer encode() {
+        ByteBuffer out = ByteBuffer.allocate(10 + spawns.length * 4 + width * height);
+        out.putInt(MAGIC).put(VERSION).putShort((short) width).putShort((short) height);
+        out.put((byte) spawns.length);
+        for (Position spawn : spawns) {
+            out.putShort((short) spawn.getX()).putShort((short) spawn.getY());
+        }
+        out.put(tiles.duplicate().clear());
+        return out.flip();
+    }
+
+    /**
+     * Écrit l'arène au format binaire.
+     *
+     * @param file Fichier de destination
+     * @throws IOException En cas d'erreur d'écriture
+     */
+    public void write(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer data = encode();
+            while (data.hasRemaining()) {
+                channel.write(data);
+            }
+        }
+    }
+
+    /**
+     * Retourne l'arène au format texte.
+     *
+     * @return Une ligne par rangée
+     */
+    public String toText() {
+        StringBuilder sb = new StringBuilder((width + 1) * height);
+        for (int y = 0; y < height; y++) {
+            int row = sb.length();
+            for (int x = 0; x < width; x++) {
+                sb.append(SYMBOLS.charAt(tiles.get(y * width + x)));
+            }
+            for (int i = 0; i < spawns.length; i++) {
+                if (spawns[i].getY() == y) sb.setCharAt(row + spawns[i].getX(), (char) ('1' + i));
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * {@inheritDoc}
+     * Recopie les tuiles de l'arène ; la graine est ignorée.
+     */
+    @Override
+    public void generate(int width, int height, long seed, byte[] cells) {
+        if (width != this.width || height != this.height) {
+            throw new IllegalArgumentException("Arène " + this.width + "x" + this.height +
+                    ", carte " + width + "x" + height);
+        }
+        tiles.get(0, cells, 0, width * height);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Les joueurs en surnombre reprennent les points de départ dans l'ordre.
+     */
+    @Override
+    public Position getSpawn(int playerIndex, int width, int height) {
+        return spawns[playerIndex % spawns.length];
+    }
+
+    /**
+     * Retourne le terrain de l'arène, partagé par toutes les cartes qui la jouent.
+     *
+     * @return La couche statique de l'arène
+     */
+    public StaticMapLayer getStaticLayer() {
+        StaticMapLayer layer = staticLayer;
+        if (layer == null) {
+            synchronized (this) {
+                layer = staticLayer;
+                if (layer == null) staticLayer = layer = new StaticMapLayer(width, height, 0, this);
+            }
+        }
+        return layer;
+    }
+
+    /** @return Largeur de l'arène */
+    public int getWidth() { return width; }
+
+    /** @return Hauteur de l'arène */
+    public int getHeight() { return height; }
+
+    /** @return Nombre de points de départ */
+    public int getSpawnCount() { return spawns.length; }
+
+    /**
+     * Convertit une arène entre format texte et format binaire, selon l'extension.
+     * Usage : MapFile &lt;arène.txt&gt; &lt;arène.bmap&gt;  ou  MapFile &lt;arène.bmap&gt; &lt;arène.txt&gt;
+     *
+     * @param args Arguments de la ligne de commande
+     * @throws IOException Si la conversion échoue
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage : MapFile <arène.txt> <arène.bmap> | <arène.bmap> <arène.txt>");
+            return;
+        }
+        Path in = Path.of(args[0]);
+        Path out = Path.of(args[1]);
+        if (in.toString().endsWith(".txt")) {
+            readText(in).write(out);
+        } else {
+            Files.writeString(out, read(in).toText(), StandardCharsets.UTF_8);
+        }
+        System.out.println("🗺️ Arène convertie: " + in + " -> " + out);
+    }
+}
@@ -0,0 +1,57 @@
+package fr.amu.iut.bomberman.model.map;
+
+import fr.amu.iut.bomberman.model.common.Position;
+
+/**
+ * Stratégie de génération du terrain d'une carte.
+ * La génération est entièrement déterminée par la graine : deux appels avec les mêmes
+ * dimensions et la même graine produisent le même terrain (replays, benchmarks, tournois).
+ * Le terrain est écrit directement dans un buffer primitif, une case par octet
+ * (ordinal du Tile.TileType), ligne par ligne.
+ */
+public interface MapGenerator {
+
+    /**
+     * Génère le terrain d'une carte dans un buffer fourni par l'appelant.
+     *
+     * @param width Largeur de la carte en tuiles
+     * @param height Hauteur de la carte en tuiles
+     * @param seed Graine de génération
+     * @param cells Buffer d'au moins width * height octets, index = y * width + x
+     */
+    void generate(int width, int height, long seed, byte[] cells);
+
+    /**
+     * Génère le terrain d'une carte dans un nouveau buffer.
+     *
+     * @param width Largeur de la carte en tuiles
+     * @param height Hauteur de la carte en tuiles
+     * @param seed Graine de génération
+     * @return Buffer de width * height octets
+     */
+    default byte[] generate(int width, int height, long seed) {
+        byte[] cells = new byte[width * height];
+        generate(width, height, seed, cells);
+        return cells;
+    }
+
+    /**
+     * Retourne le point de départ d'un joueur sur les cartes de ce générateur.
+     * Par défaut, les joueurs partent des quatre coins, repris dans l'ordre au-delà de quatre.
+     *
+     * @param playerIndex Index du joueur
+     * @param width Largeur de la carte
+     * @param height Hauteur de la carte
+     * @return Position de départ
+     */
+    default Position getSpawn(int playerIndex, int width, int height) {
+        int right = width - 2;
+        int bottom = height - 2;
+        switch (playerIndex % 4) {
+            case 0: return new Position(1, 1);
+            case 1: return new Position(right, 1);
+            case 2: return new Position(1, bottom);
+            default: return new Position(right, bottom);
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package fr.amu.iut.bomberman.model.map;
+
+import fr.amu.iut.bomberman.model.common.GameLog;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Réserve de cartes pré-générées.
+ * Un thread d'arrière-plan génère et valide des cartes d'une taille donnée jusqu'à remplir
+ * la réserve, puis attend qu'une carte soit prise : démarrer une partie revient à échanger
+ * des buffers, en temps constant quels que soient la taille de la carte et le coût de la
+ * validation. Les buffers des cartes terminées sont rendus à la réserve et regénérés,
+ * la mémoire reste bornée à (capacité + cartes en jeu) cartes.
+ * Une prise sur une réserve vide attend la prochaine carte du thread de génération :
+ * ce cas est compté et journalisé, une réserve bien dimensionnée ne le rencontre pas.
+ * Les threads qui ne doivent pas attendre utilisent tryTakeMap.
+ */
+public class MapPool implements AutoCloseable {
+
+    /** Nombre de graines essayées avant d'accepter une carte refusée par la validation */
+    private static final int MAX_ATTEMPTS = 1000;
+
+    /**
+     * Carte pré-générée : sa graine, son terrain et l'index de ses murs destructibles,
+     * échangés avec ceux d'une GameMap.
+     */
+    static final class PooledMap {
+        long seed;
+        final byte[] cells;
+        final long[] wallBits;
+        int destructibleWalls;
+
+        PooledMap(int size) {
+            this.cells = new byte[size];
+            this.wallBits = CellBits.create(size);
+        }
+    }
+
+    /** Dimensions des cartes de la réserve */
+    private final int width, height;
+
+    /** Générateur du terrain */
+    private final MapGenerator generator;
+
+    /** Validation d'un terrain généré (true pour l'accepter) */
+    private final Predicate<byte[]> validator;
+
+    /** Cartes prêtes à être jouées */
+    private final BlockingQueue<PooledMap> ready;
+
+    /** Buffers rendus, à regénérer */
+    private final BlockingQueue<PooledMap> released;
+
+    /** Thread de génération */
+    private final Thread worker;
+
+    /** Indique si la réserve est fermée */
+    private volatile boolean closed;
+
+    /** Délai entre deux vérifications de la fermeture pendant l'attente d'une carte */
+    private static final long WAIT_POLL_MILLIS = 100;
+
+    /** Statistiques : cartes générées, terrains refusés, prises sur une réserve vide et leur attente cumulée */
+    private final AtomicLong generated = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong missWaitNanos = new AtomicLong();
+
+    /**
+     * Constructeur d'une réserve sans validation.
+     *
+     * @param width Largeur des cartes
+     * @param height Hauteur des cartes
+     * @param generator Générateur du terrain
+     * @param capacity Nombre maximal de cartes prêtes
+     */
+    public MapPool(int width, int height, MapGenerator generator, int capacity) {
+        this(width, height, generator, cells -> true, capacity);
+    }
+
+    /**
+     * Constructeur d'une réserve. Le thread de génération démarre immédiatement.
+     *
+     * @param width Largeur des cartes
+     * @param height Hauteur des cartes
+     * @param generator Générateur du terrain
+     * @param validator Validation des terrains générés, appelée sur le thread de génération
+     * @param capacity Nombre maximal de cartes prêtes
+     */
+    public MapPool(int width, int height, MapGenerator generator, Predicate<byte[]> validator, int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("Capacité invalide: " + capacity);
+        this.width = width;
+        this.height = height;
+        this.generator = generator;
+        this.validator = validator;
+        this.ready = new ArrayBlockingQueue<>(capacity);
+        this.released = new ArrayBlockingQueue<>(capacity);
+
+        this.worker = new Thread(this::fill, "MapPool-" + width + "x" + height);
+        this.worker.setDaemon(true);
+        this.worker.setPriority(Thread.MIN_PRIORITY);
+        this.worker.start();
+    }
+
+    /**
+     * Boucle du thread de génération : remplit la réserve en réutilisant les buffers rendus.
+     */
+    private void fill() {
+        try {
+            while (!closed) {
+                PooledMap map = released.poll();
+                if (map == null) map = new PooledMap(width * height);
+                prepare(map);
+                ready.put(map);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Génère un terrain valide dans les buffers d'une carte.
+     *
+     * @param map Carte à remplir
+     */
+    private void prepare(PooledMap map) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int attempts = 1; ; attempts++) {
+            map.seed = random.nextLong();
+            generator.generate(width, height, map.seed, map.cells);
+            if (validator.test(map.cells)) break;
+            rejected.incrementAndGet();
+            if (attempts == MAX_ATTEMPTS) {
+                GameLog.log("⚠️ Aucune carte valide après " + attempts + " graines, carte acceptée telle quelle");
+                break;
+            }
+        }
+
+        map.destructibleWalls = CellBits.fill(map.wallBits, map.cells, map.cells.length,
+                (byte) Tile.TileType.DESTRUCTIBLE_WALL.ordinal());
+        generated.incrementAndGet();
+    }
+
+    /**
+     * Prend une carte prête. Si la réserve est vide, l'appel bloque jusqu'à ce que le thread
+     * de génération en livre une ; l'attente est comptée (getMissCount, getMissWaitNanos)
+     * et journalisée. Seule une réserve fermée, ou un thread appelant interrompu, génère
+     * la carte sur le thread appelant.
+     *
+     * @return Carte à jouer
+     */
+    PooledMap acquire() {
+        PooledMap map = ready.poll();
+        if (map != null) return map;
+
+        misses.incrementAndGet();
+        long start = System.nanoTime();
+        try {
+            while (map == null && !closed) {
+                map = ready.poll(WAIT_POLL_MILLIS, TimeUnit.MILLISECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (map == null) {
+            map = released.poll();
+            if (map == null) map = new PooledMap(width * height);
+            prepare(map);
+        }
+        long waited = System.nanoTime() - start;
+        missWaitNanos.addAndGet(waited);
+        GameLog.log("⏳ Réserve de cartes " + width + "x" + height + " vide : carte attendue " +
+                waited / 1_000_000 + " ms (" + misses.get() + " attente(s) au total)");
+        return map;
+    }
+
+    /**
+     * Prend une carte prête sans jamais attendre, pour les threads qui ne doivent pas
+     * bloquer (le thread de ticks du lobby) : sur une réserve vide, la prise est comptée
+     * dans getMissCount et l'appelant réessaie plus tard.
+     *
+     * @return Carte alimentée par la réserve, null si aucune carte n'est prête
+     */
+    public GameMap tryTakeMap() {
+        PooledMap map = ready.poll();
+        if (map == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        return new GameMap(this, map);
+    }
+
+    /**
+     * Rend les buffers d'une carte terminée pour qu'ils soient regénérés.
+     * Au-delà de la capacité, ils sont abandonnés au ramasse-miettes.
+     *
+     * @param map Carte terminée
+     */
+    void release(PooledMap map) {
+        if (!closed && map.cells.length == width * height) {
+            released.offer(map);
+        }
+    }
+
+    /** @return Largeur des cartes */
+    public int getWidth() { return width; }
+
+    /** @return Hauteur des cartes */
+    public int getHeight() { return height; }
+
+    /** @return Générateur du terrain */
+    public MapGenerator getGenerator() { return generator; }
+
+    /** @return Nombre de cartes prêtes */
+    public int getReadyCount() { return ready.size(); }
+
+    /** @return Nombre de cartes générées depuis la création */
+    public long getGeneratedCount() { return generated.get(); }
+
+    /** @return Nombre de terrains refusés par la validation */
+    public long getRejectedCount() { return rejected.get(); }
+
+    /** @return Nombre de prises ayant trouvé la réserve vide (attente ou tryTakeMap sans carte) */
+    public long getMissCount() { return misses.get(); }
+
+    /** @return Attente cumulée des prises sur une réserve vide, en nanosecondes */
+    public long getMissWaitNanos() { return missWaitNanos.get(); }
+
+    /**
+     * Arrête le thread de génération et vide la réserve.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        worker.interrupt();
+        ready.clear();
+        released.clear();
+    }
+}
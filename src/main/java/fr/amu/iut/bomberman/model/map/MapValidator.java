@@ -0,0 +1,311 @@
+package fr.amu.iut.bomberman.model.map;
+
+import java.util.Arrays;
+import java.util.function.Predicate;
+
+/**
+ * Validation de l'accessibilité et de l'équité d'un terrain généré.
+ * Des parcours en largeur sur les tableaux primitifs du terrain calculent, depuis chacun
+ * des quatre coins de départ :
+ * <ul>
+ *   <li>la distance en cases jusqu'à chaque case, murs destructibles compris ;</li>
+ *   <li>le nombre minimal de murs destructibles à détruire pour atteindre chaque case ;</li>
+ *   <li>la surface libre accessible sans rien détruire.</li>
+ * </ul>
+ * Un terrain est refusé si un coin ne peut pas atteindre les autres, si un joueur doit
+ * détruire nettement plus de murs que les autres pour rejoindre son adversaire le plus
+ * proche, ou si les surfaces libres de départ sont trop déséquilibrées.
+ * Les buffers de travail sont réutilisés d'un appel à l'autre (aucune allocation) ;
+ * les appels sont sérialisés.
+ */
+public class MapValidator implements Predicate<byte[]> {
+
+    /** Écart maximal par défaut du nombre de murs à détruire vers l'adversaire le plus proche */
+    public static final int DEFAULT_MAX_WALL_SPREAD = 2;
+
+    /** Part de ce nombre de murs tolérée en écart sur les grandes cartes */
+    private static final double WALL_SPREAD_RATIO = 0.25;
+
+    /** Rapport minimal par défaut entre la plus petite et la plus grande surface libre de départ */
+    public static final double DEFAULT_MIN_OPEN_AREA_RATIO = 0.5;
+
+    /** Nombre de coins de départ */
+    public static final int SPAWN_COUNT = 4;
+
+    /** Distance d'une case inaccessible */
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    private static final byte WALL = (byte) Tile.TileType.WALL.ordinal();
+    private static final byte DESTRUCTIBLE_WALL = (byte) Tile.TileType.DESTRUCTIBLE_WALL.ordinal();
+
+    /** Dimensions des terrains validés */
+    private final int width, height;
+
+    /** Écart maximal toléré du nombre de murs à détruire vers l'adversaire le plus proche */
+    private final int maxWallSpread;
+
+    /** Rapport minimal toléré entre surfaces libres de départ */
+    private final double minOpenAreaRatio;
+
+    /** Index des cases de départ */
+    private final int[] spawns;
+
+    /** Décalages d'index vers les quatre voisins d'une case */
+    private final int[] neighbors;
+
+    /** Distance en cases depuis chaque coin, murs destructibles traversables */
+    private final int[][] steps;
+
+    /** Nombre minimal de murs destructibles à détruire depuis chaque coin */
+    private final int[][] walls;
+
+    /** Surface libre accessible sans destruction depuis chaque coin */
+    private final int[] openArea = new int[SPAWN_COUNT];
+
+    /** Files des parcours (couche courante et couche suivante du parcours 0-1) */
+    private final int[] queue, nextQueue;
+
+    /**
+     * Constructeur d'un validateur avec les seuils par défaut.
+     *
+     * @param width Largeur des terrains
+     * @param height Hauteur des terrains
+     */
+    public MapValidator(int width, int height) {
+        this(width, height, DEFAULT_MAX_WALL_SPREAD, DEFAULT_MIN_OPEN_AREA_RATIO);
+    }
+
+    /**
+     * Constructeur d'un validateur.
+     *
+     * @param width Largeur des terrains
+     * @param height Hauteur des terrains
+     * @param maxWallSpread Écart maximal du nombre de murs à détruire vers l'adversaire le plus proche
+     *                      (relevé à un quart de ce nombre sur les grandes cartes)
+     * @param minOpenAreaRatio Rapport minimal entre la plus petite et la plus grande surface libre de départ
+     */
+    public MapValidator(int width, int height, int maxWallSpread, double minOpenAreaRatio) {
+        this.width = width;
+        this.height = height;
+        this.maxWallSpread = maxWallSpread;
+        this.minOpenAreaRatio = minOpenAreaRatio;
+
+        int size = width * height;
+        this.spawns = new int[] {
+                width + 1,
+                width + width - 2,
+                (height - 2) * width + 1,
+                (height - 2) * width + width - 2
+        };
+        this.neighbors = new int[] {-1, 1, -width, width};
+        this.steps = new int[SPAWN_COUNT][size];
+        this.walls = new int[SPAWN_COUNT][size];
+        this.queue = new int[size];
+        this.nextQueue = new int[size];
+    }
+
+    /**
+     * Valide un terrain.
+     *
+     * @param cells Terrain (ordinal du Tile.TileType par case, index = y * largeur + x)
+     * @return true si le terrain est accessible et équitable
+     */
+    @Override
+    public synchronized boolean test(byte[] cells) {
+        if (cells.length != width * height || !hasWalledBorder(cells)) return false;
+        analyze(cells);
+
+        // Accessibilité : chaque coin rejoint tous les autres, murs destructibles détruits
+        for (int s = 0; s < SPAWN_COUNT; s++) {
+            for (int t = s + 1; t < SPAWN_COUNT; t++) {
+                if (steps[s][spawns[t]] == UNREACHABLE) return false;
+            }
+        }
+
+        // Équité : murs à détruire pour rejoindre l'adversaire le plus proche
+        int minWalls = Integer.MAX_VALUE, maxWalls = 0;
+        for (int s = 0; s < SPAWN_COUNT; s++) {
+            int nearest = wallsToNearestOpponent(s);
+            minWalls = Math.min(minWalls, nearest);
+            maxWalls = Math.max(maxWalls, nearest);
+        }
+        if (maxWalls - minWalls > Math.max(maxWallSpread, maxWalls * WALL_SPREAD_RATIO)) return false;
+
+        // Symétrie de la surface libre de départ
+        int minArea = Integer.MAX_VALUE, maxArea = 0;
+        for (int s = 0; s < SPAWN_COUNT; s++) {
+            minArea = Math.min(minArea, openArea[s]);
+            maxArea = Math.max(maxArea, openArea[s]);
+        }
+        return minArea >= minOpenAreaRatio * maxArea;
+    }
+
+    /**
+     * Calcule distances, murs à détruire et surfaces libres depuis chaque coin.
+     * Les résultats restent consultables jusqu'à l'appel suivant.
+     *
+     * @param cells Terrain à analyser
+     */
+    public synchronized void analyze(byte[] cells) {
+        if (cells.length != width * height) {
+            throw new IllegalArgumentException("Terrain de " + cells.length + " cases, attendu " + width * height);
+        }
+        if (!hasWalledBorder(cells)) {
+            throw new IllegalArgumentException("Terrain sans bordure indestructible");
+        }
+        for (int s = 0; s < SPAWN_COUNT; s++) {
+            stepDistances(cells, spawns[s], steps[s]);
+            openArea[s] = wallDistances(cells, spawns[s], walls[s]);
+        }
+    }
+
+    /**
+     * Vérifie que le bord du terrain n'est fait que de murs indestructibles,
+     * ce qui dispense les parcours de tout test de limite.
+     *
+     * @param cells Terrain
+     * @return true si tout le bord est indestructible
+     */
+    private boolean hasWalledBorder(byte[] cells) {
+        int last = (height - 1) * width;
+        for (int x = 0; x < width; x++) {
+            if (cells[x] != WALL || cells[last + x] != WALL) return false;
+        }
+        for (int y = 1; y < height - 1; y++) {
+            if (cells[y * width] != WALL || cells[y * width + width - 1] != WALL) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Parcours en largeur sur les cases non indestructibles.
+     *
+     * @param cells Terrain
+     * @param start Case de départ
+     * @param dist Distances en cases (résultat)
+     */
+    private void stepDistances(byte[] cells, int start, int[] dist) {
+        Arrays.fill(dist, UNREACHABLE);
+        dist[start] = 0;
+        queue[0] = start;
+        int head = 0, tail = 1;
+        while (head < tail) {
+            int cell = queue[head++];
+            int next = dist[cell] + 1;
+            // Les bords sont indestructibles : les voisins d'une case traversable sont dans la carte
+            tail = visit(cells, dist, cell - 1, next, tail);
+            tail = visit(cells, dist, cell + 1, next, tail);
+            tail = visit(cells, dist, cell - width, next, tail);
+            tail = visit(cells, dist, cell + width, next, tail);
+        }
+    }
+
+    /**
+     * Enfile un voisin non visité et traversable du parcours en largeur.
+     *
+     * @return Nouvelle fin de file
+     */
+    private int visit(byte[] cells, int[] dist, int cell, int distance, int tail) {
+        if (dist[cell] == UNREACHABLE && cells[cell] != WALL) {
+            dist[cell] = distance;
+            queue[tail++] = cell;
+        }
+        return tail;
+    }
+
+    /**
+     * Parcours 0-1 par couches : entrer sur un mur destructible coûte 1, sur une case libre 0.
+     * Chaque couche regroupe les cases atteignables en détruisant le même nombre de murs.
+     *
+     * @param cells Terrain
+     * @param start Case de départ
+     * @param dist Nombre minimal de murs à détruire (résultat)
+     * @return Nombre de cases atteignables sans rien détruire
+     */
+    private int wallDistances(byte[] cells, int start, int[] dist) {
+        Arrays.fill(dist, UNREACHABLE);
+        dist[start] = 0;
+        queue[0] = start;
+        int count = 1, nextCount = 0, layer = 0, openArea = 0;
+        int[] current = queue, next = nextQueue;
+
+        while (count > 0) {
+            for (int head = 0; head < count; head++) {
+                int cell = current[head];
+                if (dist[cell] != layer) continue; // atteinte depuis une couche précédente
+                if (layer == 0) openArea++;
+                for (int offset : neighbors) {
+                    int neighbor = cell + offset;
+                    byte type = cells[neighbor];
+                    if (type == WALL) continue;
+                    if (type == DESTRUCTIBLE_WALL) {
+                        if (dist[neighbor] > layer + 1) {
+                            dist[neighbor] = layer + 1;
+                            next[nextCount++] = neighbor;
+                        }
+                    } else if (dist[neighbor] > layer) {
+                        dist[neighbor] = layer;
+                        current[count++] = neighbor;
+                    }
+                }
+            }
+            int[] swap = current;
+            current = next;
+            next = swap;
+            count = nextCount;
+            nextCount = 0;
+            layer++;
+        }
+        return openArea;
+    }
+
+    /**
+     * Retourne le nombre de murs à détruire depuis un coin pour rejoindre le coin adverse le plus proche.
+     *
+     * @param spawn Index du coin
+     * @return Nombre minimal de murs
+     */
+    private int wallsToNearestOpponent(int spawn) {
+        int nearest = UNREACHABLE;
+        for (int t = 0; t < SPAWN_COUNT; t++) {
+            if (t != spawn) nearest = Math.min(nearest, walls[spawn][spawns[t]]);
+        }
+        return nearest;
+    }
+
+    /**
+     * Retourne la distance en cases d'un coin à une case, calculée par le dernier appel.
+     *
+     * @param spawn Index du coin (0 à 3, dans l'ordre des joueurs)
+     * @param x Coordonnée X
+     * @param y Coordonnée Y
+     * @return Distance, UNREACHABLE si la case est inaccessible
+     */
+    public synchronized int getDistance(int spawn, int x, int y) {
+        return steps[spawn][y * width + x];
+    }
+
+    /**
+     * Retourne le nombre de murs destructibles à détruire d'un coin à une case,
+     * calculé par le dernier appel.
+     *
+     * @param spawn Index du coin (0 à 3, dans l'ordre des joueurs)
+     * @param x Coordonnée X
+     * @param y Coordonnée Y
+     * @return Nombre de murs, UNREACHABLE si la case est inaccessible
+     */
+    public synchronized int getWallsBetween(int spawn, int x, int y) {
+        return walls[spawn][y * width + x];
+    }
+
+    /**
+     * Retourne la surface libre accessible sans destruction depuis un coin,
+     * calculée par le dernier appel.
+     *
+     * @param spawn Index du coin (0 à 3, dans l'ordre des joueurs)
+     * @return Nombre de cases
+     */
+    public synchronized int getOpenArea(int spawn) {
+        return openArea[spawn];
+    }
+}
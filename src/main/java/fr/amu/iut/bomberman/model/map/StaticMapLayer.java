@@ -0,0 +1,94 @@
+package fr.amu.iut.bomberman.model.map;
+
+/**
+ * Terrain initial immuable d'une carte, partagé par toutes les parties qui le jouent.
+ * Une GameMap construite sur une couche statique n'en copie rien : elle lit la couche
+ * et ne recopie que les pages de cases qu'elle modifie (murs détruits, explosions,
+ * power-ups). La mémoire propre à chaque partie suit donc son état modifié,
+ * pas la taille de la carte.
+ */
+public final class StaticMapLayer {
+
+    /** Dimensions de la carte */
+    private final int width, height;
+
+    /** Type de chaque case (ordinal du Tile.TileType), jamais modifié après construction */
+    private final byte[] cells;
+
+    /** Nombre de murs destructibles du terrain initial */
+    private final int destructibleWallCount;
+
+    /** Murs destructibles du terrain initial, un bit par case (voir CellBits), jamais modifiés */
+    private final long[] destructibleWalls;
+
+    /** Générateur ayant produit le terrain (points de départ) */
+    private final MapGenerator generator;
+
+    /** Graine ayant produit le terrain */
+    private final long seed;
+
+    /**
+     * Constructeur d'une couche statique : le terrain est généré une seule fois.
+     *
+     * @param width Largeur de la carte
+     * @param height Hauteur de la carte
+     * @param seed Graine de génération
+     * @param generator Générateur du terrain
+     */
+    public StaticMapLayer(int width, int height, long seed, MapGenerator generator) {
+        this.width = width;
+        this.height = height;
+        this.seed = seed;
+        this.generator = generator;
+        this.cells = generator.generate(width, height, seed);
+
+        this.destructibleWalls = CellBits.create(cells.length);
+        this.destructibleWallCount = CellBits.fill(destructibleWalls, cells, cells.length,
+                (byte) Tile.TileType.DESTRUCTIBLE_WALL.ordinal());
+    }
+
+    /**
+     * Retourne le terrain initial. Le tableau est partagé et ne doit pas être modifié.
+     *
+     * @return Type de chaque case, index = y * largeur + x
+     */
+    byte[] cells() {
+        return cells;
+    }
+
+    /**
+     * Retourne les murs destructibles du terrain initial. Le tableau est partagé et ne
+     * doit pas être modifié.
+     *
+     * @return Un bit par case (voir CellBits)
+     */
+    long[] destructibleWalls() {
+        return destructibleWalls;
+    }
+
+    /**
+     * Retourne le type initial d'une case.
+     *
+     * @param x Coordonnée X
+     * @param y Coordonnée Y
+     * @return Type de la case
+     */
+    public Tile.TileType getTileType(int x, int y) {
+        return Tile.TileType.fromOrdinal(cells[y * width + x]);
+    }
+
+    /** @return Largeur de la carte */
+    public int getWidth() { return width; }
+
+    /** @return Hauteur de la carte */
+    public int getHeight() { return height; }
+
+    /** @return Nombre de murs destructibles du terrain initial */
+    public int getDestructibleWallCount() { return destructibleWallCount; }
+
+    /** @return Générateur ayant produit le terrain */
+    public MapGenerator getGenerator() { return generator; }
+
+    /** @return Graine ayant produit le terrain */
+    public long getSeed() { return seed; }
+}
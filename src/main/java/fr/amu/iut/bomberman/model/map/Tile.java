@@ -29,9 +29,43 @@ public class Tile {
         EXPLOSION,
 
         /** Power-up récupérable par les joueurs */
-        POWERUP
+        POWERUP;
+
+        /** Types indexés par ordinal, pour décoder les cartes stockées en octets */
+        private static final TileType[] VALUES = values();
+
+        /**
+         * Retourne le type correspondant à un ordinal.
+         *
+         * @param ordinal Ordinal du type
+         * @return Le type
+         */
+        public static TileType fromOrdinal(int ordinal) {
+            return VALUES[ordinal];
+        }
+
+        /**
+         * Indique si ce type de tuile peut être traversé par un joueur.
+         *
+         * @return true pour le sol, les power-ups et les explosions
+         */
+        public boolean isWalkable() {
+            return this == FLOOR || this == POWERUP || this == EXPLOSION;
+        }
+
+        /**
+         * Indique si ce type de tuile peut être détruit par une explosion.
+         *
+         * @return true pour les murs destructibles
+         */
+        public boolean isDestructible() {
+            return this == DESTRUCTIBLE_WALL;
+        }
     }
 
+    /** Durée d'une explosion sur une tuile, en frames */
+    public static final int EXPLOSION_FRAMES = 60;
+
     /** Position fixe de cette tuile sur la carte */
     private final Position position;
 
@@ -64,34 +98,9 @@ public class Tile {
      * Définit automatiquement si elle est traversable, destructible, etc.
      */
     private void updateProperties() {
-        switch (type) {
-            case FLOOR:
-            case POWERUP:
-                this.walkable = true;
-                this.destructible = false;
-                this.explosionTimer = 0;
-                break;
-            case WALL:
-                this.walkable = false;
-                this.destructible = false;
-                this.explosionTimer = 0;
-                break;
-            case DESTRUCTIBLE_WALL:
-                this.walkable = false;
-                this.destructible = true;
-                this.explosionTimer = 0;
-                break;
-            case BOMB:
-                this.walkable = false;
-                this.destructible = false;
-                this.explosionTimer = 0;
-                break;
-            case EXPLOSION:
-                this.walkable = true;
-                this.destructible = false;
-                this.explosionTimer = 60; // 60 frames à 60 FPS = 1 seconde
-                break;
-        }
+        this.walkable = type.isWalkable();
+        this.destructible = type.isDestructible();
+        this.explosionTimer = type == TileType.EXPLOSION ? EXPLOSION_FRAMES : 0; // 60 frames à 60 FPS = 1 seconde
     }
 
     /**
@@ -159,6 +168,15 @@ public class Tile {
         }
     }
 
+    /**
+     * Restaure le timer d'explosion d'une tuile (reprise d'un état sauvegardé).
+     *
+     * @param explosionTimer Timer d'explosion en frames
+     */
+    void setExplosionTimer(int explosionTimer) {
+        this.explosionTimer = explosionTimer;
+    }
+
     /**
      * Représentation textuelle de la tuile pour le debug.
      *
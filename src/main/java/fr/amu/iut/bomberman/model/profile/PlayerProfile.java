@@ -0,0 +1,149 @@
+package fr.amu.iut.bomberman.model.profile;
+
+/**
+ * Profil d'un joueur et ses statistiques cumulées.
+ * Les instances remises par ProfileStore sont des copies : les modifier ne change pas
+ * le profil enregistré.
+ */
+public class PlayerProfile {
+
+    /** Nom du joueur, clé du profil */
+    private String name;
+
+    /** Chemin de l'image d'avatar, null pour l'avatar par défaut */
+    private String avatarPath;
+
+    /** Nombre de parties jouées */
+    private int gamesPlayed;
+
+    /** Nombre de victoires */
+    private int wins;
+
+    /** Temps de jeu total en millisecondes */
+    private long playTimeMillis;
+
+    /** Série de victoires en cours et meilleure série */
+    private int currentStreak;
+    private int bestStreak;
+
+    /** Date de la dernière partie (millisecondes depuis l'époque), 0 si aucune */
+    private long lastPlayed;
+
+    /**
+     * Constructeur sans argument, pour Gson.
+     */
+    PlayerProfile() {
+    }
+
+    /**
+     * Constructeur d'un profil vide.
+     *
+     * @param name Nom du joueur
+     */
+    public PlayerProfile(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Retourne une copie du profil.
+     *
+     * @return Copie indépendante
+     */
+    public PlayerProfile copy() {
+        PlayerProfile copy = new PlayerProfile(name);
+        copy.avatarPath = avatarPath;
+        copy.gamesPlayed = gamesPlayed;
+        copy.wins = wins;
+        copy.playTimeMillis = playTimeMillis;
+        copy.currentStreak = currentStreak;
+        copy.bestStreak = bestStreak;
+        copy.lastPlayed = lastPlayed;
+        return copy;
+    }
+
+    /**
+     * Ajoute le résultat d'une partie aux statistiques.
+     *
+     * @param won Indique si le joueur a gagné
+     * @param durationMillis Durée de la partie
+     * @param finishedAt Date de fin de la partie
+     */
+    void addMatch(boolean won, long durationMillis, long finishedAt) {
+        gamesPlayed++;
+        playTimeMillis += durationMillis;
+        if (won) {
+            wins++;
+            currentStreak++;
+            bestStreak = Math.max(bestStreak, currentStreak);
+        } else {
+            currentStreak = 0;
+        }
+        lastPlayed = Math.max(lastPlayed, finishedAt);
+    }
+
+    /**
+     * Ajoute les statistiques d'un autre profil (fusion lors d'un renommage).
+     *
+     * @param other Profil à fusionner
+     */
+    void merge(PlayerProfile other) {
+        gamesPlayed += other.gamesPlayed;
+        wins += other.wins;
+        playTimeMillis += other.playTimeMillis;
+        bestStreak = Math.max(bestStreak, other.bestStreak);
+        if (other.lastPlayed > lastPlayed) {
+            lastPlayed = other.lastPlayed;
+            currentStreak = other.currentStreak;
+        }
+        if (avatarPath == null) avatarPath = other.avatarPath;
+    }
+
+    void setName(String name) { this.name = name; }
+
+    void setAvatarPath(String avatarPath) { this.avatarPath = avatarPath; }
+
+    /** @return Nom du joueur */
+    public String getName() { return name; }
+
+    /** @return Chemin de l'image d'avatar, null pour l'avatar par défaut */
+    public String getAvatarPath() { return avatarPath; }
+
+    /** @return Nombre de parties jouées */
+    public int getGamesPlayed() { return gamesPlayed; }
+
+    /** @return Nombre de victoires */
+    public int getWins() { return wins; }
+
+    /** @return Temps de jeu total en millisecondes */
+    public long getPlayTimeMillis() { return playTimeMillis; }
+
+    /** @return Série de victoires en cours */
+    public int getCurrentStreak() { return currentStreak; }
+
+    /** @return Meilleure série de victoires */
+    public int getBestStreak() { return bestStreak; }
+
+    /** @return Date de la dernière partie, 0 si aucune */
+    public long getLastPlayed() { return lastPlayed; }
+
+    /**
+     * Retourne le temps de jeu formaté pour l'affichage.
+     *
+     * @return Temps de jeu sous la forme "12h 34m"
+     */
+    public String getFormattedPlayTime() {
+        long minutes = playTimeMillis / 60_000;
+        return (minutes / 60) + "h " + String.format("%02d", minutes % 60) + "m";
+    }
+
+    /**
+     * Représentation textuelle du profil pour le debug.
+     *
+     * @return Description du profil
+     */
+    @Override
+    public String toString() {
+        return String.format("PlayerProfile{%s, parties=%d, victoires=%d, temps=%s}",
+                name, gamesPlayed, wins, getFormattedPlayTime());
+    }
+}
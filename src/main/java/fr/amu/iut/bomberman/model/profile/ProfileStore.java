@@ -0,0 +1,415 @@
+package fr.amu.iut.bomberman.model.profile;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import fr.amu.iut.bomberman.model.common.GameLog;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stockage persistant des profils des joueurs.
+ * <p>
+ * Chaque modification (résultat de partie, avatar, renommage) est ajoutée à un journal
+ * en ajout seul (profiles.log, un enregistrement JSON numéroté par ligne). Tous les
+ * COMPACT_INTERVAL enregistrements, et à la fermeture, les profils agrégés sont écrits
+ * dans un instantané (profiles.json, via Gson) remplacé atomiquement, puis le journal
+ * est vidé. L'instantané retient le numéro du dernier enregistrement qu'il contient :
+ * après un arrêt entre les deux étapes, les enregistrements déjà compactés sont ignorés.
+ * <p>
+ * Toutes les lectures et écritures de fichiers se font sur le thread du store : les
+ * méthodes rendent la main aussitôt (futurs), ni le thread JavaFX ni la fin de partie
+ * n'attendent le disque. Charger un profil ne relit pas ses parties une à une : seul
+ * le journal depuis le dernier instantané est rejoué, une fois, au premier accès.
+ */
+public class ProfileStore implements AutoCloseable {
+
+    private static volatile ProfileStore instance;
+    private static final Object lock = new Object();
+
+    /** Enregistrements du journal entre deux compactages */
+    public static final int COMPACT_INTERVAL = 256;
+
+    /** Version du format de l'instantané */
+    private static final int VERSION = 1;
+
+    /** Nom des fichiers du store */
+    private static final String SNAPSHOT_FILE = "profiles.json";
+    private static final String LOG_FILE = "profiles.log";
+
+    /** Suffixe d'un instantané illisible mis de côté */
+    private static final String CORRUPT_SUFFIX = ".corrupt";
+
+    /**
+     * Enregistrement du journal.
+     */
+    private static final class LogRecord {
+        /** Numéro de l'enregistrement, croissant */
+        long seq;
+        /** Type : MATCH, AVATAR ou RENAME */
+        String type;
+        String name;
+        String newName;
+        String avatarPath;
+        boolean won;
+        long durationMillis;
+        long time;
+    }
+
+    /**
+     * Instantané : profils agrégés et dernier enregistrement compacté.
+     */
+    private static final class Snapshot {
+        int version = VERSION;
+        long lastSeq;
+        List<PlayerProfile> profiles = new ArrayList<>();
+    }
+
+    /** Répertoire du store */
+    private final Path directory;
+
+    /** Sérialisation JSON */
+    private final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+    private final Gson logGson = new Gson();
+
+    /** Thread du store, seul à lire et modifier les champs ci-dessous */
+    private final ExecutorService executor;
+
+    /** Profils par nom, chargés au premier accès */
+    private Map<String, PlayerProfile> profiles;
+
+    /** Numéro du dernier enregistrement */
+    private long lastSeq;
+
+    /** Enregistrements ajoutés depuis le dernier compactage */
+    private int recordsSinceCompaction;
+
+    /** Journal ouvert en ajout */
+    private BufferedWriter log;
+
+    /** Instantané présent mais ni lisible ni déplaçable : le compactage l'écraserait, il est suspendu */
+    private boolean snapshotLocked;
+
+    /**
+     * Constructeur d'un store dans un répertoire donné.
+     *
+     * @param directory Répertoire des fichiers (créé au besoin)
+     */
+    public ProfileStore(Path directory) {
+        this.directory = directory;
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "ProfileStore");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Obtient le store de l'utilisateur (~/.bomberman/profiles), créé au premier appel.
+     *
+     * @return Instance partagée
+     */
+    public static ProfileStore getInstance() {
+        if (instance == null) {
+            synchronized (lock) {
+                if (instance == null) {
+                    instance = new ProfileStore(Path.of(System.getProperty("user.home"), ".bomberman", "profiles"));
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Charge un profil.
+     *
+     * @param name Nom du joueur
+     * @return Futur du profil (copie), vide s'il n'a jamais joué
+     */
+    public CompletableFuture<PlayerProfile> getProfile(String name) {
+        return CompletableFuture.supplyAsync(() -> {
+            PlayerProfile profile = profiles().get(name);
+            return profile != null ? profile.copy() : new PlayerProfile(name);
+        }, executor);
+    }
+
+    /**
+     * Charge tous les profils.
+     *
+     * @return Futur de la liste des profils (copies)
+     */
+    public CompletableFuture<List<PlayerProfile>> getProfiles() {
+        return CompletableFuture.supplyAsync(() -> {
+            List<PlayerProfile> list = new ArrayList<>();
+            for (PlayerProfile profile : profiles().values()) {
+                list.add(profile.copy());
+            }
+            return list;
+        }, executor);
+    }
+
+    /**
+     * Enregistre le résultat d'une partie pour un joueur. Ne fait que mettre
+     * l'enregistrement en file : appelable depuis le thread de jeu.
+     *
+     * @param name Nom du joueur
+     * @param won Indique si le joueur a gagné
+     * @param durationMillis Durée de la partie
+     * @return Futur complété une fois l'enregistrement écrit
+     */
+    public CompletableFuture<Void> recordMatch(String name, boolean won, long durationMillis) {
+        LogRecord record = new LogRecord();
+        record.type = "MATCH";
+        record.name = name;
+        record.won = won;
+        record.durationMillis = durationMillis;
+        record.time = System.currentTimeMillis();
+        return append(record);
+    }
+
+    /**
+     * Change l'avatar d'un joueur.
+     *
+     * @param name Nom du joueur
+     * @param avatarPath Chemin de l'image, null pour l'avatar par défaut
+     * @return Futur complété une fois l'enregistrement écrit
+     */
+    public CompletableFuture<Void> setAvatar(String name, String avatarPath) {
+        LogRecord record = new LogRecord();
+        record.type = "AVATAR";
+        record.name = name;
+        record.avatarPath = avatarPath;
+        record.time = System.currentTimeMillis();
+        return append(record);
+    }
+
+    /**
+     * Renomme un profil. Si le nouveau nom a déjà un profil, les statistiques sont fusionnées.
+     *
+     * @param name Nom actuel
+     * @param newName Nouveau nom
+     * @return Futur complété une fois l'enregistrement écrit
+     */
+    public CompletableFuture<Void> rename(String name, String newName) {
+        LogRecord record = new LogRecord();
+        record.type = "RENAME";
+        record.name = name;
+        record.newName = newName;
+        record.time = System.currentTimeMillis();
+        return append(record);
+    }
+
+    /**
+     * Applique un enregistrement puis l'ajoute au journal (thread du store).
+     *
+     * @param record Enregistrement, numéroté ici
+     * @return Futur complété une fois l'enregistrement écrit
+     */
+    private CompletableFuture<Void> append(LogRecord record) {
+        return CompletableFuture.runAsync(() -> {
+            Map<String, PlayerProfile> map = profiles();
+            record.seq = ++lastSeq;
+            apply(map, record);
+            try {
+                if (log == null) {
+                    log = Files.newBufferedWriter(directory.resolve(LOG_FILE), StandardCharsets.UTF_8,
+                            StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                }
+                log.write(logGson.toJson(record));
+                log.newLine();
+                log.flush();
+            } catch (IOException e) {
+                System.err.println("❌ Erreur d'écriture du journal des profils: " + e.getMessage());
+            }
+            if (++recordsSinceCompaction >= COMPACT_INTERVAL) {
+                compact();
+            }
+        }, executor);
+    }
+
+    /**
+     * Applique un enregistrement aux profils.
+     */
+    private static void apply(Map<String, PlayerProfile> map, LogRecord record) {
+        if (record.name == null || record.type == null) return;
+        switch (record.type) {
+            case "MATCH":
+                map.computeIfAbsent(record.name, PlayerProfile::new)
+                        .addMatch(record.won, record.durationMillis, record.time);
+                break;
+            case "AVATAR":
+                map.computeIfAbsent(record.name, PlayerProfile::new).setAvatarPath(record.avatarPath);
+                break;
+            case "RENAME":
+                if (record.newName == null || record.newName.equals(record.name)) return;
+                PlayerProfile profile = map.remove(record.name);
+                if (profile == null) return;
+                PlayerProfile existing = map.get(record.newName);
+                if (existing != null) {
+                    existing.merge(profile);
+                } else {
+                    profile.setName(record.newName);
+                    map.put(record.newName, profile);
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Retourne les profils, en lisant l'instantané et le journal au premier appel
+     * (thread du store).
+     *
+     * @return Profils par nom
+     */
+    private Map<String, PlayerProfile> profiles() {
+        if (profiles != null) return profiles;
+        profiles = new HashMap<>();
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            System.err.println("❌ Répertoire des profils inaccessible: " + e.getMessage());
+        }
+
+        Path snapshotFile = directory.resolve(SNAPSHOT_FILE);
+        if (Files.exists(snapshotFile)) {
+            try (BufferedReader reader = Files.newBufferedReader(snapshotFile, StandardCharsets.UTF_8)) {
+                Snapshot snapshot = gson.fromJson(reader, Snapshot.class);
+                if (snapshot != null && snapshot.profiles != null) {
+                    for (PlayerProfile profile : snapshot.profiles) {
+                        if (profile.getName() != null) profiles.put(profile.getName(), profile);
+                    }
+                    lastSeq = snapshot.lastSeq;
+                }
+            } catch (JsonParseException e) {
+                System.err.println("❌ Instantané des profils illisible: " + e.getMessage());
+                setAsideCorruptSnapshot(snapshotFile);
+            } catch (IOException e) {
+                // Erreur de lecture peut-être passagère : l'instantané est gardé tel quel
+                System.err.println("❌ Instantané des profils illisible, compactage suspendu: " + e.getMessage());
+                snapshotLocked = true;
+            }
+        }
+
+        Path logFile = directory.resolve(LOG_FILE);
+        if (Files.exists(logFile)) {
+            long snapshotSeq = lastSeq;
+            try (BufferedReader reader = Files.newBufferedReader(logFile, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isBlank()) continue;
+                    LogRecord record;
+                    try {
+                        record = logGson.fromJson(line, LogRecord.class);
+                    } catch (JsonParseException e) {
+                        // Dernière ligne interrompue par un arrêt brutal
+                        continue;
+                    }
+                    if (record == null || record.seq <= snapshotSeq) continue;
+                    apply(profiles, record);
+                    lastSeq = Math.max(lastSeq, record.seq);
+                    recordsSinceCompaction++;
+                }
+            } catch (IOException e) {
+                System.err.println("❌ Journal des profils illisible: " + e.getMessage());
+            }
+        }
+        GameLog.log("👤 " + profiles.size() + " profils chargés");
+        if (recordsSinceCompaction >= COMPACT_INTERVAL) {
+            compact();
+        }
+        return profiles;
+    }
+
+    /**
+     * Met de côté un instantané illisible (profiles.json.corrupt), pour que le prochain
+     * compactage ne remplace pas les profils qu'il contient. Si le déplacement échoue,
+     * le compactage est suspendu.
+     *
+     * @param snapshotFile Instantané illisible
+     */
+    private void setAsideCorruptSnapshot(Path snapshotFile) {
+        Path corrupt = directory.resolve(SNAPSHOT_FILE + CORRUPT_SUFFIX);
+        try {
+            Files.move(snapshotFile, corrupt, StandardCopyOption.REPLACE_EXISTING);
+            System.err.println("⚠️ Instantané des profils mis de côté: " + corrupt);
+        } catch (IOException e) {
+            System.err.println("❌ Instantané des profils impossible à mettre de côté, compactage suspendu: "
+                    + e.getMessage());
+            snapshotLocked = true;
+        }
+    }
+
+    /**
+     * Écrit l'instantané des profils puis vide le journal (thread du store).
+     * Suspendu tant qu'un instantané illisible est en place.
+     */
+    private void compact() {
+        if (snapshotLocked) return;
+        Snapshot snapshot = new Snapshot();
+        snapshot.lastSeq = lastSeq;
+        snapshot.profiles.addAll(profiles.values());
+        Path snapshotFile = directory.resolve(SNAPSHOT_FILE);
+        Path temp = directory.resolve(SNAPSHOT_FILE + ".tmp");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                gson.toJson(snapshot, writer);
+            }
+            try {
+                Files.move(temp, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, snapshotFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            // Les enregistrements sont dans l'instantané : le journal repart vide
+            if (log != null) {
+                log.close();
+                log = null;
+            }
+            Files.deleteIfExists(directory.resolve(LOG_FILE));
+            recordsSinceCompaction = 0;
+        } catch (IOException e) {
+            System.err.println("❌ Erreur d'écriture de l'instantané des profils: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Compacte le journal s'il contient des enregistrements, puis arrête le thread du
+     * store en attendant brièvement la fin des écritures.
+     */
+    @Override
+    public void close() {
+        executor.execute(() -> {
+            if (profiles != null && recordsSinceCompaction > 0) compact();
+            try {
+                if (log != null) log.close();
+            } catch (IOException e) {
+                System.err.println("❌ Erreur de fermeture du journal des profils: " + e.getMessage());
+            }
+            log = null;
+        });
+        executor.shutdown();
+        try {
+            executor.awaitTermination(2, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,332 @@
+package fr.amu.iut.bomberman.model.replay;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Replay d'une partie : la graine de la carte, le flux d'entrées daté par tick et des
+ * keyframes (états complets du moteur) permettant de se positionner sur n'importe quel tick.
+ * Le replay est lu directement dans son buffer (fichier projeté en mémoire ou segment
+ * d'une ReplayArchive), sans copie. Format binaire (gros-boutiste) :
+ * <pre>
+ * int   magic "BMRP"
+ * byte  version
+ * long  graine de la carte
+ * short largeur, short hauteur
+ * byte  nombre de joueurs, bit POWERUPS_FLAG si les power-ups étaient activés
+ * short ticks par seconde
+ * enregistrements : varint (écart de tick avec l'enregistrement précédent), byte code
+ *   code KEYFRAME : suivi de varint n et de n octets d'état (GameEngine.saveState)
+ *   code END      : fin du flux, son tick est le dernier tick de la partie
+ * table (version 2) : int n, puis n fois (long tick, int offset, int taille) des keyframes
+ * long  dernier tick, int offset de la table
+ * </pre>
+ * Le code d'une entrée vaut (idJoueur &lt;&lt; 4) | action, avec action = (dx+1)*3 + (dy+1)
+ * pour un déplacement, BOMB pour une pose de bombe et ELIMINATED pour un abandon.
+ * Les offsets sont relatifs au début du replay.
+ */
+public final class Replay {
+
+    /** Signature des fichiers de replay ("BMRP") */
+    public static final int MAGIC = 0x424D5250;
+
+    /** Version du format */
+    public static final byte VERSION = 2;
+
+    /** Taille de l'en-tête */
+    static final int HEADER_SIZE = 20;
+
+    /** Bit de l'octet du nombre de joueurs indiquant une partie avec power-ups */
+    public static final int POWERUPS_FLAG = 0x80;
+
+    /** Action : pose de bombe */
+    public static final int BOMB = 9;
+
+    /** Action : joueur éliminé hors du jeu */
+    public static final int ELIMINATED = 10;
+
+    /** Code d'un état complet du moteur */
+    public static final int KEYFRAME = 0xFE;
+
+    /** Code de fin de flux */
+    public static final int END = 0xFF;
+
+    /** Données du replay, de l'en-tête à la fin */
+    private final ByteBuffer data;
+
+    /** Graine de génération de la carte */
+    private final long seed;
+
+    /** Dimensions de la carte */
+    private final int width, height;
+
+    /** Nombre de joueurs */
+    private final int playerCount;
+
+    /** Indique si la partie a été jouée avec des power-ups */
+    private final boolean powerUpsEnabled;
+
+    /** Fréquence des ticks lors de l'enregistrement */
+    private final int tickRate;
+
+    /** Fin des enregistrements (début de la table des keyframes) */
+    private final int recordsEnd;
+
+    /** Dernier tick enregistré */
+    private final long finalTick;
+
+    /** Tick de chaque keyframe, par ordre croissant */
+    private final long[] keyframeTicks;
+
+    /** Offset de l'état de chaque keyframe */
+    private final int[] keyframeOffsets;
+
+    /** Taille de l'état de chaque keyframe */
+    private final int[] keyframeLengths;
+
+    private Replay(ByteBuffer data, long seed, int width, int height, int playerCount, boolean powerUpsEnabled,
+                   int tickRate, int recordsEnd, long finalTick, long[] keyframeTicks, int[] keyframeOffsets,
+                   int[] keyframeLengths) {
+        this.data = data;
+        this.seed = seed;
+        this.width = width;
+        this.height = height;
+        this.playerCount = playerCount;
+        this.powerUpsEnabled = powerUpsEnabled;
+        this.tickRate = tickRate;
+        this.recordsEnd = recordsEnd;
+        this.finalTick = finalTick;
+        this.keyframeTicks = keyframeTicks;
+        this.keyframeOffsets = keyframeOffsets;
+        this.keyframeLengths = keyframeLengths;
+    }
+
+    /**
+     * Ouvre un fichier de replay en le projetant en mémoire.
+     *
+     * @param file Chemin du fichier
+     * @return Le replay
+     * @throws IOException Si le fichier est illisible ou mal formé
+     */
+    public static Replay read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return decode(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Décode l'en-tête et la table des keyframes d'un replay.
+     * Le buffer doit contenir exactement un replay, de la position 0 à sa limite.
+     *
+     * @param buffer Données du replay
+     * @return Le replay
+     * @throws IOException Si les données sont mal formées
+     */
+    public static Replay decode(ByteBuffer buffer) throws IOException {
+        ByteBuffer data = buffer.duplicate();
+        data.position(0);
+        try {
+            if (data.getInt() != MAGIC) throw new IOException("Fichier de replay invalide");
+            byte version = data.get();
+            if (version != 1 && version != VERSION) {
+                throw new IOException("Version de replay non supportée: " + version);
+            }
+
+            long seed = data.getLong();
+            int width = data.getShort();
+            int height = data.getShort();
+            int players = data.get() & 0xFF;
+            int playerCount = players & ~POWERUPS_FLAG;
+            boolean powerUps = (players & POWERUPS_FLAG) != 0;
+            int tickRate = data.getShort();
+
+            if (version == 1) {
+                return new Replay(data, seed, width, height, playerCount, powerUps, tickRate,
+                        data.limit(), scanFinalTick(data), new long[0], new int[0], new int[0]);
+            }
+
+            int tableOffset = data.getInt(data.limit() - 4);
+            long finalTick = data.getLong(data.limit() - 12);
+            if (tableOffset < HEADER_SIZE || tableOffset > data.limit() - 16) {
+                throw new IOException("Table des keyframes hors du replay: " + tableOffset);
+            }
+            data.position(tableOffset);
+            int count = data.getInt();
+            // Chaque entrée occupe 16 octets : un nombre illisible ne doit pas allouer au-delà du fichier
+            if (count < 0 || count > (data.limit() - 12 - data.position()) / 16) {
+                throw new IOException("Table des keyframes corrompue: " + count + " entrées");
+            }
+            long[] ticks = new long[count];
+            int[] offsets = new int[count];
+            int[] lengths = new int[count];
+            for (int i = 0; i < count; i++) {
+                ticks[i] = data.getLong();
+                offsets[i] = data.getInt();
+                lengths[i] = data.getInt();
+            }
+            return new Replay(data, seed, width, height, playerCount, powerUps, tickRate,
+                    tableOffset, finalTick, ticks, offsets, lengths);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | NegativeArraySizeException e) {
+            throw new IOException("Replay tronqué ou corrompu", e);
+        }
+    }
+
+    /**
+     * Parcourt les enregistrements d'un replay sans table pour trouver son dernier tick.
+     *
+     * @param data Buffer positionné au début des enregistrements
+     * @return Tick du marqueur de fin
+     */
+    private static long scanFinalTick(ByteBuffer data) {
+        long tick = 0;
+        while (true) {
+            tick += readVarLong(data);
+            int code = data.get() & 0xFF;
+            if (code == END) return tick;
+            if (code == KEYFRAME) data.position(data.position() + (int) readVarLong(data));
+        }
+    }
+
+    /**
+     * Lit un entier variable (7 bits par octet, bit de poids fort = suite).
+     *
+     * @param buffer Buffer source
+     * @return Valeur décodée
+     */
+    public static long readVarLong(ByteBuffer buffer) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+
+    /**
+     * Écrit un entier variable (7 bits par octet, bit de poids fort = suite).
+     *
+     * @param buffer Buffer de destination
+     * @param value Valeur positive à écrire
+     */
+    public static void writeVarLong(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    /**
+     * Construit le code d'un déplacement.
+     *
+     * @param playerId Identifiant du joueur
+     * @param dx Déplacement en X (-1, 0 ou 1)
+     * @param dy Déplacement en Y (-1, 0 ou 1)
+     * @return Code de l'entrée
+     */
+    static int moveCode(int playerId, int dx, int dy) {
+        return (playerId << 4) | ((dx + 1) * 3 + (dy + 1));
+    }
+
+    /**
+     * Construit le code d'une action sans paramètre.
+     *
+     * @param playerId Identifiant du joueur
+     * @param action BOMB ou ELIMINATED
+     * @return Code de l'entrée
+     */
+    static int actionCode(int playerId, int action) {
+        return (playerId << 4) | action;
+    }
+
+    /**
+     * Retourne un curseur sur le premier enregistrement.
+     *
+     * @return Buffer indépendant positionné après l'en-tête
+     */
+    ByteBuffer records() {
+        return data.duplicate().position(HEADER_SIZE).limit(recordsEnd);
+    }
+
+    /**
+     * Retourne un curseur sur l'enregistrement suivant une keyframe.
+     *
+     * @param index Index de la keyframe
+     * @return Buffer indépendant positionné après l'état de la keyframe
+     */
+    ByteBuffer recordsAfter(int index) {
+        return data.duplicate().position(keyframeOffsets[index] + keyframeLengths[index]).limit(recordsEnd);
+    }
+
+    /**
+     * Retourne l'état complet du moteur enregistré dans une keyframe.
+     *
+     * @param index Index de la keyframe
+     * @return Vue en lecture seule de l'état
+     */
+    ByteBuffer keyframeState(int index) {
+        return data.slice(keyframeOffsets[index], keyframeLengths[index]).asReadOnlyBuffer();
+    }
+
+    /**
+     * Recherche la dernière keyframe située au plus tard à un tick donné.
+     *
+     * @param tick Tick visé
+     * @return Index de la keyframe, -1 si aucune ne précède ce tick
+     */
+    public int findKeyframe(long tick) {
+        int low = 0, high = keyframeTicks.length - 1, found = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (keyframeTicks[mid] <= tick) {
+                found = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return found;
+    }
+
+    /** @return Graine de génération de la carte */
+    public long getSeed() { return seed; }
+
+    /** @return Largeur de la carte */
+    public int getWidth() { return width; }
+
+    /** @return Hauteur de la carte */
+    public int getHeight() { return height; }
+
+    /** @return Nombre de joueurs de la partie */
+    public int getPlayerCount() { return playerCount; }
+
+    /** @return true si la partie a été jouée avec des power-ups */
+    public boolean isPowerUpsEnabled() { return powerUpsEnabled; }
+
+    /** @return Fréquence des ticks lors de l'enregistrement */
+    public int getTickRate() { return tickRate; }
+
+    /** @return Dernier tick exécuté par la partie enregistrée */
+    public long getFinalTick() { return finalTick; }
+
+    /** @return Nombre de keyframes du replay */
+    public int getKeyframeCount() { return keyframeTicks.length; }
+
+    /**
+     * Retourne le tick d'une keyframe.
+     *
+     * @param index Index de la keyframe
+     * @return Tick auquel l'état a été capturé
+     */
+    public long getKeyframeTick(int index) { return keyframeTicks[index]; }
+
+    /** @return Taille du replay en octets */
+    public int getSize() { return data.limit(); }
+}
@@ -0,0 +1,313 @@
+package fr.amu.iut.bomberman.model.replay;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Archive de replays en ajout seul.
+ * Les replays sont concaténés dans de gros fichiers de données (replays-NNNNN.dat,
+ * 1 Go au plus) et un index (replays.idx) associe chaque identifiant de partie à sa
+ * position. La lecture se fait par projection en mémoire (MappedByteBuffer) : retrouver
+ * une partie ne coûte qu'une recherche dans une table de hachage et une tranche de buffer,
+ * sans ouvrir de fichier. Enregistrement d'index (24 octets) :
+ * <pre>
+ * long idPartie, int numéroFichier, long offset, int taille
+ * </pre>
+ */
+public class ReplayArchive implements AutoCloseable {
+
+    /** Taille maximale d'un fichier de données (une projection est limitée à 2 Go) */
+    private static final long MAX_DATA_FILE_SIZE = 1L << 30;
+
+    /** Taille d'un enregistrement d'index */
+    private static final int INDEX_RECORD_SIZE = 24;
+
+    /** Nom du fichier d'index */
+    private static final String INDEX_FILE = "replays.idx";
+
+    /** Répertoire de l'archive */
+    private final Path directory;
+
+    /** Canal d'ajout à l'index */
+    private final FileChannel indexChannel;
+
+    /** Canal d'ajout au fichier de données courant */
+    private FileChannel dataChannel;
+
+    /** Numéro du fichier de données courant */
+    private int dataFile;
+
+    /** Taille du fichier de données courant */
+    private long dataSize;
+
+    /** Projections en lecture des fichiers de données, par numéro */
+    private MappedByteBuffer[] mappings = new MappedByteBuffer[4];
+
+    /** Entrées de l'index : fichier, offset et taille de chaque replay */
+    private int[] entryFiles = new int[1024];
+    private long[] entryOffsets = new long[1024];
+    private int[] entryLengths = new int[1024];
+    private int entryCount;
+
+    /** Plus grand identifiant de partie indexé, 0 si l'archive est vide */
+    private long lastMatchId;
+
+    /** Table de hachage à adressage ouvert : identifiant de partie -> index d'entrée + 1 */
+    private long[] tableKeys = new long[2048];
+    private int[] tableSlots = new int[2048];
+
+    /**
+     * Ouvre (ou crée) une archive dans un répertoire et charge son index.
+     *
+     * @param directory Répertoire de l'archive
+     * @throws IOException Si l'archive ne peut pas être ouverte
+     */
+    public ReplayArchive(Path directory) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.indexChannel = FileChannel.open(directory.resolve(INDEX_FILE), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        // Un enregistrement partiel (arrêt brutal) est ignoré puis écrasé
+        long records = indexChannel.size() / INDEX_RECORD_SIZE;
+        if (records > 0) {
+            MappedByteBuffer index = indexChannel.map(FileChannel.MapMode.READ_ONLY, 0, records * INDEX_RECORD_SIZE);
+            for (long i = 0; i < records; i++) {
+                long matchId = index.getLong();
+                int file = index.getInt();
+                long offset = index.getLong();
+                int length = index.getInt();
+                register(matchId, file, offset, length);
+                dataFile = Math.max(dataFile, file);
+            }
+        }
+        indexChannel.position(records * INDEX_RECORD_SIZE);
+        openDataFile(dataFile);
+    }
+
+    /**
+     * Ouvre un fichier de données en ajout.
+     *
+     * @param file Numéro du fichier
+     * @throws IOException Si le fichier ne peut pas être ouvert
+     */
+    private void openDataFile(int file) throws IOException {
+        if (dataChannel != null) dataChannel.close();
+        dataFile = file;
+        dataChannel = FileChannel.open(dataPath(file), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        dataSize = dataChannel.size();
+    }
+
+    /**
+     * Retourne le chemin d'un fichier de données.
+     *
+     * @param file Numéro du fichier
+     * @return Chemin du fichier
+     */
+    private Path dataPath(int file) {
+        return directory.resolve(String.format("replays-%05d.dat", file));
+    }
+
+    /**
+     * Ajoute un replay à l'archive. Les données sont écrites avant l'index :
+     * un arrêt brutal ne laisse jamais d'entrée pointant vers des données absentes.
+     *
+     * @param matchId Identifiant de la partie (un nouvel ajout remplace l'ancien)
+     * @param chunks Blocs formant le replay, prêts à être lus
+     * @throws IOException En cas d'erreur d'écriture
+     */
+    public synchronized void append(long matchId, ByteBuffer... chunks) throws IOException {
+        long length = 0;
+        for (ByteBuffer chunk : chunks) {
+            length += chunk.remaining();
+        }
+        if (length > Integer.MAX_VALUE) throw new IOException("Replay trop volumineux: " + length);
+        if (dataSize > 0 && dataSize + length > MAX_DATA_FILE_SIZE) {
+            openDataFile(dataFile + 1);
+        }
+
+        long offset = dataSize;
+        dataChannel.position(offset);
+        long written = 0;
+        while (written < length) {
+            written += dataChannel.write(chunks);
+        }
+        dataSize += length;
+
+        ByteBuffer record = ByteBuffer.allocate(INDEX_RECORD_SIZE);
+        record.putLong(matchId).putInt(dataFile).putLong(offset).putInt((int) length).flip();
+        while (record.hasRemaining()) {
+            indexChannel.write(record);
+        }
+        register(matchId, dataFile, offset, (int) length);
+    }
+
+    /**
+     * Recherche le replay d'une partie.
+     *
+     * @param matchId Identifiant de la partie
+     * @return Le replay, lu sans copie dans la projection du fichier, ou null si absent
+     * @throws IOException Si le fichier de données est illisible ou le replay corrompu
+     */
+    public Replay find(long matchId) throws IOException {
+        ByteBuffer segment = findSegment(matchId);
+        return segment != null ? Replay.decode(segment) : null;
+    }
+
+    /**
+     * Recherche les données brutes du replay d'une partie.
+     *
+     * @param matchId Identifiant de la partie
+     * @return Tranche en lecture seule de la projection, ou null si absent
+     * @throws IOException Si le fichier de données ne peut pas être projeté
+     */
+    public synchronized ByteBuffer findSegment(long matchId) throws IOException {
+        int entry = lookup(matchId);
+        if (entry < 0) return null;
+
+        int file = entryFiles[entry];
+        long offset = entryOffsets[entry];
+        int length = entryLengths[entry];
+        MappedByteBuffer mapping = mapping(file, offset + length);
+        return mapping.slice((int) offset, length).asReadOnlyBuffer();
+    }
+
+    /**
+     * Retourne la projection d'un fichier de données couvrant au moins une taille donnée,
+     * en la refaisant si le fichier a grandi depuis.
+     *
+     * @param file Numéro du fichier
+     * @param end Taille minimale à couvrir
+     * @return Projection en lecture seule
+     * @throws IOException Si le fichier ne peut pas être projeté
+     */
+    private MappedByteBuffer mapping(int file, long end) throws IOException {
+        if (file >= mappings.length) {
+            mappings = Arrays.copyOf(mappings, Math.max(file + 1, mappings.length * 2));
+        }
+        MappedByteBuffer mapping = mappings[file];
+        if (mapping == null || mapping.capacity() < end) {
+            try (FileChannel channel = FileChannel.open(dataPath(file), StandardOpenOption.READ)) {
+                mapping = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+            mappings[file] = mapping;
+        }
+        return mapping;
+    }
+
+    /**
+     * Enregistre une entrée dans l'index en mémoire.
+     *
+     * @param matchId Identifiant de la partie
+     * @param file Numéro du fichier de données
+     * @param offset Position du replay dans le fichier
+     * @param length Taille du replay
+     */
+    private void register(long matchId, int file, long offset, int length) {
+        int entry = lookup(matchId);
+        if (entry < 0) {
+            if (entryCount == entryFiles.length) {
+                int capacity = entryCount * 2;
+                entryFiles = Arrays.copyOf(entryFiles, capacity);
+                entryOffsets = Arrays.copyOf(entryOffsets, capacity);
+                entryLengths = Arrays.copyOf(entryLengths, capacity);
+            }
+            entry = entryCount++;
+            if (entryCount * 2 > tableKeys.length) rehash(tableKeys.length * 2);
+            insert(matchId, entry);
+            lastMatchId = Math.max(lastMatchId, matchId);
+        }
+        entryFiles[entry] = file;
+        entryOffsets[entry] = offset;
+        entryLengths[entry] = length;
+    }
+
+    /**
+     * Recherche l'index d'entrée d'une partie.
+     *
+     * @param matchId Identifiant de la partie
+     * @return Index de l'entrée, -1 si absente
+     */
+    private int lookup(long matchId) {
+        int mask = tableKeys.length - 1;
+        for (int i = hash(matchId) & mask; tableSlots[i] != 0; i = (i + 1) & mask) {
+            if (tableKeys[i] == matchId) return tableSlots[i] - 1;
+        }
+        return -1;
+    }
+
+    /**
+     * Insère une clé absente de la table.
+     *
+     * @param matchId Identifiant de la partie
+     * @param entry Index de l'entrée associée
+     */
+    private void insert(long matchId, int entry) {
+        int mask = tableKeys.length - 1;
+        int i = hash(matchId) & mask;
+        while (tableSlots[i] != 0) {
+            i = (i + 1) & mask;
+        }
+        tableKeys[i] = matchId;
+        tableSlots[i] = entry + 1;
+    }
+
+    /**
+     * Agrandit la table de hachage.
+     *
+     * @param capacity Nouvelle capacité (puissance de 2)
+     */
+    private void rehash(int capacity) {
+        long[] oldKeys = tableKeys;
+        int[] oldSlots = tableSlots;
+        tableKeys = new long[capacity];
+        tableSlots = new int[capacity];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldSlots[i] != 0) insert(oldKeys[i], oldSlots[i] - 1);
+        }
+    }
+
+    /**
+     * Mélange les bits d'un identifiant (les identifiants de partie sont séquentiels).
+     *
+     * @param key Identifiant de partie
+     * @return Valeur de hachage
+     */
+    private static int hash(long key) {
+        key *= 0x9E3779B97F4A7C15L;
+        return (int) (key ^ (key >>> 32));
+    }
+
+    /**
+     * Retourne le nombre de replays de l'archive.
+     *
+     * @return Nombre de parties indexées
+     */
+    public synchronized int size() { return entryCount; }
+
+    /**
+     * Retourne le plus grand identifiant de partie de l'archive, pour reprendre la
+     * numérotation des parties après un redémarrage sans écraser les replays existants.
+     *
+     * @return Plus grand identifiant indexé, 0 si l'archive est vide
+     */
+    public synchronized long getLastMatchId() { return lastMatchId; }
+
+    /**
+     * Force l'écriture sur disque et ferme l'archive.
+     *
+     * @throws IOException En cas d'erreur d'écriture
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        dataChannel.force(false);
+        indexChannel.force(false);
+        dataChannel.close();
+        indexChannel.close();
+    }
+}
@@ -0,0 +1,237 @@
+package fr.amu.iut.bomberman.model.replay;
+
+import fr.amu.iut.bomberman.model.common.GameLog;
+import fr.amu.iut.bomberman.model.entities.Player;
+import fr.amu.iut.bomberman.model.game.GameEngine;
+import fr.amu.iut.bomberman.model.map.GameMap;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Relecteur de replay.
+ * Reconstruit la carte à partir de la graine enregistrée puis rejoue le flux d'entrées
+ * tick par tick sur un GameEngine : le moteur étant déterministe, la partie relue
+ * est identique à la partie enregistrée. seek restaure la keyframe la plus proche
+ * puis simule jusqu'au tick demandé, sans repartir du tick 0.
+ */
+public class ReplayPlayer {
+
+    /** Replay relu */
+    private final Replay replay;
+
+    /** Moteur rejouant la partie */
+    private final GameEngine gameEngine;
+
+    /** Curseur sur les enregistrements */
+    private ByteBuffer cursor;
+
+    /** Tick de l'enregistrement précédent (base des écarts varint) */
+    private long recordTick;
+
+    /** Tick et code de la prochaine entrée à appliquer (code END en fin de flux) */
+    private long nextTick;
+    private int nextCode;
+
+    /**
+     * Prépare la relecture d'un replay depuis son début.
+     *
+     * @param replay Replay à rejouer
+     */
+    public ReplayPlayer(Replay replay) {
+        if (replay.getTickRate() != GameEngine.TICK_RATE) {
+            throw new IllegalArgumentException("Replay enregistré à " + replay.getTickRate() +
+                    " ticks/s, moteur à " + GameEngine.TICK_RATE);
+        }
+        this.replay = replay;
+        this.gameEngine = new GameEngine(new GameMap(replay.getWidth(), replay.getHeight(), replay.getSeed()));
+        rewind();
+    }
+
+    /**
+     * Revient au début de la partie.
+     */
+    private void rewind() {
+        gameEngine.setPowerUpsEnabled(replay.isPowerUpsEnabled());
+        gameEngine.initializeGame(replay.getPlayerCount(), replay.getSeed());
+        cursor = replay.records();
+        recordTick = 0;
+        readNext();
+    }
+
+    /**
+     * Restaure l'état d'une keyframe et place le curseur juste après.
+     *
+     * @param index Index de la keyframe
+     */
+    private void restore(int index) {
+        gameEngine.restoreState(replay.keyframeState(index));
+        cursor = replay.recordsAfter(index);
+        recordTick = replay.getKeyframeTick(index);
+        readNext();
+    }
+
+    /**
+     * Décode la prochaine entrée, en sautant les keyframes.
+     */
+    private void readNext() {
+        while (cursor.hasRemaining()) {
+            recordTick += Replay.readVarLong(cursor);
+            int code = cursor.get() & 0xFF;
+            if (code == Replay.KEYFRAME) {
+                int length = (int) Replay.readVarLong(cursor);
+                cursor.position(cursor.position() + length);
+                continue;
+            }
+            nextTick = recordTick;
+            nextCode = code;
+            return;
+        }
+        nextCode = Replay.END;
+    }
+
+    /**
+     * Applique les entrées du tick courant puis fait avancer le moteur d'un tick.
+     *
+     * @return true s'il reste des ticks à rejouer
+     */
+    public boolean step() {
+        if (isFinished()) return false;
+
+        long tick = gameEngine.getCurrentTick();
+        while (nextCode != Replay.END && nextTick <= tick) {
+            apply(nextCode);
+            readNext();
+        }
+        gameEngine.update(1.0 / GameEngine.TICK_RATE);
+        return !isFinished();
+    }
+
+    /**
+     * Se positionne sur un tick : restaure la dernière keyframe qui le précède si elle est
+     * plus proche que la position courante, puis simule les ticks restants.
+     *
+     * @param tick Tick visé (borné à la durée du replay)
+     */
+    public void seek(long tick) {
+        tick = Math.max(0, Math.min(tick, replay.getFinalTick()));
+        long current = gameEngine.getCurrentTick();
+
+        int keyframe = replay.findKeyframe(tick);
+        long keyframeTick = keyframe >= 0 ? replay.getKeyframeTick(keyframe) : 0;
+        if (tick < current || keyframeTick > current) {
+            if (keyframe >= 0) {
+                restore(keyframe);
+            } else {
+                rewind();
+            }
+        }
+        while (gameEngine.getCurrentTick() < tick && step()) {
+            // simulation jusqu'au tick visé
+        }
+    }
+
+    /**
+     * Rejoue la partie jusqu'au dernier tick enregistré, sans attente.
+     */
+    public void playToEnd() {
+        while (step()) {
+            // relecture au plus vite
+        }
+    }
+
+    /**
+     * Applique une entrée au moteur.
+     *
+     * @param code Code de l'entrée
+     */
+    private void apply(int code) {
+        int playerId = code >> 4;
+        int action = code & 0x0F;
+        if (action == Replay.BOMB) {
+            gameEngine.placeBomb(playerId);
+        } else if (action == Replay.ELIMINATED) {
+            gameEngine.eliminatePlayer(playerId);
+        } else {
+            gameEngine.movePlayer(playerId, action / 3 - 1, action % 3 - 1);
+        }
+    }
+
+    /**
+     * Indique si la relecture est terminée.
+     *
+     * @return true si le dernier tick est atteint ou si la partie est finie
+     */
+    public boolean isFinished() {
+        return gameEngine.getCurrentTick() >= replay.getFinalTick() || !gameEngine.isGameRunning();
+    }
+
+    /**
+     * Retourne le replay relu.
+     *
+     * @return Le replay
+     */
+    public Replay getReplay() { return replay; }
+
+    /**
+     * Retourne le moteur de la relecture, par exemple pour l'afficher.
+     *
+     * @return Le moteur de jeu
+     */
+    public GameEngine getGameEngine() { return gameEngine; }
+
+    /**
+     * Rejoue un replay et affiche le résultat, ou se positionne sur un tick.
+     * Usage : ReplayPlayer &lt;fichier.bmr&gt; [tick]
+     *    ou : ReplayPlayer &lt;répertoire_archive&gt; &lt;idPartie&gt; [tick]
+     *
+     * @param args Arguments de la ligne de commande
+     * @throws Exception Si le replay est illisible
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage : ReplayPlayer <fichier.bmr> [tick] | <répertoire_archive> <idPartie> [tick]");
+            return;
+        }
+        GameLog.setEnabled(false);
+
+        Path path = Path.of(args[0]);
+        Replay replay;
+        int next = 1;
+        if (Files.isDirectory(path)) {
+            try (ReplayArchive archive = new ReplayArchive(path)) {
+                long matchId = Long.parseLong(args[next++]);
+                replay = archive.find(matchId);
+                if (replay == null) {
+                    System.err.println("Partie " + matchId + " absente de l'archive (" + archive.size() + " parties)");
+                    return;
+                }
+            }
+        } else {
+            replay = Replay.read(path);
+        }
+
+        ReplayPlayer player = new ReplayPlayer(replay);
+        long start = System.nanoTime();
+        if (args.length > next) {
+            player.seek(Long.parseLong(args[next]));
+        } else {
+            player.playToEnd();
+        }
+        long elapsedUs = (System.nanoTime() - start) / 1000;
+
+        GameEngine engine = player.getGameEngine();
+        System.out.println("🎬 Replay: " + replay.getSize() + " octets, " + replay.getKeyframeCount() +
+                " keyframes, tick " + engine.getCurrentTick() + "/" + replay.getFinalTick() +
+                " atteint en " + elapsedUs + " µs");
+        for (Player p : engine.getPlayers()) {
+            System.out.println("   " + p.getName() + " en (" + p.getGridX() + "," + p.getGridY() + ")" +
+                    (p.isAlive() ? "" : " 💀"));
+        }
+        if (!engine.isGameRunning()) {
+            Player winner = engine.getGameState().getWinner();
+            System.out.println(winner != null ? "🏆 Gagnant: " + winner.getName() : "⚰️ Pas de gagnant");
+        }
+    }
+}
@@ -0,0 +1,306 @@
+package fr.amu.iut.bomberman.model.replay;
+
+import fr.amu.iut.bomberman.model.game.GameEngine;
+import fr.amu.iut.bomberman.model.map.GameMap;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Enregistreur de replay d'une partie.
+ * Se branche sur le GameEngine comme InputListener et encode chaque entrée appliquée
+ * dans un bloc mémoire, avec une keyframe (état complet) toutes les KEYFRAME_INTERVAL ticks.
+ * Les blocs pleins sont confiés à un thread d'écriture partagé, jamais écrits par le
+ * thread de logique : soit en flux vers un fichier, soit en un seul segment ajouté à une
+ * ReplayArchive en fin de partie (voir Replay pour le format).
+ */
+public class ReplayRecorder implements GameEngine.InputListener, AutoCloseable {
+
+    /** Intervalle entre deux keyframes (10 secondes de jeu) */
+    public static final int KEYFRAME_INTERVAL = 10 * GameEngine.TICK_RATE;
+
+    /** Taille d'un bloc d'écriture */
+    private static final int CHUNK_SIZE = 4096;
+
+    /** Taille maximale d'un entête d'enregistrement (varint tick + code + varint taille) */
+    private static final int MAX_RECORD_SIZE = 16;
+
+    /** Thread d'écriture partagé par tous les enregistreurs */
+    private static final ExecutorService WRITER = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "ReplayWriter");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Destination des blocs, utilisée uniquement par le thread d'écriture.
+     */
+    private interface Sink {
+        void write(ByteBuffer chunk) throws IOException;
+        void close() throws IOException;
+    }
+
+    /** Description de la destination pour les messages d'erreur */
+    private final String target;
+
+    /** Moteur enregistré */
+    private final GameEngine engine;
+
+    /** Destination des blocs, ouverte par le thread d'écriture */
+    private Sink sink;
+
+    /** Bloc en cours de remplissage */
+    private ByteBuffer chunk = ByteBuffer.allocate(CHUNK_SIZE);
+
+    /** Nombre d'octets des blocs déjà confiés au thread d'écriture */
+    private int flushedBytes;
+
+    /** Tick du dernier enregistrement encodé */
+    private long lastTick;
+
+    /** Table des keyframes : tick, offset et taille de chaque état */
+    private long[] keyframeTicks = new long[32];
+    private int[] keyframeOffsets = new int[32];
+    private int[] keyframeLengths = new int[32];
+    private int keyframeCount;
+
+    /** Dernière écriture soumise, complétée une fois la destination fermée */
+    private CompletableFuture<Void> completion;
+
+    /** Première erreur d'écriture rencontrée */
+    private volatile IOException failure;
+
+    /**
+     * Démarre l'enregistrement d'une partie dans un fichier.
+     *
+     * @param file Fichier de replay à créer
+     * @param engine Moteur de la partie, qui vient d'être initialisé
+     * @param seed Graine passée à initializeGame
+     * @param playerCount Nombre de joueurs
+     */
+    public ReplayRecorder(Path file, GameEngine engine, long seed, int playerCount) {
+        this(file.toString(), engine, seed, playerCount);
+        this.completion = CompletableFuture.runAsync(() -> {
+            try {
+                FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+                sink = new Sink() {
+                    @Override
+                    public void write(ByteBuffer chunk) throws IOException {
+                        while (chunk.hasRemaining()) {
+                            channel.write(chunk);
+                        }
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        channel.close();
+                    }
+                };
+            } catch (IOException e) {
+                failure = e;
+            }
+        }, WRITER);
+        engine.setInputListener(this);
+    }
+
+    /**
+     * Démarre l'enregistrement d'une partie dans une archive. Le replay est conservé en
+     * mémoire (quelques Ko) puis ajouté d'un bloc à l'archive à la fin de la partie.
+     *
+     * @param archive Archive de destination
+     * @param matchId Identifiant de la partie dans l'archive
+     * @param engine Moteur de la partie, qui vient d'être initialisé
+     * @param seed Graine passée à initializeGame
+     * @param playerCount Nombre de joueurs
+     */
+    public ReplayRecorder(ReplayArchive archive, long matchId, GameEngine engine, long seed, int playerCount) {
+        this("partie " + matchId, engine, seed, playerCount);
+        List<ByteBuffer> chunks = new ArrayList<>();
+        this.sink = new Sink() {
+            @Override
+            public void write(ByteBuffer chunk) {
+                chunks.add(chunk);
+            }
+
+            @Override
+            public void close() throws IOException {
+                archive.append(matchId, chunks.toArray(new ByteBuffer[0]));
+            }
+        };
+        this.completion = CompletableFuture.completedFuture(null);
+        engine.setInputListener(this);
+    }
+
+    private ReplayRecorder(String target, GameEngine engine, long seed, int playerCount) {
+        this.target = target;
+        this.engine = engine;
+
+        GameMap map = engine.getGameMap();
+        chunk.putInt(Replay.MAGIC);
+        chunk.put(Replay.VERSION);
+        chunk.putLong(seed);
+        chunk.putShort((short) map.getWidth());
+        chunk.putShort((short) map.getHeight());
+        chunk.put((byte) (playerCount | (engine.isPowerUpsEnabled() ? Replay.POWERUPS_FLAG : 0)));
+        chunk.putShort((short) GameEngine.TICK_RATE);
+    }
+
+    @Override
+    public synchronized void onPlayerMoved(long tick, int playerId, int dx, int dy) {
+        append(tick, Replay.moveCode(playerId, dx, dy));
+    }
+
+    @Override
+    public synchronized void onBombPlaced(long tick, int playerId) {
+        append(tick, Replay.actionCode(playerId, Replay.BOMB));
+    }
+
+    @Override
+    public synchronized void onPlayerEliminated(long tick, int playerId) {
+        append(tick, Replay.actionCode(playerId, Replay.ELIMINATED));
+    }
+
+    /**
+     * Capture une keyframe tous les KEYFRAME_INTERVAL ticks. Appelée par le moteur
+     * à la fin du tick, verrou du moteur détenu : l'état est cohérent avec le flux.
+     *
+     * @param tick Tick qui vient de s'achever
+     */
+    @Override
+    public synchronized void onTickCompleted(long tick) {
+        if (chunk == null || tick % KEYFRAME_INTERVAL != 0) return;
+
+        ByteBuffer state = engine.saveState();
+        append(tick, Replay.KEYFRAME);
+        Replay.writeVarLong(chunk, state.remaining());
+
+        if (keyframeCount == keyframeTicks.length) {
+            keyframeTicks = Arrays.copyOf(keyframeTicks, keyframeCount * 2);
+            keyframeOffsets = Arrays.copyOf(keyframeOffsets, keyframeCount * 2);
+            keyframeLengths = Arrays.copyOf(keyframeLengths, keyframeCount * 2);
+        }
+        keyframeTicks[keyframeCount] = tick;
+        keyframeOffsets[keyframeCount] = flushedBytes + chunk.position();
+        keyframeLengths[keyframeCount] = state.remaining();
+        keyframeCount++;
+        put(state);
+    }
+
+    /**
+     * Encode l'entête d'un enregistrement dans le bloc courant.
+     *
+     * @param tick Tick de l'enregistrement
+     * @param code Code de l'enregistrement
+     */
+    private void append(long tick, int code) {
+        if (chunk == null) return;
+        reserve(MAX_RECORD_SIZE);
+        Replay.writeVarLong(chunk, tick - lastTick);
+        chunk.put((byte) code);
+        lastTick = tick;
+    }
+
+    /**
+     * Copie des octets dans les blocs, en changeant de bloc autant que nécessaire.
+     *
+     * @param data Octets à copier
+     */
+    private void put(ByteBuffer data) {
+        while (data.hasRemaining()) {
+            reserve(1);
+            int n = Math.min(chunk.remaining(), data.remaining());
+            chunk.put(data.slice(data.position(), n));
+            data.position(data.position() + n);
+        }
+    }
+
+    /**
+     * Garantit de la place dans le bloc courant en confiant le bloc plein au thread d'écriture.
+     *
+     * @param bytes Nombre d'octets à réserver
+     */
+    private void reserve(int bytes) {
+        if (chunk.remaining() < bytes) {
+            submit(chunk);
+            chunk = ByteBuffer.allocate(CHUNK_SIZE);
+        }
+    }
+
+    /**
+     * Confie un bloc au thread d'écriture.
+     *
+     * @param data Bloc à écrire
+     */
+    private void submit(ByteBuffer data) {
+        flushedBytes += data.position();
+        data.flip();
+        completion = completion.thenRunAsync(() -> {
+            if (failure == null) {
+                try {
+                    sink.write(data);
+                } catch (IOException e) {
+                    failure = e;
+                }
+            }
+        }, WRITER);
+    }
+
+    /**
+     * Termine l'enregistrement au tick courant du moteur : écrit le marqueur de fin et la
+     * table des keyframes, puis vide le dernier bloc et ferme la destination en arrière-plan.
+     *
+     * @return Futur complété une fois le replay écrit, ou en erreur
+     */
+    public synchronized CompletableFuture<Void> finish() {
+        if (chunk != null) {
+            engine.setInputListener(null);
+            long finalTick = Math.max(lastTick, engine.getCurrentTick());
+            append(finalTick, Replay.END);
+
+            ByteBuffer table = ByteBuffer.allocate(16 + keyframeCount * 16);
+            int tableOffset = flushedBytes + chunk.position();
+            table.putInt(keyframeCount);
+            for (int i = 0; i < keyframeCount; i++) {
+                table.putLong(keyframeTicks[i]);
+                table.putInt(keyframeOffsets[i]);
+                table.putInt(keyframeLengths[i]);
+            }
+            table.putLong(finalTick);
+            table.putInt(tableOffset);
+            table.flip();
+            put(table);
+
+            submit(chunk);
+            chunk = null;
+            completion = completion.thenRunAsync(() -> {
+                try {
+                    if (sink != null && failure == null) sink.close();
+                } catch (IOException e) {
+                    failure = e;
+                }
+                if (failure != null) {
+                    throw new IllegalStateException("Écriture du replay impossible (" + target + ")", failure);
+                }
+            }, WRITER);
+        }
+        return completion;
+    }
+
+    /**
+     * Termine l'enregistrement sans attendre la fin de l'écriture.
+     */
+    @Override
+    public void close() {
+        finish();
+    }
+}
@@ -0,0 +1,149 @@
+package fr.amu.iut.bomberman.model.telemetry;
+
+import fr.amu.iut.bomberman.model.entities.PowerUpType;
+import fr.amu.iut.bomberman.model.game.GameEvent;
+import fr.amu.iut.bomberman.model.replay.Replay;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Lecture d'un fichier de télémétrie écrit par TelemetrySink.
+ * <p>
+ * Format (entiers en big-endian, varint = 7 bits par octet comme Replay) :
+ * <pre>
+ * entête : magic (int "BMTL"), version (octet), fréquence des ticks (short)
+ * blocs  : taille brute (int), taille compressée (int), colonnes compressées (Deflate)
+ * colonnes d'un bloc : échantillonnage (octet), nombre d'événements n (varint),
+ *   nombre de ticks m (varint), ticks des événements (n varints, écarts),
+ *   types (n octets, GameEvent.Type), joueurs (n octets, -1 si aucun),
+ *   x + 1 (n varints), y + 1 (n varints), power-ups (n octets, ordinal + 1, 0 si aucun),
+ *   numéros des ticks (m varints, écarts), durées des ticks en µs (m varints)
+ * </pre>
+ * Dans un bloc échantillonné, seul un déplacement et une durée de tick sur
+ * « échantillonnage » ont été conservés.
+ */
+public final class TelemetryReader {
+
+    /** Signature d'un fichier de télémétrie ("BMTL") */
+    public static final int MAGIC = 0x424D544C;
+
+    /** Version du format */
+    public static final byte VERSION = 1;
+
+    /**
+     * Visiteur des enregistrements d'un fichier, dans l'ordre de chaque bloc :
+     * ses événements, puis ses durées de ticks.
+     */
+    public interface Visitor {
+        /**
+         * Reçoit un événement.
+         *
+         * @param tick Tick de l'événement
+         * @param type Type de l'événement
+         * @param playerId Joueur concerné, -1 si aucun
+         * @param x Position X, -1 si aucune
+         * @param y Position Y, -1 si aucune
+         * @param powerUp Power-up ramassé, null sinon
+         * @param sampleRate Échantillonnage du bloc (1 si complet)
+         */
+        void onEvent(long tick, GameEvent.Type type, int playerId, int x, int y, PowerUpType powerUp, int sampleRate);
+
+        /**
+         * Reçoit la durée d'un tick.
+         *
+         * @param tick Numéro du tick
+         * @param micros Durée de l'update, en microsecondes
+         * @param sampleRate Échantillonnage du bloc (1 si complet)
+         */
+        void onTick(long tick, long micros, int sampleRate);
+    }
+
+    private TelemetryReader() {
+    }
+
+    /**
+     * Lit un fichier de télémétrie.
+     *
+     * @param file Fichier à lire
+     * @param visitor Visiteur des enregistrements
+     * @return Fréquence des ticks de la partie
+     * @throws IOException Si le fichier est illisible ou n'est pas une télémétrie
+     */
+    public static int read(Path file, Visitor visitor) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        if (buffer.remaining() < 7 || buffer.getInt() != MAGIC || buffer.get() != VERSION) {
+            throw new IOException("Fichier de télémétrie invalide: " + file);
+        }
+        int tickRate = buffer.getShort();
+        GameEvent.Type[] types = GameEvent.Type.values();
+
+        Inflater inflater = new Inflater();
+        try {
+            while (buffer.remaining() >= 8) {
+                int rawLength = buffer.getInt();
+                int length = buffer.getInt();
+                if (rawLength < 0 || length < 0 || length > buffer.remaining()) {
+                    throw new IOException("Bloc de télémétrie tronqué: " + file);
+                }
+                byte[] raw = new byte[rawLength];
+                inflater.reset();
+                inflater.setInput(buffer.array(), buffer.position(), length);
+                if (inflater.inflate(raw) != rawLength) {
+                    throw new IOException("Bloc de télémétrie corrompu: " + file);
+                }
+                buffer.position(buffer.position() + length);
+                readBlock(ByteBuffer.wrap(raw), types, visitor);
+            }
+        } catch (DataFormatException | RuntimeException e) {
+            throw new IOException("Bloc de télémétrie corrompu: " + file, e);
+        } finally {
+            inflater.end();
+        }
+        return tickRate;
+    }
+
+    /**
+     * Décode les colonnes d'un bloc.
+     */
+    private static void readBlock(ByteBuffer raw, GameEvent.Type[] types, Visitor visitor) {
+        int sampleRate = raw.get();
+        int events = (int) Replay.readVarLong(raw);
+        int ticks = (int) Replay.readVarLong(raw);
+
+        long[] eventTicks = new long[events];
+        long tick = 0;
+        for (int i = 0; i < events; i++) {
+            tick += Replay.readVarLong(raw);
+            eventTicks[i] = tick;
+        }
+        byte[] typeColumn = new byte[events];
+        byte[] players = new byte[events];
+        raw.get(typeColumn).get(players);
+        int[] xs = new int[events];
+        int[] ys = new int[events];
+        for (int i = 0; i < events; i++) xs[i] = (int) Replay.readVarLong(raw) - 1;
+        for (int i = 0; i < events; i++) ys[i] = (int) Replay.readVarLong(raw) - 1;
+        byte[] powerUps = new byte[events];
+        raw.get(powerUps);
+
+        for (int i = 0; i < events; i++) {
+            PowerUpType powerUp = powerUps[i] > 0 ? PowerUpType.fromOrdinal(powerUps[i] - 1) : null;
+            visitor.onEvent(eventTicks[i], types[typeColumn[i]], players[i], xs[i], ys[i], powerUp, sampleRate);
+        }
+
+        long[] tickNumbers = new long[ticks];
+        tick = 0;
+        for (int i = 0; i < ticks; i++) {
+            tick += Replay.readVarLong(raw);
+            tickNumbers[i] = tick;
+        }
+        for (int i = 0; i < ticks; i++) {
+            visitor.onTick(tickNumbers[i], Replay.readVarLong(raw), sampleRate);
+        }
+    }
+}
@@ -0,0 +1,355 @@
+package fr.amu.iut.bomberman.model.telemetry;
+
+import fr.amu.iut.bomberman.model.game.GameEngine;
+import fr.amu.iut.bomberman.model.game.GameEvent;
+import fr.amu.iut.bomberman.model.game.GameEventBus;
+import fr.amu.iut.bomberman.model.replay.Replay;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.Deflater;
+
+/**
+ * Télémétrie d'une partie vers un fichier local.
+ * S'abonne au GameEventBus du moteur : les événements (déplacements, bombes, morts, murs
+ * détruits, power-ups) et la durée de chaque tick sont rangés en colonnes dans un bloc
+ * mémoire, sur le thread du bus et jamais sur celui du tick. Les blocs pleins sont
+ * compressés et écrits par un thread d'écriture partagé (voir TelemetryReader pour le format).
+ * <p>
+ * Les blocs viennent d'une réserve fixe de BLOCKS blocs réutilisés. Si l'écriture prend
+ * du retard, le bloc suivant est échantillonné (un déplacement et une durée de tick sur
+ * SAMPLE_RATE conservés, les événements rares gardés) ; si aucun bloc n'est libre, le
+ * bloc plein est abandonné et compté (getDroppedEvents). Le thread du bus n'attend jamais
+ * le disque, et le tick n'attend jamais le thread du bus.
+ */
+public class TelemetrySink implements GameEventBus.Subscriber, AutoCloseable {
+
+    /** Nombre d'événements d'un bloc */
+    static final int BLOCK_EVENTS = 4096;
+
+    /** Nombre de ticks d'un bloc (8,5 secondes de jeu) */
+    static final int BLOCK_TICKS = 1024;
+
+    /** Blocs de la réserve : un en remplissage, les autres en attente d'écriture */
+    private static final int BLOCKS = 4;
+
+    /** Un déplacement et une durée de tick sur SAMPLE_RATE conservés en échantillonnage */
+    static final int SAMPLE_RATE = 8;
+
+    /** Thread d'écriture partagé par toutes les télémétries */
+    private static final ExecutorService WRITER = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "TelemetryWriter");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+
+    /**
+     * Bloc en colonnes : une colonne par champ d'événement, plus les durées des ticks.
+     */
+    static final class Block {
+        final long[] eventTicks = new long[BLOCK_EVENTS];
+        final byte[] types = new byte[BLOCK_EVENTS];
+        final byte[] players = new byte[BLOCK_EVENTS];
+        final short[] xs = new short[BLOCK_EVENTS];
+        final short[] ys = new short[BLOCK_EVENTS];
+        final byte[] powerUps = new byte[BLOCK_EVENTS];
+        int eventCount;
+
+        final long[] ticks = new long[BLOCK_TICKS];
+        final int[] tickMicros = new int[BLOCK_TICKS];
+        int tickCount;
+
+        /** 1, ou SAMPLE_RATE si le bloc est échantillonné */
+        int sampleRate = 1;
+
+        void clear(int sampleRate) {
+            eventCount = 0;
+            tickCount = 0;
+            this.sampleRate = sampleRate;
+        }
+    }
+
+    /** Fichier de destination, pour les messages d'erreur */
+    private final Path file;
+
+    /** Bus suivi */
+    private final GameEventBus bus;
+
+    /** Blocs libres, rendus par le thread d'écriture */
+    private final ArrayBlockingQueue<Block> free = new ArrayBlockingQueue<>(BLOCKS);
+
+    /** Bloc en cours de remplissage, null une fois la télémétrie terminée */
+    private Block block;
+
+    /**
+     * Compteurs des déplacements et des ticks vus, pour l'échantillonnage : un par flux,
+     * pour que l'un ne décale pas les échantillons de l'autre
+     */
+    private int moveCounter;
+    private int tickCounter;
+
+    /** Canal du fichier, ouvert par le thread d'écriture */
+    private FileChannel channel;
+
+    /** Compresseur et tampons, utilisés uniquement par le thread d'écriture */
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    private ByteBuffer raw = ByteBuffer.allocate(1 << 16);
+    private byte[] compressed = new byte[1 << 16];
+
+    /** Dernière écriture soumise, complétée une fois le fichier fermé */
+    private CompletableFuture<Void> completion;
+
+    /** Première erreur d'écriture rencontrée */
+    private volatile IOException failure;
+
+    /** Compteurs (écrits par le thread du bus) */
+    private volatile long recordedEvents;
+    private volatile long droppedEvents;
+    private volatile long sampledBlocks;
+
+    /**
+     * Démarre la télémétrie d'une partie : crée le fichier et s'abonne au bus.
+     *
+     * @param file Fichier de télémétrie à créer
+     * @param bus Bus d'événements du moteur de la partie
+     */
+    public TelemetrySink(Path file, GameEventBus bus) {
+        this.file = file;
+        this.bus = bus;
+        for (int i = 0; i < BLOCKS - 1; i++) {
+            free.add(new Block());
+        }
+        this.block = new Block();
+        this.completion = CompletableFuture.runAsync(() -> {
+            try {
+                channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+                ByteBuffer header = ByteBuffer.allocate(7);
+                header.putInt(TelemetryReader.MAGIC);
+                header.put(TelemetryReader.VERSION);
+                header.putShort((short) GameEngine.TICK_RATE);
+                header.flip();
+                write(header);
+            } catch (IOException e) {
+                failure = e;
+            }
+        }, WRITER);
+        bus.subscribe(this, GameEvent.Type.PLAYER_MOVED, GameEvent.Type.BOMB_PLACED,
+                GameEvent.Type.PLAYER_DIED, GameEvent.Type.BLOCK_DESTROYED,
+                GameEvent.Type.POWERUP_COLLECTED, GameEvent.Type.GAME_ENDED);
+    }
+
+    /**
+     * Range un événement dans le bloc courant (thread du bus).
+     *
+     * @param event Événement, réutilisé par le bus après l'appel
+     */
+    @Override
+    public synchronized void onEvent(GameEvent event) {
+        if (block == null) return;
+        if (event.getType() == GameEvent.Type.PLAYER_MOVED && skipSample(moveCounter++)) return;
+        if (block.eventCount == BLOCK_EVENTS) rotate();
+
+        int i = block.eventCount++;
+        block.eventTicks[i] = event.getTick();
+        block.types[i] = (byte) event.getType().ordinal();
+        block.players[i] = (byte) event.getPlayerId();
+        block.xs[i] = (short) event.getX();
+        block.ys[i] = (short) event.getY();
+        block.powerUps[i] = (byte) (event.getPowerUp() != null ? event.getPowerUp().ordinal() + 1 : 0);
+        recordedEvents++;
+    }
+
+    /**
+     * Range la durée d'un tick dans le bloc courant (thread du bus).
+     *
+     * @param tick Numéro du tick
+     * @param nanos Durée de l'update, en nanosecondes
+     */
+    @Override
+    public synchronized void onTickCompleted(long tick, long nanos) {
+        if (block == null || skipSample(tickCounter++)) return;
+        if (block.tickCount == BLOCK_TICKS) rotate();
+
+        int i = block.tickCount++;
+        block.ticks[i] = tick;
+        block.tickMicros[i] = (int) Math.min(Integer.MAX_VALUE, nanos / 1000);
+    }
+
+    /**
+     * Indique si un enregistrement fréquent est écarté par l'échantillonnage du bloc.
+     *
+     * @param count Rang de l'enregistrement dans son flux (déplacements ou ticks)
+     */
+    private boolean skipSample(int count) {
+        return block.sampleRate > 1 && count % block.sampleRate != 0;
+    }
+
+    /**
+     * Confie le bloc plein au thread d'écriture et reprend un bloc libre. Sans bloc libre,
+     * le bloc plein est abandonné et réutilisé, échantillonné.
+     */
+    private void rotate() {
+        Block next = free.poll();
+        if (next == null) {
+            droppedEvents += block.eventCount;
+            block.clear(SAMPLE_RATE);
+            sampledBlocks++;
+            return;
+        }
+        submit(block);
+        // Dernier bloc libre : l'écriture est en retard, le bloc suivant est échantillonné
+        int sampleRate = free.isEmpty() ? SAMPLE_RATE : 1;
+        if (sampleRate > 1) sampledBlocks++;
+        next.clear(sampleRate);
+        block = next;
+    }
+
+    /**
+     * Confie un bloc au thread d'écriture, qui le rend à la réserve une fois écrit.
+     *
+     * @param data Bloc à écrire
+     */
+    private void submit(Block data) {
+        completion = completion.thenRunAsync(() -> {
+            if (failure == null) {
+                try {
+                    write(encode(data));
+                } catch (IOException e) {
+                    failure = e;
+                }
+            }
+            free.offer(data);
+        }, WRITER);
+    }
+
+    /**
+     * Encode un bloc : colonnes brutes compressées, précédées de leurs tailles (thread
+     * d'écriture).
+     *
+     * @param data Bloc à encoder
+     * @return Octets à écrire
+     */
+    private ByteBuffer encode(Block data) {
+        int events = data.eventCount, ticks = data.tickCount;
+        int bound = 32 + events * 19 + ticks * 15;
+        if (raw.capacity() < bound) raw = ByteBuffer.allocate(Integer.highestOneBit(bound) << 1);
+        raw.clear();
+
+        raw.put((byte) data.sampleRate);
+        Replay.writeVarLong(raw, events);
+        Replay.writeVarLong(raw, ticks);
+        long previous = 0;
+        for (int i = 0; i < events; i++) {
+            Replay.writeVarLong(raw, data.eventTicks[i] - previous);
+            previous = data.eventTicks[i];
+        }
+        raw.put(data.types, 0, events);
+        raw.put(data.players, 0, events);
+        for (int i = 0; i < events; i++) Replay.writeVarLong(raw, data.xs[i] + 1);
+        for (int i = 0; i < events; i++) Replay.writeVarLong(raw, data.ys[i] + 1);
+        raw.put(data.powerUps, 0, events);
+        previous = 0;
+        for (int i = 0; i < ticks; i++) {
+            Replay.writeVarLong(raw, data.ticks[i] - previous);
+            previous = data.ticks[i];
+        }
+        for (int i = 0; i < ticks; i++) Replay.writeVarLong(raw, data.tickMicros[i]);
+
+        int rawLength = raw.position();
+        deflater.reset();
+        deflater.setInput(raw.array(), 0, rawLength);
+        deflater.finish();
+        int length = 0;
+        while (!deflater.finished()) {
+            if (length == compressed.length) compressed = Arrays.copyOf(compressed, length * 2);
+            length += deflater.deflate(compressed, length, compressed.length - length);
+        }
+
+        ByteBuffer out = ByteBuffer.allocate(8 + length);
+        out.putInt(rawLength);
+        out.putInt(length);
+        out.put(compressed, 0, length);
+        out.flip();
+        return out;
+    }
+
+    /**
+     * Écrit des octets dans le fichier (thread d'écriture).
+     */
+    private void write(ByteBuffer data) throws IOException {
+        while (data.hasRemaining()) {
+            channel.write(data);
+        }
+    }
+
+    /**
+     * Termine la télémétrie : se désabonne du bus, écrit le dernier bloc puis ferme le
+     * fichier en arrière-plan.
+     *
+     * @return Futur complété une fois le fichier écrit, ou en erreur
+     */
+    public synchronized CompletableFuture<Void> finish() {
+        if (block != null) {
+            bus.unsubscribe(this);
+            if (block.eventCount > 0 || block.tickCount > 0) submit(block);
+            block = null;
+            completion = completion.thenRunAsync(() -> {
+                deflater.end();
+                try {
+                    if (channel != null) channel.close();
+                } catch (IOException e) {
+                    if (failure == null) failure = e;
+                }
+                if (failure != null) {
+                    throw new IllegalStateException("Écriture de la télémétrie impossible (" + file + ")", failure);
+                }
+            }, WRITER);
+        }
+        return completion;
+    }
+
+    /**
+     * Retourne le nombre d'événements rangés dans les blocs.
+     *
+     * @return Événements enregistrés (y compris ceux de blocs abandonnés ensuite)
+     */
+    public long getRecordedEvents() {
+        return recordedEvents;
+    }
+
+    /**
+     * Retourne le nombre d'événements perdus avec les blocs abandonnés.
+     *
+     * @return Événements abandonnés
+     */
+    public long getDroppedEvents() {
+        return droppedEvents;
+    }
+
+    /**
+     * Retourne le nombre de blocs échantillonnés à cause du retard de l'écriture.
+     *
+     * @return Blocs échantillonnés
+     */
+    public long getSampledBlocks() {
+        return sampledBlocks;
+    }
+
+    /**
+     * Termine la télémétrie sans attendre la fin de l'écriture.
+     */
+    @Override
+    public void close() {
+        finish();
+    }
+}
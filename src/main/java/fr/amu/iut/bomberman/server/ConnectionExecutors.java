@@ -0,0 +1,74 @@
+package fr.amu.iut.bomberman.server;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fabrique des exécuteurs "un thread par connexion" du serveur.
+ * Utilise les threads virtuels (Java 21+) lorsqu'ils sont disponibles, ce qui permet
+ * de garder un code bloquant simple pour des dizaines de milliers de connexions inactives.
+ * Sur les JVM plus anciennes, se replie sur des threads plateforme à petite pile.
+ */
+public final class ConnectionExecutors {
+
+    /** Taille de pile des threads plateforme de repli (les sessions lobby sont peu profondes) */
+    private static final long FALLBACK_STACK_SIZE = 256 * 1024;
+
+    /**
+     * Constructeur privé : classe utilitaire non instanciable.
+     */
+    private ConnectionExecutors() {
+    }
+
+    /**
+     * Crée un exécuteur lançant chaque tâche sur son propre thread.
+     *
+     * @param namePrefix Préfixe du nom des threads (utilisé uniquement en mode repli)
+     * @return Un exécuteur un-thread-par-tâche
+     */
+    public static ExecutorService newPerConnectionExecutor(String namePrefix) {
+        ExecutorService virtual = tryVirtualThreadExecutor();
+        if (virtual != null) {
+            return virtual;
+        }
+
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory factory = r -> {
+            Thread t = new Thread(null, r, namePrefix + "-" + counter.incrementAndGet(), FALLBACK_STACK_SIZE);
+            t.setDaemon(true);
+            return t;
+        };
+        return Executors.newCachedThreadPool(factory);
+    }
+
+    /**
+     * Indique si la JVM courante fournit des threads virtuels.
+     *
+     * @return true si les threads virtuels sont utilisés
+     */
+    public static boolean isVirtualThreadsAvailable() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Crée par réflexion un exécuteur à threads virtuels, le projet compilant en Java 17.
+     *
+     * @return L'exécuteur, ou null si la JVM ne les supporte pas
+     */
+    private static ExecutorService tryVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
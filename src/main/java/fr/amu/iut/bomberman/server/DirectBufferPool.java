@@ -0,0 +1,94 @@
+package fr.amu.iut.bomberman.server;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Pool de ByteBuffer directs réutilisables, rangés par classes de taille (puissances de deux).
+ * Évite d'allouer un buffer natif à chaque frame diffusée aux spectateurs.
+ */
+public class DirectBufferPool {
+
+    /** Plus petite classe de taille (4 Ko) */
+    private static final int MIN_SHIFT = 12;
+
+    /** Plus grande classe de taille poolée (16 Mo) */
+    private static final int MAX_SHIFT = 24;
+
+    /** Buffers libres par classe de taille */
+    private final List<Queue<ByteBuffer>> free;
+
+    /** Nombre de buffers libres par classe de taille */
+    private final AtomicIntegerArray freeCounts;
+
+    /** Nombre maximum de buffers conservés par classe */
+    private final int maxPerClass;
+
+    /**
+     * Constructeur du pool.
+     *
+     * @param maxPerClass Nombre maximum de buffers libres conservés par classe de taille
+     */
+    public DirectBufferPool(int maxPerClass) {
+        this.maxPerClass = maxPerClass;
+        int classes = MAX_SHIFT - MIN_SHIFT + 1;
+        this.free = new ArrayList<>(classes);
+        for (int i = 0; i < classes; i++) {
+            free.add(new ConcurrentLinkedQueue<>());
+        }
+        this.freeCounts = new AtomicIntegerArray(classes);
+    }
+
+    /**
+     * Fournit un buffer direct vide d'au moins la capacité demandée.
+     *
+     * @param minCapacity Capacité minimale en octets
+     * @return Un buffer prêt à l'écriture (position 0, limite = capacité)
+     */
+    public ByteBuffer acquire(int minCapacity) {
+        int sizeClass = sizeClass(minCapacity);
+        if (sizeClass < 0) {
+            return ByteBuffer.allocateDirect(minCapacity);
+        }
+        ByteBuffer buffer = free.get(sizeClass).poll();
+        if (buffer != null) {
+            freeCounts.decrementAndGet(sizeClass);
+            buffer.clear();
+            return buffer;
+        }
+        return ByteBuffer.allocateDirect(1 << (sizeClass + MIN_SHIFT));
+    }
+
+    /**
+     * Rend un buffer au pool. Les buffers hors classe ou en surnombre sont abandonnés au GC.
+     *
+     * @param buffer Buffer à recycler
+     */
+    public void release(ByteBuffer buffer) {
+        int capacity = buffer.capacity();
+        if (Integer.bitCount(capacity) != 1) return;
+        int sizeClass = Integer.numberOfTrailingZeros(capacity) - MIN_SHIFT;
+        if (sizeClass < 0 || sizeClass >= free.size()) return;
+
+        if (freeCounts.incrementAndGet(sizeClass) <= maxPerClass) {
+            free.get(sizeClass).offer(buffer);
+        } else {
+            freeCounts.decrementAndGet(sizeClass);
+        }
+    }
+
+    /**
+     * Calcule la classe de taille d'une capacité.
+     *
+     * @param capacity Capacité demandée
+     * @return Index de classe, ou -1 si la capacité dépasse la plus grande classe
+     */
+    private static int sizeClass(int capacity) {
+        int shift = Math.max(MIN_SHIFT, 32 - Integer.numberOfLeadingZeros(Math.max(1, capacity) - 1));
+        return shift > MAX_SHIFT ? -1 : shift - MIN_SHIFT;
+    }
+}
@@ -0,0 +1,141 @@
+package fr.amu.iut.bomberman.server;
+
+import fr.amu.iut.bomberman.model.entities.Bomb;
+import fr.amu.iut.bomberman.model.entities.Explosion;
+import fr.amu.iut.bomberman.model.entities.Player;
+import fr.amu.iut.bomberman.model.game.GameEngine;
+import fr.amu.iut.bomberman.model.map.GameMap;
+import fr.amu.iut.bomberman.model.map.Tile;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Encodeur binaire des snapshots de partie diffusés aux spectateurs.
+ * Une keyframe contient toutes les tuiles ; une frame delta ne contient que les tuiles
+ * modifiées depuis la frame précédente. Les entités (joueurs, bombes, explosions)
+ * sont toujours envoyées en entier car peu nombreuses.
+ * <pre>
+ * int   taille (octets suivants)
+ * byte  type (1 = keyframe, 2 = delta)
+ * int   tick
+ * short largeur, short hauteur
+ * keyframe : largeur*hauteur octets (ordinal du TileType)
+ * delta    : int n, puis n fois (int index, byte type)
+ * byte  n joueurs, puis (byte id, short x, short y, byte vivant)
+ * short n bombes, puis (short x, short y, byte progression 0-100)
+ * short n explosions, puis (short x, short y)
+ * </pre>
+ * Non thread-safe : un encodeur par partie, utilisé par le thread de ticks.
+ */
+public class FrameEncoder {
+
+    /** Type de frame complète */
+    public static final byte KEYFRAME = 1;
+
+    /** Type de frame différentielle */
+    public static final byte DELTA = 2;
+
+    /** Types de tuiles de la dernière frame encodée */
+    private byte[] lastTiles;
+
+    /**
+     * Encode l'état courant d'une partie dans un buffer du pool.
+     *
+     * @param engine Moteur de la partie
+     * @param tick Numéro du tick courant
+     * @param keyframe true pour forcer une frame complète
+     * @param pool Pool de buffers directs
+     * @return La frame encodée, dont l'appelant détient une référence
+     */
+    public SharedFrame encode(GameEngine engine, long tick, boolean keyframe, DirectBufferPool pool) {
+        GameMap map = engine.getGameMap();
+        int width = map.getWidth();
+        int height = map.getHeight();
+        int cells = width * height;
+
+        if (lastTiles == null || lastTiles.length != cells) {
+            lastTiles = new byte[cells];
+            keyframe = true;
+        }
+
+        List<Player> players = engine.getPlayers();
+        List<Bomb> bombs = engine.getBombs();
+        List<Explosion> explosions = engine.getExplosions();
+
+        int capacity = 32 + (keyframe ? cells : 4 + 5 * cells)
+                + players.size() * 6 + bombs.size() * 5 + explosions.size() * 4;
+        ByteBuffer buffer = pool.acquire(capacity);
+
+        buffer.putInt(0); // taille, complétée à la fin
+        buffer.put(keyframe ? KEYFRAME : DELTA);
+        buffer.putInt((int) tick);
+        buffer.putShort((short) width);
+        buffer.putShort((short) height);
+
+        if (keyframe) {
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    byte type = tileType(map, x, y);
+                    lastTiles[y * width + x] = type;
+                    buffer.put(type);
+                }
+            }
+        } else {
+            int countPosition = buffer.position();
+            buffer.putInt(0);
+            int changed = 0;
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    int index = y * width + x;
+                    byte type = tileType(map, x, y);
+                    if (lastTiles[index] != type) {
+                        lastTiles[index] = type;
+                        buffer.putInt(index);
+                        buffer.put(type);
+                        changed++;
+                    }
+                }
+            }
+            buffer.putInt(countPosition, changed);
+        }
+
+        buffer.put((byte) players.size());
+        for (Player player : players) {
+            buffer.put((byte) player.getId());
+            buffer.putShort((short) player.getGridX());
+            buffer.putShort((short) player.getGridY());
+            buffer.put((byte) (player.isAlive() ? 1 : 0));
+        }
+
+        buffer.putShort((short) bombs.size());
+        for (Bomb bomb : bombs) {
+            buffer.putShort((short) bomb.getX());
+            buffer.putShort((short) bomb.getY());
+            buffer.put((byte) Math.round(bomb.getTimeProgress(engine.getGameTime()) * 100));
+        }
+
+        buffer.putShort((short) explosions.size());
+        for (Explosion explosion : explosions) {
+            buffer.putShort((short) explosion.getX());
+            buffer.putShort((short) explosion.getY());
+        }
+
+        buffer.putInt(0, buffer.position() - 4);
+        buffer.flip();
+        return new SharedFrame(buffer, pool, keyframe);
+    }
+
+    /**
+     * Retourne l'ordinal du type de la tuile à une position.
+     *
+     * @param map Carte de jeu
+     * @param x Coordonnée X
+     * @param y Coordonnée Y
+     * @return Ordinal du TileType (FLOOR si tuile absente)
+     */
+    private static byte tileType(GameMap map, int x, int y) {
+        Tile.TileType type = map.getTileType(x, y);
+        return (byte) (type != null ? type.ordinal() : Tile.TileType.FLOOR.ordinal());
+    }
+}
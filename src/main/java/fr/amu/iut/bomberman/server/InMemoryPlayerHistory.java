@@ -0,0 +1,93 @@
+package fr.amu.iut.bomberman.server;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Historique des joueurs conservé en mémoire.
+ * Met à jour un classement Elo multi-joueurs à chaque fin de partie :
+ * le gagnant est considéré vainqueur de chaque duel, les autres font match nul entre eux.
+ */
+public class InMemoryPlayerHistory implements PlayerHistory {
+
+    /** Facteur K du classement Elo */
+    private static final double K_FACTOR = 32.0;
+
+    /** Statistiques par nom de joueur */
+    private final Map<String, PlayerRecord> records = new ConcurrentHashMap<>();
+
+    /**
+     * Statistiques agrégées d'un joueur.
+     */
+    public static class PlayerRecord {
+        /** Nombre de parties jouées */
+        private int gamesPlayed;
+
+        /** Nombre de victoires */
+        private int wins;
+
+        /** Classement Elo courant */
+        private double rating = DEFAULT_RATING;
+
+        public synchronized int getGamesPlayed() { return gamesPlayed; }
+        public synchronized int getWins() { return wins; }
+        public synchronized double getRating() { return rating; }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double getRating(String playerName) {
+        PlayerRecord record = records.get(playerName);
+        return record != null ? record.getRating() : DEFAULT_RATING;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Les deltas sont calculés sur les classements d'avant-match puis appliqués ensemble.
+     */
+    @Override
+    public void recordMatch(List<String> playerNames, String winnerName) {
+        int n = playerNames.size();
+        if (n < 2) return;
+
+        double[] before = new double[n];
+        for (int i = 0; i < n; i++) {
+            before[i] = getRating(playerNames.get(i));
+        }
+
+        double[] delta = new double[n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                if (i == j) continue;
+                double expected = 1.0 / (1.0 + Math.pow(10, (before[j] - before[i]) / 400.0));
+                double actual;
+                if (playerNames.get(i).equals(winnerName)) actual = 1.0;
+                else if (playerNames.get(j).equals(winnerName)) actual = 0.0;
+                else actual = 0.5;
+                delta[i] += K_FACTOR * (actual - expected) / (n - 1);
+            }
+        }
+
+        for (int i = 0; i < n; i++) {
+            PlayerRecord record = records.computeIfAbsent(playerNames.get(i), k -> new PlayerRecord());
+            synchronized (record) {
+                record.gamesPlayed++;
+                if (playerNames.get(i).equals(winnerName)) record.wins++;
+                record.rating += delta[i];
+            }
+        }
+    }
+
+    /**
+     * Retourne les statistiques d'un joueur.
+     *
+     * @param playerName Nom du joueur
+     * @return Les statistiques, ou null si le joueur est inconnu
+     */
+    public PlayerRecord getRecord(String playerName) {
+        return records.get(playerName);
+    }
+}
@@ -0,0 +1,174 @@
+package fr.amu.iut.bomberman.server;
+
+import fr.amu.iut.bomberman.model.common.GameLog;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Générateur de charge local pour le lobby.
+ * Ouvre un grand nombre de connexions clientes : la plupart restent inactives dans le lobby,
+ * une fraction rejoint la file et joue des coups aléatoires. Sans hôte fourni,
+ * un LobbyServer est démarré dans la même JVM.
+ * <p>
+ * Usage : LobbyLoadGenerator [clients] [durée_s] [fraction_active] [hôte port]
+ * <p>
+ * Pour plusieurs milliers de connexions, augmenter la limite de descripteurs (ulimit -n).
+ */
+public class LobbyLoadGenerator {
+
+    /** Nombre de clients actuellement connectés */
+    private static final AtomicInteger connected = new AtomicInteger();
+
+    /** Nombre de clients actuellement en partie */
+    private static final AtomicInteger inMatch = new AtomicInteger();
+
+    /** Nombre de parties vues se terminer (une par client participant) */
+    private static final LongAdder matchesEnded = new LongAdder();
+
+    /** Nombre d'échecs de connexion */
+    private static final LongAdder failures = new LongAdder();
+
+    /** Indique si la charge doit continuer */
+    private static volatile boolean running = true;
+
+    /**
+     * Point d'entrée du générateur de charge.
+     *
+     * @param args Arguments de la ligne de commande
+     * @throws Exception En cas d'erreur de démarrage
+     */
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int durationSeconds = args.length > 1 ? Integer.parseInt(args[1]) : 30;
+        double activeRatio = args.length > 2 ? Double.parseDouble(args[2]) : 0.05;
+
+        GameLog.setEnabled(false);
+
+        LobbyServer embedded = null;
+        String host;
+        int port;
+        if (args.length > 4) {
+            host = args[3];
+            port = Integer.parseInt(args[4]);
+        } else {
+            embedded = new LobbyServer(0, 2, new InMemoryPlayerHistory());
+            embedded.start();
+            host = "127.0.0.1";
+            port = embedded.getPort();
+        }
+
+        System.out.println("🚀 " + clients + " clients vers " + host + ":" + port +
+                " pendant " + durationSeconds + "s (" + Math.round(activeRatio * 100) + "% actifs)");
+
+        ExecutorService executor = ConnectionExecutors.newPerConnectionExecutor("LoadClient");
+        for (int i = 0; i < clients; i++) {
+            boolean active = i < clients * activeRatio;
+            String name = "bot" + i;
+            executor.execute(() -> runClient(host, port, name, active));
+        }
+
+        long end = System.currentTimeMillis() + durationSeconds * 1000L;
+        while (System.currentTimeMillis() < end) {
+            Thread.sleep(1000);
+            printStats(embedded);
+        }
+
+        running = false;
+        executor.shutdownNow();
+        if (embedded != null) {
+            embedded.close();
+        }
+        System.out.println("🏁 Charge terminée");
+        System.exit(0);
+    }
+
+    /**
+     * Affiche l'état de la charge et de la JVM.
+     *
+     * @param server Serveur embarqué, null si distant
+     */
+    private static void printStats(LobbyServer server) {
+        Runtime rt = Runtime.getRuntime();
+        long usedMb = (rt.totalMemory() - rt.freeMemory()) / (1024 * 1024);
+        StringBuilder sb = new StringBuilder();
+        sb.append("📊 Connectés: ").append(connected.get())
+                .append(" | En partie: ").append(inMatch.get())
+                .append(" | Fins de partie: ").append(matchesEnded.sum())
+                .append(" | Échecs: ").append(failures.sum())
+                .append(" | Threads JVM: ").append(Thread.activeCount())
+                .append(" | Heap: ").append(usedMb).append(" Mo");
+        if (server != null) {
+            sb.append(" | Parties serveur: ").append(server.getTickScheduler().getActiveMatchCount())
+                    .append(" | File: ").append(server.getMatchmaker().getWaitingCount())
+                    .append(" | Tick p99: ")
+                    .append(server.getTickScheduler().getMatchHost().getWorstPercentileNanos(99) / 1000).append("µs");
+        }
+        System.out.println(sb);
+    }
+
+    /**
+     * Simule un client : identification, puis attente inactive ou parties en boucle.
+     *
+     * @param host Hôte du lobby
+     * @param port Port du lobby
+     * @param name Nom du joueur simulé
+     * @param active true si le client joue, false s'il reste inactif dans le lobby
+     */
+    private static void runClient(String host, int port, String name, boolean active) {
+        boolean counted = false;
+        try (Socket socket = new Socket(host, port);
+             BufferedReader in = new BufferedReader(
+                     new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             PrintWriter out = new PrintWriter(
+                     new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8), true)) {
+
+            connected.incrementAndGet();
+            counted = true;
+            socket.setSoTimeout(active ? 150 : 1000);
+            out.println("HELLO " + name);
+            if (active) out.println("QUEUE");
+
+            boolean playing = false;
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            while (running) {
+                String line;
+                try {
+                    line = in.readLine();
+                } catch (SocketTimeoutException e) {
+                    if (playing) {
+                        if (random.nextInt(8) == 0) out.println("BOMB");
+                        else out.println("MOVE " + (random.nextInt(3) - 1) + " " + (random.nextInt(3) - 1));
+                    }
+                    continue;
+                }
+                if (line == null) break;
+
+                if (line.startsWith("MATCH")) {
+                    playing = true;
+                    inMatch.incrementAndGet();
+                } else if (line.startsWith("END")) {
+                    playing = false;
+                    inMatch.decrementAndGet();
+                    matchesEnded.increment();
+                    out.println("QUEUE");
+                }
+            }
+            if (playing) inMatch.decrementAndGet();
+        } catch (IOException e) {
+            failures.increment();
+        } finally {
+            if (counted) connected.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package fr.amu.iut.bomberman.server;
+
+import fr.amu.iut.bomberman.model.entities.Player;
+import fr.amu.iut.bomberman.model.game.GameEngine;
+import fr.amu.iut.bomberman.model.map.GameMap;
+import fr.amu.iut.bomberman.model.replay.ReplayArchive;
+import fr.amu.iut.bomberman.model.replay.ReplayRecorder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Partie hébergée par le serveur, créée par le matchmaking.
+ * Relie les sessions des joueurs à une instance de GameEngine sans interface graphique,
+ * avancée par le TickScheduler partagé.
+ */
+public class LobbyMatch {
+
+    /** Largeur de la carte des parties en ligne */
+    public static final int MAP_WIDTH = 15;
+
+    /** Hauteur de la carte des parties en ligne */
+    public static final int MAP_HEIGHT = 13;
+
+    /** Identifiant unique de la partie */
+    private final long id;
+
+    /** Sessions des participants, l'index correspond à l'identifiant du joueur */
+    private final List<LobbySession> sessions;
+
+    /** Moteur de jeu de la partie */
+    private final GameEngine gameEngine;
+
+    /** Historique à mettre à jour en fin de partie */
+    private final PlayerHistory history;
+
+    /** Indique si la partie est terminée (fin normale ou abandon) */
+    private final AtomicBoolean finished = new AtomicBoolean(false);
+
+    /** Canal de diffusion aux spectateurs, créé à l'arrivée du premier spectateur */
+    private volatile SpectatorChannel spectatorChannel;
+
+    /** Nombre de ticks écoulés depuis le début de la partie */
+    private long tickCount;
+
+    /** Enregistreur du replay, null si l'archivage est désactivé */
+    private final ReplayRecorder replayRecorder;
+
+    /**
+     * Constructeur d'une partie en ligne.
+     *
+     * @param id Identifiant unique de la partie
+     * @param sessions Sessions des participants (2 à 4)
+     * @param history Historique des joueurs à mettre à jour
+     */
+    public LobbyMatch(long id, List<LobbySession> sessions, PlayerHistory history) {
+        this(id, sessions, history, null);
+    }
+
+    /**
+     * Constructeur d'une partie en ligne enregistrée dans une archive de replays.
+     *
+     * @param id Identifiant unique de la partie
+     * @param sessions Sessions des participants (2 à 4)
+     * @param history Historique des joueurs à mettre à jour
+     * @param replayArchive Archive des replays, null pour ne pas enregistrer
+     */
+    public LobbyMatch(long id, List<LobbySession> sessions, PlayerHistory history, ReplayArchive replayArchive) {
+        this(id, sessions, history, replayArchive, null);
+    }
+
+    /**
+     * Constructeur d'une partie en ligne sur une carte déjà prête, prise par exemple
+     * dans une réserve de cartes pré-générées (MapPool.tryTakeMap) : le démarrage ne génère rien.
+     *
+     * @param id Identifiant unique de la partie
+     * @param sessions Sessions des participants (2 à 4)
+     * @param history Historique des joueurs à mettre à jour
+     * @param replayArchive Archive des replays, null pour ne pas enregistrer
+     * @param gameMap Carte de la partie, null pour la générer à la création
+     */
+    public LobbyMatch(long id, List<LobbySession> sessions, PlayerHistory history, ReplayArchive replayArchive,
+                      GameMap gameMap) {
+        this.id = id;
+        this.sessions = new ArrayList<>(sessions);
+        this.history = history;
+
+        GameMap map = gameMap != null ? gameMap : new GameMap(MAP_WIDTH, MAP_HEIGHT);
+        long seed = map.getSeed();
+        this.gameEngine = new GameEngine(map);
+        this.gameEngine.startGame(sessions.size());
+        this.replayRecorder = replayArchive != null
+                ? new ReplayRecorder(replayArchive, id, gameEngine, seed, sessions.size())
+                : null;
+    }
+
+    /**
+     * Démarre la partie : notifie chaque session de son emplacement.
+     */
+    public void start() {
+        for (int i = 0; i < sessions.size(); i++) {
+            sessions.get(i).joinMatch(this, i);
+        }
+    }
+
+    /**
+     * Fait avancer la partie d'un tick.
+     *
+     * @param deltaTime Temps écoulé en secondes
+     * @return true si la partie doit rester planifiée
+     */
+    public boolean tick(double deltaTime) {
+        if (finished.get()) return false;
+
+        gameEngine.update(deltaTime);
+        tickCount++;
+
+        SpectatorChannel spectators = spectatorChannel;
+        if (spectators != null) {
+            spectators.onTick(gameEngine, tickCount);
+        }
+
+        if (!gameEngine.isGameRunning()) {
+            finish(gameEngine.getGameState().getWinner());
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Déplace le joueur associé à une session.
+     *
+     * @param playerId Identifiant du joueur
+     * @param dx Déplacement en X
+     * @param dy Déplacement en Y
+     */
+    public void movePlayer(int playerId, int dx, int dy) {
+        if (!finished.get()) {
+            gameEngine.movePlayer(playerId, dx, dy);
+        }
+    }
+
+    /**
+     * Fait poser une bombe au joueur associé à une session.
+     *
+     * @param playerId Identifiant du joueur
+     */
+    public void placeBomb(int playerId) {
+        if (!finished.get()) {
+            gameEngine.placeBomb(playerId);
+        }
+    }
+
+    /**
+     * Signale le départ d'un participant : son joueur est éliminé.
+     *
+     * @param playerId Identifiant du joueur parti
+     */
+    public void leave(int playerId) {
+        gameEngine.eliminatePlayer(playerId);
+    }
+
+    /**
+     * Interrompt la partie suite à une erreur, sans mettre à jour l'historique.
+     */
+    public void abort() {
+        if (finished.compareAndSet(false, true)) {
+            for (LobbySession session : sessions) {
+                session.matchEnded(this, -1);
+            }
+            closeSpectators();
+            closeReplay();
+        }
+    }
+
+    /**
+     * Termine la partie, met à jour l'historique et renvoie les joueurs au lobby.
+     *
+     * @param winner Joueur gagnant, null en cas de match nul
+     */
+    private void finish(Player winner) {
+        if (!finished.compareAndSet(false, true)) return;
+
+        int winnerId = winner != null ? winner.getId() : -1;
+        List<String> names = new ArrayList<>();
+        for (LobbySession session : sessions) {
+            names.add(session.getPlayerName());
+        }
+        history.recordMatch(names, winnerId >= 0 ? names.get(winnerId) : null);
+
+        for (LobbySession session : sessions) {
+            session.matchEnded(this, winnerId);
+        }
+        closeSpectators();
+        closeReplay();
+        // Plus aucun tick : les buffers de la carte peuvent être regénérés
+        gameEngine.getGameMap().recycle();
+    }
+
+    /**
+     * Retourne le canal de diffusion de la partie, en le créant au premier spectateur.
+     *
+     * @param server Serveur de spectateurs qui assure les écritures
+     * @return Le canal de diffusion
+     */
+    public synchronized SpectatorChannel getOrCreateSpectatorChannel(SpectatorServer server) {
+        if (spectatorChannel == null) {
+            spectatorChannel = new SpectatorChannel(server);
+            if (finished.get()) spectatorChannel.close();
+        }
+        return spectatorChannel;
+    }
+
+    /**
+     * Termine la diffusion aux spectateurs.
+     */
+    private synchronized void closeSpectators() {
+        if (spectatorChannel != null) {
+            spectatorChannel.close();
+        }
+    }
+
+    /**
+     * Termine l'enregistrement du replay ; l'écriture se termine en arrière-plan.
+     */
+    private void closeReplay() {
+        if (replayRecorder != null) {
+            replayRecorder.finish().exceptionally(e -> {
+                System.err.println("Replay non enregistré: " + e.getMessage());
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Retourne l'identifiant de la partie.
+     *
+     * @return Identifiant unique
+     */
+    public long getId() { return id; }
+
+    /**
+     * Retourne le moteur de jeu de la partie.
+     *
+     * @return Le moteur de jeu
+     */
+    public GameEngine getGameEngine() { return gameEngine; }
+}
@@ -0,0 +1,202 @@
+package fr.amu.iut.bomberman.server;
+
+import fr.amu.iut.bomberman.model.common.GameLog;
+import fr.amu.iut.bomberman.model.map.ClassicMapGenerator;
+import fr.amu.iut.bomberman.model.map.MapPool;
+import fr.amu.iut.bomberman.model.map.MapValidator;
+import fr.amu.iut.bomberman.model.replay.ReplayArchive;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Serveur de lobby et de matchmaking du Bomberman.
+ * Accepte les connexions TCP et traite chaque client sur son propre thread
+ * (virtuel en Java 21+), puis confie les parties formées au TickScheduler partagé.
+ */
+public class LobbyServer implements AutoCloseable {
+
+    /** Port d'écoute par défaut */
+    public static final int DEFAULT_PORT = 7777;
+
+    /** Période de la passe de matchmaking en millisecondes */
+    private static final long MATCHMAKING_PERIOD_MS = 200;
+
+    /** Taille de la file d'attente des connexions entrantes */
+    private static final int ACCEPT_BACKLOG = 4096;
+
+    /** Nombre de cartes pré-générées prêtes pour les prochaines parties */
+    private static final int MAP_POOL_CAPACITY = 64;
+
+    /** Socket d'écoute */
+    private final ServerSocket serverSocket;
+
+    /** Exécuteur un-thread-par-connexion */
+    private final ExecutorService connectionExecutor;
+
+    /** Planificateur de ticks partagé par toutes les parties */
+    private final TickScheduler tickScheduler;
+
+    /** Matchmaking par niveau */
+    private final Matchmaker matchmaker;
+
+    /** Réserve des cartes des parties */
+    private final MapPool mapPool;
+
+    /** Historique des joueurs */
+    private final PlayerHistory history;
+
+    /** Sessions ouvertes */
+    private final Set<LobbySession> sessions = ConcurrentHashMap.newKeySet();
+
+    /** Thread d'acceptation des connexions */
+    private Thread acceptThread;
+
+    /**
+     * Constructeur du serveur.
+     *
+     * @param port Port d'écoute (0 pour un port éphémère)
+     * @param playersPerMatch Nombre de joueurs par partie
+     * @param history Historique des joueurs
+     * @throws IOException Si le port ne peut pas être ouvert
+     */
+    public LobbyServer(int port, int playersPerMatch, PlayerHistory history) throws IOException {
+        this.history = history;
+        this.serverSocket = new ServerSocket();
+        this.serverSocket.setReuseAddress(true);
+        this.serverSocket.bind(new InetSocketAddress(port), ACCEPT_BACKLOG);
+        this.connectionExecutor = ConnectionExecutors.newPerConnectionExecutor("LobbySession");
+        this.tickScheduler = new TickScheduler();
+        this.matchmaker = new Matchmaker(history, tickScheduler, playersPerMatch);
+        this.mapPool = new MapPool(LobbyMatch.MAP_WIDTH, LobbyMatch.MAP_HEIGHT, new ClassicMapGenerator(),
+                new MapValidator(LobbyMatch.MAP_WIDTH, LobbyMatch.MAP_HEIGHT), MAP_POOL_CAPACITY);
+        this.matchmaker.setMapPool(mapPool);
+        this.tickScheduler.schedulePeriodic(matchmaker::runMatchmakingPass, MATCHMAKING_PERIOD_MS);
+    }
+
+    /**
+     * Démarre l'acceptation des connexions sur un thread dédié.
+     */
+    public void start() {
+        acceptThread = new Thread(this::acceptLoop, "LobbyAccept");
+        acceptThread.setDaemon(true);
+        acceptThread.start();
+        System.out.println("🌐 Lobby en écoute sur le port " + getPort() +
+                (ConnectionExecutors.isVirtualThreadsAvailable() ? " (threads virtuels)" : " (threads plateforme)"));
+    }
+
+    /**
+     * Boucle d'acceptation : chaque connexion reçoit sa propre session.
+     */
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                LobbySession session = new LobbySession(socket, this);
+                sessions.add(session);
+                connectionExecutor.execute(session);
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    System.err.println("Erreur d'acceptation: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Retire une session fermée du serveur.
+     *
+     * @param session Session fermée
+     */
+    void sessionClosed(LobbySession session) {
+        sessions.remove(session);
+    }
+
+    /**
+     * Retourne le port d'écoute effectif.
+     *
+     * @return Port local
+     */
+    public int getPort() { return serverSocket.getLocalPort(); }
+
+    /**
+     * Retourne le nombre de sessions ouvertes.
+     *
+     * @return Nombre de connexions
+     */
+    public int getSessionCount() { return sessions.size(); }
+
+    /**
+     * Retourne le matchmaking du serveur.
+     *
+     * @return Le matchmaking
+     */
+    public Matchmaker getMatchmaker() { return matchmaker; }
+
+    /**
+     * Retourne le planificateur de ticks partagé.
+     *
+     * @return Le planificateur
+     */
+    public TickScheduler getTickScheduler() { return tickScheduler; }
+
+    /**
+     * Retourne l'historique des joueurs.
+     *
+     * @return L'historique
+     */
+    public PlayerHistory getHistory() { return history; }
+
+    /**
+     * Arrête le serveur et ferme toutes les connexions.
+     */
+    @Override
+    public void close() {
+        try {
+            serverSocket.close();
+        } catch (IOException ignored) {
+        }
+        tickScheduler.shutdown();
+        connectionExecutor.shutdownNow();
+        mapPool.close();
+    }
+
+    /**
+     * Lance un serveur de lobby autonome, avec la diffusion aux spectateurs sur le port suivant.
+     * Arguments optionnels : port, nombre de joueurs par partie, répertoire de l'archive des replays.
+     *
+     * @param args Arguments de la ligne de commande
+     * @throws Exception Si le serveur ne peut pas démarrer
+     */
+    public static void main(String[] args) throws Exception {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        int playersPerMatch = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+
+        GameLog.setEnabled(false);
+        LobbyServer server = new LobbyServer(port, playersPerMatch, new InMemoryPlayerHistory());
+        if (args.length > 2) {
+            ReplayArchive archive = new ReplayArchive(Path.of(args[2]));
+            server.getMatchmaker().setReplayArchive(archive);
+            System.out.println("🎬 Archive des replays: " + Path.of(args[2]).toAbsolutePath() +
+                    " (" + archive.size() + " parties)");
+        }
+        server.start();
+        SpectatorServer spectators = new SpectatorServer(port + 1, server.getTickScheduler());
+        System.out.println("📺 Spectateurs sur le port " + spectators.getPort());
+
+        while (true) {
+            Thread.sleep(5000);
+            System.out.println("👥 Sessions: " + server.getSessionCount() +
+                    " | En file: " + server.getMatchmaker().getWaitingCount() +
+                    " | Parties: " + server.getTickScheduler().getActiveMatchCount() +
+                    " | Tick p99: " + server.getTickScheduler().getMatchHost().getWorstPercentileNanos(99) / 1000 + "µs" +
+                    " | Ticks abandonnés: " + server.getTickScheduler().getMatchHost().getSkippedTicks());
+        }
+    }
+}
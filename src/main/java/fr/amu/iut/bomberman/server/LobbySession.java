@@ -0,0 +1,289 @@
+package fr.amu.iut.bomberman.server;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Session d'un client connecté au lobby.
+ * Chaque session s'exécute sur son propre thread (virtuel si disponible) avec un code
+ * bloquant ligne par ligne. Protocole texte :
+ * <pre>
+ * client -> serveur : HELLO &lt;nom&gt; | QUEUE | LEAVE | MOVE &lt;dx&gt; &lt;dy&gt; | BOMB | QUIT
+ * serveur -> client : WELCOME &lt;nom&gt; &lt;classement&gt; | QUEUED | LEFT | MATCH &lt;id&gt; &lt;joueur&gt; | END &lt;gagnant&gt; | ERROR &lt;message&gt;
+ * </pre>
+ */
+public class LobbySession implements Runnable {
+
+    /** Délai minimum entre deux déplacements, identique au client local */
+    private static final long MOVE_DELAY_NS = 100_000_000L;
+
+    /**
+     * États possibles d'une session.
+     */
+    public enum State {
+        /** Connecté, pas encore identifié */
+        CONNECTED,
+        /** Identifié, dans le lobby */
+        IDLE,
+        /** En file d'attente de matchmaking */
+        QUEUED,
+        /** En partie */
+        IN_MATCH,
+        /** Déconnecté */
+        CLOSED
+    }
+
+    /** Socket du client */
+    private final Socket socket;
+
+    /** Serveur propriétaire de la session */
+    private final LobbyServer server;
+
+    /** État courant de la session */
+    private final AtomicReference<State> state = new AtomicReference<>(State.CONNECTED);
+
+    /** Génération de la demande de file courante, incrémentée à chaque QUEUE */
+    private final AtomicInteger queueGeneration = new AtomicInteger();
+
+    /** Flux d'écriture vers le client, protégé par son propre verrou */
+    private BufferedWriter writer;
+
+    /** Nom du joueur, défini par HELLO */
+    private volatile String playerName;
+
+    /** Partie en cours, null hors partie */
+    private volatile LobbyMatch match;
+
+    /** Identifiant du joueur dans la partie en cours */
+    private volatile int playerId = -1;
+
+    /** Timestamp du dernier déplacement accepté */
+    private long lastMoveTime;
+
+    /**
+     * Constructeur d'une session.
+     *
+     * @param socket Socket du client accepté
+     * @param server Serveur propriétaire
+     */
+    public LobbySession(Socket socket, LobbyServer server) {
+        this.socket = socket;
+        this.server = server;
+    }
+
+    /**
+     * Boucle de lecture bloquante des commandes du client.
+     */
+    @Override
+    public void run() {
+        try (Socket s = socket;
+             BufferedReader reader = new BufferedReader(
+                     new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8))) {
+            s.setTcpNoDelay(true);
+            writer = new BufferedWriter(new OutputStreamWriter(s.getOutputStream(), StandardCharsets.UTF_8));
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!handleCommand(line.trim())) break;
+            }
+        } catch (SocketException e) {
+            // Déconnexion brutale du client : rien à signaler
+        } catch (IOException e) {
+            System.err.println("Erreur de session " + playerName + ": " + e.getMessage());
+        } finally {
+            close();
+        }
+    }
+
+    /**
+     * Interprète une commande du client.
+     *
+     * @param line Ligne reçue
+     * @return false si la session doit être fermée
+     */
+    private boolean handleCommand(String line) {
+        if (line.isEmpty()) return true;
+        String[] parts = line.split("\\s+");
+        String command = parts[0].toUpperCase();
+
+        if (state.get() == State.CONNECTED && !command.equals("HELLO") && !command.equals("QUIT")) {
+            send("ERROR HELLO attendu");
+            return true;
+        }
+
+        switch (command) {
+            case "HELLO":
+                if (parts.length < 2) {
+                    send("ERROR nom manquant");
+                } else if (state.compareAndSet(State.CONNECTED, State.IDLE)) {
+                    playerName = parts[1];
+                    send("WELCOME " + playerName + " " + Math.round(server.getHistory().getRating(playerName)));
+                }
+                break;
+            case "QUEUE":
+                if (state.compareAndSet(State.IDLE, State.QUEUED)) {
+                    // Les demandes d'un QUEUE précédent (suivi d'un LEAVE) deviennent périmées
+                    server.getMatchmaker().enqueue(this, queueGeneration.incrementAndGet());
+                    send("QUEUED");
+                } else {
+                    send("ERROR impossible de rejoindre la file");
+                }
+                break;
+            case "LEAVE":
+                if (state.compareAndSet(State.QUEUED, State.IDLE)) {
+                    send("LEFT");
+                }
+                break;
+            case "MOVE":
+                handleMove(parts);
+                break;
+            case "BOMB":
+                LobbyMatch current = match;
+                if (state.get() == State.IN_MATCH && current != null) {
+                    current.placeBomb(playerId);
+                }
+                break;
+            case "QUIT":
+                return false;
+            default:
+                send("ERROR commande inconnue: " + command);
+        }
+        return true;
+    }
+
+    /**
+     * Traite une demande de déplacement en limitant sa fréquence.
+     *
+     * @param parts Commande découpée (MOVE dx dy)
+     */
+    private void handleMove(String[] parts) {
+        LobbyMatch current = match;
+        if (state.get() != State.IN_MATCH || current == null || parts.length < 3) return;
+
+        long now = System.nanoTime();
+        if (now - lastMoveTime < MOVE_DELAY_NS) return;
+
+        try {
+            int dx = Integer.parseInt(parts[1]);
+            int dy = Integer.parseInt(parts[2]);
+            current.movePlayer(playerId, dx, dy);
+            lastMoveTime = now;
+        } catch (NumberFormatException e) {
+            send("ERROR déplacement invalide");
+        }
+    }
+
+    /**
+     * Associe la session à une partie créée par le matchmaking.
+     * Appelée depuis le thread de matchmaking.
+     *
+     * @param match Partie rejointe
+     * @param playerId Identifiant du joueur dans la partie
+     */
+    void joinMatch(LobbyMatch match, int playerId) {
+        this.match = match;
+        this.playerId = playerId;
+        if (state.compareAndSet(State.QUEUED, State.IN_MATCH)) {
+            send("MATCH " + match.getId() + " " + playerId);
+        } else {
+            // La session a quitté la file ou s'est déconnectée entre-temps
+            match.leave(playerId);
+        }
+    }
+
+    /**
+     * Notifie la session de la fin de sa partie et la renvoie au lobby.
+     *
+     * @param endedMatch Partie terminée
+     * @param winnerId Identifiant du gagnant, -1 si aucun
+     */
+    void matchEnded(LobbyMatch endedMatch, int winnerId) {
+        if (match != endedMatch) return;
+        match = null;
+        playerId = -1;
+        if (state.compareAndSet(State.IN_MATCH, State.IDLE)) {
+            send("END " + winnerId);
+        }
+    }
+
+    /**
+     * Envoie une ligne au client. Les erreurs d'écriture ferment la session.
+     *
+     * @param message Ligne à envoyer
+     */
+    public void send(String message) {
+        BufferedWriter w = writer;
+        if (w == null) return;
+        synchronized (w) {
+            try {
+                w.write(message);
+                w.write('\n');
+                w.flush();
+            } catch (IOException e) {
+                close();
+            }
+        }
+    }
+
+    /**
+     * Ferme la session et abandonne une éventuelle partie en cours.
+     */
+    private void close() {
+        State previous = state.getAndSet(State.CLOSED);
+        if (previous == State.CLOSED) return;
+
+        LobbyMatch current = match;
+        if (previous == State.IN_MATCH && current != null) {
+            current.leave(playerId);
+        }
+        try {
+            socket.close();
+        } catch (IOException ignored) {
+        }
+        server.sessionClosed(this);
+    }
+
+    /**
+     * Indique si la session est toujours en file d'attente.
+     *
+     * @return true si la session attend une partie
+     */
+    public boolean isQueued() {
+        return state.get() == State.QUEUED;
+    }
+
+    /**
+     * Retourne la génération de la demande de file courante.
+     *
+     * @return Génération du dernier QUEUE accepté
+     */
+    int getQueueGeneration() {
+        return queueGeneration.get();
+    }
+
+    /**
+     * Retourne l'état courant de la session.
+     *
+     * @return État de la session
+     */
+    public State getState() {
+        return state.get();
+    }
+
+    /**
+     * Retourne le nom du joueur.
+     *
+     * @return Nom défini par HELLO
+     */
+    public String getPlayerName() {
+        return playerName;
+    }
+}
@@ -0,0 +1,322 @@
+package fr.amu.iut.bomberman.server;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hôte des parties du serveur : fait avancer toutes les parties en parallèle sur un pool
+ * de travail à vol de tâches (ForkJoinPool) dimensionné au nombre de cœurs.
+ * <p>
+ * À chaque tick de l'horloge (dispatch, appelé par le TickScheduler), chaque partie
+ * reçoit un tick à exécuter ; ses ticks s'exécutent dans l'ordre, jamais en parallèle,
+ * dans une tâche qui lui est propre. Une partie lente n'occupe qu'un thread du pool :
+ * les autres parties sont prises par les autres threads, qui volent les tâches en
+ * attente. Une partie en retard rattrape au plus MAX_BACKLOG ticks, les suivants sont
+ * abandonnés et comptés (getSkippedTicks), pour que son retard ne s'accumule pas.
+ * La durée de chaque tick est mesurée par partie (TickMetrics).
+ */
+public class MatchHost {
+
+    /** Ticks en attente au-delà desquels une partie en retard abandonne les nouveaux ticks */
+    public static final int MAX_BACKLOG = 4;
+
+    /**
+     * Mesures des ticks d'une partie. Écrites par la seule tâche de la partie, lues par
+     * n'importe quel thread (valeurs indicatives, sans cohérence entre elles).
+     */
+    public static final class TickMetrics {
+
+        /** Nombre de classes de l'histogramme : durées en puissances de 2 de microsecondes */
+        private static final int BUCKETS = 32;
+
+        /** Ticks exécutés */
+        private volatile long ticks;
+
+        /** Ticks abandonnés faute d'avoir rattrapé le retard */
+        private volatile long skippedTicks;
+
+        /** Durée totale, dernière et maximale d'un tick, en nanosecondes */
+        private volatile long totalNanos;
+        private volatile long lastNanos;
+        private volatile long maxNanos;
+
+        /** Nombre de ticks par classe de durée (classe i : moins de 2^i microsecondes) */
+        private final long[] histogram = new long[BUCKETS];
+
+        /**
+         * Enregistre la durée d'un tick.
+         */
+        private void record(long nanos) {
+            ticks++;
+            totalNanos += nanos;
+            lastNanos = nanos;
+            if (nanos > maxNanos) maxNanos = nanos;
+            long micros = nanos / 1000;
+            histogram[Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros))]++;
+        }
+
+        /** @return Ticks exécutés */
+        public long getTicks() { return ticks; }
+
+        /** @return Ticks abandonnés par une partie en retard */
+        public long getSkippedTicks() { return skippedTicks; }
+
+        /** @return Durée du dernier tick en nanosecondes */
+        public long getLastNanos() { return lastNanos; }
+
+        /** @return Durée maximale d'un tick en nanosecondes */
+        public long getMaxNanos() { return maxNanos; }
+
+        /** @return Durée moyenne d'un tick en nanosecondes */
+        public long getAverageNanos() {
+            long count = ticks;
+            return count == 0 ? 0 : totalNanos / count;
+        }
+
+        /**
+         * Estime un percentile de la durée des ticks, arrondi à la puissance de 2
+         * de microsecondes supérieure.
+         *
+         * @param percentile Percentile voulu (entre 0 et 100)
+         * @return Borne haute de la durée, en nanosecondes
+         */
+        public long getPercentileNanos(double percentile) {
+            long count = 0;
+            for (long bucket : histogram) count += bucket;
+            if (count == 0) return 0;
+            long rank = (long) Math.ceil(count * percentile / 100.0);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += histogram[i];
+                if (seen >= Math.max(1, rank)) return (1L << i) * 1000;
+            }
+            return maxNanos;
+        }
+    }
+
+    /**
+     * Partie hébergée : sa tâche de ticks et ses mesures.
+     */
+    private final class HostedMatch implements Runnable {
+
+        final LobbyMatch match;
+
+        final TickMetrics metrics = new TickMetrics();
+
+        /** Ticks dus et pas encore exécutés ; la tâche est soumise quand il passe de 0 à 1 */
+        final AtomicInteger due = new AtomicInteger();
+
+        /** Indique si la partie est terminée et doit être retirée */
+        volatile boolean done;
+
+        HostedMatch(LobbyMatch match) {
+            this.match = match;
+        }
+
+        /**
+         * Exécute les ticks dus, un par un, jusqu'à rattraper l'horloge.
+         * Toute erreur d'un tick (Error comprise) arrête la partie : elle est marquée
+         * terminée avant d'être interrompue, pour que dispatch la retire même si
+         * l'interruption échoue à son tour.
+         */
+        @Override
+        public void run() {
+            do {
+                if (done) {
+                    due.set(0);
+                    return;
+                }
+                long start = System.nanoTime();
+                try {
+                    if (!match.tick(deltaTime)) done = true;
+                } catch (Throwable t) {
+                    done = true;
+                    System.err.println("Erreur dans la partie " + match.getId() + ": " + t);
+                    match.abort();
+                }
+                metrics.record(System.nanoTime() - start);
+            } while (due.decrementAndGet() > 0);
+        }
+    }
+
+    /** Parties hébergées */
+    private final Queue<HostedMatch> matches = new ConcurrentLinkedQueue<>();
+
+    /** Pool des threads de ticks */
+    private final ForkJoinPool pool;
+
+    /** Durée d'un tick en secondes, passée à LobbyMatch.tick */
+    private final double deltaTime;
+
+    /**
+     * Constructeur d'un hôte avec un thread par cœur.
+     *
+     * @param tickHz Fréquence des ticks
+     */
+    public MatchHost(int tickHz) {
+        this(tickHz, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructeur d'un hôte avec un nombre de threads donné.
+     *
+     * @param tickHz Fréquence des ticks
+     * @param threads Nombre de threads du pool
+     */
+    public MatchHost(int tickHz, int threads) {
+        this.deltaTime = 1.0 / tickHz;
+        AtomicInteger counter = new AtomicInteger();
+        this.pool = new ForkJoinPool(Math.max(1, threads), p -> {
+            ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            t.setName("MatchHost-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            t.setPriority(Thread.NORM_PRIORITY + 1);
+            return t;
+        }, null, true);
+    }
+
+    /**
+     * Ajoute une partie, qui avancera à partir du prochain dispatch.
+     *
+     * @param match La partie à faire avancer
+     */
+    public void register(LobbyMatch match) {
+        matches.add(new HostedMatch(match));
+    }
+
+    /**
+     * Donne un tick à chaque partie et retire les parties terminées. Appelé à chaque
+     * tick de l'horloge par un seul thread ; ne fait qu'ajouter des tâches au pool.
+     */
+    public void dispatch() {
+        Iterator<HostedMatch> it = matches.iterator();
+        while (it.hasNext()) {
+            HostedMatch hosted = it.next();
+            if (hosted.done) {
+                it.remove();
+                continue;
+            }
+            // Le tick n'est compté que si le retard maximal n'est pas atteint : due ne dépasse jamais MAX_BACKLOG
+            int pending;
+            do {
+                pending = hosted.due.get();
+                if (pending >= MAX_BACKLOG) break;
+            } while (!hosted.due.compareAndSet(pending, pending + 1));
+
+            if (pending >= MAX_BACKLOG) {
+                // Tâche encore en cours et retard maximal atteint : ce tick est abandonné
+                hosted.metrics.skippedTicks++;
+            } else if (pending == 0) {
+                pool.execute(hosted);
+            }
+        }
+    }
+
+    /**
+     * Recherche une partie en cours par son identifiant.
+     *
+     * @param matchId Identifiant de la partie
+     * @return La partie, ou null si elle n'est pas (ou plus) en cours
+     */
+    public LobbyMatch findMatch(long matchId) {
+        for (HostedMatch hosted : matches) {
+            if (hosted.match.getId() == matchId && !hosted.done) return hosted.match;
+        }
+        return null;
+    }
+
+    /**
+     * Retourne les mesures des ticks d'une partie en cours.
+     *
+     * @param matchId Identifiant de la partie
+     * @return Les mesures, null si la partie n'est pas (ou plus) en cours
+     */
+    public TickMetrics getMetrics(long matchId) {
+        for (HostedMatch hosted : matches) {
+            if (hosted.match.getId() == matchId && !hosted.done) return hosted.metrics;
+        }
+        return null;
+    }
+
+    /**
+     * Retourne la plus grande durée de tick au percentile donné parmi les parties en cours
+     * (partie la plus lente, pour la supervision).
+     *
+     * @param percentile Percentile voulu (entre 0 et 100)
+     * @return Durée en nanosecondes, 0 sans partie
+     */
+    public long getWorstPercentileNanos(double percentile) {
+        long worst = 0;
+        for (HostedMatch hosted : matches) {
+            if (!hosted.done) worst = Math.max(worst, hosted.metrics.getPercentileNanos(percentile));
+        }
+        return worst;
+    }
+
+    /**
+     * Retourne le nombre total de ticks abandonnés par les parties en cours.
+     *
+     * @return Ticks abandonnés
+     */
+    public long getSkippedTicks() {
+        long skipped = 0;
+        for (HostedMatch hosted : matches) {
+            skipped += hosted.metrics.getSkippedTicks();
+        }
+        return skipped;
+    }
+
+    /**
+     * Retourne les parties en cours.
+     *
+     * @return Copie de la liste des parties
+     */
+    public List<LobbyMatch> getMatches() {
+        List<LobbyMatch> list = new ArrayList<>();
+        for (HostedMatch hosted : matches) {
+            if (!hosted.done) list.add(hosted.match);
+        }
+        return list;
+    }
+
+    /**
+     * Retourne le nombre de parties en cours.
+     *
+     * @return Nombre de parties actives
+     */
+    public int getActiveMatchCount() {
+        int count = 0;
+        for (HostedMatch hosted : matches) {
+            if (!hosted.done) count++;
+        }
+        return count;
+    }
+
+    /**
+     * Retourne le nombre de threads du pool.
+     *
+     * @return Parallélisme du pool
+     */
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Arrête le pool, en attendant brièvement la fin des ticks en cours.
+     */
+    public void shutdown() {
+        pool.shutdownNow();
+        try {
+            pool.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
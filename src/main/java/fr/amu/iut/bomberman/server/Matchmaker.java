@@ -0,0 +1,221 @@
+package fr.amu.iut.bomberman.server;
+
+import fr.amu.iut.bomberman.model.map.GameMap;
+import fr.amu.iut.bomberman.model.map.MapPool;
+import fr.amu.iut.bomberman.model.replay.ReplayArchive;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * File d'attente et appariement des joueurs par niveau.
+ * Les sessions en attente sont triées par classement ; un groupe est formé dès que
+ * l'écart de classement entre ses membres reste sous une tolérance qui s'élargit
+ * avec le temps d'attente du plus ancien joueur du groupe.
+ */
+public class Matchmaker {
+
+    /** Tolérance initiale d'écart de classement */
+    private static final double BASE_TOLERANCE = 100.0;
+
+    /** Élargissement de la tolérance par seconde d'attente */
+    private static final double TOLERANCE_PER_SECOND = 50.0;
+
+    /** Tolérance maximale */
+    private static final double MAX_TOLERANCE = 1000.0;
+
+    /** Nouvelles demandes de file, alimentées par les threads de connexion */
+    private final Queue<QueueEntry> incoming = new ConcurrentLinkedQueue<>();
+
+    /** Joueurs en attente, accédé uniquement par le thread de matchmaking */
+    private final List<QueueEntry> waiting = new ArrayList<>();
+
+    /** Historique servant au calcul des classements */
+    private final PlayerHistory history;
+
+    /** Planificateur auquel les parties créées sont confiées */
+    private final TickScheduler tickScheduler;
+
+    /** Nombre de joueurs par partie (2 à 4) */
+    private final int playersPerMatch;
+
+    /** Générateur d'identifiants de parties */
+    private final AtomicLong matchIds = new AtomicLong();
+
+    /** Nombre de joueurs actuellement en attente */
+    private volatile int waitingCount;
+
+    /** Archive des replays, null si l'enregistrement est désactivé */
+    private volatile ReplayArchive replayArchive;
+
+    /** Réserve des cartes des parties, null pour les générer à la création */
+    private volatile MapPool mapPool;
+
+    /**
+     * Demande de partie d'une session.
+     */
+    private static class QueueEntry {
+        final LobbySession session;
+        final double rating;
+        final long enqueuedAt;
+        final int generation;
+
+        QueueEntry(LobbySession session, double rating, long enqueuedAt, int generation) {
+            this.session = session;
+            this.rating = rating;
+            this.enqueuedAt = enqueuedAt;
+            this.generation = generation;
+        }
+
+        /** Une demande est périmée si la session a quitté la file ou l'a rejointe à nouveau depuis */
+        boolean isStale() {
+            return !session.isQueued() || session.getQueueGeneration() != generation;
+        }
+    }
+
+    /**
+     * Constructeur du matchmaking.
+     *
+     * @param history Historique des joueurs
+     * @param tickScheduler Planificateur partagé des parties
+     * @param playersPerMatch Nombre de joueurs par partie
+     */
+    public Matchmaker(PlayerHistory history, TickScheduler tickScheduler, int playersPerMatch) {
+        this.history = history;
+        this.tickScheduler = tickScheduler;
+        this.playersPerMatch = Math.max(2, Math.min(4, playersPerMatch));
+    }
+
+    /**
+     * Place une session dans la file d'attente. Appelée depuis le thread de la connexion.
+     *
+     * Chaque QUEUE d'une session porte une nouvelle génération : les demandes des QUEUE
+     * précédents, suivis d'un LEAVE, sont écartées et une session n'est jamais appariée
+     * avec elle-même.
+     *
+     * @param session Session demandant une partie
+     * @param generation Génération de la demande, voir {@link LobbySession#getQueueGeneration()}
+     */
+    public void enqueue(LobbySession session, int generation) {
+        double rating = history.getRating(session.getPlayerName());
+        incoming.add(new QueueEntry(session, rating, System.nanoTime(), generation));
+    }
+
+    /**
+     * Passe de matchmaking, exécutée périodiquement sur le thread du TickScheduler.
+     * Forme autant de parties que possible parmi les joueurs en attente. Le thread étant
+     * aussi celui des parties, la passe n'attend jamais de carte : faute de carte prête
+     * dans la réserve, les groupes restants attendent la passe suivante.
+     */
+    public void runMatchmakingPass() {
+        QueueEntry entry;
+        while ((entry = incoming.poll()) != null) {
+            waiting.add(entry);
+        }
+        waiting.removeIf(QueueEntry::isStale);
+
+        if (waiting.size() >= playersPerMatch) {
+            waiting.sort(Comparator.comparingDouble(e -> e.rating));
+            long now = System.nanoTime();
+
+            List<QueueEntry> remaining = new ArrayList<>();
+            int i = 0;
+            while (i < waiting.size()) {
+                if (i + playersPerMatch <= waiting.size() && canGroup(i, now)) {
+                    if (!startMatch(waiting.subList(i, i + playersPerMatch))) {
+                        // Réserve vide : les joueurs restants attendent la passe suivante
+                        remaining.addAll(waiting.subList(i, waiting.size()));
+                        break;
+                    }
+                    i += playersPerMatch;
+                } else {
+                    remaining.add(waiting.get(i));
+                    i++;
+                }
+            }
+            waiting.clear();
+            waiting.addAll(remaining);
+        }
+
+        waitingCount = waiting.size();
+    }
+
+    /**
+     * Vérifie si les joueurs consécutifs à partir d'un index peuvent former une partie.
+     *
+     * @param start Index du joueur le moins bien classé du groupe
+     * @param now Instant courant en nanosecondes
+     * @return true si l'écart de classement est dans la tolérance
+     */
+    private boolean canGroup(int start, long now) {
+        long oldest = Long.MAX_VALUE;
+        for (int k = start; k < start + playersPerMatch; k++) {
+            oldest = Math.min(oldest, waiting.get(k).enqueuedAt);
+        }
+        double waitedSeconds = (now - oldest) / 1_000_000_000.0;
+        double tolerance = Math.min(MAX_TOLERANCE, BASE_TOLERANCE + TOLERANCE_PER_SECOND * waitedSeconds);
+
+        double spread = waiting.get(start + playersPerMatch - 1).rating - waiting.get(start).rating;
+        return spread <= tolerance;
+    }
+
+    /**
+     * Crée une partie pour un groupe et la confie au planificateur de ticks.
+     *
+     * @param group Demandes des joueurs de la partie
+     * @return false si aucune carte n'est prête dans la réserve : le groupe reste en attente
+     */
+    private boolean startMatch(List<QueueEntry> group) {
+        MapPool pool = mapPool;
+        GameMap map = null;
+        if (pool != null) {
+            map = pool.tryTakeMap();
+            if (map == null) return false;
+        }
+
+        List<LobbySession> sessions = new ArrayList<>();
+        for (QueueEntry e : group) {
+            sessions.add(e.session);
+        }
+        LobbyMatch match = new LobbyMatch(matchIds.incrementAndGet(), sessions, history, replayArchive, map);
+        match.start();
+        tickScheduler.register(match);
+        return true;
+    }
+
+    /**
+     * Active l'enregistrement des replays des parties créées ensuite. Les identifiants
+     * des nouvelles parties reprennent après le plus grand de l'archive : un serveur
+     * redémarré sur une archive existante n'écrase pas ses replays.
+     *
+     * @param replayArchive Archive des replays, null pour désactiver
+     */
+    public void setReplayArchive(ReplayArchive replayArchive) {
+        if (replayArchive != null) {
+            matchIds.accumulateAndGet(replayArchive.getLastMatchId(), Math::max);
+        }
+        this.replayArchive = replayArchive;
+    }
+
+    /**
+     * Définit la réserve de cartes pré-générées des nouvelles parties.
+     *
+     * @param mapPool Réserve de cartes, null pour générer chaque carte à la création
+     */
+    public void setMapPool(MapPool mapPool) {
+        this.mapPool = mapPool;
+    }
+
+    /**
+     * Retourne le nombre de joueurs en attente lors de la dernière passe.
+     *
+     * @return Nombre de joueurs en file
+     */
+    public int getWaitingCount() {
+        return waitingCount;
+    }
+}
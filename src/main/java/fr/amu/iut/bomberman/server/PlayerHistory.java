@@ -0,0 +1,29 @@
+package fr.amu.iut.bomberman.server;
+
+import java.util.List;
+
+/**
+ * Historique des joueurs utilisé par le matchmaking.
+ * Fournit un classement de niveau dérivé des parties passées et enregistre les résultats.
+ */
+public interface PlayerHistory {
+
+    /** Classement attribué à un joueur sans historique */
+    double DEFAULT_RATING = 1000.0;
+
+    /**
+     * Retourne le classement de niveau d'un joueur.
+     *
+     * @param playerName Nom du joueur
+     * @return Classement (type Elo), DEFAULT_RATING si inconnu
+     */
+    double getRating(String playerName);
+
+    /**
+     * Enregistre le résultat d'une partie.
+     *
+     * @param playerNames Noms des participants
+     * @param winnerName Nom du gagnant, null en cas de match nul
+     */
+    void recordMatch(List<String> playerNames, String winnerName);
+}
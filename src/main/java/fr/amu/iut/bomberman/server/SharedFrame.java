@@ -0,0 +1,75 @@
+package fr.amu.iut.bomberman.server;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Frame encodée une seule fois et partagée entre tous les spectateurs d'une partie.
+ * Le buffer est compté par références et rendu au pool quand le dernier lecteur l'a libéré.
+ */
+public final class SharedFrame {
+
+    /** Contenu de la frame, prêt à la lecture (position 0, limite = taille) */
+    private final ByteBuffer buffer;
+
+    /** Pool d'origine du buffer */
+    private final DirectBufferPool pool;
+
+    /** Indique si la frame contient l'état complet de la partie */
+    private final boolean keyframe;
+
+    /** Nombre de références actives */
+    private final AtomicInteger refCount = new AtomicInteger(1);
+
+    /**
+     * Constructeur d'une frame partagée. L'appelant détient la première référence.
+     *
+     * @param buffer Contenu encodé, déjà retourné (flip)
+     * @param pool Pool auquel rendre le buffer
+     * @param keyframe true pour une frame complète
+     */
+    SharedFrame(ByteBuffer buffer, DirectBufferPool pool, boolean keyframe) {
+        this.buffer = buffer;
+        this.pool = pool;
+        this.keyframe = keyframe;
+    }
+
+    /**
+     * Retourne une vue indépendante du contenu, avec sa propre position de lecture.
+     *
+     * @return Vue en lecture de la frame
+     */
+    public ByteBuffer view() {
+        return buffer.duplicate();
+    }
+
+    /**
+     * Ajoute une référence sur la frame.
+     */
+    public void retain() {
+        refCount.incrementAndGet();
+    }
+
+    /**
+     * Libère une référence ; le buffer retourne au pool à la dernière.
+     */
+    public void release() {
+        if (refCount.decrementAndGet() == 0) {
+            pool.release(buffer);
+        }
+    }
+
+    /**
+     * Indique si la frame est une frame complète.
+     *
+     * @return true pour une keyframe
+     */
+    public boolean isKeyframe() { return keyframe; }
+
+    /**
+     * Retourne la taille encodée de la frame.
+     *
+     * @return Taille en octets
+     */
+    public int size() { return buffer.limit(); }
+}
@@ -0,0 +1,136 @@
+package fr.amu.iut.bomberman.server;
+
+import fr.amu.iut.bomberman.model.game.GameEngine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Canal de diffusion d'une partie vers ses spectateurs.
+ * Chaque snapshot est encodé une seule fois sur le thread de ticks, puis la même frame
+ * est écrite vers tous les spectateurs par le thread d'E/S du SpectatorServer.
+ * Les spectateurs arrivés en cours de partie attendent la prochaine keyframe.
+ */
+public class SpectatorChannel {
+
+    /** Nombre de ticks entre deux frames diffusées (120Hz / 4 = 30 frames/s) */
+    private static final int TICKS_PER_FRAME = 4;
+
+    /** Nombre de frames entre deux keyframes périodiques (2 secondes) */
+    private static final int FRAMES_PER_KEYFRAME = 60;
+
+    /** Serveur assurant les écritures réseau */
+    private final SpectatorServer server;
+
+    /** Encodeur des snapshots de la partie */
+    private final FrameEncoder encoder = new FrameEncoder();
+
+    /** Spectateurs connectés, accédés uniquement par le thread d'E/S */
+    private final List<SpectatorConnection> spectators = new ArrayList<>();
+
+    /** Nombre de spectateurs, lisible depuis le thread de ticks */
+    private volatile int spectatorCount;
+
+    /** Demande d'une keyframe anticipée suite à l'arrivée d'un spectateur */
+    private final AtomicBoolean keyframeRequested = new AtomicBoolean(true);
+
+    /** Nombre de frames publiées */
+    private long publishedFrames;
+
+    /** Indique si la diffusion est terminée */
+    private volatile boolean closed;
+
+    /**
+     * Constructeur du canal.
+     *
+     * @param server Serveur de spectateurs assurant les écritures
+     */
+    SpectatorChannel(SpectatorServer server) {
+        this.server = server;
+    }
+
+    /**
+     * Appelée à chaque tick de la partie. Publie une frame au rythme de diffusion
+     * s'il y a au moins un spectateur.
+     *
+     * @param engine Moteur de la partie
+     * @param tick Numéro du tick courant
+     */
+    public void onTick(GameEngine engine, long tick) {
+        if (closed || spectatorCount == 0 || tick % TICKS_PER_FRAME != 0) return;
+
+        boolean keyframe = keyframeRequested.getAndSet(false) || publishedFrames % FRAMES_PER_KEYFRAME == 0;
+        SharedFrame frame = encoder.encode(engine, tick, keyframe, server.getBufferPool());
+        publishedFrames++;
+        server.submit(() -> fanOut(frame));
+    }
+
+    /**
+     * Écrit une frame vers tous les spectateurs synchronisés. Thread d'E/S uniquement.
+     *
+     * @param frame Frame à diffuser, dont la référence de l'éditeur est libérée ici
+     */
+    private void fanOut(SharedFrame frame) {
+        try {
+            for (int i = spectators.size() - 1; i >= 0; i--) {
+                SpectatorConnection connection = spectators.get(i);
+                if (!connection.offer(frame)) {
+                    spectators.remove(i);
+                    connection.close();
+                }
+            }
+            spectatorCount = spectators.size();
+        } finally {
+            frame.release();
+        }
+    }
+
+    /**
+     * Ajoute un spectateur. Thread d'E/S uniquement.
+     *
+     * @param connection Connexion du spectateur
+     */
+    void addSpectator(SpectatorConnection connection) {
+        if (closed) {
+            connection.close();
+            return;
+        }
+        spectators.add(connection);
+        spectatorCount = spectators.size();
+        keyframeRequested.set(true);
+    }
+
+    /**
+     * Retire un spectateur déconnecté. Thread d'E/S uniquement.
+     *
+     * @param connection Connexion fermée
+     */
+    void removeSpectator(SpectatorConnection connection) {
+        spectators.remove(connection);
+        spectatorCount = spectators.size();
+    }
+
+    /**
+     * Termine la diffusion et ferme les connexions des spectateurs une fois leurs frames écrites.
+     */
+    public void close() {
+        closed = true;
+        server.submit(() -> {
+            for (SpectatorConnection connection : spectators) {
+                connection.closeWhenFlushed();
+            }
+            spectators.clear();
+            spectatorCount = 0;
+        });
+    }
+
+    /**
+     * Retourne le nombre de spectateurs connectés.
+     *
+     * @return Nombre de spectateurs
+     */
+    public int getSpectatorCount() {
+        return spectatorCount;
+    }
+}
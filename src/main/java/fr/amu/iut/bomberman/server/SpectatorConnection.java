@@ -0,0 +1,160 @@
+package fr.amu.iut.bomberman.server;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+
+/**
+ * Connexion non bloquante d'un spectateur, manipulée uniquement par le thread d'E/S.
+ * Conserve la file des frames partagées restant à écrire ; un spectateur trop lent
+ * perd ses frames en attente et se resynchronise sur la keyframe suivante.
+ */
+class SpectatorConnection {
+
+    /** Nombre maximum de frames en attente avant resynchronisation */
+    private static final int MAX_PENDING_FRAMES = 32;
+
+    /** Canal réseau du spectateur */
+    private final SocketChannel channel;
+
+    /** Clé de sélection du canal */
+    private final SelectionKey key;
+
+    /** Frames restant à écrire */
+    private final ArrayDeque<SharedFrame> pending = new ArrayDeque<>();
+
+    /** Vue en cours d'écriture de la frame de tête */
+    private ByteBuffer current;
+
+    /** Indique si le spectateur a reçu une keyframe depuis sa dernière désynchronisation */
+    private boolean synced;
+
+    /** Indique si la connexion doit être fermée après l'écriture des frames en attente */
+    private boolean closing;
+
+    /** Canal de diffusion suivi, null pendant la poignée de main */
+    SpectatorChannel watched;
+
+    /** Buffer de lecture de la commande WATCH */
+    final ByteBuffer handshake = ByteBuffer.allocate(64);
+
+    /**
+     * Constructeur d'une connexion spectateur.
+     *
+     * @param channel Canal accepté
+     * @param key Clé de sélection enregistrée
+     */
+    SpectatorConnection(SocketChannel channel, SelectionKey key) {
+        this.channel = channel;
+        this.key = key;
+    }
+
+    /**
+     * Propose une frame au spectateur.
+     *
+     * @param frame Frame partagée
+     * @return false si la connexion est fermée et doit être retirée
+     */
+    boolean offer(SharedFrame frame) {
+        if (!channel.isOpen()) return false;
+
+        if (!synced) {
+            if (!frame.isKeyframe()) return true;
+            synced = true;
+        } else if (pending.size() >= MAX_PENDING_FRAMES) {
+            dropPending();
+            synced = frame.isKeyframe();
+            if (!synced) return true;
+        }
+
+        frame.retain();
+        pending.add(frame);
+        return flush();
+    }
+
+    /**
+     * Écrit autant de frames que le socket l'accepte sans bloquer.
+     *
+     * @return false si une erreur d'écriture a fermé la connexion
+     */
+    boolean flush() {
+        try {
+            while (!pending.isEmpty()) {
+                if (current == null) {
+                    current = pending.peek().view();
+                }
+                channel.write(current);
+                if (current.hasRemaining()) {
+                    key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                    return true;
+                }
+                pending.poll().release();
+                current = null;
+            }
+            key.interestOps(SelectionKey.OP_READ);
+            if (closing) close();
+            return true;
+        } catch (IOException e) {
+            close();
+            return false;
+        }
+    }
+
+    /**
+     * Demande la fermeture une fois toutes les frames en attente écrites.
+     */
+    void closeWhenFlushed() {
+        closing = true;
+        if (pending.isEmpty()) close();
+    }
+
+    /**
+     * Libère les frames en attente (spectateur trop lent). Une frame de tête déjà
+     * entamée est gardée avec sa vue en cours (current), pour que flush en reprenne
+     * l'écriture là où elle s'était arrêtée : la couper ou la renvoyer depuis le début
+     * corromprait le flux du spectateur, qui se resynchronise sur une keyframe placée
+     * derrière elle.
+     */
+    private void dropPending() {
+        SharedFrame head = current != null ? pending.poll() : null;
+        SharedFrame frame;
+        while ((frame = pending.poll()) != null) {
+            frame.release();
+        }
+        if (head != null) pending.add(head);
+    }
+
+    /**
+     * Libère toutes les frames en attente, frame de tête comprise.
+     */
+    private void releaseAll() {
+        SharedFrame frame;
+        while ((frame = pending.poll()) != null) {
+            frame.release();
+        }
+        current = null;
+    }
+
+    /**
+     * Ferme la connexion et libère ses frames.
+     */
+    void close() {
+        releaseAll();
+        key.cancel();
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    /**
+     * Retourne le canal réseau.
+     *
+     * @return Canal du spectateur
+     */
+    SocketChannel getChannel() {
+        return channel;
+    }
+}
@@ -0,0 +1,166 @@
+package fr.amu.iut.bomberman.server;
+
+import fr.amu.iut.bomberman.model.common.GameLog;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Générateur de charge local pour la diffusion aux spectateurs.
+ * Démarre un lobby et un serveur de spectateurs embarqués, lance une partie entre deux
+ * clients qui se déplacent au hasard, puis connecte un grand nombre de spectateurs
+ * lus par un unique sélecteur. Affiche le temps CPU des threads de ticks et d'E/S
+ * pour vérifier que l'encodage ne dépend pas du nombre de spectateurs.
+ * <p>
+ * Usage : SpectatorLoadGenerator [spectateurs] [durée_s]
+ */
+public class SpectatorLoadGenerator {
+
+    /**
+     * Point d'entrée du générateur.
+     *
+     * @param args Arguments de la ligne de commande
+     * @throws Exception En cas d'erreur de démarrage
+     */
+    public static void main(String[] args) throws Exception {
+        int spectatorCount = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int durationSeconds = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+
+        GameLog.setEnabled(false);
+        LobbyServer lobby = new LobbyServer(0, 2, new InMemoryPlayerHistory());
+        lobby.start();
+        SpectatorServer spectatorServer = new SpectatorServer(0, lobby.getTickScheduler());
+
+        CompletableFuture<Long> matchId = new CompletableFuture<>();
+        for (int i = 0; i < 2; i++) {
+            String name = "joueur" + i;
+            Thread player = new Thread(() -> runPlayer(lobby.getPort(), name, matchId), name);
+            player.setDaemon(true);
+            player.start();
+        }
+        long id = matchId.get();
+        System.out.println("🎮 Partie " + id + " démarrée, connexion de " + spectatorCount + " spectateurs");
+
+        Selector selector = Selector.open();
+        InetSocketAddress address = new InetSocketAddress("127.0.0.1", spectatorServer.getPort());
+        byte[] watch = ("WATCH " + id + "\n").getBytes(StandardCharsets.US_ASCII);
+        for (int i = 0; i < spectatorCount; i++) {
+            SocketChannel channel = SocketChannel.open(address);
+            channel.write(ByteBuffer.wrap(watch));
+            channel.configureBlocking(false);
+            channel.register(selector, SelectionKey.OP_READ);
+        }
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long tickThread = findThreadId(threads, "LobbyTick");
+        long ioThread = findThreadId(threads, "SpectatorIO");
+
+        ByteBuffer readBuffer = ByteBuffer.allocateDirect(64 * 1024);
+        long bytes = 0;
+        long lastReport = System.nanoTime();
+        long lastTickCpu = threads.getThreadCpuTime(tickThread);
+        long lastIoCpu = threads.getThreadCpuTime(ioThread);
+        long end = lastReport + durationSeconds * 1_000_000_000L;
+
+        while (System.nanoTime() < end) {
+            selector.select(100);
+            Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+            while (it.hasNext()) {
+                SelectionKey key = it.next();
+                it.remove();
+                readBuffer.clear();
+                int read = ((SocketChannel) key.channel()).read(readBuffer);
+                if (read < 0) {
+                    key.cancel();
+                    key.channel().close();
+                } else {
+                    bytes += read;
+                }
+            }
+
+            long now = System.nanoTime();
+            if (now - lastReport >= 1_000_000_000L) {
+                long tickCpu = threads.getThreadCpuTime(tickThread);
+                long ioCpu = threads.getThreadCpuTime(ioThread);
+                System.out.printf("📺 Spectateurs: %d | Reçu: %.1f Ko/s | CPU ticks: %.1f ms/s | CPU E/S: %.1f ms/s%n",
+                        selector.keys().size(), bytes / 1024.0,
+                        (tickCpu - lastTickCpu) / 1e6, (ioCpu - lastIoCpu) / 1e6);
+                bytes = 0;
+                lastReport = now;
+                lastTickCpu = tickCpu;
+                lastIoCpu = ioCpu;
+            }
+        }
+
+        selector.close();
+        spectatorServer.close();
+        lobby.close();
+        System.exit(0);
+    }
+
+    /**
+     * Simule un joueur qui se déplace au hasard sans poser de bombe, pour que la partie dure.
+     *
+     * @param port Port du lobby
+     * @param name Nom du joueur
+     * @param matchId Identifiant de partie à compléter à la réception de MATCH
+     */
+    private static void runPlayer(int port, String name, CompletableFuture<Long> matchId) {
+        try (Socket socket = new Socket("127.0.0.1", port);
+             BufferedReader in = new BufferedReader(
+                     new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             PrintWriter out = new PrintWriter(
+                     new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8), true)) {
+            out.println("HELLO " + name);
+            out.println("QUEUE");
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.startsWith("MATCH")) {
+                    matchId.complete(Long.parseLong(line.split(" ")[1]));
+                    break;
+                }
+            }
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            while (!socket.isClosed()) {
+                Thread.sleep(150);
+                out.println("MOVE " + (random.nextInt(3) - 1) + " " + (random.nextInt(3) - 1));
+            }
+        } catch (IOException e) {
+            matchId.completeExceptionally(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Recherche l'identifiant d'un thread par son nom.
+     *
+     * @param threads Accès JMX aux threads
+     * @param name Nom du thread
+     * @return Identifiant du thread, -1 si introuvable
+     */
+    private static long findThreadId(ThreadMXBean threads, String name) {
+        for (ThreadInfo info : threads.getThreadInfo(threads.getAllThreadIds())) {
+            if (info != null && info.getThreadName().equals(name)) {
+                return info.getThreadId();
+            }
+        }
+        return -1;
+    }
+}
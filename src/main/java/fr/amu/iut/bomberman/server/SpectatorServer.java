@@ -0,0 +1,233 @@
+package fr.amu.iut.bomberman.server;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Serveur de diffusion des parties aux spectateurs.
+ * Un unique thread d'E/S non bloquant gère toutes les connexions spectateurs :
+ * un client envoie "WATCH &lt;idPartie&gt;\n" puis reçoit le flux binaire de FrameEncoder.
+ */
+public class SpectatorServer implements AutoCloseable {
+
+    /** Nombre maximum de buffers libres conservés par classe de taille */
+    private static final int POOLED_BUFFERS_PER_CLASS = 256;
+
+    /** Canal d'écoute */
+    private final ServerSocketChannel serverChannel;
+
+    /** Sélecteur du thread d'E/S */
+    private final Selector selector;
+
+    /** Planificateur donnant accès aux parties en cours */
+    private final TickScheduler tickScheduler;
+
+    /** Pool de buffers directs des frames */
+    private final DirectBufferPool bufferPool = new DirectBufferPool(POOLED_BUFFERS_PER_CLASS);
+
+    /** Tâches à exécuter sur le thread d'E/S (diffusions, fermetures) */
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+
+    /** Thread d'E/S */
+    private final Thread ioThread;
+
+    /** Indique si le serveur tourne */
+    private volatile boolean running = true;
+
+    /**
+     * Constructeur du serveur de spectateurs. Démarre immédiatement le thread d'E/S.
+     *
+     * @param port Port d'écoute (0 pour un port éphémère)
+     * @param tickScheduler Planificateur des parties à diffuser
+     * @throws IOException Si le port ne peut pas être ouvert
+     */
+    public SpectatorServer(int port, TickScheduler tickScheduler) throws IOException {
+        this.tickScheduler = tickScheduler;
+        this.selector = Selector.open();
+        this.serverChannel = ServerSocketChannel.open();
+        this.serverChannel.bind(new InetSocketAddress(port), 4096);
+        this.serverChannel.configureBlocking(false);
+        this.serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+
+        this.ioThread = new Thread(this::ioLoop, "SpectatorIO");
+        this.ioThread.setDaemon(true);
+        this.ioThread.start();
+    }
+
+    /**
+     * Soumet une tâche au thread d'E/S et le réveille.
+     *
+     * @param task Tâche à exécuter
+     */
+    void submit(Runnable task) {
+        tasks.add(task);
+        selector.wakeup();
+    }
+
+    /**
+     * Boucle du thread d'E/S : exécute les tâches soumises puis traite les événements réseau.
+     */
+    private void ioLoop() {
+        while (running) {
+            try {
+                selector.select();
+
+                Runnable task;
+                while ((task = tasks.poll()) != null) {
+                    task.run();
+                }
+
+                Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+                while (it.hasNext()) {
+                    SelectionKey key = it.next();
+                    it.remove();
+                    if (!key.isValid()) continue;
+
+                    if (key.isAcceptable()) {
+                        accept();
+                    } else {
+                        SpectatorConnection connection = (SpectatorConnection) key.attachment();
+                        if (key.isReadable()) read(connection);
+                        if (key.isValid() && key.isWritable()) connection.flush();
+                    }
+                }
+            } catch (IOException e) {
+                if (running) {
+                    System.err.println("Erreur d'E/S spectateurs: " + e.getMessage());
+                }
+            } catch (Exception e) {
+                if (running) {
+                    System.err.println("Erreur du thread spectateurs: " + e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Accepte les nouvelles connexions en attente.
+     *
+     * @throws IOException En cas d'erreur d'acceptation
+     */
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = serverChannel.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.socket().setTcpNoDelay(true);
+            SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+            key.attach(new SpectatorConnection(channel, key));
+        }
+    }
+
+    /**
+     * Lit les données d'un spectateur : la commande WATCH, puis uniquement la détection de fermeture.
+     *
+     * @param connection Connexion lisible
+     */
+    private void read(SpectatorConnection connection) {
+        ByteBuffer buffer = connection.handshake;
+        int read;
+        try {
+            if (connection.watched != null) buffer.clear();
+            read = connection.getChannel().read(buffer);
+        } catch (IOException e) {
+            read = -1;
+        }
+
+        if (read < 0 || (connection.watched == null && !buffer.hasRemaining())) {
+            disconnect(connection);
+            return;
+        }
+        if (connection.watched != null) return;
+
+        for (int i = 0; i < buffer.position(); i++) {
+            if (buffer.get(i) == '\n') {
+                String line = new String(buffer.array(), 0, i, StandardCharsets.US_ASCII).trim();
+                attach(connection, line);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Rattache un spectateur à la partie demandée.
+     *
+     * @param connection Connexion du spectateur
+     * @param command Commande reçue
+     */
+    private void attach(SpectatorConnection connection, String command) {
+        String[] parts = command.split("\\s+");
+        LobbyMatch match = null;
+        if (parts.length == 2 && parts[0].equalsIgnoreCase("WATCH")) {
+            try {
+                match = tickScheduler.findMatch(Long.parseLong(parts[1]));
+            } catch (NumberFormatException ignored) {
+            }
+        }
+        if (match == null) {
+            disconnect(connection);
+            return;
+        }
+        SpectatorChannel channel = match.getOrCreateSpectatorChannel(this);
+        connection.watched = channel;
+        channel.addSpectator(connection);
+    }
+
+    /**
+     * Ferme une connexion et la retire de la partie suivie.
+     *
+     * @param connection Connexion à fermer
+     */
+    private void disconnect(SpectatorConnection connection) {
+        if (connection.watched != null) {
+            connection.watched.removeSpectator(connection);
+        }
+        connection.close();
+    }
+
+    /**
+     * Retourne le pool de buffers directs des frames.
+     *
+     * @return Le pool partagé
+     */
+    DirectBufferPool getBufferPool() {
+        return bufferPool;
+    }
+
+    /**
+     * Retourne le port d'écoute effectif.
+     *
+     * @return Port local
+     */
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    /**
+     * Arrête le serveur et ferme toutes les connexions.
+     */
+    @Override
+    public void close() {
+        running = false;
+        selector.wakeup();
+        try {
+            ioThread.join(1000);
+            for (SelectionKey key : selector.keys()) {
+                key.channel().close();
+            }
+            selector.close();
+        } catch (IOException e) {
+            System.err.println("Erreur de fermeture spectateurs: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
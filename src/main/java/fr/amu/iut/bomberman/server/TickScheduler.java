@@ -0,0 +1,113 @@
+package fr.amu.iut.bomberman.server;
+
+import fr.amu.iut.bomberman.model.game.GameEngine;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Planificateur de ticks partagé par toutes les parties hébergées par le serveur.
+ * Un seul thread d'horloge cadence l'ensemble des parties à fréquence fixe, au lieu
+ * d'un thread de logique par partie comme dans PlayController : à chaque tick, il confie
+ * un tick de chaque partie au MatchHost, qui les exécute en parallèle sur ses threads.
+ */
+public class TickScheduler {
+
+    /** Fréquence de mise à jour de la logique de jeu (identique au client) */
+    public static final int TICK_HZ = GameEngine.TICK_RATE;
+
+    /** Durée d'un tick en nanosecondes */
+    private static final long TICK_NS = 1_000_000_000L / TICK_HZ;
+
+    /** Hôte des parties en cours, qui exécute leurs ticks */
+    private final MatchHost host;
+
+    /** Exécuteur mono-thread de l'horloge des ticks et des tâches périodiques du lobby */
+    private final ScheduledExecutorService executor;
+
+    /**
+     * Constructeur du planificateur, avec un thread de ticks par cœur.
+     * Démarre immédiatement la boucle de ticks.
+     */
+    public TickScheduler() {
+        this(new MatchHost(TICK_HZ));
+    }
+
+    /**
+     * Constructeur du planificateur sur un hôte donné. Démarre immédiatement la boucle de ticks.
+     *
+     * @param host Hôte qui exécute les ticks des parties
+     */
+    public TickScheduler(MatchHost host) {
+        this.host = host;
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "LobbyTick");
+            t.setDaemon(true);
+            t.setPriority(Thread.NORM_PRIORITY + 1);
+            return t;
+        });
+        executor.scheduleAtFixedRate(host::dispatch, TICK_NS, TICK_NS, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Ajoute une partie à la boucle de ticks.
+     *
+     * @param match La partie à faire avancer
+     */
+    public void register(LobbyMatch match) {
+        host.register(match);
+    }
+
+    /**
+     * Planifie une tâche périodique sur le thread de ticks (ex : passe de matchmaking).
+     *
+     * @param task Tâche à exécuter
+     * @param periodMillis Période en millisecondes
+     */
+    public void schedulePeriodic(Runnable task, long periodMillis) {
+        executor.scheduleAtFixedRate(() -> {
+            try {
+                task.run();
+            } catch (Exception e) {
+                System.err.println("Erreur de tâche périodique du lobby: " + e.getMessage());
+            }
+        }, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Recherche une partie en cours par son identifiant.
+     *
+     * @param matchId Identifiant de la partie
+     * @return La partie, ou null si elle n'est pas (ou plus) en cours
+     */
+    public LobbyMatch findMatch(long matchId) {
+        return host.findMatch(matchId);
+    }
+
+    /**
+     * Retourne le nombre de parties en cours.
+     *
+     * @return Nombre de parties actives
+     */
+    public int getActiveMatchCount() {
+        return host.getActiveMatchCount();
+    }
+
+    /**
+     * Retourne l'hôte des parties (mesures des ticks par partie).
+     *
+     * @return L'hôte des parties
+     */
+    public MatchHost getMatchHost() {
+        return host;
+    }
+
+    /**
+     * Arrête la boucle de ticks puis les threads des parties.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+        host.shutdown();
+    }
+}
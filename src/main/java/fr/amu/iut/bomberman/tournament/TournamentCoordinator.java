@@ -0,0 +1,519 @@
+package fr.amu.iut.bomberman.tournament;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Coordinateur d'un tournoi réparti sur plusieurs processus ou machines.
+ * Les graines sont découpées en plages ; chaque TournamentWorker connecté reçoit des
+ * plages d'avance, assez pour occuper tous ses threads (annoncés par HELLO) plus une pour
+ * ne jamais attendre le réseau, y joue toutes les paires de bots et renvoie les bilans
+ * agrégés par paire. Une plage n'est comptée qu'à la réception
+ * de son DONE : un worker déconnecté ou muet plus de READ_TIMEOUT_MS ne laisse aucun
+ * résultat partiel et ses plages en cours sont remises en tête de file.
+ * Protocole texte, une ligne par message :
+ * <pre>
+ * worker -> coordinateur : HELLO &lt;threads&gt; | RESULT &lt;plage&gt; &lt;a&gt; &lt;b&gt; &lt;victoires a&gt; &lt;victoires b&gt; &lt;nuls&gt; &lt;temps écoulés&gt; &lt;ticks&gt; | DONE &lt;plage&gt; | PING
+ * coordinateur -> worker : CONFIG &lt;largeur&gt; &lt;hauteur&gt; &lt;ticks max&gt; &lt;bots séparés par des virgules&gt; | RANGE &lt;plage&gt; &lt;graines séparées par des virgules&gt; | BYE | ERROR &lt;message&gt;
+ * </pre>
+ * Usage : TournamentCoordinator [--port 7810] [--chunk 4] [--local-workers n] [--worker-threads n]
+ * [--bots ...] [--seeds ...] [--map 15x13] [--max-ticks n] [--out répertoire]
+ * (mêmes options que TournamentRunner, format toutes rondes uniquement).
+ */
+public class TournamentCoordinator {
+
+    /** Port d'écoute par défaut */
+    public static final int DEFAULT_PORT = 7810;
+
+    /** Graines par plage par défaut */
+    public static final int DEFAULT_CHUNK = 4;
+
+    /** Intervalle des PING envoyés par les workers, en millisecondes */
+    static final long HEARTBEAT_MS = 2000;
+
+    /** Silence au-delà duquel un worker est considéré perdu, en millisecondes */
+    private static final int READ_TIMEOUT_MS = 15_000;
+
+    /** Plages confiées d'avance au minimum à chaque worker */
+    private static final int PIPELINE = 2;
+
+    /** Intervalle d'affichage de la progression, en millisecondes */
+    private static final long PROGRESS_INTERVAL_MS = 2000;
+
+    /** Désignations des bots, transmises telles quelles aux workers */
+    private final List<String> specs;
+
+    /** Résultats fusionnés des plages terminées */
+    private final TournamentResults results;
+
+    /** Graines de chaque plage, par identifiant */
+    private final long[][] ranges;
+
+    /** Dimensions des cartes */
+    private final int width, height;
+
+    /** Durée maximale d'une partie, en ticks */
+    private final int maxTicks;
+
+    /** Plages à distribuer */
+    private final ConcurrentLinkedDeque<Integer> pending = new ConcurrentLinkedDeque<>();
+
+    /** 1 pour chaque plage déjà fusionnée (un DONE en double est ignoré) */
+    private final AtomicIntegerArray merged;
+
+    /** Plages restant à terminer */
+    private final AtomicInteger remaining;
+
+    /** Libéré quand toutes les plages sont terminées */
+    private final CountDownLatch finished = new CountDownLatch(1);
+
+    /** Parties fusionnées */
+    private final LongAdder completed = new LongAdder();
+
+    /** Workers connectés */
+    private final Set<WorkerConnection> connections = ConcurrentHashMap.newKeySet();
+
+    /** Compteur des noms de connexion */
+    private final AtomicInteger connectionCounter = new AtomicInteger();
+
+    /** Socket d'écoute */
+    private final ServerSocket serverSocket;
+
+    /**
+     * Constructeur : découpe les graines en plages et ouvre le port d'écoute.
+     *
+     * @param names Noms des bots
+     * @param specs Désignations des bots (voir TournamentRunner.parseBot), dans le même ordre
+     * @param seeds Graines des cartes
+     * @param chunk Graines par plage
+     * @param width Largeur des cartes
+     * @param height Hauteur des cartes
+     * @param maxTicks Durée maximale d'une partie, en ticks
+     * @param port Port d'écoute (0 pour un port éphémère)
+     * @throws IOException Si le port ne peut pas être ouvert
+     */
+    public TournamentCoordinator(List<String> names, List<String> specs, long[] seeds, int chunk,
+                                 int width, int height, int maxTicks, int port) throws IOException {
+        if (names.size() < 2 || names.size() != specs.size()) {
+            throw new IllegalArgumentException("Il faut au moins deux bots, un nom par désignation");
+        }
+        for (String spec : specs) {
+            TournamentRunner.parseBot(spec);
+        }
+        this.specs = List.copyOf(specs);
+        this.results = new TournamentResults(names);
+        this.width = width;
+        this.height = height;
+        this.maxTicks = maxTicks;
+
+        int size = Math.max(1, chunk);
+        this.ranges = new long[(seeds.length + size - 1) / size][];
+        for (int id = 0; id < ranges.length; id++) {
+            ranges[id] = Arrays.copyOfRange(seeds, id * size, Math.min(seeds.length, (id + 1) * size));
+            pending.add(id);
+        }
+        this.merged = new AtomicIntegerArray(ranges.length);
+        this.remaining = new AtomicInteger(ranges.length);
+        if (ranges.length == 0) finished.countDown();
+
+        this.serverSocket = new ServerSocket();
+        this.serverSocket.setReuseAddress(true);
+        this.serverSocket.bind(new InetSocketAddress(port));
+    }
+
+    /**
+     * Démarre l'acceptation des workers sur un thread dédié.
+     */
+    public void start() {
+        Thread acceptThread = new Thread(this::acceptLoop, "TournamentAccept");
+        acceptThread.setDaemon(true);
+        acceptThread.start();
+        System.out.println("🌐 Coordinateur en écoute sur le port " + getPort() + ", " + ranges.length + " plage(s)");
+    }
+
+    /**
+     * Boucle d'acceptation : chaque worker est servi par son propre thread.
+     */
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                WorkerConnection connection = new WorkerConnection(socket);
+                connections.add(connection);
+                Thread thread = new Thread(connection, "TournamentWorker-" + connectionCounter.incrementAndGet());
+                thread.setDaemon(true);
+                thread.start();
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    System.err.println("Erreur d'acceptation: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Attend la fin de toutes les plages en affichant la progression.
+     *
+     * @throws InterruptedException Si l'attente est interrompue
+     */
+    public void awaitCompletion() throws InterruptedException {
+        long total = 0;
+        for (long[] range : ranges) total += range.length;
+        total *= (long) specs.size() * (specs.size() - 1);
+
+        long start = System.nanoTime();
+        while (!finished.await(PROGRESS_INTERVAL_MS, TimeUnit.MILLISECONDS)) {
+            long done = completed.sum();
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf(Locale.ROOT, "📊 Parties: %d/%d (%.1f/s), %d worker(s)%n",
+                    done, total, done / seconds, connections.size());
+        }
+    }
+
+    /**
+     * Congédie les workers et ferme le port d'écoute.
+     */
+    public void shutdown() {
+        try {
+            serverSocket.close();
+        } catch (IOException ignored) {
+        }
+        for (WorkerConnection connection : connections) {
+            connection.send("BYE");
+            connection.close();
+        }
+    }
+
+    /**
+     * Fusionne une plage terminée, une seule fois.
+     *
+     * @param id Identifiant de la plage
+     * @param partial Bilans de la plage
+     */
+    private void complete(int id, TournamentResults partial) {
+        if (!merged.compareAndSet(id, 0, 1)) return;
+        results.merge(partial);
+        completed.add(partial.getTotalMatches());
+        if (remaining.decrementAndGet() == 0) finished.countDown();
+    }
+
+    /**
+     * Connexion d'un worker : lecture bloquante de ses messages et suivi de ses plages.
+     */
+    private final class WorkerConnection implements Runnable {
+
+        /** Socket du worker */
+        private final Socket socket;
+
+        /** Flux d'écriture vers le worker, protégé par son propre verrou */
+        private BufferedWriter writer;
+
+        /** Plages confiées et non terminées, avec leurs bilans partiels */
+        private final Map<Integer, TournamentResults> inFlight = new LinkedHashMap<>();
+
+        /** Adresse du worker, pour les messages */
+        private final String address;
+
+        /** Plages confiées d'avance à ce worker, calculé d'après ses threads */
+        private int pipeline = PIPELINE;
+
+        /**
+         * Constructeur.
+         *
+         * @param socket Socket du worker accepté
+         */
+        WorkerConnection(Socket socket) {
+            this.socket = socket;
+            this.address = String.valueOf(socket.getRemoteSocketAddress());
+        }
+
+        /**
+         * Boucle de lecture : HELLO, puis bilans des plages jusqu'à la fin du tournoi.
+         */
+        @Override
+        public void run() {
+            try (Socket s = socket;
+                 BufferedReader reader = new BufferedReader(
+                         new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8))) {
+                s.setTcpNoDelay(true);
+                s.setSoTimeout(READ_TIMEOUT_MS);
+                writer = new BufferedWriter(new OutputStreamWriter(s.getOutputStream(), StandardCharsets.UTF_8));
+
+                String hello = reader.readLine();
+                if (hello == null || !hello.startsWith("HELLO")) {
+                    send("ERROR HELLO attendu");
+                    return;
+                }
+                int threads = parseThreads(hello.substring(5).trim());
+                pipeline = pipelineFor(threads);
+                System.out.println("🤝 Worker connecté: " + address + " (" + threads + " thread(s), "
+                        + pipeline + " plage(s) d'avance)");
+                send("CONFIG " + width + " " + height + " " + maxTicks + " " + String.join(",", specs));
+
+                String line;
+                while (dispatch() && (line = reader.readLine()) != null) {
+                    if (!handleMessage(line.trim())) break;
+                }
+            } catch (SocketTimeoutException e) {
+                System.err.println("⚠️ Worker muet depuis " + READ_TIMEOUT_MS / 1000 + "s: " + address);
+            } catch (SocketException e) {
+                // Worker arrêté brutalement : ses plages sont réattribuées ci-dessous
+            } catch (IOException e) {
+                System.err.println("Erreur du worker " + address + ": " + e.getMessage());
+            } finally {
+                release();
+            }
+        }
+
+        /**
+         * Complète la réserve de plages du worker, ou le congédie quand tout est terminé.
+         *
+         * @return false si la connexion doit être fermée
+         */
+        private boolean dispatch() {
+            if (remaining.get() == 0) {
+                send("BYE");
+                return false;
+            }
+            while (inFlight.size() < pipeline) {
+                Integer id = pending.poll();
+                if (id == null) break;
+                inFlight.put(id, new TournamentResults(results.getNames()));
+                StringBuilder message = new StringBuilder("RANGE ").append(id).append(' ');
+                long[] seeds = ranges[id];
+                for (int i = 0; i < seeds.length; i++) {
+                    if (i > 0) message.append(',');
+                    message.append(seeds[i]);
+                }
+                send(message.toString());
+            }
+            return true;
+        }
+
+        /**
+         * Lit le nombre de threads annoncé par HELLO, 1 s'il est absent ou illisible.
+         *
+         * @param value Argument de HELLO
+         * @return Nombre de threads du worker
+         */
+        private int parseThreads(String value) {
+            try {
+                return Math.max(1, Integer.parseInt(value));
+            } catch (NumberFormatException e) {
+                return 1;
+            }
+        }
+
+        /**
+         * Nombre de plages à confier d'avance : de quoi occuper tous les threads du worker,
+         * qui joue ses plages en parallèle, plus une plage d'avance.
+         *
+         * @param threads Threads du worker
+         * @return Plages en cours visées, au moins PIPELINE
+         */
+        private int pipelineFor(int threads) {
+            long chunk = ranges.length > 0 ? ranges[0].length : 1;
+            long matchesPerRange = Math.max(1, chunk * specs.size() * (specs.size() - 1));
+            int busy = (int) Math.min(ranges.length, (threads + matchesPerRange - 1) / matchesPerRange);
+            return Math.max(PIPELINE, busy + 1);
+        }
+
+        /**
+         * Interprète un message du worker.
+         *
+         * @param line Ligne reçue
+         * @return false si la connexion doit être fermée
+         */
+        private boolean handleMessage(String line) {
+            if (line.isEmpty()) return true;
+            String[] parts = line.split("\\s+");
+            try {
+                switch (parts[0]) {
+                    case "PING":
+                        return true;
+                    case "RESULT": {
+                        TournamentResults partial = inFlight.get(Integer.parseInt(parts[1]));
+                        if (partial == null) return true;
+                        partial.add(Integer.parseInt(parts[2]), Integer.parseInt(parts[3]),
+                                Long.parseLong(parts[4]), Long.parseLong(parts[5]), Long.parseLong(parts[6]),
+                                Long.parseLong(parts[7]), Long.parseLong(parts[8]));
+                        return true;
+                    }
+                    case "DONE": {
+                        int id = Integer.parseInt(parts[1]);
+                        TournamentResults partial = inFlight.remove(id);
+                        if (partial != null) complete(id, partial);
+                        return true;
+                    }
+                    default:
+                        send("ERROR message inconnu: " + parts[0]);
+                        return true;
+                }
+            } catch (RuntimeException e) {
+                // Bilan illisible : la connexion est fermée et ses plages rejouées ailleurs
+                System.err.println("⚠️ Message invalide de " + address + ": " + line);
+                return false;
+            }
+        }
+
+        /**
+         * Remet en tête de file les plages non terminées et oublie la connexion.
+         */
+        private void release() {
+            connections.remove(this);
+            if (!inFlight.isEmpty()) {
+                List<Integer> lost = new ArrayList<>(inFlight.keySet());
+                for (int i = lost.size() - 1; i >= 0; i--) {
+                    pending.addFirst(lost.get(i));
+                }
+                inFlight.clear();
+                System.out.println("♻️ Worker perdu: " + address + ", " + lost.size() + " plage(s) réattribuée(s)");
+            }
+            close();
+        }
+
+        /**
+         * Envoie une ligne au worker. Les erreurs d'écriture ferment la connexion.
+         *
+         * @param message Ligne à envoyer
+         */
+        void send(String message) {
+            BufferedWriter w = writer;
+            if (w == null) return;
+            synchronized (w) {
+                try {
+                    w.write(message);
+                    w.write('\n');
+                    w.flush();
+                } catch (IOException e) {
+                    close();
+                }
+            }
+        }
+
+        /**
+         * Ferme la socket ; la boucle de lecture se termine et libère les plages.
+         */
+        void close() {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    /**
+     * Lance des workers locaux dans des processus séparés, avec le même classpath
+     * (ou module path) que le coordinateur.
+     *
+     * @param count Nombre de workers
+     * @param threads Threads par worker
+     * @return Processus lancés
+     * @throws IOException Si un processus ne peut pas être lancé
+     */
+    public List<Process> launchLocalWorkers(int count, int threads) throws IOException {
+        String java = ProcessHandle.current().info().command().orElse("java");
+        String modulePath = System.getProperty("jdk.module.path");
+        List<Process> processes = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            List<String> command = new ArrayList<>();
+            command.add(java);
+            if (modulePath != null && !modulePath.isEmpty()) {
+                command.addAll(List.of("--module-path", modulePath, "-m", "MVP/" + TournamentWorker.class.getName()));
+            } else {
+                command.addAll(List.of("-cp", System.getProperty("java.class.path"), TournamentWorker.class.getName()));
+            }
+            command.addAll(List.of("--host", "localhost", "--port", String.valueOf(getPort()),
+                    "--threads", String.valueOf(threads)));
+            processes.add(new ProcessBuilder(command).inheritIO().start());
+        }
+        return processes;
+    }
+
+    /**
+     * Retourne le port d'écoute effectif.
+     *
+     * @return Port local
+     */
+    public int getPort() { return serverSocket.getLocalPort(); }
+
+    /** @return Résultats fusionnés */
+    public TournamentResults getResults() { return results; }
+
+    /**
+     * Point d'entrée en ligne de commande.
+     *
+     * @param args Options (voir la documentation de la classe)
+     * @throws Exception En cas d'erreur réseau ou d'écriture
+     */
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) {
+                System.err.println("Option inattendue: " + args[i]);
+                return;
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+
+        List<String> names = new ArrayList<>();
+        List<String> specs = new ArrayList<>();
+        for (String spec : options.getOrDefault("bots", "baseline,baseline:40").split(",")) {
+            String name = spec.trim();
+            specs.add(name);
+            if (names.contains(name)) name = name + "#" + names.size();
+            names.add(name);
+        }
+        long[] seeds = TournamentRunner.parseSeeds(options.getOrDefault("seeds", "100"));
+        String[] map = options.getOrDefault("map", "15x13").split("x");
+        int maxTicks = Integer.parseInt(options.getOrDefault("max-ticks", String.valueOf(TournamentRunner.DEFAULT_MAX_TICKS)));
+        int chunk = Integer.parseInt(options.getOrDefault("chunk", String.valueOf(DEFAULT_CHUNK)));
+        int port = Integer.parseInt(options.getOrDefault("port", String.valueOf(DEFAULT_PORT)));
+        int localWorkers = Integer.parseInt(options.getOrDefault("local-workers", "0"));
+        int workerThreads = Integer.parseInt(options.getOrDefault("worker-threads", String.valueOf(
+                Math.max(1, Runtime.getRuntime().availableProcessors() / Math.max(1, localWorkers)))));
+        Path out = Path.of(options.getOrDefault("out", "tournament"));
+
+        TournamentCoordinator coordinator = new TournamentCoordinator(names, specs, seeds, chunk,
+                Integer.parseInt(map[0]), Integer.parseInt(map[1]), maxTicks, port);
+        coordinator.start();
+        List<Process> workers = coordinator.launchLocalWorkers(localWorkers, workerThreads);
+
+        long start = System.nanoTime();
+        try {
+            coordinator.awaitCompletion();
+        } finally {
+            coordinator.shutdown();
+            for (Process worker : workers) {
+                if (!worker.waitFor(HEARTBEAT_MS * 2, TimeUnit.MILLISECONDS)) worker.destroy();
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        TournamentRunner.writeSummary(coordinator.getResults(), out, seconds);
+    }
+}
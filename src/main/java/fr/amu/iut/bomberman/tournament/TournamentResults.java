@@ -0,0 +1,338 @@
+package fr.amu.iut.bomberman.tournament;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Résultats cumulés d'un tournoi entre bots, alimentés sans verrou par les threads
+ * qui jouent les parties : chaque compteur est une case d'un AtomicLongArray indexée
+ * par paire de bots (ligne = bot, colonne = adversaire).
+ * <p>
+ * Le classement Elo est ajusté sur la matrice complète (modèle de Bradley-Terry,
+ * nul = demi-victoire) : il ne dépend pas de l'ordre dans lequel les parties se
+ * terminent, contrairement à une mise à jour Elo partie par partie.
+ */
+public class TournamentResults {
+
+    /** Classement moyen des bots */
+    public static final double BASE_RATING = 1000.0;
+
+    /** Demi-parties nulles fictives ajoutées à chaque paire jouée (évite les classements infinis) */
+    private static final double PRIOR_DRAWS = 1.0;
+
+    /** Itérations de l'ajustement du classement */
+    private static final int RATING_ITERATIONS = 500;
+
+    /** Noms des bots */
+    private final List<String> names;
+
+    /** Nombre de bots */
+    private final int size;
+
+    /** Victoires de la ligne contre la colonne */
+    private final AtomicLongArray wins;
+
+    /** Parties nulles (match nul ou temps écoulé), comptées dans les deux cases */
+    private final AtomicLongArray draws;
+
+    /** Parties arrêtées par la limite de temps, comptées dans les deux cases */
+    private final AtomicLongArray timeouts;
+
+    /** Somme des durées des parties de chaque paire, en ticks, dans les deux cases */
+    private final AtomicLongArray ticks;
+
+    /**
+     * Constructeur.
+     *
+     * @param names Noms des bots, dans l'ordre de leurs index
+     */
+    public TournamentResults(List<String> names) {
+        this.names = List.copyOf(names);
+        this.size = names.size();
+        this.wins = new AtomicLongArray(size * size);
+        this.draws = new AtomicLongArray(size * size);
+        this.timeouts = new AtomicLongArray(size * size);
+        this.ticks = new AtomicLongArray(size * size);
+    }
+
+    /**
+     * Enregistre le résultat d'une partie. Appelable depuis n'importe quel thread.
+     *
+     * @param a Index du premier bot
+     * @param b Index du second bot
+     * @param winner Index du gagnant (a ou b), -1 pour un match nul
+     * @param matchTicks Durée de la partie en ticks
+     * @param timedOut true si la partie a été arrêtée par la limite de temps
+     */
+    public void record(int a, int b, int winner, long matchTicks, boolean timedOut) {
+        int ab = a * size + b, ba = b * size + a;
+        if (winner == a) {
+            wins.getAndIncrement(ab);
+        } else if (winner == b) {
+            wins.getAndIncrement(ba);
+        } else {
+            draws.getAndIncrement(ab);
+            draws.getAndIncrement(ba);
+        }
+        if (timedOut) {
+            timeouts.getAndIncrement(ab);
+            timeouts.getAndIncrement(ba);
+        }
+        ticks.getAndAdd(ab, matchTicks);
+        ticks.getAndAdd(ba, matchTicks);
+    }
+
+    /**
+     * Ajoute les résultats agrégés d'une paire (plage de graines jouée par un worker).
+     * Appelable depuis n'importe quel thread.
+     *
+     * @param a Index du premier bot
+     * @param b Index du second bot
+     * @param winsA Victoires de a
+     * @param winsB Victoires de b
+     * @param drawn Parties nulles
+     * @param timedOut Parties arrêtées par la limite de temps
+     * @param totalTicks Somme des durées des parties, en ticks
+     */
+    public void add(int a, int b, long winsA, long winsB, long drawn, long timedOut, long totalTicks) {
+        int ab = a * size + b, ba = b * size + a;
+        wins.getAndAdd(ab, winsA);
+        wins.getAndAdd(ba, winsB);
+        draws.getAndAdd(ab, drawn);
+        draws.getAndAdd(ba, drawn);
+        timeouts.getAndAdd(ab, timedOut);
+        timeouts.getAndAdd(ba, timedOut);
+        ticks.getAndAdd(ab, totalTicks);
+        ticks.getAndAdd(ba, totalTicks);
+    }
+
+    /**
+     * Ajoute tous les résultats d'un autre tournoi entre les mêmes bots.
+     *
+     * @param other Résultats à ajouter
+     */
+    public void merge(TournamentResults other) {
+        for (int a = 0; a < size; a++) {
+            for (int b = a + 1; b < size; b++) {
+                add(a, b, other.getWins(a, b), other.getWins(b, a), other.getDraws(a, b),
+                        other.getTimeouts(a, b), other.getTicks(a, b));
+            }
+        }
+    }
+
+    /**
+     * Retourne le nombre de parties jouées entre deux bots.
+     *
+     * @param a Index du premier bot
+     * @param b Index du second bot
+     * @return Nombre de parties
+     */
+    public long getMatches(int a, int b) {
+        return wins.get(a * size + b) + wins.get(b * size + a) + draws.get(a * size + b);
+    }
+
+    /**
+     * Retourne le nombre de victoires d'un bot contre un autre.
+     *
+     * @param a Index du bot
+     * @param b Index de l'adversaire
+     * @return Nombre de victoires de a contre b
+     */
+    public long getWins(int a, int b) {
+        return wins.get(a * size + b);
+    }
+
+    /**
+     * Retourne le nombre de parties nulles entre deux bots.
+     *
+     * @param a Index du premier bot
+     * @param b Index du second bot
+     * @return Parties nulles
+     */
+    public long getDraws(int a, int b) {
+        return draws.get(a * size + b);
+    }
+
+    /**
+     * Retourne le nombre de parties entre deux bots arrêtées par la limite de temps.
+     *
+     * @param a Index du premier bot
+     * @param b Index du second bot
+     * @return Parties arrêtées
+     */
+    public long getTimeouts(int a, int b) {
+        return timeouts.get(a * size + b);
+    }
+
+    /**
+     * Retourne la somme des durées des parties entre deux bots.
+     *
+     * @param a Index du premier bot
+     * @param b Index du second bot
+     * @return Durée totale, en ticks
+     */
+    public long getTicks(int a, int b) {
+        return ticks.get(a * size + b);
+    }
+
+    /**
+     * Retourne le nombre total de parties enregistrées.
+     *
+     * @return Nombre de parties
+     */
+    public long getTotalMatches() {
+        long total = 0;
+        for (int a = 0; a < size; a++) {
+            for (int b = a + 1; b < size; b++) {
+                total += getMatches(a, b);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Ajuste les classements Elo sur les résultats enregistrés (algorithme MM de
+     * Bradley-Terry), centrés sur BASE_RATING. Un bot sans partie reste à BASE_RATING.
+     *
+     * @return Classement de chaque bot
+     */
+    public double[] computeRatings() {
+        double[][] score = new double[size][size];
+        double[][] games = new double[size][size];
+        for (int a = 0; a < size; a++) {
+            for (int b = 0; b < size; b++) {
+                if (a == b) continue;
+                long played = getMatches(a, b);
+                if (played == 0) continue;
+                score[a][b] = wins.get(a * size + b) + 0.5 * draws.get(a * size + b) + 0.5 * PRIOR_DRAWS;
+                games[a][b] = played + PRIOR_DRAWS;
+            }
+        }
+
+        double[] strength = new double[size];
+        Arrays.fill(strength, 1.0);
+        double[] next = new double[size];
+        for (int iteration = 0; iteration < RATING_ITERATIONS; iteration++) {
+            for (int a = 0; a < size; a++) {
+                double totalScore = 0, denominator = 0;
+                for (int b = 0; b < size; b++) {
+                    if (games[a][b] == 0) continue;
+                    totalScore += score[a][b];
+                    denominator += games[a][b] / (strength[a] + strength[b]);
+                }
+                next[a] = denominator > 0 ? totalScore / denominator : strength[a];
+            }
+            double logMean = 0;
+            for (int a = 0; a < size; a++) {
+                logMean += Math.log(next[a]);
+            }
+            double scale = Math.exp(logMean / size);
+            for (int a = 0; a < size; a++) {
+                strength[a] = next[a] / scale;
+            }
+        }
+
+        double[] ratings = new double[size];
+        for (int a = 0; a < size; a++) {
+            ratings[a] = BASE_RATING + 400.0 * Math.log10(strength[a]);
+        }
+        return ratings;
+    }
+
+    /**
+     * Écrit les résultats dans un répertoire : elo.csv (classement et bilan de chaque bot),
+     * wins.csv (matrice des victoires) et lengths.csv (durée moyenne des parties par paire).
+     *
+     * @param directory Répertoire de sortie, créé si besoin
+     * @throws IOException En cas d'erreur d'écriture
+     */
+    public void writeCsv(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        double[] ratings = computeRatings();
+
+        try (PrintWriter out = writer(directory.resolve("elo.csv"))) {
+            out.println("bot,elo,matches,wins,draws,losses,timeouts,score,avg_ticks");
+            for (int a = 0; a < size; a++) {
+                long played = 0, won = 0, drawn = 0, lost = 0, timedOut = 0, totalTicks = 0;
+                for (int b = 0; b < size; b++) {
+                    if (a == b) continue;
+                    played += getMatches(a, b);
+                    won += wins.get(a * size + b);
+                    drawn += draws.get(a * size + b);
+                    lost += wins.get(b * size + a);
+                    timedOut += timeouts.get(a * size + b);
+                    totalTicks += ticks.get(a * size + b);
+                }
+                out.printf(Locale.ROOT, "%s,%.1f,%d,%d,%d,%d,%d,%.4f,%.1f%n", csv(names.get(a)), ratings[a],
+                        played, won, drawn, lost, timedOut,
+                        played > 0 ? (won + 0.5 * drawn) / played : 0.0,
+                        played > 0 ? (double) totalTicks / played : 0.0);
+            }
+        }
+
+        try (PrintWriter out = writer(directory.resolve("wins.csv"))) {
+            writeHeader(out);
+            for (int a = 0; a < size; a++) {
+                out.print(csv(names.get(a)));
+                for (int b = 0; b < size; b++) {
+                    out.print(',');
+                    if (a != b) out.print(wins.get(a * size + b));
+                }
+                out.println();
+            }
+        }
+
+        try (PrintWriter out = writer(directory.resolve("lengths.csv"))) {
+            writeHeader(out);
+            for (int a = 0; a < size; a++) {
+                out.print(csv(names.get(a)));
+                for (int b = 0; b < size; b++) {
+                    out.print(',');
+                    long played = a != b ? getMatches(a, b) : 0;
+                    if (played > 0) out.printf(Locale.ROOT, "%.1f", (double) ticks.get(a * size + b) / played);
+                }
+                out.println();
+            }
+        }
+    }
+
+    /**
+     * Écrit l'en-tête d'une matrice : une colonne par adversaire.
+     */
+    private void writeHeader(PrintWriter out) {
+        out.print("bot");
+        for (String name : names) {
+            out.print(',');
+            out.print(csv(name));
+        }
+        out.println();
+    }
+
+    /**
+     * Ouvre un fichier CSV en UTF-8.
+     */
+    private static PrintWriter writer(Path path) throws IOException {
+        return new PrintWriter(Files.newBufferedWriter(path, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Échappe une valeur CSV contenant une virgule ou des guillemets.
+     */
+    private static String csv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0) return value;
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    /** @return Noms des bots */
+    public List<String> getNames() { return names; }
+
+    /** @return Nombre de bots */
+    public int size() { return size; }
+}
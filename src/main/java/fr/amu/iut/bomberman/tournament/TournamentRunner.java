@@ -0,0 +1,417 @@
+package fr.amu.iut.bomberman.tournament;
+
+import fr.amu.iut.bomberman.model.bot.BaselineBot;
+import fr.amu.iut.bomberman.model.bot.BotController;
+import fr.amu.iut.bomberman.model.bot.MctsBot;
+import fr.amu.iut.bomberman.model.common.GameLog;
+import fr.amu.iut.bomberman.model.entities.Player;
+import fr.amu.iut.bomberman.model.game.GameEngine;
+import fr.amu.iut.bomberman.model.map.GameMap;
+
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tournoi entre bots en ligne de commande, sur des moteurs sans affichage.
+ * Chaque confrontation se joue en duel sur chaque graine de carte, des deux côtés de la
+ * carte. Les parties sont réparties sur tous les processeurs : chaque thread tire la
+ * suivante d'un curseur atomique et réutilise son moteur d'une partie à l'autre ; les
+ * résultats sont cumulés sans verrou dans TournamentResults puis écrits en CSV.
+ * <p>
+ * Usage : TournamentRunner [--bots baseline,baseline:40,mcts:5] [--seeds 100 | 1-500 | 3,7,9]
+ * [--format roundrobin|swiss] [--rounds n] [--map 15x13] [--threads n] [--max-ticks n]
+ * [--out répertoire]
+ * <p>
+ * Un bot est désigné par baseline[:ticks par case], mcts[:budget en ms] ou le nom complet
+ * d'une classe BotController ayant un constructeur (int idJoueur, long graine).
+ */
+public class TournamentRunner {
+
+    /** Durée maximale d'une partie par défaut, en ticks (3 minutes, durée par défaut de GameState) */
+    public static final int DEFAULT_MAX_TICKS = 180 * GameEngine.TICK_RATE;
+
+    /** Durée d'un tick, en secondes */
+    private static final double TICK_SECONDS = 1.0 / GameEngine.TICK_RATE;
+
+    /** Intervalle d'affichage de la progression, en millisecondes */
+    private static final long PROGRESS_INTERVAL_MS = 2000;
+
+    /**
+     * Fabrique d'un bot du tournoi.
+     */
+    @FunctionalInterface
+    public interface BotFactory {
+        /**
+         * Crée un bot pour une partie.
+         *
+         * @param playerId Identifiant du joueur piloté
+         * @param seed Graine des tirages du bot
+         * @return Bot neuf
+         */
+        BotController create(int playerId, long seed);
+    }
+
+    /** Fabriques des bots, par index */
+    private final List<BotFactory> factories;
+
+    /** Résultats cumulés */
+    private final TournamentResults results;
+
+    /** Graines des cartes */
+    private final long[] seeds;
+
+    /** Dimensions des cartes */
+    private final int width, height;
+
+    /** Durée maximale d'une partie, en ticks */
+    private final int maxTicks;
+
+    /** Threads qui jouent les parties */
+    private final ExecutorService executor;
+    private final int threads;
+
+    /** Moteur de chaque thread, réutilisé d'une partie à l'autre */
+    private final ThreadLocal<GameEngine> engines;
+
+    /** Parties terminées */
+    private final LongAdder completed = new LongAdder();
+
+    /**
+     * Constructeur.
+     *
+     * @param names Noms des bots
+     * @param factories Fabriques des bots, dans le même ordre
+     * @param seeds Graines des cartes
+     * @param width Largeur des cartes
+     * @param height Hauteur des cartes
+     * @param maxTicks Durée maximale d'une partie, en ticks (match nul au-delà)
+     * @param threads Nombre de threads
+     */
+    public TournamentRunner(List<String> names, List<BotFactory> factories, long[] seeds,
+                            int width, int height, int maxTicks, int threads) {
+        if (names.size() < 2 || names.size() != factories.size()) {
+            throw new IllegalArgumentException("Il faut au moins deux bots, un nom par fabrique");
+        }
+        this.factories = List.copyOf(factories);
+        this.results = new TournamentResults(names);
+        this.seeds = seeds.clone();
+        this.width = width;
+        this.height = height;
+        this.maxTicks = maxTicks;
+        this.threads = Math.max(1, threads);
+        this.engines = ThreadLocal.withInitial(() -> new GameEngine(new GameMap(width, height, 0)));
+
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(this.threads, r -> {
+            Thread t = new Thread(r, "Tournament-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Joue toutes les paires une fois sur chaque graine, des deux côtés.
+     *
+     * @throws InterruptedException Si l'attente des parties est interrompue
+     */
+    public void runRoundRobin() throws InterruptedException {
+        playPairs(allPairs(), seeds, results);
+    }
+
+    /**
+     * Joue toutes les paires sur des graines données, dans des résultats séparés de ceux
+     * du tournoi (plage de graines confiée à un TournamentWorker).
+     *
+     * @param rangeSeeds Graines des cartes
+     * @return Résultats de ces seules parties
+     * @throws InterruptedException Si l'attente des parties est interrompue
+     */
+    public TournamentResults playRoundRobin(long[] rangeSeeds) throws InterruptedException {
+        TournamentResults rangeResults = new TournamentResults(results.getNames());
+        playPairs(allPairs(), rangeSeeds, rangeResults);
+        return rangeResults;
+    }
+
+    /**
+     * Retourne toutes les paires de bots.
+     */
+    private List<int[]> allPairs() {
+        List<int[]> pairs = new ArrayList<>();
+        for (int a = 0; a < results.size(); a++) {
+            for (int b = a + 1; b < results.size(); b++) {
+                pairs.add(new int[]{a, b});
+            }
+        }
+        return pairs;
+    }
+
+    /**
+     * Système suisse : à chaque ronde, les bots sont triés par classement et appariés
+     * avec le plus proche qu'ils n'ont pas encore affronté (un bot exempté si impair).
+     *
+     * @param rounds Nombre de rondes
+     * @throws InterruptedException Si l'attente des parties est interrompue
+     */
+    public void runSwiss(int rounds) throws InterruptedException {
+        int size = results.size();
+        for (int round = 1; round <= rounds; round++) {
+            double[] ratings = results.computeRatings();
+            List<Integer> order = new ArrayList<>();
+            for (int i = 0; i < size; i++) order.add(i);
+            order.sort(Comparator.comparingDouble((Integer i) -> -ratings[i]).thenComparingInt(i -> i));
+
+            boolean[] paired = new boolean[size];
+            List<int[]> pairs = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                int a = order.get(i);
+                if (paired[a]) continue;
+                int opponent = -1;
+                for (int j = i + 1; j < size; j++) {
+                    int b = order.get(j);
+                    if (paired[b]) continue;
+                    if (opponent < 0) opponent = b;
+                    if (results.getMatches(a, b) == 0) {
+                        opponent = b;
+                        break;
+                    }
+                }
+                if (opponent < 0) continue;
+                paired[a] = paired[opponent] = true;
+                pairs.add(new int[]{a, opponent});
+            }
+            System.out.println("🔁 Ronde " + round + "/" + rounds + " : " + pairs.size() + " confrontation(s)");
+            playPairs(pairs, seeds, results);
+        }
+    }
+
+    /**
+     * Joue des confrontations sur toutes les graines, des deux côtés, en parallèle,
+     * et affiche la progression jusqu'à la dernière partie.
+     */
+    private void playPairs(List<int[]> pairs, long[] seeds, TournamentResults target) throws InterruptedException {
+        int count = pairs.size() * seeds.length * 2;
+        if (count == 0) return;
+        AtomicInteger cursor = new AtomicInteger();
+
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            workers.add(executor.submit(() -> {
+                GameEngine engine = engines.get();
+                int match;
+                while ((match = cursor.getAndIncrement()) < count) {
+                    int[] pair = pairs.get(match / (seeds.length * 2));
+                    int rest = match % (seeds.length * 2);
+                    play(engine, pair[0], pair[1], seeds[rest >> 1], (rest & 1) != 0, target);
+                    completed.increment();
+                }
+            }));
+        }
+
+        long start = System.nanoTime();
+        long done = completed.sum();
+        for (Future<?> worker : workers) {
+            while (true) {
+                try {
+                    worker.get(PROGRESS_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                    break;
+                } catch (TimeoutException e) {
+                    long now = completed.sum();
+                    double seconds = (System.nanoTime() - start) / 1e9;
+                    System.out.printf(Locale.ROOT, "📊 Parties: %d/%d (%.1f/s)%n",
+                            now - done, count, (now - done) / seconds);
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Partie interrompue", e.getCause());
+                }
+            }
+        }
+    }
+
+    /**
+     * Joue une partie entre deux bots et enregistre son résultat.
+     *
+     * @param engine Moteur du thread
+     * @param a Index du premier bot
+     * @param b Index du second bot
+     * @param seed Graine de la carte
+     * @param swapped true si le premier bot part du second point de départ
+     * @param target Résultats où enregistrer la partie
+     */
+    private void play(GameEngine engine, int a, int b, long seed, boolean swapped, TournamentResults target) {
+        int idA = swapped ? 1 : 0;
+        int idB = 1 - idA;
+        engine.clearBots();
+        engine.addBot(factories.get(a).create(idA, seed * 31 + a));
+        engine.addBot(factories.get(b).create(idB, seed * 31 + b));
+        engine.initializeGame(2, seed);
+
+        int tick = 0;
+        while (engine.isGameRunning() && tick < maxTicks) {
+            engine.update(TICK_SECONDS);
+            tick++;
+        }
+        boolean timedOut = engine.isGameRunning();
+        Player winner = engine.getGameState().getWinner();
+        int winnerIndex = timedOut || winner == null ? -1 : winner.getId() == idA ? a : b;
+        target.record(a, b, winnerIndex, tick, timedOut);
+    }
+
+    /**
+     * Arrête les threads du tournoi.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /** @return Résultats cumulés */
+    public TournamentResults getResults() { return results; }
+
+    /**
+     * Crée la fabrique d'un bot à partir de sa désignation en ligne de commande.
+     * Les bots MCTS cherchent de façon bloquante sur une réserve d'un thread propre
+     * à chaque thread du tournoi, pour ne pas se disputer les processeurs.
+     *
+     * @param spec baseline[:ticks par case], mcts[:budget en ms] ou nom complet de classe
+     * @return Fabrique du bot
+     * @throws IllegalArgumentException Si la désignation est invalide
+     */
+    public static BotFactory parseBot(String spec) {
+        String[] parts = spec.split(":", 2);
+        switch (parts[0].toLowerCase(Locale.ROOT)) {
+            case "baseline": {
+                int interval = parts.length > 1 ? Integer.parseInt(parts[1]) : BaselineBot.DEFAULT_MOVE_INTERVAL;
+                return (id, seed) -> new BaselineBot(id, seed, interval);
+            }
+            case "mcts": {
+                long budget = parts.length > 1 ? Long.parseLong(parts[1]) : MctsBot.DEFAULT_TIME_BUDGET_MS;
+                ThreadLocal<ForkJoinPool> pools = ThreadLocal.withInitial(() -> new ForkJoinPool(1));
+                return (id, seed) -> new MctsBot(id, seed, budget, true, pools.get());
+            }
+            default: {
+                try {
+                    Constructor<? extends BotController> constructor = Class.forName(spec)
+                            .asSubclass(BotController.class)
+                            .getConstructor(int.class, long.class);
+                    return (id, seed) -> {
+                        try {
+                            return constructor.newInstance(id, seed);
+                        } catch (ReflectiveOperationException e) {
+                            throw new IllegalStateException("Création du bot " + spec + " impossible", e);
+                        }
+                    };
+                } catch (ReflectiveOperationException | ClassCastException e) {
+                    throw new IllegalArgumentException("Bot inconnu: " + spec, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Lit une liste de graines : "n" (0 à n-1), "a-b" (bornes incluses) ou "a,b,c".
+     *
+     * @param value Valeur de l'option
+     * @return Graines
+     */
+    static long[] parseSeeds(String value) {
+        if (value.contains(",")) {
+            return Arrays.stream(value.split(",")).mapToLong(s -> Long.parseLong(s.trim())).toArray();
+        }
+        int dash = value.indexOf('-', 1);
+        long first = dash > 0 ? Long.parseLong(value.substring(0, dash)) : 0;
+        long last = dash > 0 ? Long.parseLong(value.substring(dash + 1)) : Long.parseLong(value) - 1;
+        long[] seeds = new long[(int) Math.max(0, last - first + 1)];
+        for (int i = 0; i < seeds.length; i++) {
+            seeds[i] = first + i;
+        }
+        return seeds;
+    }
+
+    /**
+     * Point d'entrée du tournoi.
+     *
+     * @param args Arguments de la ligne de commande (voir la documentation de la classe)
+     * @throws Exception En cas d'erreur de configuration ou d'écriture
+     */
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) {
+                System.err.println("Option inattendue: " + args[i]);
+                return;
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+
+        List<String> names = new ArrayList<>();
+        List<BotFactory> factories = new ArrayList<>();
+        for (String spec : options.getOrDefault("bots", "baseline,baseline:40").split(",")) {
+            String name = spec.trim();
+            factories.add(parseBot(name));
+            if (names.contains(name)) name = name + "#" + names.size();
+            names.add(name);
+        }
+        long[] seeds = parseSeeds(options.getOrDefault("seeds", "100"));
+        String[] map = options.getOrDefault("map", "15x13").split("x");
+        int threads = Integer.parseInt(options.getOrDefault("threads",
+                String.valueOf(Runtime.getRuntime().availableProcessors())));
+        int maxTicks = Integer.parseInt(options.getOrDefault("max-ticks", String.valueOf(DEFAULT_MAX_TICKS)));
+        Path out = Path.of(options.getOrDefault("out", "tournament"));
+        String format = options.getOrDefault("format", "roundrobin");
+
+        GameLog.setEnabled(false);
+        TournamentRunner runner = new TournamentRunner(names, factories, seeds,
+                Integer.parseInt(map[0]), Integer.parseInt(map[1]), maxTicks, threads);
+        System.out.println("🏟️ " + names.size() + " bots, " + seeds.length + " graines, " + format
+                + ", " + threads + " thread(s)");
+
+        long start = System.nanoTime();
+        try {
+            if (format.equalsIgnoreCase("swiss")) {
+                int defaultRounds = 32 - Integer.numberOfLeadingZeros(names.size() - 1) + 1;
+                runner.runSwiss(Integer.parseInt(options.getOrDefault("rounds", String.valueOf(defaultRounds))));
+            } else {
+                runner.runRoundRobin();
+            }
+        } finally {
+            runner.shutdown();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        TournamentResults results = runner.getResults();
+        writeSummary(results, out, seconds);
+    }
+
+    /**
+     * Écrit les CSV et affiche le classement final.
+     */
+    static void writeSummary(TournamentResults results, Path out, double seconds) throws IOException {
+        results.writeCsv(out);
+        double[] ratings = results.computeRatings();
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < results.size(); i++) order.add(i);
+        order.sort(Comparator.comparingDouble((Integer i) -> -ratings[i]));
+
+        long total = results.getTotalMatches();
+        System.out.printf(Locale.ROOT, "🏁 %d parties en %.1fs (%.0f/s), résultats dans %s%n",
+                total, seconds, total / seconds, out.toAbsolutePath());
+        for (int i : order) {
+            System.out.printf(Locale.ROOT, "   %7.1f  %s%n", ratings[i], results.getNames().get(i));
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package fr.amu.iut.bomberman.tournament;
+
+import fr.amu.iut.bomberman.model.common.GameLog;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.ConnectException;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Worker d'un tournoi réparti : se connecte à un TournamentCoordinator, reçoit la
+ * configuration puis des plages de graines, joue chaque plage sur ses propres threads
+ * avec un TournamentRunner (moteurs réutilisés d'une plage à l'autre) et renvoie un
+ * RESULT par paire de bots suivi d'un DONE. Les plages reçues d'avance sont jouées en
+ * même temps : les threads libérés par la fin d'une plage passent à la suivante. Un thread envoie un PING toutes les
+ * HEARTBEAT_MS pour que le coordinateur distingue un calcul long d'un worker perdu.
+ * <p>
+ * Usage : TournamentWorker [--host localhost] [--port 7810] [--threads n]
+ */
+public class TournamentWorker {
+
+    /** Durée pendant laquelle la connexion au coordinateur est retentée, en millisecondes */
+    private static final long CONNECT_TIMEOUT_MS = 30_000;
+
+    /** Délai entre deux tentatives de connexion, en millisecondes */
+    private static final long CONNECT_RETRY_MS = 500;
+
+    /** Socket vers le coordinateur */
+    private final Socket socket;
+
+    /** Flux d'écriture vers le coordinateur, protégé par son propre verrou */
+    private final BufferedWriter writer;
+
+    /** Nombre de threads de jeu */
+    private final int threads;
+
+    /** Tournoi local, créé à la réception de CONFIG */
+    private TournamentRunner runner;
+
+    /** Threads qui attendent la fin de chaque plage, les parties étant jouées par le runner */
+    private final ExecutorService rangeExecutor;
+
+    /**
+     * Constructeur : se connecte au coordinateur, en réessayant tant qu'il n'écoute pas encore.
+     *
+     * @param host Adresse du coordinateur
+     * @param port Port du coordinateur
+     * @param threads Nombre de threads de jeu
+     * @throws IOException Si la connexion échoue
+     * @throws InterruptedException Si l'attente entre deux tentatives est interrompue
+     */
+    public TournamentWorker(String host, int port, int threads) throws IOException, InterruptedException {
+        long deadline = System.currentTimeMillis() + CONNECT_TIMEOUT_MS;
+        Socket connected;
+        while (true) {
+            try {
+                connected = new Socket(host, port);
+                break;
+            } catch (ConnectException e) {
+                if (System.currentTimeMillis() > deadline) throw e;
+                Thread.sleep(CONNECT_RETRY_MS);
+            }
+        }
+        this.socket = connected;
+        this.socket.setTcpNoDelay(true);
+        this.writer = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+        this.threads = Math.max(1, threads);
+
+        AtomicInteger counter = new AtomicInteger();
+        this.rangeExecutor = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "TournamentRange-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Boucle de lecture des ordres du coordinateur, jusqu'à BYE ou la fermeture de la connexion.
+     *
+     * @throws IOException En cas d'erreur réseau
+     */
+    public void run() throws IOException {
+        Thread heartbeat = new Thread(this::heartbeatLoop, "TournamentHeartbeat");
+        heartbeat.setDaemon(true);
+        heartbeat.start();
+
+        try (Socket s = socket;
+             BufferedReader reader = new BufferedReader(
+                     new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8))) {
+            send("HELLO " + threads);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!handleMessage(line.trim())) break;
+            }
+        } finally {
+            rangeExecutor.shutdownNow();
+            if (runner != null) runner.shutdown();
+        }
+    }
+
+    /**
+     * Interprète un message du coordinateur.
+     *
+     * @param line Ligne reçue
+     * @return false si le worker doit s'arrêter
+     */
+    private boolean handleMessage(String line) throws IOException {
+        if (line.isEmpty()) return true;
+        String[] parts = line.split("\\s+");
+        switch (parts[0]) {
+            case "CONFIG": {
+                List<String> specs = List.of(parts[4].split(","));
+                List<TournamentRunner.BotFactory> factories = new ArrayList<>();
+                for (String spec : specs) {
+                    factories.add(TournamentRunner.parseBot(spec));
+                }
+                runner = new TournamentRunner(specs, factories, new long[0], Integer.parseInt(parts[1]),
+                        Integer.parseInt(parts[2]), Integer.parseInt(parts[3]), threads);
+                System.out.println("🤖 Worker prêt: " + specs.size() + " bots, " + threads + " thread(s)");
+                return true;
+            }
+            case "RANGE": {
+                if (runner == null) throw new IOException("RANGE reçu avant CONFIG");
+                rangeExecutor.execute(() -> playRange(parts[1], parts[2]));
+                return true;
+            }
+            case "BYE":
+                return false;
+            case "ERROR":
+                System.err.println("Coordinateur: " + line);
+                return false;
+            default:
+                System.err.println("Message inconnu du coordinateur: " + line);
+                return true;
+        }
+    }
+
+    /**
+     * Joue une plage et renvoie ses bilans par paire. Une plage interrompue (arrêt du
+     * worker) ne renvoie rien ; une partie en erreur ferme la connexion pour que le
+     * coordinateur réattribue les plages en cours.
+     *
+     * @param id Identifiant de la plage
+     * @param seedList Graines séparées par des virgules
+     */
+    private void playRange(String id, String seedList) {
+        String[] values = seedList.split(",");
+        long[] seeds = new long[values.length];
+        for (int i = 0; i < values.length; i++) {
+            seeds[i] = Long.parseLong(values[i]);
+        }
+
+        TournamentResults range;
+        try {
+            range = runner.playRoundRobin(seeds);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (RuntimeException e) {
+            System.err.println("Plage " + id + " abandonnée: " + e.getMessage());
+            close();
+            return;
+        }
+        for (int a = 0; a < range.size(); a++) {
+            for (int b = a + 1; b < range.size(); b++) {
+                send("RESULT " + id + " " + a + " " + b + " " + range.getWins(a, b) + " " + range.getWins(b, a)
+                        + " " + range.getDraws(a, b) + " " + range.getTimeouts(a, b) + " " + range.getTicks(a, b));
+            }
+        }
+        send("DONE " + id);
+    }
+
+    /**
+     * Envoie un PING périodique tant que la connexion est ouverte.
+     */
+    private void heartbeatLoop() {
+        try {
+            while (!socket.isClosed()) {
+                Thread.sleep(TournamentCoordinator.HEARTBEAT_MS);
+                send("PING");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Envoie une ligne au coordinateur. Une erreur d'écriture ferme la connexion,
+     * ce qui termine la boucle de lecture.
+     *
+     * @param message Ligne à envoyer
+     */
+    private void send(String message) {
+        synchronized (writer) {
+            try {
+                writer.write(message);
+                writer.write('\n');
+                writer.flush();
+            } catch (IOException e) {
+                close();
+            }
+        }
+    }
+
+    /**
+     * Ferme la connexion, ce qui termine la boucle de lecture.
+     */
+    private void close() {
+        try {
+            socket.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    /**
+     * Point d'entrée en ligne de commande.
+     *
+     * @param args Options (voir la documentation de la classe)
+     * @throws Exception En cas d'erreur réseau
+     */
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) {
+                System.err.println("Option inattendue: " + args[i]);
+                return;
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        String host = options.getOrDefault("host", "localhost");
+        int port = Integer.parseInt(options.getOrDefault("port", String.valueOf(TournamentCoordinator.DEFAULT_PORT)));
+        int threads = Integer.parseInt(options.getOrDefault("threads",
+                String.valueOf(Runtime.getRuntime().availableProcessors())));
+
+        GameLog.setEnabled(false);
+        new TournamentWorker(host, port, threads).run();
+        System.out.println("👋 Worker terminé");
+    }
+}
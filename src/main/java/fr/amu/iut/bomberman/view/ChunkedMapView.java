@@ -0,0 +1,118 @@
+package fr.amu.iut.bomberman.view;
+
+import fr.amu.iut.bomberman.model.map.ChunkedMap;
+import fr.amu.iut.bomberman.model.map.Tile;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+
+/**
+ * Rendu d'une fenêtre (caméra) sur une ChunkedMap.
+ * Le canvas n'est pas effacé entre deux frames : seuls les blocs visibles modifiés depuis
+ * la frame précédente sont redessinés, les blocs inactifs restent tels quels. Un
+ * déplacement de la caméra redessine toute la fenêtre.
+ */
+public class ChunkedMapView extends Canvas {
+
+    /** Taille d'une tuile en pixels */
+    private static final int TILE_SIZE = MapView.TILE_SIZE;
+
+    /** Carte affichée */
+    private final ChunkedMap map;
+
+    /** Contexte graphique pour le dessin */
+    private final GraphicsContext gc;
+
+    /** Dimensions de la fenêtre, en cases */
+    private final int viewWidth, viewHeight;
+
+    /** Coin haut gauche de la caméra, en cases */
+    private int cameraX, cameraY;
+
+    /** Indique si toute la fenêtre doit être redessinée */
+    private boolean fullRedraw = true;
+
+    /**
+     * Constructeur de la vue.
+     *
+     * @param map Carte à afficher
+     * @param viewWidth Largeur de la fenêtre en cases
+     * @param viewHeight Hauteur de la fenêtre en cases
+     */
+    public ChunkedMapView(ChunkedMap map, int viewWidth, int viewHeight) {
+        this.map = map;
+        this.viewWidth = Math.min(viewWidth, map.getWidth());
+        this.viewHeight = Math.min(viewHeight, map.getHeight());
+        this.gc = getGraphicsContext2D();
+
+        setWidth(this.viewWidth * TILE_SIZE);
+        setHeight(this.viewHeight * TILE_SIZE);
+    }
+
+    /**
+     * Centre la caméra sur une case, sans sortir de la carte.
+     *
+     * @param x Coordonnée X de la case
+     * @param y Coordonnée Y de la case
+     */
+    public void centerOn(int x, int y) {
+        int cx = Math.max(0, Math.min(x - viewWidth / 2, map.getWidth() - viewWidth));
+        int cy = Math.max(0, Math.min(y - viewHeight / 2, map.getHeight() - viewHeight));
+        if (cx != cameraX || cy != cameraY) {
+            cameraX = cx;
+            cameraY = cy;
+            fullRedraw = true;
+        }
+    }
+
+    /**
+     * Met à jour l'affichage : redessine les blocs visibles modifiés,
+     * ou toute la fenêtre après un déplacement de la caméra.
+     */
+    public void update() {
+        if (fullRedraw) {
+            map.drainDirtyChunks((chunkX, chunkY) -> { });
+            drawRegion(cameraX, cameraY, cameraX + viewWidth, cameraY + viewHeight);
+            fullRedraw = false;
+            return;
+        }
+        map.drainDirtyChunks(this::drawChunk);
+    }
+
+    /**
+     * Redessine la partie visible d'un bloc.
+     *
+     * @param chunkX Colonne du bloc
+     * @param chunkY Rangée du bloc
+     */
+    private void drawChunk(int chunkX, int chunkY) {
+        int x0 = Math.max(chunkX * ChunkedMap.CHUNK_SIZE, cameraX);
+        int y0 = Math.max(chunkY * ChunkedMap.CHUNK_SIZE, cameraY);
+        int x1 = Math.min((chunkX + 1) * ChunkedMap.CHUNK_SIZE, cameraX + viewWidth);
+        int y1 = Math.min((chunkY + 1) * ChunkedMap.CHUNK_SIZE, cameraY + viewHeight);
+        if (x0 < x1 && y0 < y1) {
+            drawRegion(x0, y0, x1, y1);
+        }
+    }
+
+    /**
+     * Dessine un rectangle de cases, bornes hautes exclues.
+     */
+    private void drawRegion(int x0, int y0, int x1, int y1) {
+        gc.clearRect((x0 - cameraX) * TILE_SIZE, (y0 - cameraY) * TILE_SIZE,
+                (x1 - x0) * TILE_SIZE, (y1 - y0) * TILE_SIZE);
+        for (int y = y0; y < y1; y++) {
+            for (int x = x0; x < x1; x++) {
+                Tile.TileType type = map.getTileType(x, y);
+                if (type != null) {
+                    MapView.paintTile(gc, (x - cameraX) * TILE_SIZE, (y - cameraY) * TILE_SIZE, type);
+                }
+            }
+        }
+    }
+
+    /** @return Coin haut gauche de la caméra, en cases (X) */
+    public int getCameraX() { return cameraX; }
+
+    /** @return Coin haut gauche de la caméra, en cases (Y) */
+    public int getCameraY() { return cameraY; }
+}
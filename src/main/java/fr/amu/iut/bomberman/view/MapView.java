@@ -2,8 +2,9 @@ package fr.amu.iut.bomberman.view;
 
 import fr.amu.iut.bomberman.model.entities.Bomb;
 import fr.amu.iut.bomberman.model.entities.Player;
+import fr.amu.iut.bomberman.model.entities.PowerUpType;
 import fr.amu.iut.bomberman.model.game.GameEngine;
-import fr.amu.iut.bomberman.model.map.GameMap;
+import fr.amu.iut.bomberman.model.map.IMap;
 import fr.amu.iut.bomberman.model.map.Tile;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
@@ -15,11 +16,13 @@ import javafx.scene.text.FontWeight;
  * Composant graphique responsable du rendu visuel de la carte de jeu Bomberman.
  * Hérite de Canvas pour un affichage optimisé et personnalisé.
  * Gère l'affichage des tuiles, joueurs, bombes et explosions en temps réel.
+ * En arène géante, les tuiles sont confiées à une ChunkedMapView et cette vue,
+ * posée par-dessus, n'affiche que les bombes et les joueurs autour de la caméra.
  */
 public class MapView extends Canvas {
 
     /** Taille d'une tuile en pixels */
-    private static final int TILE_SIZE = 32;
+    static final int TILE_SIZE = 32;
 
     /** Taille d'affichage d'un joueur en pixels */
     private static final int PLAYER_SIZE = 24;
@@ -31,7 +34,10 @@ public class MapView extends Canvas {
     private final GameEngine gameEngine;
 
     /** Référence à la carte de jeu */
-    private final GameMap gameMap;
+    private final IMap gameMap;
+
+    /** Vue des tuiles de l'arène géante, null si cette vue dessine toute la carte */
+    private final ChunkedMapView tileView;
 
     /** Contexte graphique pour le dessin */
     private final GraphicsContext gc;
@@ -44,7 +50,8 @@ public class MapView extends Canvas {
      */
     public MapView(GameEngine gameEngine) {
         this.gameEngine = gameEngine;
-        this.gameMap = gameEngine.getGameMap();
+        this.gameMap = gameEngine.getMap();
+        this.tileView = null;
         this.gc = getGraphicsContext2D();
 
         setWidth(gameMap.getWidth() * TILE_SIZE);
@@ -53,12 +60,35 @@ public class MapView extends Canvas {
         gc.setFont(Font.font("Arial", FontWeight.BOLD, 12));
     }
 
+    /**
+     * Constructeur d'une vue d'arène géante : canvas transparent de la taille de la
+     * fenêtre des tuiles, à poser au même endroit. La caméra suit le joueur 1.
+     *
+     * @param gameEngine Le moteur de jeu contenant les données à afficher
+     * @param tileView Vue des tuiles de la carte du moteur
+     */
+    public MapView(GameEngine gameEngine, ChunkedMapView tileView) {
+        this.gameEngine = gameEngine;
+        this.gameMap = gameEngine.getMap();
+        this.tileView = tileView;
+        this.gc = getGraphicsContext2D();
+
+        setWidth(tileView.getWidth());
+        setHeight(tileView.getHeight());
+
+        gc.setFont(Font.font("Arial", FontWeight.BOLD, 12));
+    }
+
     /**
      * Met à jour l'affichage complet de la carte.
      * Redessine tous les éléments : carte, bombes, joueurs.
      * Appelée à chaque frame pour un rendu en temps réel.
      */
     public void update() {
+        if (tileView != null) {
+            updateArena();
+            return;
+        }
         gc.clearRect(0, 0, getWidth(), getHeight());
 
         drawMap();
@@ -66,6 +96,38 @@ public class MapView extends Canvas {
         drawPlayers();
     }
 
+    /**
+     * Met à jour l'affichage d'une arène géante : recentre la caméra sur le joueur 1
+     * (ou le premier joueur vivant), laisse la vue des tuiles redessiner ses blocs modifiés,
+     * puis dessine les entités décalées de la caméra.
+     */
+    private void updateArena() {
+        Player followed = null;
+        for (Player player : gameEngine.getPlayers()) {
+            if (player.isAlive() && (followed == null || player.getId() == 0)) followed = player;
+        }
+        if (followed != null) {
+            tileView.centerOn(followed.getGridX(), followed.getGridY());
+        }
+        tileView.update();
+
+        gc.clearRect(0, 0, getWidth(), getHeight());
+        int cameraX = tileView.getCameraX();
+        int cameraY = tileView.getCameraY();
+        gc.save();
+        gc.translate(-cameraX * TILE_SIZE, -cameraY * TILE_SIZE);
+        int columns = (int) (getWidth() / TILE_SIZE);
+        int rows = (int) (getHeight() / TILE_SIZE);
+        for (int y = cameraY; y < cameraY + rows; y++) {
+            for (int x = cameraX; x < cameraX + columns; x++) {
+                if (gameMap.getTileType(x, y) == Tile.TileType.POWERUP) drawPowerUpSymbol(x, y);
+            }
+        }
+        drawBombs();
+        drawPlayers();
+        gc.restore();
+    }
+
     /**
      * Dessine toutes les tuiles de la carte de jeu.
      * Parcourt la grille et affiche chaque tuile selon son type.
@@ -73,9 +135,9 @@ public class MapView extends Canvas {
     private void drawMap() {
         for (int y = 0; y < gameMap.getHeight(); y++) {
             for (int x = 0; x < gameMap.getWidth(); x++) {
-                Tile tile = gameMap.getTile(x, y);
-                if (tile != null) {
-                    drawTile(x, y, tile.getType());
+                Tile.TileType type = gameMap.getTileType(x, y);
+                if (type != null) {
+                    drawTile(x, y, type);
                 }
             }
         }
@@ -90,9 +152,37 @@ public class MapView extends Canvas {
      * @param type Type de la tuile à dessiner
      */
     private void drawTile(int x, int y, Tile.TileType type) {
-        double pixelX = x * TILE_SIZE;
-        double pixelY = y * TILE_SIZE;
+        paintTile(gc, x * TILE_SIZE, y * TILE_SIZE, type);
+        if (type == Tile.TileType.POWERUP) {
+            drawPowerUpSymbol(x, y);
+        }
+    }
+
+    /**
+     * Dessine la lettre du type de power-up d'une case.
+     *
+     * @param x Position X de la tuile sur la grille
+     * @param y Position Y de la tuile sur la grille
+     */
+    private void drawPowerUpSymbol(int x, int y) {
+        PowerUpType powerUp = gameEngine.getPowerUp(x, y);
+        if (powerUp != null) {
+            gc.setFill(Color.BLACK);
+            gc.fillText(String.valueOf(powerUp.getSymbol()), x * TILE_SIZE + TILE_SIZE / 2.0 - 4,
+                    y * TILE_SIZE + TILE_SIZE / 2.0 + 4);
+        }
+    }
 
+    /**
+     * Peint une tuile à une position en pixels, dans le style de la carte.
+     * Partagé avec ChunkedMapView.
+     *
+     * @param gc Contexte graphique
+     * @param pixelX Position X en pixels
+     * @param pixelY Position Y en pixels
+     * @param type Type de la tuile à dessiner
+     */
+    static void paintTile(GraphicsContext gc, double pixelX, double pixelY, Tile.TileType type) {
         switch (type) {
             case FLOOR:
                 // Sol vert comme dans l'image
@@ -137,6 +227,14 @@ public class MapView extends Canvas {
                 gc.fillOval(pixelX + 8, pixelY + 8, TILE_SIZE - 16, TILE_SIZE - 16);
                 break;
 
+            case POWERUP:
+                // Power-up doré sur le sol
+                gc.setFill(Color.rgb(34, 139, 34));
+                gc.fillRect(pixelX, pixelY, TILE_SIZE, TILE_SIZE);
+                gc.setFill(Color.rgb(255, 215, 0)); // Gold
+                gc.fillRoundRect(pixelX + 5, pixelY + 5, TILE_SIZE - 10, TILE_SIZE - 10, 8, 8);
+                break;
+
             default:
                 gc.setFill(Color.WHITE);
                 gc.fillRect(pixelX, pixelY, TILE_SIZE, TILE_SIZE);
@@ -153,6 +251,7 @@ public class MapView extends Canvas {
      * Inclut les animations de clignotement avant explosion.
      */
     private void drawBombs() {
+        long now = gameEngine.getGameTime();
         for (Bomb bomb : gameEngine.getBombs()) {
             double pixelX = bomb.getX() * TILE_SIZE;
             double pixelY = bomb.getY() * TILE_SIZE;
@@ -161,7 +260,7 @@ public class MapView extends Canvas {
             double bombY = pixelY + (TILE_SIZE - BOMB_SIZE) / 2;
 
             // Animation de clignotement
-            double timeProgress = bomb.getTimeProgress();
+            double timeProgress = bomb.getTimeProgress(now);
             boolean isBlinking = timeProgress > 0.6 && ((System.currentTimeMillis() / 200) % 2 == 0);
 
             if (!isBlinking) {
@@ -279,7 +378,7 @@ public class MapView extends Canvas {
      * @return Largeur de la vue
      */
     public double getViewWidth() {
-        return gameMap.getWidth() * TILE_SIZE;
+        return getWidth();
     }
 
     /**
@@ -288,6 +387,6 @@ public class MapView extends Canvas {
      * @return Hauteur de la vue
      */
     public double getViewHeight() {
-        return gameMap.getHeight() * TILE_SIZE;
+        return getHeight();
     }
 }
\ No newline at end of file
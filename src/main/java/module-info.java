@@ -9,6 +9,10 @@ module MVP {
     requires java.desktop;
 
     requires java.prefs;
+    requires java.management;
+
+    // Sérialisation des profils
+    requires com.google.gson;
 
     exports fr.amu.iut.bomberman.model.entities to javafx.fxml, javafx.graphics;
     opens fr.amu.iut.bomberman.model.entities to javafx.fxml;
@@ -16,6 +20,8 @@ module MVP {
     opens fr.amu.iut.bomberman.model.game to javafx.fxml;
     exports fr.amu.iut.bomberman.model.map to javafx.fxml, javafx.graphics;
     opens fr.amu.iut.bomberman.model.map to javafx.fxml;
+    exports fr.amu.iut.bomberman.model.profile to javafx.fxml, javafx.graphics;
+    opens fr.amu.iut.bomberman.model.profile to javafx.fxml, com.google.gson;
     exports fr.amu.iut.bomberman.model.common to javafx.fxml, javafx.graphics;
     opens fr.amu.iut.bomberman.model.common to javafx.fxml;
     exports fr.amu.iut.bomberman.view to javafx.fxml, javafx.graphics;
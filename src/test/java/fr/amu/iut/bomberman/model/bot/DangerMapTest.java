@@ -0,0 +1,46 @@
+package fr.amu.iut.bomberman.model.bot;
+
+import fr.amu.iut.bomberman.model.common.GameLog;
+import fr.amu.iut.bomberman.model.game.GameEngine;
+import fr.amu.iut.bomberman.model.map.GameMap;
+import fr.amu.iut.bomberman.model.map.MapFile;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Souffle prévu par la carte des dangers, comparé à celui du moteur.
+ */
+class DangerMapTest {
+
+    @BeforeAll
+    static void quiet() {
+        GameLog.setEnabled(false);
+    }
+
+    @Test
+    void blastStopsOnPowerUpLikeTheEngine() throws IOException {
+        // Portée 2 : sans le power-up, le souffle atteindrait (3,1)
+        GameEngine engine = new GameEngine(new GameMap(MapFile.parseText(List.of(
+                "########",
+                "#1+...2#",
+                "########"))));
+        DangerMap[] seen = new DangerMap[1];
+        engine.addBot(new BotController() {
+            @Override public int getPlayerId() { return 1; }
+            @Override public void act(GameEngine e, DangerMap danger) { seen[0] = danger; }
+        });
+        engine.startGame(2);
+        engine.placeBomb(0);
+        engine.update(1.0 / GameEngine.TICK_RATE);
+
+        DangerMap danger = seen[0];
+        assertTrue(danger.getTicksUntilBlast(2, 1) != DangerMap.SAFE);
+        assertEquals(DangerMap.SAFE, danger.getTicksUntilBlast(3, 1));
+    }
+}
@@ -0,0 +1,90 @@
+package fr.amu.iut.bomberman.model.game;
+
+import fr.amu.iut.bomberman.model.common.GameLog;
+import fr.amu.iut.bomberman.model.common.Position;
+import fr.amu.iut.bomberman.model.entities.Player;
+import fr.amu.iut.bomberman.model.entities.PowerUpType;
+import fr.amu.iut.bomberman.model.map.GameMap;
+import fr.amu.iut.bomberman.model.map.MapFile;
+import fr.amu.iut.bomberman.model.map.Tile;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Power-ups posés par un fichier de carte : type tiré de la case, ramassage, copie et
+ * sauvegarde de l'état.
+ */
+class GameEnginePowerUpTest {
+
+    @BeforeAll
+    static void quiet() {
+        GameLog.setEnabled(false);
+    }
+
+    private static GameEngine arena() throws IOException {
+        MapFile file = MapFile.parseText(List.of(
+                "#######",
+                "#1+..2#",
+                "#######"));
+        GameEngine engine = new GameEngine(new GameMap(file));
+        engine.startGame(2);
+        return engine;
+    }
+
+    @Test
+    void placedPowerUpHasAStableType() throws IOException {
+        GameEngine engine = arena();
+        PowerUpType type = engine.getPowerUp(2, 1);
+        assertNotNull(type);
+        assertEquals(type, engine.getPowerUp(2, 1));
+        assertEquals(type, arena().getPowerUp(2, 1));
+        assertNull(engine.getPowerUp(3, 1));
+    }
+
+    @Test
+    void placedPowerUpIsCollected() throws IOException {
+        GameEngine engine = arena();
+        PowerUpType type = engine.getPowerUp(2, 1);
+        List<PowerUpType> collected = new ArrayList<>();
+        engine.setEventListener(new GameEngine.GameEventListener() {
+            @Override public void onPlayerMoved(int playerId, Position newPosition) {}
+            @Override public void onBombPlaced(Position position, int playerId) {}
+            @Override public void onBombExploded(Position position) {}
+            @Override public void onPlayerDied(int playerId) {}
+            @Override public void onGameEnded(Player winner) {}
+            @Override public void onBlockDestroyed(Position position) {}
+            @Override public void onPowerUpCollected(int playerId, PowerUpType powerUp) {
+                collected.add(powerUp);
+            }
+        });
+
+        engine.movePlayer(0, 1, 0);
+        engine.update(1.0 / GameEngine.TICK_RATE);
+
+        assertEquals(List.of(type), collected);
+        assertEquals(Tile.TileType.FLOOR, engine.getGameMap().getTile(2, 1).getType());
+        assertNull(engine.getPowerUp(2, 1));
+    }
+
+    @Test
+    void copiesAndSavedStatesKeepPowerUps() throws IOException {
+        GameEngine engine = arena();
+        PowerUpType type = engine.getPowerUp(2, 1);
+
+        assertEquals(type, new GameEngine(engine).getPowerUp(2, 1));
+
+        GameEngine restored = arena();
+        restored.movePlayer(0, 1, 0);
+        restored.update(1.0 / GameEngine.TICK_RATE);
+        restored.restoreState(engine.saveState());
+        assertEquals(type, restored.getPowerUp(2, 1));
+    }
+}
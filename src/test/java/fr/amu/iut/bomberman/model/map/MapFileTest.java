@@ -0,0 +1,92 @@
+package fr.amu.iut.bomberman.model.map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Aller-retour des arènes entre le format texte et le format binaire BMAP.
+ */
+class MapFileTest {
+
+    private static final List<String> ARENA = List.of(
+            "#########",
+            "#1..*..2#",
+            "#.#+#*#.#",
+            "#*.....*#",
+            "#3..+..4#",
+            "#########");
+
+    private static String text(List<String> rows) {
+        return String.join("\n", rows) + "\n";
+    }
+
+    private static byte[] cells(MapFile arena) {
+        return arena.generate(arena.getWidth(), arena.getHeight(), 0);
+    }
+
+    @Test
+    void textRoundTrip() throws IOException {
+        MapFile arena = MapFile.parseText(ARENA);
+        assertEquals(9, arena.getWidth());
+        assertEquals(6, arena.getHeight());
+        assertEquals(4, arena.getSpawnCount());
+        assertEquals(text(ARENA), arena.toText());
+        assertEquals(Tile.TileType.POWERUP.ordinal(), cells(arena)[2 * 9 + 3]);
+    }
+
+    @Test
+    void binaryRoundTrip() throws IOException {
+        MapFile arena = MapFile.parseText(ARENA);
+        MapFile decoded = MapFile.decode(arena.encode());
+
+        assertEquals(arena.getWidth(), decoded.getWidth());
+        assertEquals(arena.getHeight(), decoded.getHeight());
+        assertEquals(arena.getSpawnCount(), decoded.getSpawnCount());
+        for (int i = 0; i < arena.getSpawnCount(); i++) {
+            assertEquals(arena.getSpawn(i, 9, 6), decoded.getSpawn(i, 9, 6));
+        }
+        assertArrayEquals(cells(arena), cells(decoded));
+        assertEquals(text(ARENA), decoded.toText());
+    }
+
+    @Test
+    void fileRoundTrip(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("arena.bmap");
+        MapFile.parseText(ARENA).write(file);
+
+        assertEquals(text(ARENA), MapFile.read(file).toText());
+        assertEquals(text(ARENA), MapFile.open(file).toText());
+    }
+
+    @Test
+    void malformedArenasAreRejected() throws IOException {
+        ByteBuffer badMagic = ByteBuffer.allocate(16).putInt(0x12345678);
+        badMagic.flip();
+        assertThrows(IOException.class, () -> MapFile.decode(badMagic));
+
+        ByteBuffer truncated = MapFile.parseText(ARENA).encode();
+        truncated.limit(truncated.limit() - 1);
+        assertThrows(IOException.class, () -> MapFile.decode(truncated));
+
+        assertThrows(IOException.class, () -> MapFile.parseText(List.of("#1#", "#2")));
+        assertThrows(IOException.class, () -> MapFile.parseText(List.of("#1?2#")));
+        assertThrows(IOException.class, () -> MapFile.parseText(List.of("#2..#")));
+    }
+
+    @Test
+    void readTextMatchesParseText(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("arena.txt");
+        Files.writeString(file, text(ARENA));
+        assertEquals(text(ARENA), MapFile.readText(file).toText());
+    }
+}
@@ -0,0 +1,165 @@
+package fr.amu.iut.bomberman.model.replay;
+
+import fr.amu.iut.bomberman.model.common.GameLog;
+import fr.amu.iut.bomberman.model.entities.Player;
+import fr.amu.iut.bomberman.model.game.GameEngine;
+import fr.amu.iut.bomberman.model.map.GameMap;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Aller-retour des replays BMRP v2 : une partie enregistrée puis rejouée, depuis un
+ * fichier ou une archive, aboutit au même état que la partie en direct.
+ */
+class ReplayTest {
+
+    private static final long SEED = 42;
+
+    @BeforeAll
+    static void quiet() {
+        GameLog.setEnabled(false);
+    }
+
+    /**
+     * Résume l'état observable d'un moteur : tuiles, joueurs, bombes, explosions et tick.
+     */
+    private static String state(GameEngine engine) {
+        StringBuilder sb = new StringBuilder();
+        GameMap map = engine.getGameMap();
+        for (int y = 0; y < map.getHeight(); y++) {
+            for (int x = 0; x < map.getWidth(); x++) {
+                sb.append(map.getTileType(x, y).ordinal());
+            }
+        }
+        for (Player player : engine.getPlayers()) {
+            sb.append('|').append(player.getGridX()).append(',').append(player.getGridY())
+                    .append(',').append(player.isAlive()).append(',').append(player.getMaxBombs())
+                    .append(',').append(player.getExplosionRange());
+        }
+        sb.append('|').append(engine.getBombs().size()).append('|').append(engine.getExplosions().size())
+                .append('|').append(engine.getCurrentTick());
+        return sb.toString();
+    }
+
+    private static GameEngine newGame() {
+        GameEngine engine = new GameEngine(new GameMap(15, 13, SEED));
+        engine.setPowerUpsEnabled(true);
+        engine.initializeGame(4, SEED);
+        return engine;
+    }
+
+    /**
+     * Joue une partie aux entrées pseudo-aléatoires, jusqu'à {@code ticks} ou la fin de la partie.
+     */
+    private static void play(GameEngine engine, long ticks) {
+        Random random = new Random(SEED);
+        for (long t = 0; t < ticks && engine.isGameRunning(); t++) {
+            for (int p = 0; p < 4; p++) {
+                if (random.nextInt(12) == 0) engine.movePlayer(p, random.nextInt(3) - 1, random.nextInt(3) - 1);
+                if (random.nextInt(3000) == 0) engine.placeBomb(p);
+            }
+            engine.update(1.0 / GameEngine.TICK_RATE);
+        }
+    }
+
+    @Test
+    void fileRoundTrip(@TempDir Path dir) throws Exception {
+        GameEngine engine = newGame();
+        Path file = dir.resolve("partie.bmr");
+        ReplayRecorder recorder = new ReplayRecorder(file, engine, SEED, 4);
+        play(engine, 3L * ReplayRecorder.KEYFRAME_INTERVAL);
+        recorder.finish().get();
+
+        Replay replay = Replay.read(file);
+        assertEquals(SEED, replay.getSeed());
+        assertEquals(15, replay.getWidth());
+        assertEquals(13, replay.getHeight());
+        assertEquals(4, replay.getPlayerCount());
+        assertTrue(replay.isPowerUpsEnabled());
+        assertEquals(GameEngine.TICK_RATE, replay.getTickRate());
+        assertEquals(engine.getCurrentTick(), replay.getFinalTick());
+        assertTrue(replay.getFinalTick() > ReplayRecorder.KEYFRAME_INTERVAL);
+        assertEquals(replay.getFinalTick() / ReplayRecorder.KEYFRAME_INTERVAL, replay.getKeyframeCount());
+
+        ReplayPlayer player = new ReplayPlayer(replay);
+        player.playToEnd();
+        assertTrue(player.isFinished());
+        assertEquals(state(engine), state(player.getGameEngine()));
+    }
+
+    @Test
+    void seekMatchesSequentialPlayback(@TempDir Path dir) throws Exception {
+        GameEngine engine = newGame();
+        Path file = dir.resolve("partie.bmr");
+        ReplayRecorder recorder = new ReplayRecorder(file, engine, SEED, 4);
+        play(engine, 3L * ReplayRecorder.KEYFRAME_INTERVAL);
+        recorder.finish().get();
+        Replay replay = Replay.read(file);
+
+        long target = Math.min(replay.getFinalTick(), ReplayRecorder.KEYFRAME_INTERVAL + 37);
+        ReplayPlayer sequential = new ReplayPlayer(replay);
+        while (sequential.getGameEngine().getCurrentTick() < target && sequential.step()) {
+            // Lecture tick par tick jusqu'à la cible
+        }
+        ReplayPlayer seeking = new ReplayPlayer(replay);
+        seeking.seek(target);
+
+        assertEquals(state(sequential.getGameEngine()), state(seeking.getGameEngine()));
+    }
+
+    @Test
+    void archiveRoundTrip(@TempDir Path dir) throws Exception {
+        GameEngine engine = newGame();
+        try (ReplayArchive archive = new ReplayArchive(dir)) {
+            ReplayRecorder recorder = new ReplayRecorder(archive, 7, engine, SEED, 4);
+            play(engine, ReplayRecorder.KEYFRAME_INTERVAL + 100);
+            recorder.finish().get();
+
+            assertEquals(1, archive.size());
+            assertEquals(7, archive.getLastMatchId());
+            ReplayPlayer player = new ReplayPlayer(archive.find(7));
+            player.playToEnd();
+            assertEquals(state(engine), state(player.getGameEngine()));
+        }
+    }
+
+    @Test
+    void varLongRoundTrip() {
+        long[] values = {0, 1, 127, 128, 300, Integer.MAX_VALUE, Long.MAX_VALUE};
+        ByteBuffer buffer = ByteBuffer.allocate(values.length * 10);
+        for (long value : values) {
+            Replay.writeVarLong(buffer, value);
+        }
+        buffer.flip();
+        for (long value : values) {
+            assertEquals(value, Replay.readVarLong(buffer));
+        }
+    }
+
+    @Test
+    void foreignAndTruncatedFilesAreRejected(@TempDir Path dir) throws Exception {
+        ByteBuffer foreign = ByteBuffer.allocate(32).putInt(0x424D4150);
+        foreign.flip();
+        assertThrows(IOException.class, () -> Replay.decode(foreign));
+
+        GameEngine engine = newGame();
+        Path file = dir.resolve("partie.bmr");
+        ReplayRecorder recorder = new ReplayRecorder(file, engine, SEED, 4);
+        play(engine, 200);
+        recorder.finish().get();
+        byte[] bytes = Files.readAllBytes(file);
+        ByteBuffer truncated = ByteBuffer.wrap(bytes, 0, bytes.length - 6).slice();
+        assertThrows(IOException.class, () -> Replay.decode(truncated));
+    }
+}
@@ -0,0 +1,120 @@
+package fr.amu.iut.bomberman.model.telemetry;
+
+import fr.amu.iut.bomberman.model.common.GameLog;
+import fr.amu.iut.bomberman.model.entities.PowerUpType;
+import fr.amu.iut.bomberman.model.game.GameEngine;
+import fr.amu.iut.bomberman.model.game.GameEvent;
+import fr.amu.iut.bomberman.model.game.GameEventBus;
+import fr.amu.iut.bomberman.model.map.GameMap;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Aller-retour de la télémétrie : les événements publiés par le moteur sur le bus,
+ * écrits par une TelemetrySink, sont relus à l'identique par le TelemetryReader.
+ */
+class TelemetryTest {
+
+    /** Délai maximal de livraison des lots par le bus */
+    private static final long DRAIN_TIMEOUT_MS = 5000;
+
+    @BeforeAll
+    static void quiet() {
+        GameLog.setEnabled(false);
+    }
+
+    private static String line(long tick, GameEvent.Type type, int playerId, int x, int y, PowerUpType powerUp) {
+        return tick + " " + type + " " + playerId + " " + x + " " + y + " " + powerUp;
+    }
+
+    @Test
+    void recordedEventsAreReadBack(@TempDir Path dir) throws Exception {
+        long seed = 7;
+        GameEngine engine = new GameEngine(new GameMap(15, 13, seed));
+        engine.setPowerUpsEnabled(true);
+        engine.initializeGame(4, seed);
+        GameEventBus bus = new GameEventBus(engine::getPlayer);
+        engine.setEventListener(bus);
+
+        List<String> published = Collections.synchronizedList(new ArrayList<>());
+        List<Long> publishedTicks = Collections.synchronizedList(new ArrayList<>());
+        bus.subscribe(new GameEventBus.Subscriber() {
+            @Override
+            public void onEvent(GameEvent event) {
+                published.add(line(event.getTick(), event.getType(), event.getPlayerId(),
+                        event.getX(), event.getY(), event.getPowerUp()));
+            }
+
+            @Override
+            public void onTickCompleted(long tick, long nanos) {
+                publishedTicks.add(tick);
+            }
+        }, GameEvent.Type.PLAYER_MOVED, GameEvent.Type.BOMB_PLACED, GameEvent.Type.PLAYER_DIED,
+                GameEvent.Type.BLOCK_DESTROYED, GameEvent.Type.POWERUP_COLLECTED, GameEvent.Type.GAME_ENDED);
+
+        Path file = dir.resolve("partie.bmt");
+        TelemetrySink sink = new TelemetrySink(file, bus);
+        Random random = new Random(3);
+        for (int t = 0; t < 20 * GameEngine.TICK_RATE && engine.isGameRunning(); t++) {
+            for (int p = 0; p < 4; p++) {
+                if (random.nextInt(8) == 0) engine.movePlayer(p, random.nextInt(3) - 1, random.nextInt(3) - 1);
+                if (random.nextInt(400) == 0) engine.placeBomb(p);
+            }
+            engine.update(1.0 / GameEngine.TICK_RATE);
+        }
+
+        long deadline = System.currentTimeMillis() + DRAIN_TIMEOUT_MS;
+        while (bus.getPendingBatches() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        sink.finish().get(DRAIN_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        bus.close();
+
+        List<String> read = new ArrayList<>();
+        List<Long> readTicks = new ArrayList<>();
+        int tickRate = TelemetryReader.read(file, new TelemetryReader.Visitor() {
+            @Override
+            public void onEvent(long tick, GameEvent.Type type, int playerId, int x, int y,
+                                PowerUpType powerUp, int sampleRate) {
+                assertEquals(1, sampleRate);
+                read.add(line(tick, type, playerId, x, y, powerUp));
+            }
+
+            @Override
+            public void onTick(long tick, long micros, int sampleRate) {
+                assertEquals(1, sampleRate);
+                readTicks.add(tick);
+            }
+        });
+
+        assertEquals(GameEngine.TICK_RATE, tickRate);
+        assertEquals(0, sink.getDroppedEvents());
+        assertFalse(published.isEmpty());
+        assertTrue(published.stream().anyMatch(event -> event.contains(" BOMB_PLACED ")));
+        assertEquals(published, read);
+        assertEquals(publishedTicks, readTicks);
+        assertEquals(sink.getRecordedEvents(), read.size());
+    }
+
+    @Test
+    void foreignFilesAreRejected(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("autre.bmt");
+        Files.write(file, new byte[]{'B', 'M', 'R', 'P', 2, 0, 120});
+        assertThrows(IOException.class, () -> TelemetryReader.read(file, null));
+    }
+}
@@ -0,0 +1,117 @@
+package fr.amu.iut.bomberman.server;
+
+import fr.amu.iut.bomberman.model.common.GameLog;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Distribution des ticks par le MatchHost : ticks exécutés, retard borné à MAX_BACKLOG
+ * et partie en erreur retirée.
+ */
+class MatchHostTest {
+
+    /** Délai maximal d'attente d'un tick exécuté par le pool */
+    private static final long TIMEOUT_MS = 5000;
+
+    private final MatchHost host = new MatchHost(TickScheduler.TICK_HZ, 1);
+
+    @BeforeAll
+    static void quiet() {
+        GameLog.setEnabled(false);
+    }
+
+    @AfterEach
+    void stopHost() {
+        host.shutdown();
+    }
+
+    private static List<LobbySession> twoSessions() {
+        return List.of(new LobbySession(null, null), new LobbySession(null, null));
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+
+    @Test
+    void everyDispatchTicksTheMatchOnce() throws Exception {
+        LobbyMatch match = new LobbyMatch(1, twoSessions(), new InMemoryPlayerHistory());
+        host.register(match);
+
+        for (int i = 0; i < 10; i++) {
+            host.dispatch();
+            int expected = i + 1;
+            await(() -> host.getMetrics(1).getTicks() == expected);
+        }
+        assertEquals(10, match.getGameEngine().getCurrentTick());
+        assertEquals(0, host.getSkippedTicks());
+    }
+
+    @Test
+    void aStalledMatchKeepsAtMostMaxBacklogTicks() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger ticks = new AtomicInteger();
+        LobbyMatch match = new LobbyMatch(1, twoSessions(), new InMemoryPlayerHistory()) {
+            @Override
+            public boolean tick(double deltaTime) {
+                try {
+                    release.await(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                ticks.incrementAndGet();
+                return true;
+            }
+        };
+        host.register(match);
+
+        int dispatches = MatchHost.MAX_BACKLOG + 6;
+        for (int i = 0; i < dispatches; i++) {
+            host.dispatch();
+        }
+        assertEquals(dispatches - MatchHost.MAX_BACKLOG, host.getSkippedTicks());
+
+        release.countDown();
+        await(() -> host.getMetrics(1).getTicks() == MatchHost.MAX_BACKLOG);
+        assertEquals(MatchHost.MAX_BACKLOG, ticks.get());
+    }
+
+    @Test
+    void aMatchThrowingAnErrorIsAbortedAndRemoved() throws Exception {
+        AtomicInteger aborts = new AtomicInteger();
+        LobbyMatch match = new LobbyMatch(1, twoSessions(), new InMemoryPlayerHistory()) {
+            @Override
+            public boolean tick(double deltaTime) {
+                throw new AssertionError("tick en erreur");
+            }
+
+            @Override
+            public void abort() {
+                aborts.incrementAndGet();
+                super.abort();
+            }
+        };
+        host.register(match);
+
+        host.dispatch();
+        await(() -> aborts.get() == 1 && host.getActiveMatchCount() == 0);
+        host.dispatch();
+        assertNull(host.findMatch(1));
+        assertEquals(1, aborts.get());
+    }
+}
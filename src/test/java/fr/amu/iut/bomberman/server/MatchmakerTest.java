@@ -0,0 +1,169 @@
+package fr.amu.iut.bomberman.server;
+
+import fr.amu.iut.bomberman.model.map.ClassicMapGenerator;
+import fr.amu.iut.bomberman.model.map.MapPool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Matchmaking de bout en bout à travers un lobby local : file, sortie de file,
+ * appariement de deux joueurs et réserve de cartes vide.
+ */
+class MatchmakerTest {
+
+    /** Délai de lecture d'une réponse du serveur */
+    private static final int READ_TIMEOUT_MS = 5000;
+
+    private LobbyServer server;
+    private final List<Client> clients = new ArrayList<>();
+
+    /**
+     * Client texte minimal du lobby.
+     */
+    private static class Client implements AutoCloseable {
+        final Socket socket;
+        final BufferedReader reader;
+        final Writer writer;
+
+        Client(int port) throws IOException {
+            socket = new Socket(InetAddress.getLoopbackAddress(), port);
+            socket.setSoTimeout(READ_TIMEOUT_MS);
+            reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            writer = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8);
+        }
+
+        void send(String... lines) throws IOException {
+            for (String line : lines) {
+                writer.write(line);
+                writer.write('\n');
+            }
+            writer.flush();
+        }
+
+        String read() throws IOException {
+            return reader.readLine();
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = new LobbyServer(0, 2, new InMemoryPlayerHistory());
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() throws IOException {
+        for (Client client : clients) {
+            client.close();
+        }
+        server.close();
+    }
+
+    private Client connect(String name) throws IOException {
+        Client client = new Client(server.getPort());
+        clients.add(client);
+        client.send("HELLO " + name);
+        assertTrue(client.read().startsWith("WELCOME " + name));
+        return client;
+    }
+
+    private void awaitWaitingCount(int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + READ_TIMEOUT_MS;
+        while (server.getMatchmaker().getWaitingCount() != expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(expected, server.getMatchmaker().getWaitingCount());
+    }
+
+    @Test
+    void requeueAfterLeaveKeepsASingleEntry() throws Exception {
+        Client alice = connect("alice");
+        // Les trois commandes arrivent avant la passe suivante : les deux demandes sont en file
+        alice.send("QUEUE", "LEAVE", "QUEUE");
+        assertEquals("QUEUED", alice.read());
+        assertEquals("LEFT", alice.read());
+        assertEquals("QUEUED", alice.read());
+
+        awaitWaitingCount(1);
+        // Plusieurs passes plus tard, la session n'a pas été appariée avec elle-même
+        Thread.sleep(600);
+        assertEquals(1, server.getMatchmaker().getWaitingCount());
+        alice.socket.setSoTimeout(200);
+        assertThrows(SocketTimeoutException.class, alice::read);
+    }
+
+    @Test
+    void twoQueuedPlayersAreMatchedTogether() throws Exception {
+        Client alice = connect("alice");
+        Client bob = connect("bob");
+        alice.send("QUEUE", "LEAVE", "QUEUE");
+        assertEquals("QUEUED", alice.read());
+        assertEquals("LEFT", alice.read());
+        assertEquals("QUEUED", alice.read());
+        bob.send("QUEUE");
+        assertEquals("QUEUED", bob.read());
+
+        String[] aliceMatch = alice.read().split(" ");
+        String[] bobMatch = bob.read().split(" ");
+        assertEquals("MATCH", aliceMatch[0]);
+        assertEquals("MATCH", bobMatch[0]);
+        assertEquals(aliceMatch[1], bobMatch[1]);
+        assertNotEquals(aliceMatch[2], bobMatch[2]);
+        awaitWaitingCount(0);
+    }
+
+    @Test
+    void emptyMapPoolDefersTheMatchWithoutBlockingTheTickThread() throws Exception {
+        CountDownLatch generatorReleased = new CountDownLatch(1);
+        ClassicMapGenerator classic = new ClassicMapGenerator();
+        try (MapPool pool = new MapPool(LobbyMatch.MAP_WIDTH, LobbyMatch.MAP_HEIGHT, (width, height, seed, cells) -> {
+            try {
+                generatorReleased.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            classic.generate(width, height, seed, cells);
+        }, 1)) {
+            server.getMatchmaker().setMapPool(pool);
+            Client alice = connect("alice");
+            Client bob = connect("bob");
+            alice.send("QUEUE");
+            bob.send("QUEUE");
+            assertEquals("QUEUED", alice.read());
+            assertEquals("QUEUED", bob.read());
+
+            // Les passes se terminent sans carte : le groupe reste en file
+            awaitWaitingCount(2);
+            assertTrue(pool.getMissCount() > 0);
+
+            generatorReleased.countDown();
+            assertTrue(alice.read().startsWith("MATCH "));
+            assertTrue(bob.read().startsWith("MATCH "));
+            awaitWaitingCount(0);
+        }
+    }
+}
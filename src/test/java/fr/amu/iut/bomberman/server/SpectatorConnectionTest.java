@@ -0,0 +1,132 @@
+package fr.amu.iut.bomberman.server;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Flux reçu par un spectateur trop lent : le socket est bloqué au milieu d'une frame,
+ * les frames en attente sont abandonnées, et le spectateur doit recevoir une suite de
+ * frames entières avant de se resynchroniser sur la keyframe suivante.
+ */
+class SpectatorConnectionTest {
+
+    /** Taille des frames du test, bien au-delà des buffers du socket */
+    private static final int FRAME_SIZE = 64 * 1024;
+
+    /** En-tête d'une frame de test : numéro puis taille */
+    private static final int HEADER = 8;
+
+    private final DirectBufferPool pool = new DirectBufferPool(64);
+
+    private ServerSocketChannel server;
+    private SocketChannel client;
+    private SocketChannel accepted;
+    private Selector selector;
+
+    @BeforeEach
+    void connect() throws IOException {
+        server = ServerSocketChannel.open().bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        client = SocketChannel.open();
+        client.setOption(StandardSocketOptions.SO_RCVBUF, 4096);
+        client.connect(server.getLocalAddress());
+        accepted = server.accept();
+        accepted.configureBlocking(false);
+        accepted.setOption(StandardSocketOptions.SO_SNDBUF, 4096);
+        selector = Selector.open();
+    }
+
+    @AfterEach
+    void disconnect() throws IOException {
+        selector.close();
+        accepted.close();
+        client.close();
+        server.close();
+    }
+
+    @Test
+    void slowSpectatorReceivesOnlyWholeFrames() throws Exception {
+        SelectionKey key = accepted.register(selector, SelectionKey.OP_READ);
+        SpectatorConnection connection = new SpectatorConnection(accepted, key);
+
+        // Le client ne lit pas : la première frame reste entamée, les suivantes s'accumulent
+        // jusqu'à l'abandon de la file, puis la keyframe 100 resynchronise le spectateur
+        assertTrue(connection.offer(frame(0, true)));
+        for (int seq = 1; seq <= 40; seq++) {
+            assertTrue(connection.offer(frame(seq, false)));
+        }
+        assertTrue(connection.offer(frame(100, true)));
+        assertTrue(connection.offer(frame(101, false)));
+
+        ByteArrayOutputStream received = new ByteArrayOutputStream();
+        ByteBuffer chunk = ByteBuffer.allocate(8192);
+        client.configureBlocking(false);
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        List<Integer> frames = List.of();
+        while (System.nanoTime() < deadline) {
+            connection.flush();
+            chunk.clear();
+            int read = client.read(chunk);
+            if (read > 0) received.write(chunk.array(), 0, read);
+            frames = parseFrames(received.toByteArray());
+            if (!frames.isEmpty() && frames.get(frames.size() - 1) == 101) break;
+        }
+
+        assertEquals(0, frames.get(0), "La frame entamée doit être terminée, pas recommencée");
+        assertEquals(List.of(100, 101), frames.subList(frames.size() - 2, frames.size()));
+        for (int i = 1; i < frames.size(); i++) {
+            assertTrue(frames.get(i) > frames.get(i - 1), "Frames dans le désordre: " + frames);
+        }
+        connection.close();
+    }
+
+    /**
+     * Crée une frame de test : son numéro, sa taille, puis le numéro répété.
+     */
+    private SharedFrame frame(int seq, boolean keyframe) {
+        ByteBuffer buffer = pool.acquire(FRAME_SIZE);
+        buffer.clear();
+        buffer.putInt(seq);
+        buffer.putInt(FRAME_SIZE);
+        while (buffer.position() < FRAME_SIZE) {
+            buffer.put((byte) seq);
+        }
+        buffer.flip();
+        return new SharedFrame(buffer, pool, keyframe);
+    }
+
+    /**
+     * Découpe le flux reçu en frames entières et vérifie leur contenu octet par octet.
+     *
+     * @return Numéros des frames entières reçues
+     */
+    private static List<Integer> parseFrames(byte[] stream) {
+        List<Integer> seqs = new ArrayList<>();
+        ByteBuffer in = ByteBuffer.wrap(stream);
+        while (in.remaining() >= FRAME_SIZE) {
+            int seq = in.getInt();
+            assertEquals(FRAME_SIZE, in.getInt(), "En-tête corrompu après la frame " + seqs);
+            for (int i = HEADER; i < FRAME_SIZE; i++) {
+                assertEquals((byte) seq, in.get(), "Contenu corrompu dans la frame " + seq);
+            }
+            seqs.add(seq);
+        }
+        return seqs;
+    }
+}